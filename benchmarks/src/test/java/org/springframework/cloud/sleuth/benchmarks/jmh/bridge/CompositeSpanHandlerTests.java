@@ -0,0 +1,168 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.bridge;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.sleuth.brave.bridge.BraveFinishedSpan;
+import org.springframework.cloud.sleuth.brave.bridge.CompositeSpanHandler;
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.cloud.sleuth.exporter.SpanFilter;
+import org.springframework.cloud.sleuth.exporter.SpanReporter;
+
+/**
+ * Measures the cost of passing a finished span through the {@link CompositeSpanHandler}
+ * filter and reporter chain. Run with the JMH {@code gc} profiler ({@code -prof gc}) to
+ * compare the allocation per finished span of the {@code PER_CALL} handler, which wraps
+ * the span for every filter and reporter, with the {@code SHARED} one.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Microbenchmark
+public class CompositeSpanHandlerTests {
+
+	@Benchmark
+	public boolean should_pass_finished_span_through_filters_and_reporters(BenchmarkContext context) {
+		return context.handler.end(context.traceContext, context.span, SpanHandler.Cause.FINISHED);
+	}
+
+	public enum HandlerType {
+
+		/**
+		 * Wraps the span anew for each filter and reporter.
+		 */
+		PER_CALL,
+
+		/**
+		 * Shares one wrapper across all filters and reporters.
+		 */
+		SHARED
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		@Param
+		private HandlerType handlerType;
+
+		volatile SpanHandler handler;
+
+		volatile TraceContext traceContext;
+
+		volatile MutableSpan span;
+
+		int consumed;
+
+		@Setup
+		public void setup() {
+			List<SpanFilter> filters = Arrays.asList(span -> span.getTags().containsKey("http.path"),
+					span -> !span.getEvents().isEmpty());
+			SpanReporter reporter = span -> {
+				this.consumed += span.getTags().get("http.path").length();
+				this.consumed += span.getEvents().size();
+			};
+			List<SpanReporter> reporters = Arrays.asList(reporter, reporter, reporter);
+			this.handler = this.handlerType == HandlerType.SHARED ? new CompositeSpanHandler(filters, reporters)
+					: new PerCallSpanHandler(filters, reporters);
+			this.traceContext = TraceContext.newBuilder().traceId(1L).spanId(2L).sampled(true).build();
+			this.span = new MutableSpan(this.traceContext, null);
+			this.span.name("get /foo");
+			this.span.startTimestamp(1L);
+			this.span.finishTimestamp(2L);
+			this.span.tag("http.method", "GET");
+			this.span.tag("http.path", "/foo");
+			this.span.tag("mvc.controller.class", "FooController");
+			this.span.annotate(1L, "ws");
+			this.span.annotate(2L, "wr");
+		}
+
+	}
+
+	/**
+	 * Span handler that wraps the span in a new {@link FinishedSpan} for every filter and
+	 * reporter, with the tags and events copied on each access.
+	 */
+	static class PerCallSpanHandler extends SpanHandler {
+
+		private final List<SpanFilter> filters;
+
+		private final List<SpanReporter> reporters;
+
+		PerCallSpanHandler(List<SpanFilter> filters, List<SpanReporter> reporters) {
+			this.filters = filters;
+			this.reporters = reporters;
+		}
+
+		@Override
+		public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+			for (SpanFilter filter : this.filters) {
+				if (!filter.isExportable(new CopyingFinishedSpan(span))) {
+					return false;
+				}
+			}
+			this.reporters.forEach(r -> r.report(new CopyingFinishedSpan(span)));
+			return true;
+		}
+
+	}
+
+	static class CopyingFinishedSpan extends BraveFinishedSpan {
+
+		private final MutableSpan span;
+
+		CopyingFinishedSpan(MutableSpan span) {
+			super(span);
+			this.span = span;
+		}
+
+		@Override
+		public Map<String, String> getTags() {
+			return this.span.tags();
+		}
+
+		@Override
+		public Collection<Map.Entry<Long, String>> getEvents() {
+			return this.span.annotations();
+		}
+
+	}
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.bridge;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import brave.sampler.Sampler;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.sleuth.brave.sampler.ProbabilityBasedSampler;
+
+/**
+ * Shows how the throughput of the {@link ProbabilityBasedSampler} scales as threads are
+ * added, compared with the previous implementations that synchronized every decision or
+ * shared a single atomic counter.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Microbenchmark
+public class ProbabilityBasedSamplerTests {
+
+	@Benchmark
+	@Threads(1)
+	public boolean should_sample_with_1_thread(BenchmarkContext context) {
+		return context.sampler.isSampled(1L);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public boolean should_sample_with_4_threads(BenchmarkContext context) {
+		return context.sampler.isSampled(1L);
+	}
+
+	@Benchmark
+	@Threads(16)
+	public boolean should_sample_with_16_threads(BenchmarkContext context) {
+		return context.sampler.isSampled(1L);
+	}
+
+	@Benchmark
+	@Threads(64)
+	public boolean should_sample_with_64_threads(BenchmarkContext context) {
+		return context.sampler.isSampled(1L);
+	}
+
+	public enum SamplerType {
+
+		/**
+		 * One set of decisions guarded by a monitor.
+		 */
+		SYNCHRONIZED,
+
+		/**
+		 * One set of decisions walked with a single atomic counter.
+		 */
+		ATOMIC,
+
+		/**
+		 * The current {@link ProbabilityBasedSampler}, one set of decisions walked with
+		 * striped counters.
+		 */
+		STRIPED
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		@Param
+		private SamplerType samplerType;
+
+		volatile Sampler sampler;
+
+		@Setup
+		public void setup() {
+			switch (this.samplerType) {
+			case SYNCHRONIZED:
+				this.sampler = new SynchronizedSampler(0.1f);
+				break;
+			case ATOMIC:
+				this.sampler = new AtomicSampler(0.1f);
+				break;
+			default:
+				this.sampler = new ProbabilityBasedSampler(() -> 0.1f);
+			}
+		}
+
+	}
+
+	/**
+	 * Counting sampler that serializes all decisions on a single monitor.
+	 */
+	static class SynchronizedSampler extends Sampler {
+
+		private final AtomicInteger counter = new AtomicInteger(0);
+
+		private final BitSet sampleDecisions = new BitSet(100);
+
+		SynchronizedSampler(float probability) {
+			this.sampleDecisions.set(0, (int) (probability * 100.0f));
+		}
+
+		@Override
+		public boolean isSampled(long traceId) {
+			synchronized (this) {
+				final int i = this.counter.getAndIncrement();
+				boolean result = this.sampleDecisions.get(i);
+				if (i == 99) {
+					this.counter.set(0);
+				}
+				return result;
+			}
+		}
+
+	}
+
+	/**
+	 * Counting sampler whose threads all walk the decisions with one atomic counter.
+	 */
+	static class AtomicSampler extends Sampler {
+
+		private final AtomicInteger counter = new AtomicInteger(0);
+
+		private final BitSet sampleDecisions = new BitSet(100);
+
+		AtomicSampler(float probability) {
+			this.sampleDecisions.set(0, (int) (probability * 100.0f));
+		}
+
+		@Override
+		public boolean isSampled(long traceId) {
+			return this.sampleDecisions.get(Math.floorMod(this.counter.getAndIncrement(), 100));
+		}
+
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.bridge;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import brave.handler.MutableSpan;
+import brave.propagation.TraceContext;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.sleuth.brave.bridge.BraveFinishedSpan;
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.cloud.sleuth.exporter.SpanMetricsReporter;
+
+/**
+ * Measures the cost of deriving metrics from a finished span with the
+ * {@link SpanMetricsReporter} when many threads report spans of a few or of more span
+ * names than the limit.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Microbenchmark
+public class SpanMetricsReporterTests {
+
+	@Benchmark
+	public void should_record_finished_span(BenchmarkContext context) {
+		FinishedSpan[] spans = context.spans;
+		context.reporter.report(spans[ThreadLocalRandom.current().nextInt(spans.length)]);
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		@Param({ "10", "1000" })
+		private int spanNames;
+
+		volatile SpanMetricsReporter reporter;
+
+		volatile FinishedSpan[] spans;
+
+		@Setup
+		public void setup() {
+			this.reporter = new SpanMetricsReporter("foo", SpanMetricsReporter.DEFAULT_MAX_SPAN_NAMES,
+					SpanMetricsReporter.SeriesListener.NOOP);
+			TraceContext traceContext = TraceContext.newBuilder().traceId(1L).spanId(2L).sampled(false).build();
+			FinishedSpan[] spans = new FinishedSpan[this.spanNames];
+			for (int i = 0; i < spans.length; i++) {
+				MutableSpan span = new MutableSpan(traceContext, null);
+				span.name("get /foo/" + i);
+				span.kind(brave.Span.Kind.SERVER);
+				span.startTimestamp(1L);
+				span.finishTimestamp(1L + (i + 1) * 100L);
+				span.tag("http.method", "GET");
+				spans[i] = new BraveFinishedSpan(span);
+			}
+			this.spans = spans;
+		}
+
+	}
+
+}
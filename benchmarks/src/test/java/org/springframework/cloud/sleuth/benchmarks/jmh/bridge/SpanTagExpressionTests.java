@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.bridge;
+
+import java.util.concurrent.TimeUnit;
+
+import brave.CurrentSpanCustomizer;
+import brave.Tracing;
+import brave.handler.SpanHandler;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+import org.springframework.cloud.sleuth.SpanCustomizer;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.annotation.NewSpan;
+import org.springframework.cloud.sleuth.annotation.SpanTag;
+import org.springframework.cloud.sleuth.annotation.TagValueExpressionResolver;
+import org.springframework.cloud.sleuth.autoconfig.SleuthAnnotationConfiguration;
+import org.springframework.cloud.sleuth.brave.bridge.BraveBaggageManager;
+import org.springframework.cloud.sleuth.brave.bridge.BraveCurrentTraceContext;
+import org.springframework.cloud.sleuth.brave.bridge.BraveSpanCustomizer;
+import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
+import org.springframework.cloud.sleuth.instrument.annotation.ExpressionCacheMetrics;
+import org.springframework.cloud.sleuth.instrument.annotation.SpelTagValueExpressionResolver;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+
+/**
+ * Measures calling a {@link NewSpan} annotated method whose parameter is tagged with a
+ * SPEL expression. Compares parsing the expression on every call with the cached and the
+ * compiled expressions of the {@link SpelTagValueExpressionResolver}.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Microbenchmark
+public class SpanTagExpressionTests {
+
+	@Benchmark
+	public String should_call_annotated_method_with_expression_tag(BenchmarkContext context) {
+		return context.service.call(context.order);
+	}
+
+	public enum ResolverType {
+
+		/**
+		 * Parses the expression and creates the evaluation context for each call.
+		 */
+		UNCACHED,
+
+		/**
+		 * Reuses the parsed expressions.
+		 */
+		CACHED,
+
+		/**
+		 * Reuses the parsed expressions compiled to bytecode.
+		 */
+		COMPILED
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		@Param
+		private ResolverType resolverType;
+
+		volatile Tracing tracing;
+
+		volatile AnnotationConfigApplicationContext applicationContext;
+
+		volatile TaggedService service;
+
+		final Order order = new Order();
+
+		@Setup
+		public void setup() {
+			// a handler stops Brave from logging every span
+			this.tracing = Tracing.newBuilder().currentTraceContext(ThreadLocalCurrentTraceContext.create())
+					.addSpanHandler(new SpanHandler() {
+					}).build();
+			CurrentTraceContext currentTraceContext = new BraveCurrentTraceContext(this.tracing.currentTraceContext());
+			this.applicationContext = new AnnotationConfigApplicationContext();
+			this.applicationContext.registerBean(Tracer.class,
+					() -> new BraveTracer(this.tracing.tracer(), currentTraceContext, new BraveBaggageManager()));
+			this.applicationContext.registerBean(CurrentTraceContext.class, () -> currentTraceContext);
+			this.applicationContext.registerBean(SpanCustomizer.class,
+					() -> new BraveSpanCustomizer(CurrentSpanCustomizer.create(this.tracing)));
+			this.applicationContext.registerBean(TagValueExpressionResolver.class, this::resolver);
+			this.applicationContext.register(ProxyConfiguration.class, SleuthAnnotationConfiguration.class,
+					TaggedService.class);
+			this.applicationContext.refresh();
+			this.service = this.applicationContext.getBean(TaggedService.class);
+		}
+
+		private TagValueExpressionResolver resolver() {
+			switch (this.resolverType) {
+			case UNCACHED:
+				return new UncachedTagValueExpressionResolver();
+			case CACHED:
+				return new SpelTagValueExpressionResolver();
+			default:
+				return new SpelTagValueExpressionResolver(SpelTagValueExpressionResolver.DEFAULT_CACHE_SIZE,
+						SpelCompilerMode.IMMEDIATE, ExpressionCacheMetrics.NOOP);
+			}
+		}
+
+		@TearDown
+		public void tearDown() {
+			this.applicationContext.close();
+			this.tracing.close();
+		}
+
+	}
+
+	@EnableAspectJAutoProxy(proxyTargetClass = true)
+	static class ProxyConfiguration {
+
+	}
+
+	public static class TaggedService {
+
+		@NewSpan
+		public String call(@SpanTag(key = "customer", expression = "customer.name + '-' + id") Order order) {
+			return order.id;
+		}
+
+	}
+
+	public static class Order {
+
+		public String id = "order";
+
+		public Customer customer = new Customer();
+
+	}
+
+	public static class Customer {
+
+		public String name = "customer";
+
+	}
+
+	/**
+	 * Resolver that parses the expression on every call.
+	 */
+	static class UncachedTagValueExpressionResolver implements TagValueExpressionResolver {
+
+		@Override
+		public String resolve(String expression, Object parameter) {
+			SimpleEvaluationContext context = SimpleEvaluationContext.forReadOnlyDataBinding().build();
+			return new SpelExpressionParser().parseExpression(expression).getValue(context, parameter, String.class);
+		}
+
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.bridge;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import brave.Tracing;
+import brave.handler.SpanHandler;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanName;
+import org.springframework.cloud.sleuth.SpanNamer;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.brave.bridge.BraveBaggageManager;
+import org.springframework.cloud.sleuth.brave.bridge.BraveCurrentTraceContext;
+import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
+import org.springframework.cloud.sleuth.instrument.async.TraceRunnable;
+import org.springframework.cloud.sleuth.internal.DefaultSpanNamer;
+import org.springframework.core.annotation.AnnotationUtils;
+
+/**
+ * Measures submitting traced tasks to an executor, which names a span for every task.
+ * Compares the {@link DefaultSpanNamer}, that caches the naming information per class,
+ * with the previous implementation that looked up the annotation and built the default
+ * {@code toString()} on every call. Run with the JMH {@code gc} profiler
+ * ({@code -prof gc}) to compare the allocation per task.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Microbenchmark
+public class TraceRunnableTests {
+
+	@Benchmark
+	public int should_submit_traced_lambda(BenchmarkContext context) {
+		context.executor.execute(new TraceRunnable(context.tracer, context.spanNamer, context.lambda));
+		return context.counter;
+	}
+
+	@Benchmark
+	public int should_submit_traced_annotated_runnable(BenchmarkContext context) {
+		context.executor.execute(new TraceRunnable(context.tracer, context.spanNamer, context.annotated));
+		return context.counter;
+	}
+
+	public enum SpanNamerType {
+
+		/**
+		 * Resolves the span name from scratch for each task.
+		 */
+		UNCACHED,
+
+		/**
+		 * The current, caching {@link DefaultSpanNamer}.
+		 */
+		CACHED
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		@Param
+		private SpanNamerType spanNamerType;
+
+		volatile Tracing tracing;
+
+		volatile Tracer tracer;
+
+		volatile SpanNamer spanNamer;
+
+		final Executor executor = Runnable::run;
+
+		int counter;
+
+		final Runnable lambda = () -> this.counter++;
+
+		final Runnable annotated = new AnnotatedRunnable(this);
+
+		Span parent;
+
+		Tracer.SpanInScope scope;
+
+		@Setup
+		public void setup() {
+			// a handler stops Brave from logging every span
+			this.tracing = Tracing.newBuilder().currentTraceContext(ThreadLocalCurrentTraceContext.create())
+					.addSpanHandler(new SpanHandler() {
+					}).build();
+			this.tracer = new BraveTracer(this.tracing.tracer(),
+					new BraveCurrentTraceContext(this.tracing.currentTraceContext()), new BraveBaggageManager());
+			this.spanNamer = this.spanNamerType == SpanNamerType.CACHED ? new DefaultSpanNamer()
+					: new UncachedSpanNamer();
+			this.parent = this.tracer.nextSpan().name("parent").start();
+			this.scope = this.tracer.withSpan(this.parent);
+		}
+
+		@TearDown
+		public void tearDown() {
+			this.scope.close();
+			this.parent.end();
+			this.tracing.close();
+		}
+
+	}
+
+	@SpanName("annotated")
+	static class AnnotatedRunnable implements Runnable {
+
+		private final BenchmarkContext context;
+
+		AnnotatedRunnable(BenchmarkContext context) {
+			this.context = context;
+		}
+
+		@Override
+		public void run() {
+			this.context.counter++;
+		}
+
+	}
+
+	/**
+	 * Span namer that resolves the annotation and the default {@code toString()} on every
+	 * call.
+	 */
+	static class UncachedSpanNamer implements SpanNamer {
+
+		@Override
+		public String name(Object object, String defaultValue) {
+			SpanName annotation = object instanceof Method
+					? AnnotationUtils.findAnnotation((Method) object, SpanName.class)
+					: AnnotationUtils.findAnnotation(object.getClass(), SpanName.class);
+			String spanName = annotation != null ? annotation.value() : object.toString();
+			String defaultToString = object instanceof Method ? object.toString()
+					: object.getClass().getName() + "@" + Integer.toHexString(object.hashCode());
+			return defaultToString.equals(spanName) ? defaultValue : spanName;
+		}
+
+	}
+
+}
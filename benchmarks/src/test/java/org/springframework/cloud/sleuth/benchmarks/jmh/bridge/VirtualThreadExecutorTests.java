@@ -0,0 +1,157 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.bridge;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import brave.Tracing;
+import brave.handler.SpanHandler;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanNamer;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.brave.bridge.BraveBaggageManager;
+import org.springframework.cloud.sleuth.brave.bridge.BraveCurrentTraceContext;
+import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
+import org.springframework.cloud.sleuth.instrument.async.ExecutorTracingMode;
+import org.springframework.cloud.sleuth.instrument.async.TraceRunnable;
+import org.springframework.cloud.sleuth.internal.DefaultSpanNamer;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Measures the per task overhead of tracing on virtual threads. Uses
+ * {@code Executors.newVirtualThreadPerTaskExecutor()} when the JDK supports virtual
+ * threads and falls back to a cached thread pool otherwise. Run with the JMH {@code gc}
+ * profiler ({@code -prof gc}) to compare the allocation per task.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Microbenchmark
+public class VirtualThreadExecutorTests {
+
+	@Benchmark
+	public int should_run_task(BenchmarkContext context) throws ExecutionException, InterruptedException {
+		context.executor.submit(context.task()).get();
+		return context.counter;
+	}
+
+	public enum TaskType {
+
+		/**
+		 * Task not wrapped at all.
+		 */
+		RAW,
+
+		/**
+		 * Task wrapped in a span.
+		 */
+		SPAN,
+
+		/**
+		 * Task that only gets the parent context.
+		 */
+		CONTEXT
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		@Param
+		private TaskType taskType;
+
+		volatile Tracing tracing;
+
+		volatile Tracer tracer;
+
+		final SpanNamer spanNamer = new DefaultSpanNamer();
+
+		volatile ExecutorService executor;
+
+		volatile int counter;
+
+		final Runnable delegate = () -> this.counter++;
+
+		Span parent;
+
+		Tracer.SpanInScope scope;
+
+		@Setup
+		public void setup() throws Exception {
+			// a handler stops Brave from logging every span
+			this.tracing = Tracing.newBuilder().currentTraceContext(ThreadLocalCurrentTraceContext.create())
+					.addSpanHandler(new SpanHandler() {
+					}).build();
+			this.tracer = new BraveTracer(this.tracing.tracer(),
+					new BraveCurrentTraceContext(this.tracing.currentTraceContext()), new BraveBaggageManager());
+			this.executor = threadPerTaskExecutor();
+			this.parent = this.tracer.nextSpan().name("parent").start();
+			this.scope = this.tracer.withSpan(this.parent);
+		}
+
+		Runnable task() {
+			switch (this.taskType) {
+			case SPAN:
+				return new TraceRunnable(this.tracer, this.spanNamer, this.delegate, "task", ExecutorTracingMode.SPAN);
+			case CONTEXT:
+				return new TraceRunnable(this.tracer, this.spanNamer, this.delegate, "task",
+						ExecutorTracingMode.CONTEXT);
+			default:
+				return this.delegate;
+			}
+		}
+
+		private static ExecutorService threadPerTaskExecutor() throws Exception {
+			Method virtual = ReflectionUtils.findMethod(Executors.class, "newVirtualThreadPerTaskExecutor");
+			if (virtual != null) {
+				return (ExecutorService) virtual.invoke(null);
+			}
+			return Executors.newCachedThreadPool();
+		}
+
+		@TearDown
+		public void tearDown() {
+			this.scope.close();
+			this.parent.end();
+			this.executor.shutdown();
+			this.tracing.close();
+		}
+
+	}
+
+}
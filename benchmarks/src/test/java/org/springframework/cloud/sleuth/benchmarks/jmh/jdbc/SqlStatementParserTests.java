@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.jdbc;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.sleuth.internal.SqlStatementParser;
+
+/**
+ * Compares reading the span name of a generated multi-row insert with the former regular
+ * expression and with the cached single pass parser.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Microbenchmark
+public class SqlStatementParserTests {
+
+	private static final Pattern SQL_TYPE_PATTERN = Pattern.compile("^([a-zA-Z]+)[^a-zA-Z]?.*$");
+
+	@Benchmark
+	public String regex(BenchmarkContext context) {
+		Matcher matcher = SQL_TYPE_PATTERN.matcher(context.sql);
+		return matcher.matches() ? matcher.group(1).toLowerCase() : "query";
+	}
+
+	@Benchmark
+	public String parser(BenchmarkContext context) {
+		return context.parser.spanName(context.sql) + context.parser.tagValue(context.sql).length();
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		@Param({ "10", "1000" })
+		int rows;
+
+		@Param({ "false", "true" })
+		boolean fingerprintEnabled;
+
+		String sql;
+
+		SqlStatementParser parser;
+
+		@Setup
+		public void setup() {
+			StringBuilder sql = new StringBuilder("INSERT INTO users (id, name, email) VALUES ");
+			for (int i = 0; i < this.rows; i++) {
+				sql.append(i == 0 ? "" : ", ").append("(").append(i).append(", 'user").append(i).append("', 'user")
+						.append(i).append("@example.com')");
+			}
+			this.sql = sql.toString();
+			this.parser = new SqlStatementParser(SqlStatementParser.DEFAULT_CACHE_SIZE, this.fingerprintEnabled, 1024);
+		}
+
+	}
+
+}
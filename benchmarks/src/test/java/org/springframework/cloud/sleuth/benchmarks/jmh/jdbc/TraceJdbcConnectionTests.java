@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import brave.Tracing;
+import brave.handler.SpanHandler;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import com.p6spy.engine.spy.P6DataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.brave.bridge.BraveBaggageManager;
+import org.springframework.cloud.sleuth.brave.bridge.BraveCurrentTraceContext;
+import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
+import org.springframework.cloud.sleuth.instrument.jdbc.DataSourceNameResolver;
+import org.springframework.cloud.sleuth.instrument.jdbc.TraceJdbcEventListener;
+import org.springframework.cloud.sleuth.instrument.jdbc.TraceType;
+
+/**
+ * Measures a pool checkout with a query from an embedded H2 database behind HikariCP,
+ * traced through p6spy. Without the cache the JDBC URL of the data source is read and
+ * parsed for every checkout.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Microbenchmark
+public class TraceJdbcConnectionTests {
+
+	@Benchmark
+	public boolean should_trace_connection_checkout_and_query(BenchmarkContext context) throws SQLException {
+		if (!context.cached) {
+			context.listener.clearRemoteEndpointCache();
+		}
+		try (Tracer.SpanInScope ws = context.tracer.withSpan(context.span);
+				Connection connection = context.dataSource.getConnection();
+				Statement statement = connection.createStatement()) {
+			return statement.execute("SELECT 1");
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		@Param({ "false", "true" })
+		private boolean cached;
+
+		volatile Tracing tracing;
+
+		volatile Tracer tracer;
+
+		volatile HikariDataSource pool;
+
+		volatile P6DataSource dataSource;
+
+		volatile TraceJdbcEventListener listener;
+
+		volatile Span span;
+
+		@Setup
+		public void setup() {
+			// a handler stops Brave from logging every span
+			this.tracing = Tracing.newBuilder().currentTraceContext(ThreadLocalCurrentTraceContext.create())
+					.addSpanHandler(new SpanHandler() {
+					}).build();
+			CurrentTraceContext currentTraceContext = new BraveCurrentTraceContext(this.tracing.currentTraceContext());
+			this.tracer = new BraveTracer(this.tracing.tracer(), currentTraceContext, new BraveBaggageManager());
+			this.pool = new HikariDataSource();
+			this.pool.setJdbcUrl("jdbc:h2:mem:benchmark?sleuthServiceName=benchmark");
+			this.pool.setPoolName("benchmark");
+			this.listener = new TraceJdbcEventListener(this.tracer, new DataSourceNameResolver(),
+					Arrays.asList(TraceType.CONNECTION, TraceType.QUERY), false, Collections.emptyList());
+			this.dataSource = new P6DataSource(this.pool);
+			this.dataSource.setJdbcEventListenerFactory(() -> this.listener);
+			this.span = this.tracer.nextSpan().name("parent").start();
+		}
+
+		@TearDown
+		public void tearDown() {
+			this.span.end();
+			this.pool.close();
+			this.tracing.close();
+		}
+
+	}
+
+}
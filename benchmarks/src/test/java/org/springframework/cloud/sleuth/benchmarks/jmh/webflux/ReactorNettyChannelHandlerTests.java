@@ -0,0 +1,215 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.webflux;
+
+import java.util.concurrent.TimeUnit;
+
+import brave.Span;
+import brave.Tracing;
+import brave.handler.SpanHandler;
+import brave.propagation.CurrentTraceContext;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.AttributeKey;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.sleuth.brave.instrument.reactor.netty.TracingChannelInboundHandler;
+import org.springframework.cloud.sleuth.brave.instrument.reactor.netty.TracingChannelOutboundHandler;
+
+/**
+ * Measures a read batch followed by a write and a flush passing the Reactor Netty debug
+ * tracing handlers of an {@link EmbeddedChannel}. Compares the
+ * {@link TracingChannelInboundHandler} and {@link TracingChannelOutboundHandler} with the
+ * previous implementation that looked up the span attribute, captured a lambda and opened
+ * a scope for every event. Run with the JMH {@code gc} profiler ({@code -prof gc}) to
+ * compare the allocation per batch.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Microbenchmark
+public class ReactorNettyChannelHandlerTests {
+
+	private static final AttributeKey<Span> SPAN_ATTRIBUTE_KEY = AttributeKey.valueOf(Span.class.getName());
+
+	private static final Object MESSAGE = new Object();
+
+	@Benchmark
+	public EmbeddedChannel should_read_batch_and_write(BenchmarkContext context) {
+		EmbeddedChannel channel = context.channel;
+		for (int i = 0; i < context.readsPerBatch; i++) {
+			channel.pipeline().fireChannelRead(MESSAGE);
+		}
+		channel.pipeline().fireChannelReadComplete();
+		channel.write(MESSAGE, channel.voidPromise());
+		channel.flush();
+		return channel;
+	}
+
+	public enum HandlerType {
+
+		/**
+		 * Captures a lambda and opens a scope for every event.
+		 */
+		PER_EVENT,
+
+		/**
+		 * The current handlers, a single scope per read batch.
+		 */
+		PER_BATCH
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		@Param
+		private HandlerType handlerType;
+
+		@Param({ "1", "16" })
+		private int readsPerBatch;
+
+		volatile Tracing tracing;
+
+		volatile EmbeddedChannel channel;
+
+		@Setup
+		public void setup() {
+			// a handler stops Brave from logging every span
+			this.tracing = Tracing.newBuilder().currentTraceContext(ThreadLocalCurrentTraceContext.create())
+					.addSpanHandler(new SpanHandler() {
+					}).build();
+			CurrentTraceContext currentTraceContext = this.tracing.currentTraceContext();
+			ChannelHandler[] handlers = this.handlerType == HandlerType.PER_BATCH
+					? new ChannelHandler[] { new TracingChannelInboundHandler(currentTraceContext),
+							new TracingChannelOutboundHandler(currentTraceContext) }
+					: new ChannelHandler[] { new PerEventChannelHandler(currentTraceContext) };
+			this.channel = new EmbeddedChannel(new DiscardingOutboundHandler());
+			this.channel.pipeline().addLast(handlers);
+			this.channel.pipeline().addLast(new DiscardingInboundHandler());
+			this.channel.attr(SPAN_ATTRIBUTE_KEY).set(this.tracing.tracer().nextSpan().start());
+		}
+
+		@TearDown
+		public void tearDown() {
+			this.channel.finishAndReleaseAll();
+			this.tracing.close();
+		}
+
+	}
+
+	/**
+	 * The previous implementation of the handlers, for the events of the benchmark.
+	 */
+	static class PerEventChannelHandler extends ChannelDuplexHandler {
+
+		final CurrentTraceContext currentTraceContext;
+
+		PerEventChannelHandler(CurrentTraceContext currentTraceContext) {
+			this.currentTraceContext = currentTraceContext;
+		}
+
+		@Override
+		public void channelRead(ChannelHandlerContext ctx, Object msg) {
+			if (instrumentOperation(ctx, () -> ctx.fireChannelRead(msg))) {
+				return;
+			}
+			ctx.fireChannelRead(msg);
+		}
+
+		@Override
+		public void channelReadComplete(ChannelHandlerContext ctx) {
+			if (instrumentOperation(ctx, () -> ctx.fireChannelReadComplete())) {
+				return;
+			}
+			ctx.fireChannelReadComplete();
+		}
+
+		@Override
+		public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+			if (instrumentOperation(ctx, () -> ctx.write(msg, promise))) {
+				return;
+			}
+			ctx.write(msg, promise);
+		}
+
+		@Override
+		public void flush(ChannelHandlerContext ctx) {
+			if (instrumentOperation(ctx, () -> ctx.flush())) {
+				return;
+			}
+			ctx.flush();
+		}
+
+		boolean instrumentOperation(ChannelHandlerContext ctx, Runnable operation) {
+			Span span = ctx.channel().attr(SPAN_ATTRIBUTE_KEY).get();
+			if (span != null) {
+				try (CurrentTraceContext.Scope scope = this.currentTraceContext.maybeScope(span.context())) {
+					operation.run();
+				}
+				return true;
+			}
+			return false;
+		}
+
+	}
+
+	static class DiscardingInboundHandler extends ChannelInboundHandlerAdapter {
+
+		@Override
+		public void channelRead(ChannelHandlerContext ctx, Object msg) {
+		}
+
+		@Override
+		public void channelReadComplete(ChannelHandlerContext ctx) {
+		}
+
+	}
+
+	static class DiscardingOutboundHandler extends ChannelOutboundHandlerAdapter {
+
+		@Override
+		public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+		}
+
+		@Override
+		public void flush(ChannelHandlerContext ctx) {
+		}
+
+	}
+
+}
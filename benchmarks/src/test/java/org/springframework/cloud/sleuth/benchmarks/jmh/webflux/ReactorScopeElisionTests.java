@@ -0,0 +1,122 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.webflux;
+
+import java.util.concurrent.TimeUnit;
+
+import brave.Tracing;
+import brave.handler.SpanHandler;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.brave.bridge.BraveBaggageManager;
+import org.springframework.cloud.sleuth.brave.bridge.BraveCurrentTraceContext;
+import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
+import org.springframework.cloud.sleuth.instrument.reactor.ReactorSleuth;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Measures the per element cost of a {@link Flux} instrumented with the
+ * {@code DECORATE_ON_EACH} hooks, with and without scope elision. The operators that hop
+ * threads run on the immediate scheduler, so that every element arrives on a thread where
+ * the parent context is already current.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Microbenchmark
+public class ReactorScopeElisionTests {
+
+	private static final String HOOK_KEY = ReactorScopeElisionTests.class.getName();
+
+	private static final int ELEMENTS = 10_000;
+
+	@Benchmark
+	@OperationsPerInvocation(ELEMENTS)
+	public Long should_pass_scope_for_each_element(BenchmarkContext context) {
+		try (Tracer.SpanInScope ws = context.tracer.withSpan(context.span)) {
+			return Flux.range(0, ELEMENTS).publishOn(Schedulers.immediate()).map(i -> i * 2)
+					.publishOn(Schedulers.immediate()).filter(i -> i % 3 != 0).count().block();
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		@Param({ "false", "true" })
+		private boolean scopeElision;
+
+		volatile Tracing tracing;
+
+		volatile Tracer tracer;
+
+		volatile AnnotationConfigApplicationContext applicationContext;
+
+		volatile Span span;
+
+		@Setup
+		public void setup() {
+			// a handler stops Brave from logging every span
+			this.tracing = Tracing.newBuilder().currentTraceContext(ThreadLocalCurrentTraceContext.create())
+					.addSpanHandler(new SpanHandler() {
+					}).build();
+			CurrentTraceContext currentTraceContext = new BraveCurrentTraceContext(this.tracing.currentTraceContext());
+			this.tracer = new BraveTracer(this.tracing.tracer(), currentTraceContext, new BraveBaggageManager());
+			this.applicationContext = new AnnotationConfigApplicationContext();
+			this.applicationContext.registerBean(CurrentTraceContext.class, () -> currentTraceContext);
+			this.applicationContext.registerBean(Tracer.class, () -> this.tracer);
+			this.applicationContext.refresh();
+			Hooks.onEachOperator(HOOK_KEY,
+					ReactorSleuth.onEachOperatorForOnEachInstrumentation(this.applicationContext, this.scopeElision));
+			Hooks.onLastOperator(HOOK_KEY,
+					ReactorSleuth.onLastOperatorForOnEachInstrumentation(this.applicationContext, this.scopeElision));
+			this.span = this.tracer.nextSpan().name("parent").start();
+		}
+
+		@TearDown
+		public void tearDown() {
+			Hooks.resetOnEachOperator(HOOK_KEY);
+			Hooks.resetOnLastOperator(HOOK_KEY);
+			this.span.end();
+			this.applicationContext.close();
+			this.tracing.close();
+		}
+
+	}
+
+}
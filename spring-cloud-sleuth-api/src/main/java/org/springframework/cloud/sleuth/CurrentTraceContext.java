@@ -42,6 +42,17 @@ public interface CurrentTraceContext {
 	@Nullable
 	TraceContext context();
 
+	/**
+	 * Checks whether the given context is the current one. Implementations can override
+	 * this to avoid creating the current {@link TraceContext} just to compare it.
+	 * @param context context to check
+	 * @return {@code true} if the given context is in scope
+	 * @since 3.1.11
+	 */
+	default boolean isCurrent(TraceContext context) {
+		return context.equals(context());
+	}
+
 	/**
 	 * Sets the current span in scope until the returned object is closed. It is a
 	 * programming error to drop or never close the result. Using try-with-resources is
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.exporter;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A {@link SpanReporter} that hands finished spans over to a bounded ring buffer and
+ * delivers them to the delegate {@link SpanReporter}s in batches from dedicated drain
+ * threads. That way a slow reporter does not add latency to the thread that finished the
+ * span.
+ *
+ * @since 3.1.11
+ */
+public class AsyncSpanReporter implements SpanReporter, Closeable {
+
+	private static final Log log = LogFactory.getLog(AsyncSpanReporter.class);
+
+	private static final long MIN_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private final Supplier<List<SpanReporter>> delegatesSupplier;
+
+	private final SpanRingBuffer buffer;
+
+	private final int batchSize;
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final long blockTimeoutNanos;
+
+	private final SpanReporterMetrics metrics;
+
+	private final Thread[] drainThreads;
+
+	private volatile List<SpanReporter> delegates;
+
+	private volatile boolean closed;
+
+	/**
+	 * @param delegatesSupplier supplier of reporters that should receive the spans,
+	 * resolved on first delivery
+	 * @param capacity capacity of the buffer, rounded up to a power of two
+	 * @param drainThreads number of threads delivering spans to the reporters
+	 * @param batchSize maximum number of spans a drain thread takes from the buffer at
+	 * once
+	 * @param overflowPolicy what to do when the buffer is full
+	 * @param blockTimeoutMillis how long to wait for space with
+	 * {@link OverflowPolicy#BLOCK}
+	 * @param metrics metrics of the pipeline
+	 */
+	public AsyncSpanReporter(Supplier<List<SpanReporter>> delegatesSupplier, int capacity, int drainThreads,
+			int batchSize, OverflowPolicy overflowPolicy, long blockTimeoutMillis, SpanReporterMetrics metrics) {
+		if (drainThreads < 1) {
+			throw new IllegalArgumentException(
+					"Number of drain threads must be positive but was [" + drainThreads + "]");
+		}
+		this.delegatesSupplier = delegatesSupplier;
+		this.buffer = new SpanRingBuffer(capacity);
+		this.batchSize = Math.max(1, batchSize);
+		this.overflowPolicy = overflowPolicy;
+		this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+		this.metrics = metrics;
+		this.drainThreads = new Thread[drainThreads];
+		for (int i = 0; i < drainThreads; i++) {
+			Thread thread = new Thread(this::drainLoop, "sleuth-span-reporter-" + i);
+			thread.setDaemon(true);
+			this.drainThreads[i] = thread;
+			thread.start();
+		}
+	}
+
+	@Override
+	public void report(FinishedSpan span) {
+		if (this.closed) {
+			this.metrics.incrementSpansDropped(1);
+			return;
+		}
+		if (this.buffer.offer(span) || offerOnOverflow(span)) {
+			this.metrics.incrementSpansEnqueued();
+		}
+		else {
+			this.metrics.incrementSpansDropped(1);
+		}
+	}
+
+	private boolean offerOnOverflow(FinishedSpan span) {
+		switch (this.overflowPolicy) {
+		case DROP_OLDEST:
+			// another producer might take the freed slot, so we retry a bounded number of
+			// times
+			for (int i = 0; i < this.buffer.capacity(); i++) {
+				if (this.buffer.poll() != null) {
+					this.metrics.incrementSpansDropped(1);
+				}
+				if (this.buffer.offer(span)) {
+					return true;
+				}
+			}
+			return false;
+		case BLOCK:
+			long deadline = System.nanoTime() + this.blockTimeoutNanos;
+			while (!this.closed && System.nanoTime() - deadline < 0) {
+				LockSupport.parkNanos(this, MIN_IDLE_NANOS);
+				if (this.buffer.offer(span)) {
+					return true;
+				}
+			}
+			return false;
+		default:
+			return false;
+		}
+	}
+
+	private void drainLoop() {
+		List<FinishedSpan> batch = new ArrayList<>(this.batchSize);
+		long idleNanos = MIN_IDLE_NANOS;
+		while (!this.closed) {
+			if (drainBatch(batch) > 0) {
+				idleNanos = MIN_IDLE_NANOS;
+			}
+			else {
+				LockSupport.parkNanos(this, idleNanos);
+				idleNanos = Math.min(idleNanos << 1, MAX_IDLE_NANOS);
+			}
+		}
+	}
+
+	private int drainBatch(List<FinishedSpan> batch) {
+		int drained = this.buffer.drainTo(batch, this.batchSize);
+		if (drained == 0) {
+			return 0;
+		}
+		try {
+			deliver(batch);
+		}
+		finally {
+			batch.clear();
+		}
+		return drained;
+	}
+
+	private void deliver(List<FinishedSpan> batch) {
+		List<SpanReporter> reporters = delegates();
+		for (SpanReporter reporter : reporters) {
+			for (FinishedSpan span : batch) {
+				try {
+					reporter.report(span);
+				}
+				catch (Exception ex) {
+					if (log.isDebugEnabled()) {
+						log.debug("Exception occurred while reporting span [" + span + "] with [" + reporter + "]", ex);
+					}
+				}
+			}
+		}
+		this.metrics.incrementSpansDelivered(batch.size());
+	}
+
+	private List<SpanReporter> delegates() {
+		List<SpanReporter> reporters = this.delegates;
+		if (reporters == null) {
+			reporters = this.delegatesSupplier.get();
+			this.delegates = reporters;
+		}
+		return reporters;
+	}
+
+	/**
+	 * @return approximate number of spans waiting for delivery
+	 */
+	public int queuedSpans() {
+		return this.buffer.size();
+	}
+
+	/**
+	 * Stops the drain threads and delivers the remaining spans on the calling thread.
+	 */
+	@Override
+	public void close() {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		for (Thread thread : this.drainThreads) {
+			LockSupport.unpark(thread);
+		}
+		for (Thread thread : this.drainThreads) {
+			try {
+				thread.join(TimeUnit.SECONDS.toMillis(1));
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		List<FinishedSpan> batch = new ArrayList<>(this.batchSize);
+		while (drainBatch(batch) > 0) {
+			// deliver whatever producers managed to enqueue before closing
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "AsyncSpanReporter{" + "delegates=" + this.delegates + ", overflowPolicy=" + this.overflowPolicy + '}';
+	}
+
+	/**
+	 * Describes what happens with a span when the buffer is full.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * The span that is being reported gets dropped.
+		 */
+		DROP_NEWEST,
+
+		/**
+		 * The oldest buffered span gets dropped to make room for the reported one.
+		 */
+		DROP_OLDEST,
+
+		/**
+		 * The reporting thread waits for free space up to a timeout, after which the span
+		 * gets dropped.
+		 */
+		BLOCK
+
+	}
+
+}
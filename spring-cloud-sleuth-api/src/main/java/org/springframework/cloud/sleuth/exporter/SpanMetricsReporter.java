@@ -0,0 +1,380 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.exporter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link SpanReporter} that derives rate, errors and duration (RED) metrics from all the
+ * finished spans, also the ones that weren't sampled. Spans are aggregated by span name,
+ * kind, remote service name and whether they failed. Each such series counts the spans
+ * with striped counters and records their durations in a lock-free log-linear histogram.
+ * The spans are also counted exactly per configured bucket, so that cumulative counts at
+ * the bucket bounds don't depend on the resolution of the histogram. A
+ * {@link SeriesListener} is notified of each new series, e.g. to publish it to a metrics
+ * registry.
+ *
+ * To keep the number of series bounded, spans with names above the max number of span
+ * names are aggregated under {@link #OTHER_SPAN_NAME}, and spans with remote service
+ * names above the max number of remote service names under
+ * {@link #OTHER_REMOTE_SERVICE_NAME}.
+ *
+ * @since 3.1.11
+ */
+public class SpanMetricsReporter implements SpanReporter {
+
+	/**
+	 * Default max number of distinct span names.
+	 */
+	public static final int DEFAULT_MAX_SPAN_NAMES = 100;
+
+	/**
+	 * Default max number of distinct remote service names.
+	 */
+	public static final int DEFAULT_MAX_REMOTE_SERVICE_NAMES = 100;
+
+	/**
+	 * Name of the series of spans with names above the max number of span names.
+	 */
+	public static final String OTHER_SPAN_NAME = "other";
+
+	/**
+	 * Remote service name of the series of spans with remote service names above the max
+	 * number of remote service names.
+	 */
+	public static final String OTHER_REMOTE_SERVICE_NAME = "other";
+
+	private static final String ERROR_TAG = "error";
+
+	private final String localServiceName;
+
+	private final int maxSpanNames;
+
+	private final int maxRemoteServiceNames;
+
+	private final SeriesListener listener;
+
+	private final long[] bucketsMicros;
+
+	private final Set<String> spanNames = ConcurrentHashMap.newKeySet();
+
+	private final Set<String> remoteServiceNames = ConcurrentHashMap.newKeySet();
+
+	private final ConcurrentMap<Key, Series> series = new ConcurrentHashMap<>();
+
+	/**
+	 * @param localServiceName name of this service
+	 * @param maxSpanNames max number of distinct span names
+	 * @param listener notified of each new series
+	 */
+	public SpanMetricsReporter(String localServiceName, int maxSpanNames, SeriesListener listener) {
+		this(localServiceName, maxSpanNames, Collections.emptyList(), listener);
+	}
+
+	/**
+	 * @param localServiceName name of this service
+	 * @param maxSpanNames max number of distinct span names
+	 * @param bucketsMillis upper bounds in milliseconds of the buckets spans are counted
+	 * in exactly
+	 * @param listener notified of each new series
+	 */
+	public SpanMetricsReporter(String localServiceName, int maxSpanNames, List<Long> bucketsMillis,
+			SeriesListener listener) {
+		this(localServiceName, maxSpanNames, DEFAULT_MAX_REMOTE_SERVICE_NAMES, bucketsMillis, listener);
+	}
+
+	/**
+	 * @param localServiceName name of this service
+	 * @param maxSpanNames max number of distinct span names
+	 * @param maxRemoteServiceNames max number of distinct remote service names
+	 * @param bucketsMillis upper bounds in milliseconds of the buckets spans are counted
+	 * in exactly
+	 * @param listener notified of each new series
+	 */
+	public SpanMetricsReporter(String localServiceName, int maxSpanNames, int maxRemoteServiceNames,
+			List<Long> bucketsMillis, SeriesListener listener) {
+		this.localServiceName = localServiceName;
+		this.maxSpanNames = maxSpanNames;
+		this.maxRemoteServiceNames = maxRemoteServiceNames;
+		this.bucketsMicros = bucketsMillis.stream().mapToLong(TimeUnit.MILLISECONDS::toMicros).sorted().distinct()
+				.toArray();
+		this.listener = listener;
+	}
+
+	@Override
+	public void report(FinishedSpan span) {
+		long start = span.getStartTimestamp();
+		long end = span.getEndTimestamp();
+		if (start == 0L || end < start) {
+			return;
+		}
+		Key key = new Key(spanName(span.getName()), span.getKind(), remoteServiceName(span.getRemoteServiceName()),
+				isError(span));
+		Series series = this.series.get(key);
+		if (series == null) {
+			series = register(key);
+		}
+		series.record(end - start);
+	}
+
+	@Override
+	public boolean reportsUnsampledSpans() {
+		return true;
+	}
+
+	/**
+	 * @return all the series
+	 */
+	public Collection<Series> getSeries() {
+		return Collections.unmodifiableCollection(this.series.values());
+	}
+
+	private String spanName(@Nullable String name) {
+		if (name == null) {
+			return OTHER_SPAN_NAME;
+		}
+		return bounded(this.spanNames, this.maxSpanNames, name, OTHER_SPAN_NAME);
+	}
+
+	@Nullable
+	private String remoteServiceName(@Nullable String name) {
+		if (name == null) {
+			return null;
+		}
+		return bounded(this.remoteServiceNames, this.maxRemoteServiceNames, name, OTHER_REMOTE_SERVICE_NAME);
+	}
+
+	private static String bounded(Set<String> names, int max, String name, String other) {
+		if (names.contains(name)) {
+			return name;
+		}
+		// concurrent reporters may add a few more names than the max
+		if (names.size() >= max) {
+			return other;
+		}
+		names.add(name);
+		return name;
+	}
+
+	private static boolean isError(FinishedSpan span) {
+		return span.getError() != null || span.getTags().containsKey(ERROR_TAG);
+	}
+
+	private Series register(Key key) {
+		Series created = new Series(this.localServiceName, key, this.bucketsMicros);
+		Series existing = this.series.putIfAbsent(key, created);
+		if (existing != null) {
+			return existing;
+		}
+		this.listener.seriesAdded(created);
+		return created;
+	}
+
+	/**
+	 * Gets notified of new series.
+	 */
+	public interface SeriesListener {
+
+		/**
+		 * Listener that does nothing.
+		 */
+		SeriesListener NOOP = series -> {
+		};
+
+		/**
+		 * Called once for each new series.
+		 * @param series new series
+		 */
+		void seriesAdded(Series series);
+
+	}
+
+	/**
+	 * Aggregated spans that share the span name, kind, remote service name and outcome.
+	 */
+	public static final class Series {
+
+		private final String localServiceName;
+
+		private final Key key;
+
+		private final LongAdder count = new LongAdder();
+
+		private final LongAdder totalTime = new LongAdder();
+
+		private final LatencyHistogram histogram = new LatencyHistogram();
+
+		private final long[] bucketsMicros;
+
+		// spans above the previous bound and at or below the bound of the bucket
+		private final LongAdder[] buckets;
+
+		Series(String localServiceName, Key key, long[] bucketsMicros) {
+			this.localServiceName = localServiceName;
+			this.key = key;
+			this.bucketsMicros = bucketsMicros;
+			this.buckets = new LongAdder[bucketsMicros.length];
+			for (int i = 0; i < this.buckets.length; i++) {
+				this.buckets[i] = new LongAdder();
+			}
+		}
+
+		void record(long micros) {
+			this.count.increment();
+			this.totalTime.add(micros);
+			this.histogram.record(micros);
+			int bucket = Arrays.binarySearch(this.bucketsMicros, micros);
+			if (bucket < 0) {
+				bucket = -bucket - 1;
+			}
+			if (bucket < this.buckets.length) {
+				this.buckets[bucket].increment();
+			}
+		}
+
+		public String getLocalServiceName() {
+			return this.localServiceName;
+		}
+
+		public String getName() {
+			return this.key.name;
+		}
+
+		@Nullable
+		public Span.Kind getKind() {
+			return this.key.kind;
+		}
+
+		@Nullable
+		public String getRemoteServiceName() {
+			return this.key.remoteServiceName;
+		}
+
+		public boolean isError() {
+			return this.key.error;
+		}
+
+		/**
+		 * @return number of spans
+		 */
+		public long getCount() {
+			return this.count.sum();
+		}
+
+		/**
+		 * @param unit time unit of the result
+		 * @return total duration of the spans
+		 */
+		public double getTotalTime(TimeUnit unit) {
+			return (double) this.totalTime.sum() / unit.toMicros(1);
+		}
+
+		/**
+		 * @param duration upper bound of the duration
+		 * @param unit time unit of the duration
+		 * @return number of spans that took at most the given duration, exact for the
+		 * bounds of the configured buckets, otherwise off by at most the spans in the
+		 * histogram bucket of the duration
+		 */
+		public long getCountAtOrBelow(long duration, TimeUnit unit) {
+			long micros = unit.toMicros(duration);
+			int bucket = Arrays.binarySearch(this.bucketsMicros, micros);
+			if (bucket < 0) {
+				return this.histogram.countAtOrBelow(micros);
+			}
+			long count = 0;
+			for (int i = 0; i <= bucket; i++) {
+				count += this.buckets[i].sum();
+			}
+			return count;
+		}
+
+		/**
+		 * @param percentile percentile between {@code 0} and {@code 100}
+		 * @param unit time unit of the result
+		 * @return approximate duration of the given percentile of the spans
+		 */
+		public double getDurationAtPercentile(double percentile, TimeUnit unit) {
+			return (double) this.histogram.valueAtPercentile(percentile) / unit.toMicros(1);
+		}
+
+		@Override
+		public String toString() {
+			return "Series{name='" + this.key.name + "', kind=" + this.key.kind + ", remoteServiceName='"
+					+ this.key.remoteServiceName + "', error=" + this.key.error + ", count=" + getCount() + '}';
+		}
+
+	}
+
+	static final class Key {
+
+		private final String name;
+
+		@Nullable
+		private final Span.Kind kind;
+
+		@Nullable
+		private final String remoteServiceName;
+
+		private final boolean error;
+
+		private final int hashCode;
+
+		Key(String name, @Nullable Span.Kind kind, @Nullable String remoteServiceName, boolean error) {
+			this.name = name;
+			this.kind = kind;
+			this.remoteServiceName = remoteServiceName;
+			this.error = error;
+			int hashCode = name.hashCode();
+			hashCode = 31 * hashCode + Objects.hashCode(kind);
+			hashCode = 31 * hashCode + Objects.hashCode(remoteServiceName);
+			this.hashCode = 31 * hashCode + (error ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key that = (Key) o;
+			return this.error == that.error && this.kind == that.kind && this.name.equals(that.name)
+					&& Objects.equals(this.remoteServiceName, that.remoteServiceName);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+	}
+
+}
@@ -30,4 +30,15 @@ public interface SpanReporter {
 	 */
 	void report(FinishedSpan span);
 
+	/**
+	 * Reporters that return {@code true} get all the finished spans, also the ones that
+	 * weren't sampled, e.g. to derive metrics from them. Other reporters get only the
+	 * sampled spans then.
+	 * @return {@code true} to also report spans that weren't sampled
+	 * @since 3.1.11
+	 */
+	default boolean reportsUnsampledSpans() {
+		return false;
+	}
+
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.exporter;
+
+/**
+ * Instrumentation of the {@link AsyncSpanReporter} pipeline.
+ *
+ * @since 3.1.11
+ */
+public interface SpanReporterMetrics {
+
+	/**
+	 * Metrics that record nothing.
+	 */
+	SpanReporterMetrics NOOP = new SpanReporterMetrics() {
+	};
+
+	/**
+	 * Increments the number of spans accepted into the queue.
+	 */
+	default void incrementSpansEnqueued() {
+
+	}
+
+	/**
+	 * Increments the number of spans dropped because the queue was full or closed.
+	 * @param quantity number of dropped spans
+	 */
+	default void incrementSpansDropped(int quantity) {
+
+	}
+
+	/**
+	 * Increments the number of spans handed over to the delegate reporters.
+	 * @param quantity number of delivered spans
+	 */
+	default void incrementSpansDelivered(int quantity) {
+
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.exporter;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free, multi-producer multi-consumer queue of {@link FinishedSpan}s. Each
+ * slot carries a sequence number that tells producers and consumers whether the slot is
+ * free or published, so neither side ever takes a lock.
+ *
+ * @since 3.1.11
+ */
+final class SpanRingBuffer {
+
+	private final int mask;
+
+	private final AtomicReferenceArray<FinishedSpan> slots;
+
+	private final AtomicLongArray sequences;
+
+	private final AtomicLong head = new AtomicLong();
+
+	private final AtomicLong tail = new AtomicLong();
+
+	SpanRingBuffer(int capacity) {
+		int size = powerOfTwo(capacity);
+		this.mask = size - 1;
+		this.slots = new AtomicReferenceArray<>(size);
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			this.sequences.set(i, i);
+		}
+	}
+
+	private static int powerOfTwo(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive but was [" + capacity + "]");
+		}
+		// with a single slot a published span and a free slot have the same sequence
+		int minimum = Math.max(2, capacity);
+		int size = Integer.highestOneBit(minimum);
+		return size == minimum ? size : size << 1;
+	}
+
+	/**
+	 * @param span span to add
+	 * @return {@code false} when the buffer is full
+	 */
+	boolean offer(FinishedSpan span) {
+		long position = this.tail.get();
+		while (true) {
+			int index = (int) position & this.mask;
+			long difference = this.sequences.get(index) - position;
+			if (difference == 0) {
+				if (this.tail.compareAndSet(position, position + 1)) {
+					this.slots.lazySet(index, span);
+					this.sequences.lazySet(index, position + 1);
+					return true;
+				}
+			}
+			else if (difference < 0) {
+				return false;
+			}
+			position = this.tail.get();
+		}
+	}
+
+	/**
+	 * @return the oldest span or {@code null} when the buffer is empty
+	 */
+	FinishedSpan poll() {
+		long position = this.head.get();
+		while (true) {
+			int index = (int) position & this.mask;
+			long difference = this.sequences.get(index) - (position + 1);
+			if (difference == 0) {
+				if (this.head.compareAndSet(position, position + 1)) {
+					FinishedSpan span = this.slots.get(index);
+					this.slots.lazySet(index, null);
+					this.sequences.lazySet(index, position + this.mask + 1);
+					return span;
+				}
+			}
+			else if (difference < 0) {
+				return null;
+			}
+			position = this.head.get();
+		}
+	}
+
+	/**
+	 * Moves up to {@code max} spans to the given list.
+	 * @param target list to add spans to
+	 * @param max maximum number of spans to drain
+	 * @return number of drained spans
+	 */
+	int drainTo(List<FinishedSpan> target, int max) {
+		int drained = 0;
+		while (drained < max) {
+			FinishedSpan span = poll();
+			if (span == null) {
+				break;
+			}
+			target.add(span);
+			drained++;
+		}
+		return drained;
+	}
+
+	int capacity() {
+		return this.mask + 1;
+	}
+
+	/**
+	 * @return approximate number of spans in the buffer
+	 */
+	int size() {
+		long size = this.tail.get() - this.head.get();
+		return (int) Math.max(0, Math.min(size, capacity()));
+	}
+
+}
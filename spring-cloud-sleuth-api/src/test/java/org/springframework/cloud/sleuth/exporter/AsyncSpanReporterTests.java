@@ -0,0 +1,228 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.exporter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class AsyncSpanReporterTests {
+
+	CountingMetrics metrics = new CountingMetrics();
+
+	@Test
+	void should_deliver_spans_to_delegates_from_drain_thread() {
+		Queue<String> threads = new ConcurrentLinkedQueue<>();
+		Queue<FinishedSpan> reported = new ConcurrentLinkedQueue<>();
+		SpanReporter delegate = span -> {
+			threads.add(Thread.currentThread().getName());
+			reported.add(span);
+		};
+		FinishedSpan span = span();
+
+		try (AsyncSpanReporter reporter = reporter(Collections.singletonList(delegate), 16,
+				AsyncSpanReporter.OverflowPolicy.DROP_NEWEST)) {
+			reporter.report(span);
+
+			Awaitility.await().untilAsserted(() -> then(reported).containsExactly(span));
+		}
+
+		then(threads).allMatch(name -> name.startsWith("sleuth-span-reporter-"));
+		then(this.metrics.enqueued).hasValue(1);
+		then(this.metrics.delivered).hasValue(1);
+		then(this.metrics.dropped).hasValue(0);
+	}
+
+	@Test
+	void should_drop_newest_span_when_buffer_is_full() throws InterruptedException {
+		BlockingReporter delegate = new BlockingReporter();
+
+		try (AsyncSpanReporter reporter = reporter(Collections.singletonList(delegate), 2,
+				AsyncSpanReporter.OverflowPolicy.DROP_NEWEST)) {
+			reporter.report(span());
+			delegate.awaitFirstSpan();
+			reporter.report(span());
+			reporter.report(span());
+			reporter.report(span());
+
+			then(this.metrics.dropped).hasValue(1);
+			delegate.release();
+		}
+
+		then(this.metrics.enqueued).hasValue(3);
+		then(this.metrics.delivered).hasValue(3);
+	}
+
+	@Test
+	void should_drop_oldest_span_when_buffer_is_full() throws InterruptedException {
+		BlockingReporter delegate = new BlockingReporter();
+		FinishedSpan first = span();
+		FinishedSpan second = span();
+		FinishedSpan third = span();
+		FinishedSpan fourth = span();
+
+		try (AsyncSpanReporter reporter = reporter(Collections.singletonList(delegate), 2,
+				AsyncSpanReporter.OverflowPolicy.DROP_OLDEST)) {
+			reporter.report(first);
+			delegate.awaitFirstSpan();
+			reporter.report(second);
+			reporter.report(third);
+			reporter.report(fourth);
+
+			then(this.metrics.dropped).hasValue(1);
+			delegate.release();
+		}
+
+		then(delegate.reported).containsExactly(first, third, fourth);
+	}
+
+	@Test
+	void should_drop_span_after_block_timeout_when_buffer_is_full() throws InterruptedException {
+		BlockingReporter delegate = new BlockingReporter();
+
+		try (AsyncSpanReporter reporter = reporter(Collections.singletonList(delegate), 2,
+				AsyncSpanReporter.OverflowPolicy.BLOCK)) {
+			reporter.report(span());
+			delegate.awaitFirstSpan();
+			reporter.report(span());
+			reporter.report(span());
+			long start = System.nanoTime();
+			reporter.report(span());
+
+			then(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+			then(this.metrics.dropped).hasValue(1);
+			delegate.release();
+		}
+	}
+
+	@Test
+	void should_deliver_remaining_spans_on_close() {
+		Queue<FinishedSpan> reported = new ConcurrentLinkedQueue<>();
+		AsyncSpanReporter reporter = reporter(Collections.singletonList(reported::add), 128,
+				AsyncSpanReporter.OverflowPolicy.DROP_NEWEST);
+
+		for (int i = 0; i < 100; i++) {
+			reporter.report(span());
+		}
+		reporter.close();
+
+		then(reported).hasSize(100);
+	}
+
+	@Test
+	void should_drop_spans_reported_after_close() {
+		AsyncSpanReporter reporter = reporter(Collections.emptyList(), 16,
+				AsyncSpanReporter.OverflowPolicy.DROP_NEWEST);
+		reporter.close();
+
+		reporter.report(span());
+
+		then(this.metrics.dropped).hasValue(1);
+	}
+
+	@Test
+	void should_continue_delivering_when_a_delegate_throws_an_exception() {
+		Queue<FinishedSpan> reported = new ConcurrentLinkedQueue<>();
+		SpanReporter failing = span -> {
+			throw new IllegalStateException("boom");
+		};
+		FinishedSpan span = span();
+
+		try (AsyncSpanReporter reporter = reporter(Arrays.asList(failing, reported::add), 16,
+				AsyncSpanReporter.OverflowPolicy.DROP_NEWEST)) {
+			reporter.report(span);
+
+			Awaitility.await().untilAsserted(() -> then(reported).containsExactly(span));
+		}
+	}
+
+	private AsyncSpanReporter reporter(List<SpanReporter> delegates, int capacity,
+			AsyncSpanReporter.OverflowPolicy policy) {
+		return new AsyncSpanReporter(() -> delegates, capacity, 1, 16, policy, 50, this.metrics);
+	}
+
+	private FinishedSpan span() {
+		return BDDMockito.mock(FinishedSpan.class);
+	}
+
+	static class BlockingReporter implements SpanReporter {
+
+		final Queue<FinishedSpan> reported = new ConcurrentLinkedQueue<>();
+
+		final CountDownLatch firstSpan = new CountDownLatch(1);
+
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public void report(FinishedSpan span) {
+			this.reported.add(span);
+			this.firstSpan.countDown();
+			try {
+				this.release.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		void awaitFirstSpan() throws InterruptedException {
+			then(this.firstSpan.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+
+		void release() {
+			this.release.countDown();
+		}
+
+	}
+
+	static class CountingMetrics implements SpanReporterMetrics {
+
+		final AtomicInteger enqueued = new AtomicInteger();
+
+		final AtomicInteger dropped = new AtomicInteger();
+
+		final AtomicInteger delivered = new AtomicInteger();
+
+		@Override
+		public void incrementSpansEnqueued() {
+			this.enqueued.incrementAndGet();
+		}
+
+		@Override
+		public void incrementSpansDropped(int quantity) {
+			this.dropped.addAndGet(quantity);
+		}
+
+		@Override
+		public void incrementSpansDelivered(int quantity) {
+			this.delivered.addAndGet(quantity);
+		}
+
+	}
+
+}
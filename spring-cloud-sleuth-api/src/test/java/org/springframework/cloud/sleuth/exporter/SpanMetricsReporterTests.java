@@ -0,0 +1,163 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.exporter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+
+import org.springframework.cloud.sleuth.Span;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class SpanMetricsReporterTests {
+
+	List<SpanMetricsReporter.Series> added = new ArrayList<>();
+
+	SpanMetricsReporter reporter = new SpanMetricsReporter("foo-service", 2, this.added::add);
+
+	@Test
+	void should_aggregate_spans_by_name_kind_remote_service_and_outcome() {
+		this.reporter.report(span("get", Span.Kind.CLIENT, "bar", 1_000L, false));
+		this.reporter.report(span("get", Span.Kind.CLIENT, "bar", 3_000L, false));
+		this.reporter.report(span("get", Span.Kind.CLIENT, "bar", 2_000L, true));
+		this.reporter.report(span("get", Span.Kind.SERVER, null, 2_000L, false));
+
+		then(this.added).hasSize(3);
+		SpanMetricsReporter.Series series = this.added.get(0);
+		then(series.getLocalServiceName()).isEqualTo("foo-service");
+		then(series.getName()).isEqualTo("get");
+		then(series.getKind()).isEqualTo(Span.Kind.CLIENT);
+		then(series.getRemoteServiceName()).isEqualTo("bar");
+		then(series.isError()).isFalse();
+		then(series.getCount()).isEqualTo(2);
+		then(series.getTotalTime(TimeUnit.MILLISECONDS)).isEqualTo(4d);
+		then(this.added.get(1).isError()).isTrue();
+		then(this.added.get(2).getRemoteServiceName()).isNull();
+		then(this.reporter.getSeries()).hasSize(3);
+	}
+
+	@Test
+	void should_treat_error_tag_as_failure() {
+		FinishedSpan span = span("get", Span.Kind.CLIENT, null, 1_000L, false);
+		BDDMockito.given(span.getTags()).willReturn(Collections.singletonMap("error", "boom"));
+
+		this.reporter.report(span);
+
+		then(this.added).singleElement().extracting(SpanMetricsReporter.Series::isError).isEqualTo(true);
+	}
+
+	@Test
+	void should_aggregate_span_names_above_the_limit_as_other() {
+		this.reporter.report(span("a", null, null, 1_000L, false));
+		this.reporter.report(span("b", null, null, 1_000L, false));
+		this.reporter.report(span("c", null, null, 1_000L, false));
+		this.reporter.report(span("d", null, null, 1_000L, false));
+		this.reporter.report(span("a", null, null, 1_000L, false));
+
+		then(this.added).extracting(SpanMetricsReporter.Series::getName).containsExactly("a", "b",
+				SpanMetricsReporter.OTHER_SPAN_NAME);
+		then(this.added.get(2).getCount()).isEqualTo(2);
+	}
+
+	@Test
+	void should_aggregate_remote_service_names_above_the_limit_as_other() {
+		SpanMetricsReporter reporter = new SpanMetricsReporter("foo-service", 2, 2, Collections.emptyList(),
+				this.added::add);
+
+		reporter.report(span("get", Span.Kind.CLIENT, "a", 1_000L, false));
+		reporter.report(span("get", Span.Kind.CLIENT, "b", 1_000L, false));
+		reporter.report(span("get", Span.Kind.CLIENT, "c", 1_000L, false));
+		reporter.report(span("get", Span.Kind.CLIENT, "d", 1_000L, false));
+		reporter.report(span("get", Span.Kind.CLIENT, null, 1_000L, false));
+
+		then(this.added).extracting(SpanMetricsReporter.Series::getRemoteServiceName).containsExactly("a", "b",
+				SpanMetricsReporter.OTHER_REMOTE_SERVICE_NAME, null);
+		then(this.added.get(2).getCount()).isEqualTo(2);
+	}
+
+	@Test
+	void should_skip_spans_without_valid_timestamps() {
+		FinishedSpan span = span("get", null, null, 1_000L, false);
+		BDDMockito.given(span.getStartTimestamp()).willReturn(0L);
+
+		this.reporter.report(span);
+
+		then(this.added).isEmpty();
+	}
+
+	@Test
+	void should_approximate_percentiles_and_cumulative_counts() {
+		for (long i = 1; i <= 100; i++) {
+			this.reporter.report(span("get", null, null, i * 1_000L, false));
+		}
+
+		SpanMetricsReporter.Series series = this.added.get(0);
+		then(series.getCount()).isEqualTo(100);
+		then(series.getDurationAtPercentile(50, TimeUnit.MILLISECONDS)).isBetween(50d, 50d * 17 / 16);
+		then(series.getDurationAtPercentile(99, TimeUnit.MILLISECONDS)).isBetween(99d, 99d * 17 / 16);
+		then(series.getCountAtOrBelow(10, TimeUnit.MILLISECONDS)).isBetween(10L, 11L);
+		then(series.getCountAtOrBelow(1, TimeUnit.SECONDS)).isEqualTo(100);
+	}
+
+	@Test
+	void should_count_spans_exactly_at_the_bounds_of_configured_buckets() {
+		SpanMetricsReporter reporter = new SpanMetricsReporter("foo-service", 2, Arrays.asList(10L, 5L),
+				this.added::add);
+		// a single histogram bucket holds values from 4.864 ms to 5.119 ms
+		reporter.report(span("get", null, null, 5_000L, false));
+		reporter.report(span("get", null, null, 5_001L, false));
+		reporter.report(span("get", null, null, 5_100L, false));
+		reporter.report(span("get", null, null, 20_000L, false));
+
+		SpanMetricsReporter.Series series = this.added.get(0);
+		then(series.getCountAtOrBelow(5, TimeUnit.MILLISECONDS)).isEqualTo(1);
+		then(series.getCountAtOrBelow(10, TimeUnit.MILLISECONDS)).isEqualTo(3);
+		then(series.getCountAtOrBelow(1, TimeUnit.SECONDS)).isEqualTo(4);
+	}
+
+	@Test
+	void should_map_each_value_to_bucket_that_contains_it() {
+		for (long value : new long[] { 0, 1, 15, 16, 17, 31, 32, 1_000, 123_456, 60_000_000, Long.MAX_VALUE }) {
+			int index = LatencyHistogram.index(value);
+			then(index).isBetween(0, LatencyHistogram.BUCKETS - 1);
+			if (index < LatencyHistogram.BUCKETS - 1) {
+				then(LatencyHistogram.highestValue(index)).isGreaterThanOrEqualTo(value);
+				then(index == 0 || LatencyHistogram.highestValue(index - 1) < value).isTrue();
+			}
+		}
+	}
+
+	private FinishedSpan span(String name, Span.Kind kind, String remoteServiceName, long durationMicros,
+			boolean error) {
+		FinishedSpan span = BDDMockito.mock(FinishedSpan.class);
+		BDDMockito.given(span.getName()).willReturn(name);
+		BDDMockito.given(span.getKind()).willReturn(kind);
+		BDDMockito.given(span.getRemoteServiceName()).willReturn(remoteServiceName);
+		BDDMockito.given(span.getStartTimestamp()).willReturn(1_000_000L);
+		BDDMockito.given(span.getEndTimestamp()).willReturn(1_000_000L + durationMicros);
+		BDDMockito.given(span.getTags()).willReturn(Collections.emptyMap());
+		BDDMockito.given(span.getError()).willReturn(error ? new RuntimeException() : null);
+		return span;
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig;
+
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.lang.Nullable;
+
+/**
+ * Meters that get registered when they are first used. Metrics beans are created together
+ * with the tracer, so resolving the {@link MeterRegistry} lazily doesn't force its early
+ * initialization. Until a registry is available nothing is recorded.
+ *
+ * @param <T> type holding the registered meters
+ * @since 3.1.11
+ */
+public final class LazyMeters<T> {
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	private final Function<MeterRegistry, T> factory;
+
+	private volatile T meters;
+
+	/**
+	 * @param meterRegistry provider of the registry
+	 * @param factory registers the meters in the registry
+	 */
+	public LazyMeters(ObjectProvider<MeterRegistry> meterRegistry, Function<MeterRegistry, T> factory) {
+		this.meterRegistry = meterRegistry;
+		this.factory = factory;
+	}
+
+	/**
+	 * @return registered meters or {@code null} when there's no registry
+	 */
+	@Nullable
+	public T get() {
+		T meters = this.meters;
+		if (meters == null) {
+			MeterRegistry registry = this.meterRegistry.getIfAvailable();
+			if (registry == null) {
+				return null;
+			}
+			meters = this.factory.apply(registry);
+			this.meters = meters;
+		}
+		return meters;
+	}
+
+}
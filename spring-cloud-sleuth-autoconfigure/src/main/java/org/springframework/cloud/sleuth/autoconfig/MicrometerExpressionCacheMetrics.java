@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.sleuth.instrument.annotation.ExpressionCacheMetrics;
+
+/**
+ * {@link ExpressionCacheMetrics} backed by Micrometer counters. The meters are registered
+ * on first use.
+ *
+ * @since 3.1.11
+ */
+class MicrometerExpressionCacheMetrics implements ExpressionCacheMetrics {
+
+	private final LazyMeters<Counters> counters;
+
+	MicrometerExpressionCacheMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+		this.counters = new LazyMeters<>(meterRegistry, Counters::new);
+	}
+
+	@Override
+	public void cacheHit() {
+		Counters counters = this.counters.get();
+		if (counters != null) {
+			counters.hits.increment();
+		}
+	}
+
+	@Override
+	public void cacheMiss() {
+		Counters counters = this.counters.get();
+		if (counters != null) {
+			counters.misses.increment();
+		}
+	}
+
+	@Override
+	public void cacheEviction() {
+		Counters counters = this.counters.get();
+		if (counters != null) {
+			counters.evictions.increment();
+		}
+	}
+
+	private static final class Counters {
+
+		private final Counter hits;
+
+		private final Counter misses;
+
+		private final Counter evictions;
+
+		private Counters(MeterRegistry registry) {
+			this.hits = Counter.builder("sleuth.annotation.expressions.cache").tag("result", "hit")
+					.description("Lookups of parsed SPEL tag value expressions").register(registry);
+			this.misses = Counter.builder("sleuth.annotation.expressions.cache").tag("result", "miss")
+					.description("Lookups of parsed SPEL tag value expressions").register(registry);
+			this.evictions = Counter.builder("sleuth.annotation.expressions.cache.evictions")
+					.description("Parsed SPEL tag value expressions evicted from the full cache").register(registry);
+		}
+
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.sleuth.exporter.SpanMetricsReporter;
+
+/**
+ * Publishes the {@link SpanMetricsReporter.Series} to Micrometer. Each series becomes a
+ * {@code sleuth.span.metrics} function timer and cumulative
+ * {@code sleuth.span.metrics.histogram} bucket counters, tagged with the upper bound of
+ * the bucket in seconds. The bucket counts are exact when the reporter counts spans in
+ * the same buckets. The {@link MeterRegistry} is resolved lazily on first use.
+ *
+ * @since 3.1.11
+ */
+class MicrometerSpanMetrics implements SpanMetricsReporter.SeriesListener {
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	private final long[] bucketsMillis;
+
+	MicrometerSpanMetrics(ObjectProvider<MeterRegistry> meterRegistry, List<Long> bucketsMillis) {
+		this.meterRegistry = meterRegistry;
+		this.bucketsMillis = bucketsMillis.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+	}
+
+	@Override
+	public void seriesAdded(SpanMetricsReporter.Series series) {
+		MeterRegistry registry = this.meterRegistry.getIfAvailable();
+		if (registry == null) {
+			return;
+		}
+		Tags tags = Tags.of("service", series.getLocalServiceName(), "name", series.getName(), "kind",
+				series.getKind() != null ? series.getKind().name() : "NONE", "remote.service",
+				series.getRemoteServiceName() != null ? series.getRemoteServiceName() : "none", "error",
+				String.valueOf(series.isError()));
+		FunctionTimer
+				.builder("sleuth.span.metrics", series, SpanMetricsReporter.Series::getCount,
+						s -> s.getTotalTime(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS)
+				.description("Finished spans").tags(tags).register(registry);
+		for (long bucket : this.bucketsMillis) {
+			FunctionCounter
+					.builder("sleuth.span.metrics.histogram", series,
+							s -> s.getCountAtOrBelow(bucket, TimeUnit.MILLISECONDS))
+					.description("Finished spans that took at most the duration of the bucket").tags(tags)
+					.tag("le", String.valueOf(bucket / 1000d)).register(registry);
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.sleuth.exporter.SpanReporterMetrics;
+
+/**
+ * {@link SpanReporterMetrics} backed by Micrometer counters. The meters are registered on
+ * first use.
+ *
+ * @since 3.1.11
+ */
+class MicrometerSpanReporterMetrics implements SpanReporterMetrics {
+
+	private final LazyMeters<Counters> counters;
+
+	MicrometerSpanReporterMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+		this.counters = new LazyMeters<>(meterRegistry, Counters::new);
+	}
+
+	@Override
+	public void incrementSpansEnqueued() {
+		Counters counters = this.counters.get();
+		if (counters != null) {
+			counters.enqueued.increment();
+		}
+	}
+
+	@Override
+	public void incrementSpansDropped(int quantity) {
+		Counters counters = this.counters.get();
+		if (counters != null) {
+			counters.dropped.increment(quantity);
+		}
+	}
+
+	@Override
+	public void incrementSpansDelivered(int quantity) {
+		Counters counters = this.counters.get();
+		if (counters != null) {
+			counters.delivered.increment(quantity);
+		}
+	}
+
+	private static final class Counters {
+
+		private final Counter enqueued;
+
+		private final Counter dropped;
+
+		private final Counter delivered;
+
+		private Counters(MeterRegistry registry) {
+			this.enqueued = Counter.builder("sleuth.reporter.spans.enqueued")
+					.description("Spans accepted by the asynchronous span reporter").register(registry);
+			this.dropped = Counter.builder("sleuth.reporter.spans.dropped")
+					.description("Spans dropped by the asynchronous span reporter").register(registry);
+			this.delivered = Counter.builder("sleuth.reporter.spans.delivered")
+					.description("Spans delivered to span reporters").register(registry);
+		}
+
+	}
+
+}
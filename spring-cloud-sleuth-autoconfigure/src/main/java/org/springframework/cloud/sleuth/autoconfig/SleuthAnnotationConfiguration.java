@@ -16,11 +16,15 @@
 
 package org.springframework.cloud.sleuth.autoconfig;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.sleuth.annotation.NewSpan;
 import org.springframework.cloud.sleuth.annotation.NewSpanParser;
 import org.springframework.cloud.sleuth.annotation.NoOpTagValueResolver;
@@ -28,6 +32,7 @@ import org.springframework.cloud.sleuth.annotation.SleuthMethodInvocationProcess
 import org.springframework.cloud.sleuth.annotation.TagValueExpressionResolver;
 import org.springframework.cloud.sleuth.annotation.TagValueResolver;
 import org.springframework.cloud.sleuth.instrument.annotation.DefaultSpanCreator;
+import org.springframework.cloud.sleuth.instrument.annotation.ExpressionCacheMetrics;
 import org.springframework.cloud.sleuth.instrument.annotation.NonReactorSleuthMethodInvocationProcessor;
 import org.springframework.cloud.sleuth.instrument.annotation.ReactorSleuthMethodInvocationProcessor;
 import org.springframework.cloud.sleuth.instrument.annotation.SleuthAdvisorConfig;
@@ -49,6 +54,7 @@ import org.springframework.context.annotation.Role;
 @Configuration(proxyBeanMethods = false)
 @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
 @ConditionalOnProperty(name = { "spring.sleuth.enabled", "spring.sleuth.annotation.enabled" }, matchIfMissing = true)
+@EnableConfigurationProperties(SleuthAnnotationProperties.class)
 public class SleuthAnnotationConfiguration {
 
 	@Bean
@@ -59,8 +65,10 @@ public class SleuthAnnotationConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean
-	TagValueExpressionResolver spelTagValueExpressionResolver() {
-		return new SpelTagValueExpressionResolver();
+	TagValueExpressionResolver spelTagValueExpressionResolver(SleuthAnnotationProperties properties,
+			ObjectProvider<ExpressionCacheMetrics> metrics) {
+		return new SpelTagValueExpressionResolver(properties.getExpressionCacheSize(),
+				properties.getExpressionCompilerMode(), metrics.getIfAvailable(() -> ExpressionCacheMetrics.NOOP));
 	}
 
 	@Bean
@@ -89,4 +97,16 @@ public class SleuthAnnotationConfiguration {
 		return new NonReactorSleuthMethodInvocationProcessor();
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterRegistry.class)
+	static class MicrometerExpressionCacheMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		ExpressionCacheMetrics sleuthMicrometerExpressionCacheMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+			return new MicrometerExpressionCacheMetrics(meterRegistry);
+		}
+
+	}
+
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.sleuth.instrument.annotation.SpelTagValueExpressionResolver;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+/**
+ * Sleuth settings for annotation based spans.
+ *
+ * @since 3.1.11
+ */
+@ConfigurationProperties("spring.sleuth.annotation")
+public class SleuthAnnotationProperties {
+
+	/**
+	 * Max number of parsed SPEL tag value expressions kept in memory.
+	 */
+	private int expressionCacheSize = SpelTagValueExpressionResolver.DEFAULT_CACHE_SIZE;
+
+	/**
+	 * Whether and when SPEL tag value expressions get compiled to bytecode.
+	 */
+	private SpelCompilerMode expressionCompilerMode = SpelCompilerMode.OFF;
+
+	public int getExpressionCacheSize() {
+		return this.expressionCacheSize;
+	}
+
+	public void setExpressionCacheSize(int expressionCacheSize) {
+		this.expressionCacheSize = expressionCacheSize;
+	}
+
+	public SpelCompilerMode getExpressionCompilerMode() {
+		return this.expressionCompilerMode;
+	}
+
+	public void setExpressionCompilerMode(SpelCompilerMode expressionCompilerMode) {
+		this.expressionCompilerMode = expressionCompilerMode;
+	}
+
+}
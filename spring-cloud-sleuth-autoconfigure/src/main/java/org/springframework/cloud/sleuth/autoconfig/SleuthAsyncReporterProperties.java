@@ -0,0 +1,109 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.sleuth.exporter.AsyncSpanReporter;
+
+/**
+ * Sleuth settings for reporting finished spans off the thread that ended them.
+ *
+ * @since 3.1.11
+ */
+@ConfigurationProperties("spring.sleuth.reporter.async")
+public class SleuthAsyncReporterProperties {
+
+	/**
+	 * When true, span reporters are called asynchronously from dedicated drain threads.
+	 */
+	private boolean enabled;
+
+	/**
+	 * Max number of spans waiting for delivery. Rounded up to a power of two.
+	 */
+	private int queueCapacity = 2048;
+
+	/**
+	 * Number of threads delivering spans to the span reporters.
+	 */
+	private int drainThreads = 1;
+
+	/**
+	 * Max number of spans a drain thread takes from the queue at once.
+	 */
+	private int batchSize = 256;
+
+	/**
+	 * What to do with a span when the queue is full.
+	 */
+	private AsyncSpanReporter.OverflowPolicy overflowPolicy = AsyncSpanReporter.OverflowPolicy.DROP_NEWEST;
+
+	/**
+	 * Timeout in milliseconds to wait for free space in the queue when the overflow
+	 * policy is BLOCK.
+	 */
+	private long blockTimeout = 100;
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getQueueCapacity() {
+		return this.queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
+	public int getDrainThreads() {
+		return this.drainThreads;
+	}
+
+	public void setDrainThreads(int drainThreads) {
+		this.drainThreads = drainThreads;
+	}
+
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public AsyncSpanReporter.OverflowPolicy getOverflowPolicy() {
+		return this.overflowPolicy;
+	}
+
+	public void setOverflowPolicy(AsyncSpanReporter.OverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	public long getBlockTimeout() {
+		return this.blockTimeout;
+	}
+
+	public void setBlockTimeout(long blockTimeout) {
+		this.blockTimeout = blockTimeout;
+	}
+
+}
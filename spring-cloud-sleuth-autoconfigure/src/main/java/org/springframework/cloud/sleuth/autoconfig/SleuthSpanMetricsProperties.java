@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.sleuth.exporter.SpanMetricsReporter;
+
+/**
+ * Sleuth settings for the rate, errors and duration metrics derived from finished spans.
+ *
+ * @since 3.1.11
+ */
+@ConfigurationProperties("spring.sleuth.span-metrics")
+public class SleuthSpanMetricsProperties {
+
+	/**
+	 * When true, metrics are derived from all the finished spans, also the ones that
+	 * weren't sampled. Requires Micrometer. Brave then records all the spans locally, so
+	 * every SpanHandler bean also gets the spans that weren't sampled.
+	 */
+	private boolean enabled;
+
+	/**
+	 * Max number of distinct span names. Spans with other names are aggregated under the
+	 * name 'other'.
+	 */
+	private int maxSpanNames = SpanMetricsReporter.DEFAULT_MAX_SPAN_NAMES;
+
+	/**
+	 * Max number of distinct remote service names. Spans with other remote service names
+	 * are aggregated under the remote service name 'other'.
+	 */
+	private int maxRemoteServiceNames = SpanMetricsReporter.DEFAULT_MAX_REMOTE_SERVICE_NAMES;
+
+	/**
+	 * Upper bounds in milliseconds of the published histogram buckets of span durations.
+	 */
+	private List<Long> buckets = new ArrayList<>(
+			Arrays.asList(5L, 10L, 25L, 50L, 100L, 250L, 500L, 1000L, 2500L, 5000L, 10000L));
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxSpanNames() {
+		return this.maxSpanNames;
+	}
+
+	public void setMaxSpanNames(int maxSpanNames) {
+		this.maxSpanNames = maxSpanNames;
+	}
+
+	public int getMaxRemoteServiceNames() {
+		return this.maxRemoteServiceNames;
+	}
+
+	public void setMaxRemoteServiceNames(int maxRemoteServiceNames) {
+		this.maxRemoteServiceNames = maxRemoteServiceNames;
+	}
+
+	public List<Long> getBuckets() {
+		return this.buckets;
+	}
+
+	public void setBuckets(List<Long> buckets) {
+		this.buckets = buckets;
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.sleuth.internal.SqlStatementParser;
+
+/**
+ * Sleuth settings for the SQL statements of JDBC and R2DBC spans.
+ *
+ * @since 3.1.11
+ */
+@ConfigurationProperties("spring.sleuth.sql")
+public class SleuthSqlProperties {
+
+	/**
+	 * When true, queries are tagged with their fingerprint, i.e. with comments removed,
+	 * whitespace collapsed and literals replaced with ?.
+	 */
+	private boolean fingerprintEnabled;
+
+	/**
+	 * Max length of the tagged query. Not limited when 0.
+	 */
+	private int maxTagLength;
+
+	/**
+	 * Max number of fingerprinted statements that are cached. Used only when
+	 * fingerprinting is enabled.
+	 */
+	private int cacheSize = SqlStatementParser.DEFAULT_CACHE_SIZE;
+
+	public boolean isFingerprintEnabled() {
+		return this.fingerprintEnabled;
+	}
+
+	public void setFingerprintEnabled(boolean fingerprintEnabled) {
+		this.fingerprintEnabled = fingerprintEnabled;
+	}
+
+	public int getMaxTagLength() {
+		return this.maxTagLength;
+	}
+
+	public void setMaxTagLength(int maxTagLength) {
+		this.maxTagLength = maxTagLength;
+	}
+
+	public int getCacheSize() {
+		return this.cacheSize;
+	}
+
+	public void setCacheSize(int cacheSize) {
+		this.cacheSize = cacheSize;
+	}
+
+}
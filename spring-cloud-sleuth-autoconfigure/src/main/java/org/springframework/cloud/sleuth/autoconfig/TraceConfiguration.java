@@ -16,12 +16,23 @@
 
 package org.springframework.cloud.sleuth.autoconfig;
 
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.sleuth.SpanNamer;
+import org.springframework.cloud.sleuth.exporter.AsyncSpanReporter;
 import org.springframework.cloud.sleuth.exporter.SpanFilter;
 import org.springframework.cloud.sleuth.exporter.SpanIgnoringSpanFilter;
+import org.springframework.cloud.sleuth.exporter.SpanMetricsReporter;
+import org.springframework.cloud.sleuth.exporter.SpanReporter;
+import org.springframework.cloud.sleuth.exporter.SpanReporterMetrics;
 import org.springframework.cloud.sleuth.internal.DefaultSpanNamer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -38,7 +49,7 @@ import org.springframework.context.annotation.Configuration;
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnProperty(value = "spring.sleuth.enabled", matchIfMissing = true)
 @EnableConfigurationProperties({ SleuthSpanFilterProperties.class, SleuthBaggageProperties.class,
-		SleuthTracerProperties.class })
+		SleuthTracerProperties.class, SleuthAsyncReporterProperties.class, SleuthSpanMetricsProperties.class })
 public class TraceConfiguration {
 
 	@Bean
@@ -54,4 +65,52 @@ public class TraceConfiguration {
 				sleuthSpanFilterProperties.getAdditionalSpanNamePatternsToIgnore());
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(value = "spring.sleuth.reporter.async.enabled", havingValue = "true")
+	static class AsyncSpanReporterConfiguration {
+
+		// Delegates are resolved on first delivery, so that the async reporter does not
+		// end up reporting to itself. Reporters of unsampled spans are called directly.
+		@Bean
+		AsyncSpanReporter sleuthAsyncSpanReporter(ObjectProvider<SpanReporter> reporters,
+				ObjectProvider<SpanReporterMetrics> metrics, SleuthAsyncReporterProperties properties) {
+			return new AsyncSpanReporter(
+					() -> reporters.orderedStream().filter(
+							reporter -> !(reporter instanceof AsyncSpanReporter) && !reporter.reportsUnsampledSpans())
+							.collect(Collectors.toList()),
+					properties.getQueueCapacity(), properties.getDrainThreads(), properties.getBatchSize(),
+					properties.getOverflowPolicy(), properties.getBlockTimeout(),
+					metrics.getIfAvailable(() -> SpanReporterMetrics.NOOP));
+		}
+
+		@Configuration(proxyBeanMethods = false)
+		@ConditionalOnClass(MeterRegistry.class)
+		static class MicrometerSpanReporterMetricsConfiguration {
+
+			@Bean
+			@ConditionalOnMissingBean
+			SpanReporterMetrics sleuthMicrometerSpanReporterMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+				return new MicrometerSpanReporterMetrics(meterRegistry);
+			}
+
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(value = "spring.sleuth.span-metrics.enabled", havingValue = "true")
+	@ConditionalOnClass(MeterRegistry.class)
+	static class SpanMetricsReporterConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		SpanMetricsReporter sleuthSpanMetricsReporter(@Value("${spring.application.name:default}") String appName,
+				SleuthSpanMetricsProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+			return new SpanMetricsReporter(appName, properties.getMaxSpanNames(),
+					properties.getMaxRemoteServiceNames(), properties.getBuckets(),
+					new MicrometerSpanMetrics(meterRegistry, properties.getBuckets()));
+		}
+
+	}
+
 }
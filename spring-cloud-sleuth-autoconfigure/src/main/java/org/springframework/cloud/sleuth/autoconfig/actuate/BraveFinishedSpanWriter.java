@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.sleuth.autoconfig.actuate;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,6 +26,7 @@ import brave.handler.MutableSpanBytesEncoder;
 import org.springframework.cloud.sleuth.brave.bridge.BraveFinishedSpan;
 import org.springframework.cloud.sleuth.exporter.FinishedSpan;
 import org.springframework.cloud.sleuth.exporter.SpanReporter;
+import org.springframework.core.io.Resource;
 
 /**
  * A {@link SpanReporter} that buffers finished spans.
@@ -34,13 +36,30 @@ import org.springframework.cloud.sleuth.exporter.SpanReporter;
  */
 class BraveFinishedSpanWriter implements FinishedSpanWriter<String> {
 
+	private static final byte[] JSON_LIST_START = "[".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] JSON_LIST_SEPARATOR = ",".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] JSON_LIST_END = "]".getBytes(StandardCharsets.UTF_8);
+
+	private final MutableSpanBytesEncoder encoder = MutableSpanBytesEncoder.zipkinJsonV2(Tags.ERROR);
+
 	@Override
 	public String write(TextOutputFormat format, List<FinishedSpan> spans) {
 		if (format == TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2) {
-			return new String(MutableSpanBytesEncoder.zipkinJsonV2(Tags.ERROR)
+			return new String(this.encoder
 					.encodeList(spans.stream().map(BraveFinishedSpan::toBrave).collect(Collectors.toList())));
 		}
 		return null;
 	}
 
+	@Override
+	public Resource stream(TextOutputFormat format, List<FinishedSpan> spans, boolean gzip) {
+		if (format == TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2) {
+			return new FinishedSpansResource(spans, span -> this.encoder.encode(BraveFinishedSpan.toBrave(span)),
+					JSON_LIST_START, JSON_LIST_SEPARATOR, JSON_LIST_END, gzip);
+		}
+		return null;
+	}
+
 }
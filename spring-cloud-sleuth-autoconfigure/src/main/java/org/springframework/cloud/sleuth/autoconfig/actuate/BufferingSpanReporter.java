@@ -17,17 +17,24 @@
 package org.springframework.cloud.sleuth.autoconfig.actuate;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.springframework.boot.context.metrics.buffering.StartupTimeline;
 import org.springframework.cloud.sleuth.exporter.FinishedSpan;
 import org.springframework.cloud.sleuth.exporter.SpanReporter;
+import org.springframework.util.Assert;
 
 /**
- * A {@link SpanReporter} that buffers finished spans.
+ * A {@link SpanReporter} that buffers finished spans. Spans are stored in a preallocated
+ * ring buffer. When the buffer is full the oldest span is overwritten. Each slot has a
+ * stamp next to the span, which holds the sequence number of the stored span plus one,
+ * {@code 0} for a slot that was never written and a negative stamp while the slot is
+ * being written or drained. Reporting a span doesn't allocate, and taking a snapshot
+ * never blocks a reporting thread.
  *
  * @author Marcin Grzejszczak
  * @since 3.1.0
@@ -36,12 +43,19 @@ public class BufferingSpanReporter implements SpanReporter {
 
 	private final int capacity;
 
-	private final AtomicInteger estimatedSize = new AtomicInteger();
+	private final AtomicLongArray stamps;
 
-	final ConcurrentLinkedQueue<FinishedSpan> spans = new ConcurrentLinkedQueue<>();
+	private final AtomicReferenceArray<FinishedSpan> spans;
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	private final LongAdder overwrittenSpans = new LongAdder();
 
 	public BufferingSpanReporter(int capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be positive");
 		this.capacity = capacity;
+		this.stamps = new AtomicLongArray(capacity);
+		this.spans = new AtomicReferenceArray<>(capacity);
 	}
 
 	/**
@@ -52,7 +66,20 @@ public class BufferingSpanReporter implements SpanReporter {
 	 * @return a snapshot of currently buffered spans.
 	 */
 	public List<FinishedSpan> getFinishedSpans() {
-		return new ArrayList<>(this.spans);
+		return collect(false, 0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Return a snapshot of a page of currently buffered spans. Spans are numbered in the
+	 * order they were reported. Use {@code since} plus the number of returned spans as
+	 * the {@code since} cursor of the next page.
+	 * @param since sequence number of the first returned span
+	 * @param limit max number of returned spans
+	 * @return a snapshot of buffered spans, from the oldest to the newest
+	 * @since 3.1.11
+	 */
+	public List<FinishedSpan> getFinishedSpans(long since, int limit) {
+		return collect(false, since, limit);
 	}
 
 	/**
@@ -63,27 +90,113 @@ public class BufferingSpanReporter implements SpanReporter {
 	 * @return buffered steps drained from the buffer.
 	 */
 	public List<FinishedSpan> drainFinishedSpans() {
-		List<FinishedSpan> events = new ArrayList<>();
-		Iterator<FinishedSpan> iterator = this.spans.iterator();
-		while (iterator.hasNext()) {
-			events.add(iterator.next());
-			iterator.remove();
-		}
-		this.estimatedSize.set(0);
-		return events;
+		return collect(true, 0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Pulls at most {@code limit} of the oldest spans from the buffer.
+	 * @param limit max number of drained spans
+	 * @return buffered spans drained from the buffer
+	 * @since 3.1.11
+	 */
+	public List<FinishedSpan> drainFinishedSpans(int limit) {
+		return collect(true, 0, limit);
+	}
+
+	/**
+	 * @return number of spans that were overwritten before they got drained
+	 */
+	public long getOverwrittenSpans() {
+		return this.overwrittenSpans.sum();
+	}
+
+	/**
+	 * @return number of reported spans, i.e. the sequence number of the next span
+	 * @since 3.1.11
+	 */
+	public long getReportedSpans() {
+		return this.sequence.get();
+	}
+
+	/**
+	 * @return max number of buffered spans
+	 */
+	public int getCapacity() {
+		return this.capacity;
 	}
 
 	@Override
 	public void report(FinishedSpan span) {
-		if (this.estimatedSize.get() < this.capacity) {
-			this.estimatedSize.incrementAndGet();
-			this.spans.add(span);
+		store(this.sequence.getAndIncrement(), span);
+	}
+
+	/**
+	 * Stores the span in its slot unless a span with a newer sequence number is already
+	 * there, which happens when this thread was lapped by the other producers. While an
+	 * older span is being written to or drained from the slot, waits for it to finish,
+	 * which only takes a few instructions.
+	 */
+	void store(long sequence, FinishedSpan span) {
+		int index = (int) (sequence % this.capacity);
+		long stamp = sequence + 1;
+		while (true) {
+			long current = this.stamps.get(index);
+			if (current >= stamp || -current > stamp) {
+				// the slot already holds or is being given a newer span
+				this.overwrittenSpans.increment();
+				return;
+			}
+			if (current < 0) {
+				Thread.yield();
+				continue;
+			}
+			if (this.stamps.compareAndSet(index, current, -stamp)) {
+				FinishedSpan previous = this.spans.getAndSet(index, span);
+				this.stamps.set(index, stamp);
+				if (previous != null) {
+					this.overwrittenSpans.increment();
+				}
+				return;
+			}
 		}
-		else {
-			this.spans.poll();
-			this.estimatedSize.decrementAndGet();
-			report(span);
+	}
+
+	/**
+	 * Walks the slots from the oldest to the newest span. A slot is read only when its
+	 * stamp is the one of the expected sequence before and after reading the span, so a
+	 * slot that a producer hasn't written yet doesn't return the span of the previous lap
+	 * of the ring. A drained slot keeps its stamp and loses its span.
+	 */
+	private List<FinishedSpan> collect(boolean drain, long since, int limit) {
+		long end = this.sequence.get();
+		long start = Math.max(since, Math.max(0, end - this.capacity));
+		List<FinishedSpan> result = new ArrayList<>((int) Math.max(0, Math.min(end - start, limit)));
+		for (long i = start; i < end && result.size() < limit; i++) {
+			int index = (int) (i % this.capacity);
+			long stamp = i + 1;
+			FinishedSpan span;
+			if (drain) {
+				if (!this.stamps.compareAndSet(index, stamp, -stamp)) {
+					// not written yet, overwritten by a producer or drained concurrently
+					continue;
+				}
+				span = this.spans.getAndSet(index, null);
+				this.stamps.set(index, stamp);
+			}
+			else {
+				if (this.stamps.get(index) != stamp) {
+					continue;
+				}
+				span = this.spans.get(index);
+				if (this.stamps.get(index) != stamp) {
+					continue;
+				}
+			}
+			if (span != null) {
+				result.add(span);
+			}
 		}
+		return result;
 	}
 
 }
@@ -19,6 +19,8 @@ package org.springframework.cloud.sleuth.autoconfig.actuate;
 import java.util.List;
 
 import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
 
 /**
  * Writes finished spans in a provided format.
@@ -37,4 +39,19 @@ public interface FinishedSpanWriter<T> {
 	 */
 	T write(TextOutputFormat format, List<FinishedSpan> spans);
 
+	/**
+	 * Streams the spans in a given format. Spans get encoded while the returned resource
+	 * is read, so the whole payload is never held in memory.
+	 * @param format format in which spans should be stored
+	 * @param spans spans to store
+	 * @param gzip whether the content should be gzipped
+	 * @return resource with the encoded spans or {@code null} if streaming of the
+	 * {@link TextOutputFormat} is not supported
+	 * @since 3.1.11
+	 */
+	@Nullable
+	default Resource stream(TextOutputFormat format, List<FinishedSpan> spans, boolean gzip) {
+		return null;
+	}
+
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.actuate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * A {@link org.springframework.core.io.Resource} that encodes finished spans while it's
+ * being read. Spans are encoded in small chunks, so the whole payload is never held in
+ * memory. The content can be gzipped on the fly.
+ *
+ * @since 3.1.11
+ */
+public class FinishedSpansResource extends AbstractResource {
+
+	private static final int CHUNK_SIZE = 8192;
+
+	private final List<FinishedSpan> spans;
+
+	private final Function<FinishedSpan, byte[]> encoder;
+
+	private final byte[] prefix;
+
+	private final byte[] separator;
+
+	private final byte[] suffix;
+
+	private final boolean gzip;
+
+	/**
+	 * @param spans spans to encode
+	 * @param encoder encodes a single span
+	 * @param prefix bytes written before the first span
+	 * @param separator bytes written between spans
+	 * @param suffix bytes written after the last span
+	 * @param gzip whether the content should be gzipped
+	 */
+	public FinishedSpansResource(List<FinishedSpan> spans, Function<FinishedSpan, byte[]> encoder, byte[] prefix,
+			byte[] separator, byte[] suffix, boolean gzip) {
+		this.spans = spans;
+		this.encoder = encoder;
+		this.prefix = prefix;
+		this.separator = separator;
+		this.suffix = suffix;
+		this.gzip = gzip;
+	}
+
+	@Override
+	public String getDescription() {
+		return "Stream of [" + this.spans.size() + "] finished spans";
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return new SpansInputStream();
+	}
+
+	/**
+	 * The length is unknown until all spans are encoded, the content is sent in chunks.
+	 * @return {@code -1}
+	 */
+	@Override
+	public long contentLength() {
+		return -1;
+	}
+
+	private static final class Chunk extends ByteArrayOutputStream {
+
+		private Chunk() {
+			super(CHUNK_SIZE);
+		}
+
+		private int read(int position) {
+			return this.buf[position] & 0xff;
+		}
+
+		private void copy(int position, byte[] target, int offset, int length) {
+			System.arraycopy(this.buf, position, target, offset, length);
+		}
+
+	}
+
+	private final class SpansInputStream extends InputStream {
+
+		private final Iterator<FinishedSpan> iterator = FinishedSpansResource.this.spans.iterator();
+
+		private final Chunk chunk = new Chunk();
+
+		private final OutputStream sink;
+
+		private int position;
+
+		private boolean first = true;
+
+		private boolean finished;
+
+		private SpansInputStream() throws IOException {
+			this.sink = FinishedSpansResource.this.gzip ? new GZIPOutputStream(this.chunk, CHUNK_SIZE) : this.chunk;
+			this.sink.write(FinishedSpansResource.this.prefix);
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (!fill()) {
+				return -1;
+			}
+			return this.chunk.read(this.position++);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!fill()) {
+				return -1;
+			}
+			int length = Math.min(len, this.chunk.size() - this.position);
+			this.chunk.copy(this.position, b, off, length);
+			this.position += length;
+			return length;
+		}
+
+		/**
+		 * Encodes spans until there are bytes to read.
+		 * @return {@code false} when all spans were read
+		 */
+		private boolean fill() throws IOException {
+			while (this.position == this.chunk.size()) {
+				if (this.finished) {
+					return false;
+				}
+				this.chunk.reset();
+				this.position = 0;
+				while (this.chunk.size() < CHUNK_SIZE && this.iterator.hasNext()) {
+					if (!this.first) {
+						this.sink.write(FinishedSpansResource.this.separator);
+					}
+					this.first = false;
+					this.sink.write(FinishedSpansResource.this.encoder.apply(this.iterator.next()));
+				}
+				if (!this.iterator.hasNext()) {
+					this.sink.write(FinishedSpansResource.this.suffix);
+					this.sink.close();
+					this.finished = true;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
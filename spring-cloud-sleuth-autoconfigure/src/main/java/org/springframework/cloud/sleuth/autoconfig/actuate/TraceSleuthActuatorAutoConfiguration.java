@@ -54,10 +54,17 @@ public class TraceSleuthActuatorAutoConfiguration {
 	@Bean
 	@ConditionalOnMissingBean
 	TracesScrapeEndpoint sleuthTracesScrapeEndpoint(BufferingSpanReporter bufferingSpanReporter,
-			FinishedSpanWriter finishedSpanWriter) {
+			FinishedSpanWriter<?> finishedSpanWriter) {
 		return new TracesScrapeEndpoint(bufferingSpanReporter, finishedSpanWriter);
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnAvailableEndpoint
+	TracesBufferEndpoint sleuthTracesBufferEndpoint(BufferingSpanReporter bufferingSpanReporter) {
+		return new TracesBufferEndpoint(bufferingSpanReporter);
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnClass(brave.Tracer.class)
 	@ConditionalOnBraveEnabled
@@ -65,7 +72,7 @@ public class TraceSleuthActuatorAutoConfiguration {
 
 		@Bean
 		@ConditionalOnMissingBean
-		FinishedSpanWriter sleuthBraveFinishedSpanWriter() {
+		FinishedSpanWriter<String> sleuthBraveFinishedSpanWriter() {
 			return new BraveFinishedSpanWriter();
 		}
 
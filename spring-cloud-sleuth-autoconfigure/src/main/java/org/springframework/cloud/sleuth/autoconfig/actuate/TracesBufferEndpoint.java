@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.actuate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * {@link Endpoint @Endpoint} that shows statistics of the buffer of the
+ * {@link TracesScrapeEndpoint}, i.e. its capacity, how many spans were reported and how
+ * many were overwritten before they got scraped. The number of reported spans is the
+ * sequence number of the next span, to be used as the first {@code since} cursor of the
+ * traces endpoint.
+ *
+ * @since 3.1.11
+ */
+@Endpoint(id = "tracesbuffer")
+public class TracesBufferEndpoint {
+
+	private final BufferingSpanReporter bufferingSpanReporter;
+
+	public TracesBufferEndpoint(BufferingSpanReporter bufferingSpanReporter) {
+		this.bufferingSpanReporter = bufferingSpanReporter;
+	}
+
+	/**
+	 * @return buffer statistics
+	 */
+	@ReadOperation
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("capacity", this.bufferingSpanReporter.getCapacity());
+		stats.put("reportedSpans", this.bufferingSpanReporter.getReportedSpans());
+		stats.put("overwrittenSpans", this.bufferingSpanReporter.getOverwrittenSpans());
+		return stats;
+	}
+
+}
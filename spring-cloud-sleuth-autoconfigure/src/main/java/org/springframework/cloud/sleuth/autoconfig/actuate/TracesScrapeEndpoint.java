@@ -16,7 +16,12 @@
 
 package org.springframework.cloud.sleuth.autoconfig.actuate;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
@@ -24,8 +29,12 @@ import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
 import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
 import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
 import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
 
 /**
  * {@link Endpoint @Endpoint} that outputs spans in a format that can be scraped by a
@@ -37,35 +46,98 @@ import org.springframework.lang.NonNull;
 @WebEndpoint(id = "traces")
 public class TracesScrapeEndpoint {
 
+	static final MimeType GZIP = MimeType.valueOf("application/gzip");
+
 	private final BufferingSpanReporter bufferingSpanReporter;
 
-	private final FinishedSpanWriter finishedSpanWriter;
+	private final FinishedSpanWriter<?> finishedSpanWriter;
 
-	public TracesScrapeEndpoint(BufferingSpanReporter bufferingSpanReporter, FinishedSpanWriter finishedSpanWriter) {
+	public TracesScrapeEndpoint(BufferingSpanReporter bufferingSpanReporter, FinishedSpanWriter<?> finishedSpanWriter) {
 		this.bufferingSpanReporter = bufferingSpanReporter;
 		this.finishedSpanWriter = finishedSpanWriter;
 	}
 
-	@ReadOperation(producesFrom = TextOutputFormat.class)
 	public WebEndpointResponse<Object> spansSnapshot(TextOutputFormat format) {
-		List<FinishedSpan> finishedSpans = this.bufferingSpanReporter.getFinishedSpans();
-		return response(format, finishedSpans);
+		return spansSnapshot(format, null, null, null);
+	}
+
+	/**
+	 * Returns a snapshot of the buffered spans.
+	 * @param format output format
+	 * @param limit max number of returned spans
+	 * @param since sequence number of the first returned span, spans are numbered in the
+	 * order they were reported; pass the {@code since} of the previous page plus the
+	 * number of spans it returned to get the next one
+	 * @param gzip whether the spans should be returned gzipped
+	 * @return buffered spans
+	 */
+	@ReadOperation(producesFrom = TextOutputFormat.class)
+	public WebEndpointResponse<Object> spansSnapshot(TextOutputFormat format, @Nullable Integer limit,
+			@Nullable Long since, @Nullable Boolean gzip) {
+		// without paging go through the no-arg method, which subclasses may override
+		List<FinishedSpan> finishedSpans = limit == null && since == null
+				? this.bufferingSpanReporter.getFinishedSpans()
+				: this.bufferingSpanReporter.getFinishedSpans(since != null ? since : 0L, limit(limit));
+		return response(format, finishedSpans, Boolean.TRUE.equals(gzip));
+	}
+
+	private static int limit(@Nullable Integer limit) {
+		return limit != null && limit >= 0 ? limit : Integer.MAX_VALUE;
 	}
 
 	@NonNull
-	private WebEndpointResponse<Object> response(TextOutputFormat format, List<FinishedSpan> finishedSpans) {
+	private WebEndpointResponse<Object> response(TextOutputFormat format, List<FinishedSpan> finishedSpans,
+			boolean gzip) {
+		Resource stream = this.finishedSpanWriter.stream(format, finishedSpans, gzip);
+		if (stream != null) {
+			return gzip ? new WebEndpointResponse<>(stream, HttpStatus.OK.value(), GZIP)
+					: new WebEndpointResponse<>(stream, format);
+		}
 		Object spans = this.finishedSpanWriter.write(format, finishedSpans);
 		if (spans == null) {
 			return new WebEndpointResponse<>("The format [" + format.getProducedMimeType() + " ] is not supported",
 					HttpStatus.NOT_ACCEPTABLE.value());
 		}
-		return new WebEndpointResponse<>(spans, format);
+		if (!gzip) {
+			return new WebEndpointResponse<>(spans, format);
+		}
+		if (spans instanceof String) {
+			return gzipped(((String) spans).getBytes(StandardCharsets.UTF_8));
+		}
+		if (spans instanceof byte[]) {
+			return gzipped((byte[]) spans);
+		}
+		return new WebEndpointResponse<>("Gzip is not supported for the format [" + format.getProducedMimeType() + " ]",
+				HttpStatus.NOT_ACCEPTABLE.value());
+	}
+
+	private static WebEndpointResponse<Object> gzipped(byte[] bytes) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bytes);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return new WebEndpointResponse<>(new ByteArrayResource(out.toByteArray()), HttpStatus.OK.value(), GZIP);
 	}
 
-	@WriteOperation(producesFrom = TextOutputFormat.class)
 	public WebEndpointResponse<Object> spans(TextOutputFormat format) {
-		List<FinishedSpan> finishedSpans = this.bufferingSpanReporter.drainFinishedSpans();
-		return response(format, finishedSpans);
+		return spans(format, null, null);
+	}
+
+	/**
+	 * Drains the buffered spans.
+	 * @param format output format
+	 * @param limit max number of drained spans, the oldest spans are drained first
+	 * @param gzip whether the spans should be returned gzipped
+	 * @return drained spans
+	 */
+	@WriteOperation(producesFrom = TextOutputFormat.class)
+	public WebEndpointResponse<Object> spans(TextOutputFormat format, @Nullable Integer limit, @Nullable Boolean gzip) {
+		List<FinishedSpan> finishedSpans = limit == null ? this.bufferingSpanReporter.drainFinishedSpans()
+				: this.bufferingSpanReporter.drainFinishedSpans(limit(limit));
+		return response(format, finishedSpans, Boolean.TRUE.equals(gzip));
 	}
 
 }
@@ -30,6 +30,7 @@ import brave.propagation.Propagation;
 import brave.propagation.ThreadLocalCurrentTraceContext;
 import brave.sampler.Sampler;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -42,6 +43,7 @@ import org.springframework.cloud.sleuth.autoconfig.SleuthTracerProperties;
 import org.springframework.cloud.sleuth.autoconfig.TraceConfiguration;
 import org.springframework.cloud.sleuth.autoconfig.brave.instrument.web.BraveHttpConfiguration;
 import org.springframework.cloud.sleuth.brave.LocalServiceName;
+import org.springframework.cloud.sleuth.brave.bridge.CompositeSpanHandler;
 import org.springframework.cloud.sleuth.internal.DefaultSpanNamer;
 import org.springframework.cloud.sleuth.internal.SleuthContextListener;
 import org.springframework.context.annotation.Bean;
@@ -67,7 +69,8 @@ import org.springframework.util.StringUtils;
 @EnableConfigurationProperties({ SleuthProperties.class, SleuthSpanFilterProperties.class,
 		SleuthBaggageProperties.class, SleuthTracerProperties.class, SleuthBaggageProperties.class })
 @Import({ BraveBridgeConfiguration.class, BraveBaggageConfiguration.class, BraveSamplerConfiguration.class,
-		BraveHttpConfiguration.class, TraceConfiguration.class, SleuthAnnotationConfiguration.class })
+		BraveTailSamplingConfiguration.class, BraveHttpConfiguration.class, TraceConfiguration.class,
+		SleuthAnnotationConfiguration.class })
 public class BraveAutoConfiguration {
 
 	/**
@@ -90,7 +93,8 @@ public class BraveAutoConfiguration {
 	// NOTE: stable bean name as might be used outside sleuth
 	Tracing tracing(@LocalServiceName String serviceName, Propagation.Factory factory,
 			CurrentTraceContext currentTraceContext, Sampler sampler, SleuthProperties sleuthProperties,
-			@Nullable List<SpanHandler> spanHandlers, @Nullable List<TracingCustomizer> tracingCustomizers) {
+			@Nullable List<SpanHandler> spanHandlers, @Nullable List<TracingCustomizer> tracingCustomizers,
+			ObjectProvider<TailSamplingSpanHandlerFactory> tailSamplingSpanHandlerFactory) {
 		Tracing.Builder builder = Tracing.newBuilder().sampler(sampler)
 				.localServiceName(!StringUtils.hasText(serviceName) ? DEFAULT_SERVICE_NAME : serviceName)
 				.propagationFactory(factory).currentTraceContext(currentTraceContext)
@@ -98,6 +102,11 @@ public class BraveAutoConfiguration {
 		if (spanHandlers != null) {
 			for (SpanHandler spanHandlerFactory : spanHandlers) {
 				builder.addSpanHandler(spanHandlerFactory);
+				if (spanHandlerFactory instanceof CompositeSpanHandler
+						&& ((CompositeSpanHandler) spanHandlerFactory).reportsUnsampledSpans()) {
+					// spans that weren't sampled are needed e.g. for span metrics
+					builder.alwaysSampleLocal();
+				}
 			}
 		}
 		if (tracingCustomizers != null) {
@@ -105,6 +114,10 @@ public class BraveAutoConfiguration {
 				customizer.customize(builder);
 			}
 		}
+		TailSamplingSpanHandlerFactory tailSampling = tailSamplingSpanHandlerFactory.getIfAvailable();
+		if (tailSampling != null) {
+			tailSampling.apply(builder);
+		}
 
 		return builder.build();
 	}
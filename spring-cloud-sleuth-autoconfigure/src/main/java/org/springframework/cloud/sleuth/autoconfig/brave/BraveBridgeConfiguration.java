@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import brave.Tracing;
 import brave.handler.SpanHandler;
@@ -47,6 +48,7 @@ import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
 import org.springframework.cloud.sleuth.brave.bridge.CompositePropagationFactorySupplier;
 import org.springframework.cloud.sleuth.brave.bridge.CompositeSpanHandler;
 import org.springframework.cloud.sleuth.brave.propagation.PropagationFactorySupplier;
+import org.springframework.cloud.sleuth.exporter.AsyncSpanReporter;
 import org.springframework.cloud.sleuth.exporter.SpanFilter;
 import org.springframework.cloud.sleuth.exporter.SpanReporter;
 import org.springframework.cloud.sleuth.instrument.reactor.ReactorSleuth;
@@ -91,9 +93,19 @@ class BraveBridgeConfiguration {
 	// Name is important for sampling conditions
 	@Bean(name = "traceCompositeSpanHandler")
 	SpanHandler compositeSpanHandler(ObjectProvider<List<SpanFilter>> exporters,
-			ObjectProvider<List<SpanReporter>> reporters) {
-		return new CompositeSpanHandler(exporters.getIfAvailable(ArrayList::new),
-				reporters.getIfAvailable(ArrayList::new));
+			ObjectProvider<List<SpanReporter>> reporters, ObjectProvider<AsyncSpanReporter> asyncSpanReporter) {
+		AsyncSpanReporter asyncReporter = asyncSpanReporter.getIfAvailable();
+		List<SpanReporter> spanReporters = reporters.getIfAvailable(ArrayList::new);
+		if (asyncReporter != null) {
+			// The async reporter delivers to all the other reporters, apart from the ones
+			// that also report unsampled spans
+			List<SpanReporter> unsampledSpanReporters = spanReporters.stream()
+					.filter(SpanReporter::reportsUnsampledSpans).collect(Collectors.toList());
+			spanReporters = new ArrayList<>();
+			spanReporters.add(asyncReporter);
+			spanReporters.addAll(unsampledSpanReporters);
+		}
+		return new CompositeSpanHandler(exporters.getIfAvailable(ArrayList::new), spanReporters);
 	}
 
 	@Bean
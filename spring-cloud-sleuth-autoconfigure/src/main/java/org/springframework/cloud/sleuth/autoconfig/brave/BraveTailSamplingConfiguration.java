@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.brave;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.sleuth.brave.bridge.TailSamplingMetrics;
+import org.springframework.cloud.sleuth.brave.bridge.TailSamplingPolicy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@linkplain Configuration configuration} for sampling traces after their local root
+ * span ended.
+ *
+ * @since 3.1.11
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(value = "spring.sleuth.tail-sampling.enabled", havingValue = "true")
+@EnableConfigurationProperties(TailSamplingProperties.class)
+class BraveTailSamplingConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	TailSamplingPolicy sleuthTailSamplingPolicy(TailSamplingProperties properties) {
+		List<TailSamplingPolicy> policies = new ArrayList<>();
+		if (properties.isErrors()) {
+			policies.add(TailSamplingPolicy.errors());
+		}
+		if (properties.getLatencyThreshold() != null) {
+			policies.add(TailSamplingPolicy.latency(properties.getLatencyThreshold(), TimeUnit.MILLISECONDS));
+		}
+		properties.getTags().forEach((key, value) -> policies.add(TailSamplingPolicy.tag(key, Pattern.compile(value))));
+		return TailSamplingPolicy.anyOf(policies);
+	}
+
+	@Bean
+	TailSamplingSpanHandlerFactory sleuthTailSamplingSpanHandlerFactory(TailSamplingPolicy policy,
+			TailSamplingProperties properties, ObjectProvider<TailSamplingMetrics> metrics) {
+		return new TailSamplingSpanHandlerFactory(policy, properties,
+				metrics.getIfAvailable(() -> TailSamplingMetrics.NOOP));
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterRegistry.class)
+	static class MicrometerTailSamplingMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		TailSamplingMetrics sleuthMicrometerTailSamplingMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+			return new MicrometerTailSamplingMetrics(meterRegistry);
+		}
+
+	}
+
+}
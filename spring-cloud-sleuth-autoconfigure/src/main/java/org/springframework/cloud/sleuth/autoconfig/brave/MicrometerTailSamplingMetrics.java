@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.brave;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.sleuth.autoconfig.LazyMeters;
+import org.springframework.cloud.sleuth.brave.bridge.TailSamplingMetrics;
+
+/**
+ * {@link TailSamplingMetrics} backed by Micrometer counters. The meters are registered on
+ * first use.
+ *
+ * @since 3.1.11
+ */
+class MicrometerTailSamplingMetrics implements TailSamplingMetrics {
+
+	private final LazyMeters<Counters> counters;
+
+	MicrometerTailSamplingMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+		this.counters = new LazyMeters<>(meterRegistry, Counters::new);
+	}
+
+	@Override
+	public void incrementTracesKept() {
+		Counters counters = this.counters.get();
+		if (counters != null) {
+			counters.kept.increment();
+		}
+	}
+
+	@Override
+	public void incrementTracesDropped() {
+		Counters counters = this.counters.get();
+		if (counters != null) {
+			counters.dropped.increment();
+		}
+	}
+
+	@Override
+	public void incrementTracesEvicted() {
+		Counters counters = this.counters.get();
+		if (counters != null) {
+			counters.evicted.increment();
+		}
+	}
+
+	private static final class Counters {
+
+		private final Counter kept;
+
+		private final Counter dropped;
+
+		private final Counter evicted;
+
+		private Counters(MeterRegistry registry) {
+			this.kept = Counter.builder("sleuth.tail-sampling.traces.kept")
+					.description("Traces reported after their local root span ended").register(registry);
+			this.dropped = Counter.builder("sleuth.tail-sampling.traces.dropped")
+					.description("Traces the tail sampling policy didn't keep").register(registry);
+			this.evicted = Counter.builder("sleuth.tail-sampling.traces.evicted")
+					.description("Traces evicted from the buffer before their local root span ended")
+					.register(registry);
+		}
+
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.brave;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.sleuth.brave.bridge.TailSamplingSpanHandler;
+
+/**
+ * Properties related to sampling traces after their local root span ended.
+ *
+ * @since 3.1.11
+ */
+@ConfigurationProperties("spring.sleuth.tail-sampling")
+public class TailSamplingProperties {
+
+	/**
+	 * When true, spans that weren't sampled are buffered and reported when their trace
+	 * failed, was slow or has matching tags.
+	 */
+	private boolean enabled;
+
+	/**
+	 * Time in milliseconds a trace is buffered for, waiting for its local root span to
+	 * end.
+	 */
+	private long window = TailSamplingSpanHandler.DEFAULT_WINDOW;
+
+	/**
+	 * Max number of buffered traces. The oldest traces are evicted when exceeded.
+	 * Decided traces are counted separately, up to the same number.
+	 */
+	private int maxTraces = TailSamplingSpanHandler.DEFAULT_MAX_TRACES;
+
+	/**
+	 * Max number of buffered spans. The oldest traces are evicted when exceeded.
+	 */
+	private int maxSpans = TailSamplingSpanHandler.DEFAULT_MAX_SPANS;
+
+	/**
+	 * When true, traces with a span that failed or was tagged with 'error' are kept.
+	 */
+	private boolean errors = true;
+
+	/**
+	 * Min duration in milliseconds of the local root span of kept traces. Not applied
+	 * when not set.
+	 */
+	private Long latencyThreshold;
+
+	/**
+	 * Tag keys and regular expressions. Traces with a span tagged with a matching value
+	 * are kept.
+	 */
+	private Map<String, String> tags = new LinkedHashMap<>();
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public long getWindow() {
+		return this.window;
+	}
+
+	public void setWindow(long window) {
+		this.window = window;
+	}
+
+	public int getMaxTraces() {
+		return this.maxTraces;
+	}
+
+	public void setMaxTraces(int maxTraces) {
+		this.maxTraces = maxTraces;
+	}
+
+	public int getMaxSpans() {
+		return this.maxSpans;
+	}
+
+	public void setMaxSpans(int maxSpans) {
+		this.maxSpans = maxSpans;
+	}
+
+	public boolean isErrors() {
+		return this.errors;
+	}
+
+	public void setErrors(boolean errors) {
+		this.errors = errors;
+	}
+
+	public Long getLatencyThreshold() {
+		return this.latencyThreshold;
+	}
+
+	public void setLatencyThreshold(Long latencyThreshold) {
+		this.latencyThreshold = latencyThreshold;
+	}
+
+	public Map<String, String> getTags() {
+		return this.tags;
+	}
+
+	public void setTags(Map<String, String> tags) {
+		this.tags = tags;
+	}
+
+}
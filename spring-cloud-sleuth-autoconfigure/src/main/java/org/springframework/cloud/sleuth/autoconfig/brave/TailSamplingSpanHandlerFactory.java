@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.brave;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import brave.Tracing;
+import brave.handler.SpanHandler;
+
+import org.springframework.cloud.sleuth.brave.bridge.TailSamplingMetrics;
+import org.springframework.cloud.sleuth.brave.bridge.TailSamplingPolicy;
+import org.springframework.cloud.sleuth.brave.bridge.TailSamplingSpanHandler;
+
+/**
+ * Puts a {@link TailSamplingSpanHandler} in front of all the span handlers of a
+ * {@link Tracing.Builder}. It's applied after the tracing customizers, so that the
+ * handlers keep the order they set.
+ *
+ * @since 3.1.11
+ */
+class TailSamplingSpanHandlerFactory {
+
+	private final TailSamplingPolicy policy;
+
+	private final TailSamplingProperties properties;
+
+	private final TailSamplingMetrics metrics;
+
+	TailSamplingSpanHandlerFactory(TailSamplingPolicy policy, TailSamplingProperties properties,
+			TailSamplingMetrics metrics) {
+		this.policy = policy;
+		this.properties = properties;
+		this.metrics = metrics;
+	}
+
+	void apply(Tracing.Builder builder) {
+		List<SpanHandler> spanHandlers = new ArrayList<>(builder.spanHandlers());
+		builder.clearSpanHandlers();
+		builder.addSpanHandler(new TailSamplingSpanHandler(spanHandlers, this.policy, this.properties.getWindow(),
+				this.properties.getMaxTraces(), this.properties.getMaxSpans(), this.metrics));
+		// spans that weren't sampled are buffered until the local root span ends
+		builder.alwaysSampleLocal();
+	}
+
+}
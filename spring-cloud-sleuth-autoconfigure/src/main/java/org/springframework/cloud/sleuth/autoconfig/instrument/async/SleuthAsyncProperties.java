@@ -57,4 +57,34 @@ public class SleuthAsyncProperties {
 		this.ignoredBeans = ignoredBeans;
 	}
 
+	/**
+	 * List of {@link java.util.concurrent.Executor} bean name patterns whose tasks only
+	 * continue the trace context of the submitting thread. No spans are created for their
+	 * tasks.
+	 */
+	private List<String> contextOnlyBeans = Collections.emptyList();
+
+	public List<String> getContextOnlyBeans() {
+		return this.contextOnlyBeans;
+	}
+
+	public void setContextOnlyBeans(List<String> contextOnlyBeans) {
+		this.contextOnlyBeans = contextOnlyBeans;
+	}
+
+	/**
+	 * List of {@link java.util.concurrent.Executor} bean name patterns that create a span
+	 * for a task only when it was submitted with a sampled span. The other tasks only
+	 * continue the trace context of the submitting thread.
+	 */
+	private List<String> sampledSpanBeans = Collections.emptyList();
+
+	public List<String> getSampledSpanBeans() {
+		return this.sampledSpanBeans;
+	}
+
+	public void setSampledSpanBeans(List<String> sampledSpanBeans) {
+		this.sampledSpanBeans = sampledSpanBeans;
+	}
+
 }
@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.sleuth.autoconfig.instrument.async;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Executor;
 
 import org.apache.commons.logging.Log;
@@ -36,6 +38,8 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.cloud.sleuth.SpanNamer;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.autoconfig.brave.BraveAutoConfiguration;
+import org.springframework.cloud.sleuth.instrument.async.ExecutorTracingMode;
+import org.springframework.cloud.sleuth.instrument.async.ExecutorTracingModeResolver;
 import org.springframework.cloud.sleuth.instrument.async.LazyTraceExecutor;
 import org.springframework.cloud.sleuth.instrument.async.TraceAsyncAspect;
 import org.springframework.context.annotation.Bean;
@@ -69,6 +73,16 @@ public class TraceAsyncDefaultAutoConfiguration {
 		return new ExecutorBeanPostProcessor(beanFactory);
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	ExecutorTracingModeResolver executorTracingModeResolver(SleuthAsyncProperties sleuthAsyncProperties) {
+		Map<String, ExecutorTracingMode> modes = new LinkedHashMap<>();
+		sleuthAsyncProperties.getContextOnlyBeans().forEach(pattern -> modes.put(pattern, ExecutorTracingMode.CONTEXT));
+		sleuthAsyncProperties.getSampledSpanBeans()
+				.forEach(pattern -> modes.putIfAbsent(pattern, ExecutorTracingMode.SAMPLED_SPAN));
+		return new ExecutorTracingModeResolver(modes);
+	}
+
 	@Bean
 	TraceAsyncAspect traceAsyncAspect(Tracer tracer, SpanNamer spanNamer) {
 		return new TraceAsyncAspect(tracer, spanNamer);
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.instrument.jdbc;
+
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Clears the remote endpoints parsed from the JDBC URLs after a refresh, since the data
+ * sources might point to different databases.
+ *
+ * @since 3.1.11
+ */
+class RemoteEndpointCacheRefresher implements ApplicationListener<RefreshScopeRefreshedEvent> {
+
+	private final Runnable clearCache;
+
+	RemoteEndpointCacheRefresher(Runnable clearCache) {
+		this.clearCache = clearCache;
+	}
+
+	@Override
+	public void onApplicationEvent(RefreshScopeRefreshedEvent event) {
+		this.clearCache.run();
+	}
+
+}
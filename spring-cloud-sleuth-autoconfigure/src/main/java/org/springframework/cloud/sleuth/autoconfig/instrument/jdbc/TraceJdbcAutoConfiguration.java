@@ -18,6 +18,10 @@ package org.springframework.cloud.sleuth.autoconfig.instrument.jdbc;
 
 import javax.sql.DataSource;
 
+import com.p6spy.engine.spy.P6DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -26,11 +30,16 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
 import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.autoconfig.SleuthSqlProperties;
 import org.springframework.cloud.sleuth.autoconfig.brave.BraveAutoConfiguration;
 import org.springframework.cloud.sleuth.instrument.jdbc.DataSourceDecorator;
 import org.springframework.cloud.sleuth.instrument.jdbc.DataSourceNameResolver;
 import org.springframework.cloud.sleuth.instrument.jdbc.TraceHikariListenerStrategySpanCustomizer;
+import org.springframework.cloud.sleuth.instrument.jdbc.TraceJdbcEventListener;
+import org.springframework.cloud.sleuth.instrument.jdbc.TraceQueryExecutionListener;
+import org.springframework.cloud.sleuth.internal.SqlStatementParser;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -41,7 +50,7 @@ import org.springframework.context.annotation.Import;
  * @author Arthur Gavlyukovskiy
  */
 @Configuration(proxyBeanMethods = false)
-@EnableConfigurationProperties(TraceJdbcProperties.class)
+@EnableConfigurationProperties({ TraceJdbcProperties.class, SleuthSqlProperties.class })
 @ConditionalOnProperty(name = "spring.sleuth.jdbc.enabled", havingValue = "true", matchIfMissing = true)
 @ConditionalOnBean({ DataSource.class, Tracer.class })
 @AutoConfigureAfter({ DataSourceAutoConfiguration.class, BraveAutoConfiguration.class })
@@ -62,10 +71,43 @@ public class TraceJdbcAutoConfiguration {
 		return new DataSourceNameResolver();
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	SqlStatementParser sleuthSqlStatementParser(SleuthSqlProperties sleuthSqlProperties) {
+		return new SqlStatementParser(sleuthSqlProperties.getCacheSize(), sleuthSqlProperties.isFingerprintEnabled(),
+				sleuthSqlProperties.getMaxTagLength());
+	}
+
 	@Bean
 	@ConditionalOnClass(name = "com.zaxxer.hikari.HikariDataSource")
 	TraceHikariListenerStrategySpanCustomizer traceHikariListenerStrategySpanCustomizer() {
 		return new TraceHikariListenerStrategySpanCustomizer();
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass({ RefreshScope.class, P6DataSource.class })
+	static class P6SpyRemoteEndpointCacheRefresherConfiguration {
+
+		@Bean
+		RemoteEndpointCacheRefresher p6SpyRemoteEndpointCacheRefresher(
+				ObjectProvider<TraceJdbcEventListener> listeners) {
+			return new RemoteEndpointCacheRefresher(
+					() -> listeners.forEach(TraceJdbcEventListener::clearRemoteEndpointCache));
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass({ RefreshScope.class, ProxyDataSource.class })
+	static class DataSourceProxyRemoteEndpointCacheRefresherConfiguration {
+
+		@Bean
+		RemoteEndpointCacheRefresher dataSourceProxyRemoteEndpointCacheRefresher(
+				ObjectProvider<TraceQueryExecutionListener> listeners) {
+			return new RemoteEndpointCacheRefresher(
+					() -> listeners.forEach(TraceQueryExecutionListener::clearRemoteEndpointCache));
+		}
+
+	}
+
 }
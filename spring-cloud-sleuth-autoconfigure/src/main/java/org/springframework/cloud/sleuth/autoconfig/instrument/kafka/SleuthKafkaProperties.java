@@ -0,0 +1,58 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.instrument.kafka;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.sleuth.instrument.kafka.KafkaConsumerSpanMode;
+
+/**
+ * Sleuth settings for Apache Kafka clients.
+ *
+ * @since 3.1.11
+ */
+@ConfigurationProperties("spring.sleuth.kafka")
+public class SleuthKafkaProperties {
+
+	/**
+	 * Spans created for the records polled by a Kafka consumer. RECORD creates a span for
+	 * each record, BATCH a single span for each poll and spans only for the records that
+	 * continue a sampled trace.
+	 */
+	private KafkaConsumerSpanMode consumerSpanMode = KafkaConsumerSpanMode.RECORD;
+
+	public KafkaConsumerSpanMode getConsumerSpanMode() {
+		return this.consumerSpanMode;
+	}
+
+	public void setConsumerSpanMode(KafkaConsumerSpanMode consumerSpanMode) {
+		this.consumerSpanMode = consumerSpanMode;
+	}
+
+	/**
+	 * Reads the consumer span mode lazily, so that bean post processors don't initialize
+	 * the properties too early.
+	 * @param beanFactory bean factory
+	 * @return configured consumer span mode or {@link KafkaConsumerSpanMode#RECORD} when
+	 * the properties are not available
+	 */
+	static KafkaConsumerSpanMode consumerSpanMode(BeanFactory beanFactory) {
+		SleuthKafkaProperties properties = beanFactory.getBeanProvider(SleuthKafkaProperties.class).getIfAvailable();
+		return properties != null ? properties.getConsumerSpanMode() : KafkaConsumerSpanMode.RECORD;
+	}
+
+}
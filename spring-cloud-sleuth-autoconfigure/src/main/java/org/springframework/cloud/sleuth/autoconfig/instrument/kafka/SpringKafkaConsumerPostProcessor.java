@@ -19,6 +19,7 @@ package org.springframework.cloud.sleuth.autoconfig.instrument.kafka;
 import org.apache.kafka.clients.consumer.Consumer;
 
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.cloud.sleuth.instrument.kafka.KafkaConsumerSpanMode;
 import org.springframework.cloud.sleuth.instrument.kafka.TracingKafkaConsumer;
 import org.springframework.kafka.core.ConsumerPostProcessor;
 
@@ -26,13 +27,22 @@ class SpringKafkaConsumerPostProcessor<K, V> implements ConsumerPostProcessor<K,
 
 	private final BeanFactory beanFactory;
 
+	private KafkaConsumerSpanMode spanMode;
+
 	SpringKafkaConsumerPostProcessor(BeanFactory beanFactory) {
 		this.beanFactory = beanFactory;
 	}
 
 	@Override
 	public Consumer<K, V> apply(Consumer<K, V> kvConsumer) {
-		return new TracingKafkaConsumer<>(kvConsumer, beanFactory);
+		return new TracingKafkaConsumer<>(kvConsumer, this.beanFactory, spanMode());
+	}
+
+	private KafkaConsumerSpanMode spanMode() {
+		if (this.spanMode == null) {
+			this.spanMode = SleuthKafkaProperties.consumerSpanMode(this.beanFactory);
+		}
+		return this.spanMode;
 	}
 
 }
@@ -41,7 +41,8 @@ public class TracingKafkaConsumerBeanPostProcessor implements BeanPostProcessor
 	@Override
 	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
 		if (bean instanceof Consumer && !(bean instanceof TracingKafkaConsumer)) {
-			return new TracingKafkaConsumer<>((Consumer) bean, beanFactory);
+			return new TracingKafkaConsumer<>((Consumer) bean, this.beanFactory,
+					SleuthKafkaProperties.consumerSpanMode(this.beanFactory));
 		}
 		return bean;
 	}
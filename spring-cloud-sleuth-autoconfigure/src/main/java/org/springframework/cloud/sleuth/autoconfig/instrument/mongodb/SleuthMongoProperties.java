@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.instrument.mongodb;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sleuth settings for MongoDb.
+ *
+ * @since 3.1.11
+ */
+@ConfigurationProperties("spring.sleuth.mongodb")
+public class SleuthMongoProperties {
+
+	/**
+	 * Names of the commands that don't get a span of their own and are part of the parent
+	 * span instead, e.g. the cursor commands getMore and killCursors. Every command gets
+	 * a span by default.
+	 */
+	private List<String> foldedCommands = new ArrayList<>();
+
+	public List<String> getFoldedCommands() {
+		return this.foldedCommands;
+	}
+
+	public void setFoldedCommands(List<String> foldedCommands) {
+		this.foldedCommands = foldedCommands;
+	}
+
+}
@@ -31,6 +31,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.autoconfig.brave.BraveAutoConfiguration;
 import org.springframework.cloud.sleuth.instrument.mongodb.TraceAllTypesMongoClientSettingsBuilderCustomizer;
@@ -57,14 +58,16 @@ import org.springframework.context.annotation.Configuration;
 @AutoConfigureBefore(MongoAutoConfiguration.class)
 @ConditionalOnProperty(value = "spring.sleuth.mongodb.enabled", matchIfMissing = true)
 @ConditionalOnClass(MongoClientSettings.Builder.class)
+@EnableConfigurationProperties(SleuthMongoProperties.class)
 public class TraceMongoDbAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean
 	@Conditional(EitherSynchronousOrReactiveContextProviderPresent.class)
 	TraceMongoClientSettingsBuilderCustomizer traceMongoClientSettingsBuilderCustomizer(Tracer tracer,
-			ObjectProvider<List<TraceMongoSpanCustomizer>> customizers) {
-		return new TraceMongoClientSettingsBuilderCustomizer(tracer, customizers.getIfAvailable(ArrayList::new));
+			ObjectProvider<List<TraceMongoSpanCustomizer>> customizers, SleuthMongoProperties properties) {
+		return new TraceMongoClientSettingsBuilderCustomizer(tracer, customizers.getIfAvailable(ArrayList::new),
+				properties.getFoldedCommands());
 	}
 
 	@Bean
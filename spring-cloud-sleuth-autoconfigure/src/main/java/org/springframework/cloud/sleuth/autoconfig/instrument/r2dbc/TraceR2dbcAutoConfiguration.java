@@ -22,10 +22,14 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.autoconfig.SleuthSqlProperties;
 import org.springframework.cloud.sleuth.autoconfig.brave.BraveAutoConfiguration;
+import org.springframework.cloud.sleuth.internal.SqlStatementParser;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -41,6 +45,7 @@ import org.springframework.context.annotation.Configuration;
 @ConditionalOnBean(Tracer.class)
 @ConditionalOnProperty(value = "spring.sleuth.r2dbc.enabled", matchIfMissing = true)
 @AutoConfigureAfter({ BraveAutoConfiguration.class, R2dbcAutoConfiguration.class })
+@EnableConfigurationProperties(SleuthSqlProperties.class)
 public class TraceR2dbcAutoConfiguration {
 
 	@Bean
@@ -48,4 +53,11 @@ public class TraceR2dbcAutoConfiguration {
 		return new TraceConnectionFactoryBeanPostProcessor(beanFactory);
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	SqlStatementParser sleuthSqlStatementParser(SleuthSqlProperties sleuthSqlProperties) {
+		return new SqlStatementParser(sleuthSqlProperties.getCacheSize(), sleuthSqlProperties.isFingerprintEnabled(),
+				sleuthSqlProperties.getMaxTagLength());
+	}
+
 }
@@ -51,6 +51,13 @@ public class SleuthReactorProperties {
 
 	private InstrumentationType instrumentationType = InstrumentationType.DECORATE_ON_EACH;
 
+	/**
+	 * When true, scope passing subscribers do not open a new scope for signals that
+	 * arrive on a thread where their trace context is already current, and adjacent
+	 * Sleuth operators at the end of a chain are merged into one.
+	 */
+	private boolean scopeElisionEnabled;
+
 	public boolean isEnabled() {
 		return this.enabled;
 	}
@@ -87,6 +94,14 @@ public class SleuthReactorProperties {
 		this.instrumentationType = instrumentationType;
 	}
 
+	public boolean isScopeElisionEnabled() {
+		return this.scopeElisionEnabled;
+	}
+
+	public void setScopeElisionEnabled(boolean scopeElisionEnabled) {
+		this.scopeElisionEnabled = scopeElisionEnabled;
+	}
+
 	public enum InstrumentationType {
 
 		/**
@@ -110,6 +125,14 @@ public class SleuthReactorProperties {
 		@Deprecated
 		DECORATE_ON_LAST,
 
+		/**
+		 * Restores the tracing context only where it can get lost, that is on scheduler
+		 * hops (e.g. {@code publishOn} or {@code subscribeOn}) via decorated queues and
+		 * scheduled tasks, and on asynchronous publishers that are not driven by a
+		 * Reactor scheduler. Synchronous operators are not instrumented at all.
+		 */
+		DECORATE_BOUNDARIES,
+
 		/**
 		 * Does not automatically wrap any operators.
 		 */
@@ -138,6 +138,7 @@ class HooksRefresher implements ApplicationListener<RefreshScopeRefreshedEvent>
 		Hooks.resetOnLastOperator(SLEUTH_TRACE_REACTOR_KEY);
 		Hooks.removeQueueWrapper(SLEUTH_TRACE_REACTOR_KEY);
 		Schedulers.resetOnScheduleHook(SLEUTH_REACTOR_EXECUTOR_SERVICE_KEY);
+		boolean elideScopes = this.reactorProperties.isScopeElisionEnabled();
 		switch (this.reactorProperties.getInstrumentationType()) {
 		case DECORATE_QUEUES:
 			if (TraceReactorAutoConfiguration.TraceReactorConfiguration.IS_QUEUE_WRAPPER_ON_THE_CLASSPATH) {
@@ -145,7 +146,20 @@ class HooksRefresher implements ApplicationListener<RefreshScopeRefreshedEvent>
 					log.trace("Adding queue wrapper instrumentation");
 				}
 				HookRegisteringBeanFactoryPostProcessor.addQueueWrapper(context);
-				Hooks.onLastOperator(SLEUTH_TRACE_REACTOR_KEY, ReactorSleuth.scopePassingSpanOperator(this.context));
+				Hooks.onLastOperator(SLEUTH_TRACE_REACTOR_KEY,
+						ReactorSleuth.scopePassingSpanOperator(this.context, elideScopes));
+				Schedulers.onScheduleHook(TraceReactorAutoConfiguration.SLEUTH_REACTOR_EXECUTOR_SERVICE_KEY,
+						ReactorSleuth.scopePassingOnScheduleHook(this.context));
+			}
+			break;
+		case DECORATE_BOUNDARIES:
+			if (TraceReactorAutoConfiguration.TraceReactorConfiguration.IS_QUEUE_WRAPPER_ON_THE_CLASSPATH) {
+				if (log.isTraceEnabled()) {
+					log.trace("Adding asynchronous boundaries instrumentation");
+				}
+				HookRegisteringBeanFactoryPostProcessor.addQueueWrapper(context);
+				Hooks.onEachOperator(SLEUTH_TRACE_REACTOR_KEY,
+						ReactorSleuth.onEachOperatorForBoundaryInstrumentation(this.context, elideScopes));
 				Schedulers.onScheduleHook(TraceReactorAutoConfiguration.SLEUTH_REACTOR_EXECUTOR_SERVICE_KEY,
 						ReactorSleuth.scopePassingOnScheduleHook(this.context));
 			}
@@ -155,9 +169,9 @@ class HooksRefresher implements ApplicationListener<RefreshScopeRefreshedEvent>
 				log.trace("Decorating onEach operator instrumentation");
 			}
 			Hooks.onEachOperator(SLEUTH_TRACE_REACTOR_KEY,
-					ReactorSleuth.onEachOperatorForOnEachInstrumentation(this.context));
+					ReactorSleuth.onEachOperatorForOnEachInstrumentation(this.context, elideScopes));
 			Hooks.onLastOperator(SLEUTH_TRACE_REACTOR_KEY,
-					ReactorSleuth.onLastOperatorForOnEachInstrumentation(this.context));
+					ReactorSleuth.onLastOperatorForOnEachInstrumentation(this.context, elideScopes));
 			Schedulers.onScheduleHook(TraceReactorAutoConfiguration.SLEUTH_REACTOR_EXECUTOR_SERVICE_KEY,
 					ReactorSleuth.scopePassingOnScheduleHook(this.context));
 			break;
@@ -165,7 +179,8 @@ class HooksRefresher implements ApplicationListener<RefreshScopeRefreshedEvent>
 			if (log.isTraceEnabled()) {
 				log.trace("Decorating onLast operator instrumentation");
 			}
-			Hooks.onLastOperator(SLEUTH_TRACE_REACTOR_KEY, ReactorSleuth.scopePassingSpanOperator(this.context));
+			Hooks.onLastOperator(SLEUTH_TRACE_REACTOR_KEY,
+					ReactorSleuth.scopePassingSpanOperator(this.context, elideScopes));
 			break;
 		case MANUAL:
 			Hooks.onLastOperator(SLEUTH_TRACE_REACTOR_KEY, ReactorSleuth.springContextSpanOperator(this.context));
@@ -198,9 +213,16 @@ class HookRegisteringBeanFactoryPostProcessor implements BeanFactoryPostProcesso
 					"You have explicitly set the decorate hooks option but you're using an old version of Reactor. Please upgrade to the latest Boot version (at least 2.4.3). Will fall back to the previous reactor instrumentation mode");
 			property = SleuthReactorProperties.InstrumentationType.DECORATE_ON_EACH;
 		}
+		boolean elideScopes = environment.getProperty("spring.sleuth.reactor.scope-elision-enabled", Boolean.class,
+				false);
 		if (property == SleuthReactorProperties.InstrumentationType.DECORATE_QUEUES) {
 			addQueueWrapper(springContext);
-			decorateOnLast(ReactorSleuth.scopePassingSpanOperator(springContext));
+			decorateOnLast(ReactorSleuth.scopePassingSpanOperator(springContext, elideScopes));
+			decorateScheduler(springContext);
+		}
+		else if (property == SleuthReactorProperties.InstrumentationType.DECORATE_BOUNDARIES) {
+			addQueueWrapper(springContext);
+			decorateBoundaries(springContext, elideScopes);
 			decorateScheduler(springContext);
 		}
 		else {
@@ -209,15 +231,15 @@ class HookRegisteringBeanFactoryPostProcessor implements BeanFactoryPostProcesso
 			if (!decorateOnEach) {
 				log.warn(
 						"You're using the deprecated [spring.sleuth.reactor.decorate-on-each] property. Please use the [spring.sleuth.reactor.instrumentation-type] one instead.");
-				decorateOnLast(ReactorSleuth.scopePassingSpanOperator(springContext));
+				decorateOnLast(ReactorSleuth.scopePassingSpanOperator(springContext, elideScopes));
 			}
 			else if (property == SleuthReactorProperties.InstrumentationType.DECORATE_ON_EACH) {
-				decorateOnEach(springContext);
-				decorateOnLast(onLastOperatorForOnEachInstrumentation(springContext));
+				decorateOnEach(springContext, elideScopes);
+				decorateOnLast(onLastOperatorForOnEachInstrumentation(springContext, elideScopes));
 				decorateScheduler(springContext);
 			}
 			else if (property == SleuthReactorProperties.InstrumentationType.DECORATE_ON_LAST) {
-				decorateOnLast(ReactorSleuth.scopePassingSpanOperator(springContext));
+				decorateOnLast(ReactorSleuth.scopePassingSpanOperator(springContext, elideScopes));
 				decorateScheduler(springContext);
 			}
 			else if (property == SleuthReactorProperties.InstrumentationType.MANUAL) {
@@ -228,7 +250,8 @@ class HookRegisteringBeanFactoryPostProcessor implements BeanFactoryPostProcesso
 
 	private static boolean wrapperNotOnClasspathHooksPropertyTurnedOn(
 			SleuthReactorProperties.InstrumentationType property) {
-		return property == SleuthReactorProperties.InstrumentationType.DECORATE_QUEUES
+		return (property == SleuthReactorProperties.InstrumentationType.DECORATE_QUEUES
+				|| property == SleuthReactorProperties.InstrumentationType.DECORATE_BOUNDARIES)
 				&& !TraceReactorAutoConfiguration.TraceReactorConfiguration.IS_QUEUE_WRAPPER_ON_THE_CLASSPATH;
 	}
 
@@ -244,12 +267,20 @@ class HookRegisteringBeanFactoryPostProcessor implements BeanFactoryPostProcesso
 		Hooks.onLastOperator(SLEUTH_TRACE_REACTOR_KEY, function);
 	}
 
-	private static void decorateOnEach(ConfigurableApplicationContext springContext) {
+	private static void decorateOnEach(ConfigurableApplicationContext springContext, boolean elideScopes) {
 		if (log.isTraceEnabled()) {
 			log.trace("Decorating onEach operator instrumentation");
 		}
 		Hooks.onEachOperator(SLEUTH_TRACE_REACTOR_KEY,
-				ReactorSleuth.onEachOperatorForOnEachInstrumentation(springContext));
+				ReactorSleuth.onEachOperatorForOnEachInstrumentation(springContext, elideScopes));
+	}
+
+	private static void decorateBoundaries(ConfigurableApplicationContext springContext, boolean elideScopes) {
+		if (log.isTraceEnabled()) {
+			log.trace("Decorating asynchronous boundaries");
+		}
+		Hooks.onEachOperator(SLEUTH_TRACE_REACTOR_KEY,
+				ReactorSleuth.onEachOperatorForBoundaryInstrumentation(springContext, elideScopes));
 	}
 
 	static void addQueueWrapper(ConfigurableApplicationContext springContext) {
@@ -266,7 +297,7 @@ class HookRegisteringBeanFactoryPostProcessor implements BeanFactoryPostProcesso
 		}
 		Hooks.resetOnEachOperator(SLEUTH_TRACE_REACTOR_KEY);
 		Hooks.resetOnLastOperator(SLEUTH_TRACE_REACTOR_KEY);
-		Hooks.removeQueueWrapper(SLEUTH_REACTOR_EXECUTOR_SERVICE_KEY);
+		Hooks.removeQueueWrapper(SLEUTH_TRACE_REACTOR_KEY);
 		Schedulers.resetOnScheduleHook(TraceReactorAutoConfiguration.SLEUTH_REACTOR_EXECUTOR_SERVICE_KEY);
 	}
 
@@ -0,0 +1,487 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.zipkin2;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import zipkin2.Call;
+import zipkin2.Callback;
+import zipkin2.CheckResult;
+import zipkin2.Span;
+import zipkin2.codec.Encoding;
+import zipkin2.reporter.AsyncReporter;
+import zipkin2.reporter.ReporterMetrics;
+import zipkin2.reporter.Sender;
+
+import org.springframework.cloud.sleuth.zipkin2.ZipkinProperties;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * {@link AsyncReporter} that flushes the remaining spans when the application context is
+ * stopped. A few threads drain the queue in parallel until it's empty and the sends in
+ * flight complete, or until the shutdown timeout passes. Spans that weren't sent by then
+ * are dropped.
+ *
+ * @since 3.1.11
+ */
+final class LifecycleAsyncReporter extends AsyncReporter<Span> implements SmartLifecycle {
+
+	private static final Log log = LogFactory.getLog(LifecycleAsyncReporter.class);
+
+	/**
+	 * Stops after the web server, so that the spans of the last requests are flushed.
+	 */
+	static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 2048;
+
+	private final QueueTrackingReporterMetrics metrics;
+
+	private final CountingSender sender;
+
+	private final AsyncReporter<Span> delegate;
+
+	private final Sender senderToClose;
+
+	private final long timeoutNanos;
+
+	private final int flushThreads;
+
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	// accepted spans are either sent or dropped eventually
+	private final AtomicLong acceptedSpans = new AtomicLong();
+
+	private final AtomicLong sentSpans = new AtomicLong();
+
+	private final AtomicLong droppedSpans = new AtomicLong();
+
+	private final Object settled = new Object();
+
+	private volatile boolean running;
+
+	private volatile boolean stopping;
+
+	private volatile long flushedSpans;
+
+	private volatile long abandonedSpans;
+
+	/**
+	 * @param zipkin zipkin properties
+	 * @param sender sender of the spans
+	 * @param reporterMetrics reporter metrics
+	 * @param closeSender whether the sender is closed with the reporter, e.g. when it's
+	 * not a bean
+	 */
+	LifecycleAsyncReporter(ZipkinProperties zipkin, Sender sender, ReporterMetrics reporterMetrics,
+			boolean closeSender) {
+		this.metrics = new QueueTrackingReporterMetrics(reporterMetrics);
+		this.sender = new CountingSender(sender);
+		// Note: AsyncReporter supports memory bounds
+		this.delegate = AsyncReporter.builder(this.sender).queuedMaxSpans(zipkin.getQueuedMaxSpans())
+				.messageTimeout(zipkin.getMessageTimeout(), TimeUnit.SECONDS).metrics(this.metrics)
+				.build(zipkin.getEncoder());
+		this.senderToClose = closeSender ? sender : null;
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(zipkin.getShutdown().getTimeout());
+		this.flushThreads = Math.max(1, zipkin.getShutdown().getFlushThreads());
+	}
+
+	@Override
+	public void report(Span span) {
+		this.delegate.report(span);
+	}
+
+	@Override
+	public void flush() {
+		this.delegate.flush();
+	}
+
+	@Override
+	public CheckResult check() {
+		return this.delegate.check();
+	}
+
+	@Override
+	public void close() {
+		if (!this.closed.compareAndSet(false, true)) {
+			return;
+		}
+		this.delegate.close();
+		if (this.senderToClose != null) {
+			try {
+				this.senderToClose.close();
+			}
+			catch (IOException ex) {
+				log.debug("Failed to close the sender", ex);
+			}
+		}
+	}
+
+	@Override
+	public void start() {
+		this.running = true;
+	}
+
+	@Override
+	public void stop() {
+		if (!this.running) {
+			return;
+		}
+		this.running = false;
+		if (this.closed.get()) {
+			return;
+		}
+		this.stopping = true;
+		long deadline = System.nanoTime() + this.timeoutNanos;
+		long sentBefore = this.sentSpans.get();
+		long droppedBefore = this.droppedSpans.get();
+		drain(deadline);
+		awaitSettled(deadline);
+		this.flushedSpans = this.sentSpans.get() - sentBefore;
+		this.abandonedSpans = outstandingSpans() + this.droppedSpans.get() - droppedBefore;
+		if (this.abandonedSpans > 0) {
+			log.warn("Flushed [" + this.flushedSpans + "] spans on shutdown, abandoned [" + this.abandonedSpans
+					+ "] spans");
+		}
+		else if (log.isDebugEnabled()) {
+			log.debug("Flushed [" + this.flushedSpans + "] spans on shutdown");
+		}
+		// nothing is left to send, the idle flushing thread of the delegate mustn't hold
+		// up the shutdown
+		Thread closing = new Thread(this::close, "sleuth-zipkin-reporter-close");
+		closing.setDaemon(true);
+		closing.start();
+	}
+
+	private void drain(long deadline) {
+		CountDownLatch done = new CountDownLatch(this.flushThreads);
+		for (int i = 0; i < this.flushThreads; i++) {
+			Thread thread = new Thread(() -> {
+				try {
+					drainUntil(deadline);
+				}
+				finally {
+					done.countDown();
+				}
+			}, "sleuth-zipkin-shutdown-flush-" + i);
+			thread.setDaemon(true);
+			thread.start();
+		}
+		try {
+			done.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void drainUntil(long deadline) {
+		do {
+			try {
+				this.delegate.flush();
+			}
+			catch (RuntimeException ex) {
+				log.debug("Failed to flush spans on shutdown", ex);
+				return;
+			}
+		}
+		while (this.metrics.queuedSpans > 0 && System.nanoTime() - deadline < 0);
+	}
+
+	/**
+	 * Waits for the spans taken from the queue, also by the flushing thread of the
+	 * delegate, to be sent or dropped.
+	 */
+	private void awaitSettled(long deadline) {
+		synchronized (this.settled) {
+			long remaining;
+			while (outstandingSpans() > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+				try {
+					TimeUnit.NANOSECONDS.timedWait(this.settled, remaining);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	private void sent(int spans) {
+		this.sentSpans.addAndGet(spans);
+		spansSettled();
+	}
+
+	private long outstandingSpans() {
+		return this.acceptedSpans.get() - this.sentSpans.get() - this.droppedSpans.get();
+	}
+
+	private void spansSettled() {
+		if (this.stopping) {
+			synchronized (this.settled) {
+				this.settled.notifyAll();
+			}
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	@Override
+	public int getPhase() {
+		return PHASE;
+	}
+
+	long getFlushedSpans() {
+		return this.flushedSpans;
+	}
+
+	long getAbandonedSpans() {
+		return this.abandonedSpans;
+	}
+
+	@Override
+	public String toString() {
+		return this.delegate.toString();
+	}
+
+	/**
+	 * Counts the accepted and dropped spans and tracks the size of the queue, which is
+	 * updated each time spans are taken from it.
+	 */
+	final class QueueTrackingReporterMetrics implements ReporterMetrics {
+
+		private final ReporterMetrics delegate;
+
+		private volatile int queuedSpans;
+
+		QueueTrackingReporterMetrics(ReporterMetrics delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void incrementMessages() {
+			this.delegate.incrementMessages();
+		}
+
+		@Override
+		public void incrementMessagesDropped(Throwable cause) {
+			this.delegate.incrementMessagesDropped(cause);
+		}
+
+		@Override
+		public void incrementSpans(int quantity) {
+			acceptedSpans.addAndGet(quantity);
+			this.delegate.incrementSpans(quantity);
+		}
+
+		@Override
+		public void incrementSpanBytes(int quantity) {
+			this.delegate.incrementSpanBytes(quantity);
+		}
+
+		@Override
+		public void incrementMessageBytes(int quantity) {
+			this.delegate.incrementMessageBytes(quantity);
+		}
+
+		@Override
+		public void incrementSpansDropped(int quantity) {
+			droppedSpans.addAndGet(quantity);
+			this.delegate.incrementSpansDropped(quantity);
+			spansSettled();
+		}
+
+		@Override
+		public void updateQueuedSpans(int update) {
+			this.queuedSpans = update;
+			this.delegate.updateQueuedSpans(update);
+		}
+
+		@Override
+		public void updateQueuedBytes(int update) {
+			this.delegate.updateQueuedBytes(update);
+		}
+
+	}
+
+	/**
+	 * Counts the sent spans. Skips empty messages, which are created when the queue is
+	 * flushed while it's empty. Spans are counted as sent only once the delegate reports
+	 * that the call completed, so that asynchronous senders aren't counted too early. The
+	 * flushing thread never waits for that, only {@link #stop()} does, until the shutdown
+	 * deadline.
+	 */
+	final class CountingSender extends Sender {
+
+		private final Sender delegate;
+
+		CountingSender(Sender delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Encoding encoding() {
+			return this.delegate.encoding();
+		}
+
+		@Override
+		public int messageMaxBytes() {
+			return this.delegate.messageMaxBytes();
+		}
+
+		@Override
+		public int messageSizeInBytes(List<byte[]> encodedSpans) {
+			return this.delegate.messageSizeInBytes(encodedSpans);
+		}
+
+		@Override
+		public int messageSizeInBytes(int encodedSizeInBytes) {
+			return this.delegate.messageSizeInBytes(encodedSizeInBytes);
+		}
+
+		@Override
+		public Call<Void> sendSpans(List<byte[]> encodedSpans) {
+			if (encodedSpans.isEmpty()) {
+				return Call.create(null);
+			}
+			return new CountingCall(this.delegate.sendSpans(encodedSpans), encodedSpans.size());
+		}
+
+		@Override
+		public CheckResult check() {
+			return this.delegate.check();
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.delegate.close();
+		}
+
+		@Override
+		public String toString() {
+			return this.delegate.toString();
+		}
+
+		final class CountingCall extends Call.Base<Void> {
+
+			private final Call<Void> call;
+
+			private final int spans;
+
+			CountingCall(Call<Void> call, int spans) {
+				this.call = call;
+				this.spans = spans;
+			}
+
+			/**
+			 * Sends through the callback of the delegate without waiting for it. A failure
+			 * reported before the delegate returned is thrown, so that the reporter drops
+			 * the spans. A later one is reported as dropped from the callback.
+			 */
+			@Override
+			protected Void doExecute() throws IOException {
+				Outcome outcome = new Outcome(this.spans);
+				doEnqueue(outcome);
+				Throwable error = outcome.returned();
+				if (error == null) {
+					return null;
+				}
+				if (error instanceof IOException) {
+					throw (IOException) error;
+				}
+				if (error instanceof RuntimeException) {
+					throw (RuntimeException) error;
+				}
+				if (error instanceof Error) {
+					throw (Error) error;
+				}
+				throw new IOException(error);
+			}
+
+			@Override
+			protected void doEnqueue(Callback<Void> callback) {
+				this.call.enqueue(new Callback<Void>() {
+					@Override
+					public void onSuccess(Void value) {
+						sent(spans);
+						callback.onSuccess(value);
+					}
+
+					@Override
+					public void onError(Throwable t) {
+						callback.onError(t);
+					}
+				});
+			}
+
+			@Override
+			public Call<Void> clone() {
+				return new CountingCall(this.call.clone(), this.spans);
+			}
+
+		}
+
+		/**
+		 * Outcome of an executed call. Tells a failure that happened before the call
+		 * returned from one that happened later.
+		 */
+		final class Outcome implements Callback<Void> {
+
+			private final AtomicReference<Object> state = new AtomicReference<>();
+
+			private final int spans;
+
+			Outcome(int spans) {
+				this.spans = spans;
+			}
+
+			@Override
+			public void onSuccess(Void value) {
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				if (!this.state.compareAndSet(null, t)) {
+					metrics.incrementMessagesDropped(t);
+					metrics.incrementSpansDropped(this.spans);
+				}
+			}
+
+			/**
+			 * @return failure reported before the call returned, {@code null} if none
+			 */
+			Throwable returned() {
+				if (this.state.compareAndSet(null, this)) {
+					return null;
+				}
+				return (Throwable) this.state.get();
+			}
+
+		}
+
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.zipkin2;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.sleuth.autoconfig.LazyMeters;
+import org.springframework.cloud.sleuth.zipkin2.HttpSenderMetrics;
+
+/**
+ * {@link HttpSenderMetrics} backed by Micrometer. The meters are registered on first use.
+ *
+ * @since 3.1.11
+ */
+class MicrometerHttpSenderMetrics implements HttpSenderMetrics {
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final LazyMeters<Meters> meters;
+
+	MicrometerHttpSenderMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+		this.meters = new LazyMeters<>(meterRegistry, registry -> new Meters(registry, this.inFlight));
+	}
+
+	@Override
+	public void requestStarted() {
+		this.inFlight.incrementAndGet();
+		this.meters.get();
+	}
+
+	@Override
+	public void requestFinished(long durationNanos, Throwable error) {
+		this.inFlight.decrementAndGet();
+		Meters meters = this.meters.get();
+		if (meters != null) {
+			Timer timer = error == null ? meters.succeeded : meters.failed;
+			timer.record(durationNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	@Override
+	public void requestRejected() {
+		Meters meters = this.meters.get();
+		if (meters != null) {
+			meters.rejected.increment();
+		}
+	}
+
+	@Override
+	public void messageCompressed(int uncompressedBytes, int compressedBytes) {
+		Meters meters = this.meters.get();
+		if (meters != null) {
+			meters.uncompressedBytes.increment(uncompressedBytes);
+			meters.compressedBytes.increment(compressedBytes);
+		}
+	}
+
+	private static final class Meters {
+
+		private final Timer succeeded;
+
+		private final Timer failed;
+
+		private final Counter rejected;
+
+		private final Counter uncompressedBytes;
+
+		private final Counter compressedBytes;
+
+		private Meters(MeterRegistry registry, AtomicInteger inFlight) {
+			Gauge.builder("sleuth.zipkin.sender.requests.in.flight", inFlight, AtomicInteger::get)
+					.description("Requests to Zipkin waiting for a response").register(registry);
+			this.succeeded = Timer.builder("sleuth.zipkin.sender.requests").tag("outcome", "SUCCESS")
+					.description("Requests sent to Zipkin").register(registry);
+			this.failed = Timer.builder("sleuth.zipkin.sender.requests").tag("outcome", "FAILURE")
+					.description("Requests sent to Zipkin").register(registry);
+			this.rejected = Counter.builder("sleuth.zipkin.sender.requests.rejected")
+					.description("Messages dropped because the max number of requests was in flight")
+					.register(registry);
+			this.uncompressedBytes = Counter.builder("sleuth.zipkin.sender.message.bytes").tag("compressed", "false")
+					.baseUnit("bytes").description("Size of the compressed messages before compression")
+					.register(registry);
+			this.compressedBytes = Counter.builder("sleuth.zipkin.sender.message.bytes").tag("compressed", "true")
+					.baseUnit("bytes").description("Size of the compressed messages after compression")
+					.register(registry);
+		}
+
+	}
+
+}
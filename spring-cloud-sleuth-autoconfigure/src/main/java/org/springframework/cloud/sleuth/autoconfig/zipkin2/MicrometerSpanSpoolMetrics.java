@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.zipkin2;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.sleuth.autoconfig.LazyMeters;
+import org.springframework.cloud.sleuth.zipkin2.SpanSpoolMetrics;
+
+/**
+ * {@link SpanSpoolMetrics} backed by Micrometer. The meters are registered on first use.
+ *
+ * @since 3.1.11
+ */
+class MicrometerSpanSpoolMetrics implements SpanSpoolMetrics {
+
+	private final AtomicLong messages = new AtomicLong();
+
+	private final AtomicLong bytes = new AtomicLong();
+
+	private final LazyMeters<Meters> meters;
+
+	MicrometerSpanSpoolMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+		this.meters = new LazyMeters<>(meterRegistry, registry -> new Meters(registry, this.messages, this.bytes));
+	}
+
+	@Override
+	public void messageSpooled(int bytes) {
+		Meters meters = this.meters.get();
+		if (meters != null) {
+			meters.spooled.increment();
+		}
+	}
+
+	@Override
+	public void messageReplayed(long lagMillis) {
+		Meters meters = this.meters.get();
+		if (meters != null) {
+			meters.replayLag.record(lagMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void messagesDropped(int messages) {
+		Meters meters = this.meters.get();
+		if (meters != null) {
+			meters.dropped.increment(messages);
+		}
+	}
+
+	@Override
+	public void depthChanged(long messages, long bytes) {
+		this.messages.set(messages);
+		this.bytes.set(bytes);
+		this.meters.get();
+	}
+
+	private static final class Meters {
+
+		private final Counter spooled;
+
+		private final Counter dropped;
+
+		private final Timer replayLag;
+
+		private Meters(MeterRegistry registry, AtomicLong messages, AtomicLong bytes) {
+			Gauge.builder("sleuth.zipkin.spool.messages", messages, AtomicLong::get)
+					.description("Messages waiting in the spool to be sent to Zipkin").register(registry);
+			Gauge.builder("sleuth.zipkin.spool.bytes", bytes, AtomicLong::get).baseUnit("bytes")
+					.description("Size of the messages waiting in the spool").register(registry);
+			this.spooled = Counter.builder("sleuth.zipkin.spool.messages.spooled")
+					.description("Messages written to the spool").register(registry);
+			this.dropped = Counter.builder("sleuth.zipkin.spool.messages.dropped")
+					.description("Spooled messages dropped because the spool was full or they were too old")
+					.register(registry);
+			this.replayLag = Timer.builder("sleuth.zipkin.spool.replay.lag")
+					.description("Time between spooling a message and sending it to Zipkin").register(registry);
+		}
+
+	}
+
+}
@@ -16,10 +16,12 @@
 
 package org.springframework.cloud.sleuth.autoconfig.zipkin2;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import io.micrometer.core.instrument.MeterRegistry;
@@ -27,8 +29,6 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import zipkin2.CheckResult;
 import zipkin2.Span;
-import zipkin2.reporter.AsyncReporter;
-import zipkin2.reporter.ClosedSenderException;
 import zipkin2.reporter.InMemoryReporterMetrics;
 import zipkin2.reporter.Reporter;
 import zipkin2.reporter.ReporterMetrics;
@@ -53,12 +53,17 @@ import org.springframework.cloud.sleuth.autoconfig.brave.BraveAutoConfiguration;
 import org.springframework.cloud.sleuth.zipkin2.DefaultEndpointLocator;
 import org.springframework.cloud.sleuth.zipkin2.DefaultZipkinRestTemplateCustomizer;
 import org.springframework.cloud.sleuth.zipkin2.EndpointLocator;
+import org.springframework.cloud.sleuth.zipkin2.HttpSenderMetrics;
+import org.springframework.cloud.sleuth.zipkin2.SpanSpool;
+import org.springframework.cloud.sleuth.zipkin2.SpanSpoolMetrics;
+import org.springframework.cloud.sleuth.zipkin2.SpoolingSender;
 import org.springframework.cloud.sleuth.zipkin2.ZipkinProperties;
 import org.springframework.cloud.sleuth.zipkin2.ZipkinRestTemplateCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -126,34 +131,47 @@ public class ZipkinAutoConfiguration {
 	@Bean(REPORTER_BEAN_NAME)
 	@ConditionalOnMissingBean(name = REPORTER_BEAN_NAME)
 	Reporter<Span> reporter(ReporterMetrics reporterMetrics, ZipkinProperties zipkin,
-			@Qualifier(SENDER_BEAN_NAME) Sender sender) {
+			@Qualifier(SENDER_BEAN_NAME) Sender sender, ObjectProvider<SpanSpoolMetrics> spoolMetrics,
+			Environment environment) {
 		checkResult(zipkinExecutor, sender, zipkin.getCheckTimeout());
+		Sender reporterSender = spoolingSender(zipkin, environment, sender, spoolMetrics);
 
-		// Note: AsyncReporter supports memory bounds
-		AsyncReporter<Span> asyncReporter = AsyncReporter.builder(sender).queuedMaxSpans(zipkin.getQueuedMaxSpans())
-				.messageTimeout(zipkin.getMessageTimeout(), TimeUnit.SECONDS).metrics(reporterMetrics)
-				.build(zipkin.getEncoder());
-
-		Runtime.getRuntime().addShutdownHook(new Thread() {
-			@Override
-			public void run() {
-				log.info("Flushing remaining spans on shutdown");
-				asyncReporter.flush();
-				try {
-					Thread.sleep(TimeUnit.SECONDS.toMillis(zipkin.getMessageTimeout()) + 500);
-					log.debug("Flushing done - closing the reporter");
-					asyncReporter.close();
-				}
-				catch (ClosedSenderException ex) {
-					log.debug("Sender already closed", ex);
-				}
-				catch (Exception e) {
-					throw new IllegalStateException(e);
-				}
-			}
-		});
+		// flushes the remaining spans when the context is stopped
+		return new LifecycleAsyncReporter(zipkin, reporterSender, reporterMetrics, reporterSender != sender);
+	}
+
+	/**
+	 * Puts a {@link SpoolingSender} in front of the sender when the spool is enabled.
+	 */
+	static Sender spoolingSender(ZipkinProperties zipkin, Environment environment, Sender sender,
+			ObjectProvider<SpanSpoolMetrics> spoolMetrics) {
+		ZipkinProperties.Spool spool = zipkin.getSpool();
+		if (!spool.isEnabled()) {
+			return sender;
+		}
+		Path directory = StringUtils.hasText(spool.getDirectory()) ? Paths.get(spool.getDirectory())
+				: defaultSpoolDirectory(zipkin, environment);
+		SpanSpoolMetrics metrics = spoolMetrics.getIfAvailable(() -> SpanSpoolMetrics.NOOP);
+		try {
+			SpanSpool spanSpool = new SpanSpool(directory, spool.getSegmentBytes(), spool.getMaxBytes(),
+					spool.getMaxAge(), metrics);
+			return new SpoolingSender(sender, spanSpool, metrics, spool.getCheckInterval(), spool.getReplayRate());
+		}
+		catch (IOException ex) {
+			log.warn("Failed to create the span spool in [" + directory + "], spans will not be spooled", ex);
+			return sender;
+		}
+	}
 
-		return asyncReporter;
+	/**
+	 * Spool directory per service in the temporary directory, so that different
+	 * applications on the same host don't share a spool.
+	 */
+	static Path defaultSpoolDirectory(ZipkinProperties zipkin, Environment environment) {
+		String serviceName = StringUtils.hasText(zipkin.getService().getName()) ? zipkin.getService().getName()
+				: environment.getProperty("spring.application.name", "default");
+		return Paths.get(System.getProperty("java.io.tmpdir"), "sleuth-zipkin-spool",
+				serviceName.replaceAll("[^A-Za-z0-9._-]", "_"));
 	}
 
 	private static void logCheckResult(Sender sender, CheckResult checkResult) {
@@ -167,8 +185,10 @@ public class ZipkinAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean
-	ZipkinRestTemplateCustomizer zipkinRestTemplateCustomizer(ZipkinProperties zipkinProperties) {
-		return new DefaultZipkinRestTemplateCustomizer(zipkinProperties);
+	ZipkinRestTemplateCustomizer zipkinRestTemplateCustomizer(ZipkinProperties zipkinProperties,
+			ObjectProvider<HttpSenderMetrics> metrics) {
+		return new DefaultZipkinRestTemplateCustomizer(zipkinProperties,
+				metrics.getIfAvailable(() -> HttpSenderMetrics.NOOP));
 	}
 
 	@Bean
@@ -244,6 +264,19 @@ public class ZipkinAutoConfiguration {
 
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnProperty("spring.zipkin.spool.enabled")
+	static class SpanSpoolMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		SpanSpoolMetrics sleuthMicrometerSpanSpoolMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+			return new MicrometerSpanSpoolMetrics(meterRegistry);
+		}
+
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnClass(MeterRegistry.class)
 	static class TraceMetricsMicrometerConfiguration {
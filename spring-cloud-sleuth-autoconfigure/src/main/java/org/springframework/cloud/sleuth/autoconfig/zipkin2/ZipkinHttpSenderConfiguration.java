@@ -16,8 +16,11 @@
 
 package org.springframework.cloud.sleuth.autoconfig.zipkin2;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import zipkin2.reporter.ReporterMetrics;
 import zipkin2.reporter.Sender;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -29,7 +32,9 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplicat
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
 import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.cloud.sleuth.zipkin2.AdaptiveMessageSizer;
 import org.springframework.cloud.sleuth.zipkin2.CachingZipkinUrlExtractor;
+import org.springframework.cloud.sleuth.zipkin2.HttpSenderMetrics;
 import org.springframework.cloud.sleuth.zipkin2.LoadBalancerClientZipkinLoadBalancer;
 import org.springframework.cloud.sleuth.zipkin2.RestTemplateSender;
 import org.springframework.cloud.sleuth.zipkin2.StaticInstanceZipkinLoadBalancer;
@@ -54,16 +59,46 @@ import org.springframework.web.reactive.function.client.WebClient;
 @EnableConfigurationProperties(ZipkinSenderProperties.class)
 class ZipkinHttpSenderConfiguration {
 
+	static Sender webClientSender(ZipkinProperties zipkin, ZipkinSenderProperties senderProperties, WebClient webClient,
+			ObjectProvider<HttpSenderMetrics> metrics, ObjectProvider<ReporterMetrics> reporterMetrics) {
+		ZipkinSenderProperties.Async async = senderProperties.getAsync();
+		return new WebClientSender(null, webClient, zipkin.getBaseUrl(), zipkin.getApiPath(), zipkin.getEncoder(),
+				zipkin.getCheckTimeout(), zipkin.getMessageMaxBytes(), messageSizer(zipkin),
+				async.isEnabled() ? async.getMaxInFlightRequests() : 0, async.getAcquireTimeout(),
+				new DroppedSpansHttpSenderMetrics(metrics.getIfAvailable(() -> HttpSenderMetrics.NOOP),
+						reporterMetrics.getIfAvailable(() -> ReporterMetrics.NOOP_METRICS)));
+	}
+
+	@Nullable
+	static AdaptiveMessageSizer messageSizer(ZipkinProperties zipkin) {
+		ZipkinProperties.AdaptiveMessageSize adaptive = zipkin.getAdaptiveMessageSize();
+		if (!adaptive.isEnabled()) {
+			return null;
+		}
+		return new AdaptiveMessageSizer(Math.min(adaptive.getMinMessageBytes(), zipkin.getMessageMaxBytes()),
+				zipkin.getMessageMaxBytes(), adaptive.getTargetLatency());
+	}
+
+	static ZipkinWebClientBuilderProvider webClientBuilderProvider(
+			@Nullable LoadBalancedExchangeFilterFunction filterFunction) {
+		if (filterFunction != null) {
+			return () -> WebClient.builder().filter(filterFunction);
+		}
+		return WebClient::builder;
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@Conditional(NonWebApplicationOrServletCondition.class)
 	static class ZipkinServletConfiguration {
 
 		@Bean(ZipkinAutoConfiguration.SENDER_BEAN_NAME)
+		@ConditionalOnMissingBean(name = ZipkinAutoConfiguration.SENDER_BEAN_NAME)
 		Sender restTemplateSender(ZipkinProperties zipkin, ZipkinRestTemplateCustomizer zipkinRestTemplateCustomizer,
 				ZipkinRestTemplateProvider zipkinRestTemplateProvider) {
 			RestTemplate restTemplate = zipkinRestTemplateProvider.zipkinRestTemplate();
 			restTemplate = zipkinRestTemplateCustomizer.customizeTemplate(restTemplate);
-			return new RestTemplateSender(restTemplate, zipkin.getBaseUrl(), zipkin.getApiPath(), zipkin.getEncoder());
+			return new RestTemplateSender(restTemplate, zipkin.getBaseUrl(), zipkin.getApiPath(), zipkin.getEncoder(),
+					zipkin.getMessageMaxBytes(), messageSizer(zipkin));
 		}
 
 		@Bean
@@ -77,6 +112,29 @@ class ZipkinHttpSenderConfiguration {
 			return new CachingZipkinUrlExtractor(zipkinLoadBalancer);
 		}
 
+		@Configuration(proxyBeanMethods = false)
+		@ConditionalOnClass(name = { "org.springframework.web.reactive.function.client.WebClient",
+				"reactor.netty.http.client.HttpClient" })
+		@ConditionalOnProperty("spring.zipkin.sender.async.enabled")
+		static class ZipkinServletAsyncConfiguration {
+
+			@Bean(ZipkinAutoConfiguration.SENDER_BEAN_NAME)
+			Sender webClientSender(ZipkinProperties zipkin, ZipkinSenderProperties senderProperties,
+					ZipkinWebClientBuilderProvider zipkinWebClientBuilderProvider,
+					ObjectProvider<HttpSenderMetrics> metrics, ObjectProvider<ReporterMetrics> reporterMetrics) {
+				return ZipkinHttpSenderConfiguration.webClientSender(zipkin, senderProperties,
+						zipkinWebClientBuilderProvider.zipkinWebClientBuilder().build(), metrics, reporterMetrics);
+			}
+
+			@Bean
+			@ConditionalOnMissingBean
+			ZipkinWebClientBuilderProvider defaultZipkinWebClientProvider(
+					final @Nullable LoadBalancedExchangeFilterFunction filterFunction) {
+				return webClientBuilderProvider(filterFunction);
+			}
+
+		}
+
 	}
 
 	@Configuration(proxyBeanMethods = false)
@@ -84,20 +142,18 @@ class ZipkinHttpSenderConfiguration {
 	static class ZipkinReactiveConfiguration {
 
 		@Bean(ZipkinAutoConfiguration.SENDER_BEAN_NAME)
-		Sender webClientSender(ZipkinProperties zipkin, ZipkinWebClientBuilderProvider zipkinWebClientBuilderProvider) {
-			WebClient.Builder webClientBuilder = zipkinWebClientBuilderProvider.zipkinWebClientBuilder();
-			return new WebClientSender(webClientBuilder.build(), zipkin.getBaseUrl(), zipkin.getApiPath(),
-					zipkin.getEncoder(), zipkin.getCheckTimeout());
+		Sender webClientSender(ZipkinProperties zipkin, ZipkinSenderProperties senderProperties,
+				ZipkinWebClientBuilderProvider zipkinWebClientBuilderProvider,
+				ObjectProvider<HttpSenderMetrics> metrics, ObjectProvider<ReporterMetrics> reporterMetrics) {
+			return ZipkinHttpSenderConfiguration.webClientSender(zipkin, senderProperties,
+					zipkinWebClientBuilderProvider.zipkinWebClientBuilder().build(), metrics, reporterMetrics);
 		}
 
 		@Bean
 		@ConditionalOnMissingBean
 		ZipkinWebClientBuilderProvider defaultZipkinWebClientProvider(
 				final @Nullable LoadBalancedExchangeFilterFunction filterFunction) {
-			if (filterFunction != null) {
-				return () -> WebClient.builder().filter(filterFunction);
-			}
-			return WebClient::builder;
+			return webClientBuilderProvider(filterFunction);
 		}
 
 		@Bean
@@ -156,6 +212,62 @@ class ZipkinHttpSenderConfiguration {
 
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterRegistry.class)
+	static class HttpSenderMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		HttpSenderMetrics sleuthMicrometerHttpSenderMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+			return new MicrometerHttpSenderMetrics(meterRegistry);
+		}
+
+	}
+
+	/**
+	 * Reports the spans an asynchronous sender failed to send after the reporter moved on
+	 * as dropped by the reporter too.
+	 */
+	static final class DroppedSpansHttpSenderMetrics implements HttpSenderMetrics {
+
+		private final HttpSenderMetrics delegate;
+
+		private final ReporterMetrics reporterMetrics;
+
+		DroppedSpansHttpSenderMetrics(HttpSenderMetrics delegate, ReporterMetrics reporterMetrics) {
+			this.delegate = delegate;
+			this.reporterMetrics = reporterMetrics;
+		}
+
+		@Override
+		public void requestStarted() {
+			this.delegate.requestStarted();
+		}
+
+		@Override
+		public void requestFinished(long durationNanos, @Nullable Throwable error) {
+			this.delegate.requestFinished(durationNanos, error);
+		}
+
+		@Override
+		public void requestRejected() {
+			this.delegate.requestRejected();
+		}
+
+		@Override
+		public void spansDropped(int spans, Throwable error) {
+			this.delegate.spansDropped(spans, error);
+			this.reporterMetrics.incrementMessagesDropped(error);
+			this.reporterMetrics.incrementSpansDropped(spans);
+		}
+
+		@Override
+		public void messageCompressed(int uncompressedBytes, int compressedBytes) {
+			this.delegate.messageCompressed(uncompressedBytes, compressedBytes);
+		}
+
+	}
+
 	static final class NonWebApplicationOrServletCondition extends AnyNestedCondition {
 
 		private NonWebApplicationOrServletCondition() {
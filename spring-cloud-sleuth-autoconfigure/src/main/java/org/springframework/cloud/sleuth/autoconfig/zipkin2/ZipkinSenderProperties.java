@@ -32,6 +32,8 @@ public class ZipkinSenderProperties {
 	 */
 	private SenderType type;
 
+	private Async async = new Async();
+
 	public SenderType getType() {
 		return this.type;
 	}
@@ -40,6 +42,62 @@ public class ZipkinSenderProperties {
 		this.type = type;
 	}
 
+	public Async getAsync() {
+		return this.async;
+	}
+
+	public void setAsync(Async async) {
+		this.async = async;
+	}
+
+	/**
+	 * Settings of the HTTP sender that doesn't wait for Zipkin to respond.
+	 */
+	public static class Async {
+
+		/**
+		 * When true, spans are sent over HTTP with a WebClient without waiting for the
+		 * response. Requires Spring WebFlux and Reactor Netty on the classpath.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Max number of requests to Zipkin waiting for a response.
+		 */
+		private int maxInFlightRequests = 8;
+
+		/**
+		 * Timeout in milliseconds to wait for a request to complete when the max number
+		 * of requests is in flight. After that the message is dropped.
+		 */
+		private long acquireTimeout = 1000;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxInFlightRequests() {
+			return this.maxInFlightRequests;
+		}
+
+		public void setMaxInFlightRequests(int maxInFlightRequests) {
+			this.maxInFlightRequests = maxInFlightRequests;
+		}
+
+		public long getAcquireTimeout() {
+			return this.acquireTimeout;
+		}
+
+		public void setAcquireTimeout(long acquireTimeout) {
+			this.acquireTimeout = acquireTimeout;
+		}
+
+	}
+
 	/**
 	 * Types of a sender.
 	 */
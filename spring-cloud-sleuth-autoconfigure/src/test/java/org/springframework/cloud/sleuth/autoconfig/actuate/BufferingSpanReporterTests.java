@@ -16,10 +16,13 @@
 
 package org.springframework.cloud.sleuth.autoconfig.actuate;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.assertj.core.api.BDDAssertions;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.mockito.Mockito.mock;
 
@@ -36,7 +39,77 @@ class BufferingSpanReporterTests {
 		reporter.report(second);
 		reporter.report(youngest);
 
-		BDDAssertions.then(reporter.spans).containsExactly(second, youngest);
+		BDDAssertions.then(reporter.getFinishedSpans()).containsExactly(second, youngest);
+		BDDAssertions.then(reporter.getOverwrittenSpans()).isEqualTo(1);
+	}
+
+	@Test
+	void should_drain_spans_from_the_oldest_to_the_newest() {
+		BufferingSpanReporter reporter = new BufferingSpanReporter(3);
+		FinishedSpan first = mock(FinishedSpan.class, "first");
+		FinishedSpan second = mock(FinishedSpan.class, "second");
+		FinishedSpan third = mock(FinishedSpan.class, "third");
+		FinishedSpan fourth = mock(FinishedSpan.class, "fourth");
+		reporter.report(first);
+		reporter.report(second);
+
+		BDDAssertions.then(reporter.drainFinishedSpans()).containsExactly(first, second);
+		BDDAssertions.then(reporter.getFinishedSpans()).isEmpty();
+
+		reporter.report(third);
+		reporter.report(fourth);
+
+		BDDAssertions.then(reporter.drainFinishedSpans()).containsExactly(third, fourth);
+		BDDAssertions.then(reporter.getOverwrittenSpans()).isZero();
+	}
+
+	@Test
+	void should_page_by_sequence_number_regardless_of_end_timestamps() {
+		BufferingSpanReporter reporter = new BufferingSpanReporter(3);
+		FinishedSpan first = mock(FinishedSpan.class, "first");
+		FinishedSpan second = mock(FinishedSpan.class, "second");
+		FinishedSpan third = mock(FinishedSpan.class, "third");
+		reporter.report(first);
+		reporter.report(second);
+		reporter.report(third);
+
+		BDDAssertions.then(reporter.getFinishedSpans(0, 2)).containsExactly(first, second);
+		BDDAssertions.then(reporter.getFinishedSpans(2, 2)).containsExactly(third);
+		BDDAssertions.then(reporter.getFinishedSpans(3, 2)).isEmpty();
+		BDDAssertions.then(reporter.getReportedSpans()).isEqualTo(3);
+	}
+
+	@Test
+	void should_not_return_span_of_the_previous_lap_from_a_slot_that_is_not_written_yet() {
+		BufferingSpanReporter reporter = new BufferingSpanReporter(2);
+		FinishedSpan first = mock(FinishedSpan.class, "first");
+		FinishedSpan second = mock(FinishedSpan.class, "second");
+		reporter.report(first);
+		reporter.report(second);
+
+		// a producer claimed the slot of the first span but hasn't written to it yet
+		((AtomicLong) ReflectionTestUtils.getField(reporter, "sequence")).incrementAndGet();
+
+		BDDAssertions.then(reporter.getFinishedSpans()).containsExactly(second);
+		BDDAssertions.then(reporter.drainFinishedSpans()).containsExactly(second);
+	}
+
+	@Test
+	void should_not_overwrite_a_newer_span_with_the_span_of_a_lapped_producer() {
+		BufferingSpanReporter reporter = new BufferingSpanReporter(2);
+		FinishedSpan first = mock(FinishedSpan.class, "first");
+		FinishedSpan second = mock(FinishedSpan.class, "second");
+		FinishedSpan third = mock(FinishedSpan.class, "third");
+		FinishedSpan late = mock(FinishedSpan.class, "late");
+		reporter.report(first);
+		reporter.report(second);
+		reporter.report(third);
+
+		// a producer that claimed sequence 0 writes only after the ring went a full lap
+		reporter.store(0, late);
+
+		BDDAssertions.then(reporter.getFinishedSpans()).containsExactly(second, third);
+		BDDAssertions.then(reporter.getOverwrittenSpans()).isEqualTo(2);
 	}
 
 }
@@ -33,6 +33,17 @@ class TraceSleuthActuatorAutoConfigurationTests {
 		this.contextRunner.run(context -> BDDAssertions.then(context).hasSingleBean(TracesScrapeEndpoint.class));
 	}
 
+	@Test
+	void should_register_buffer_endpoint_when_management_endpoint_included() {
+		this.contextRunner.withPropertyValues("management.endpoints.web.exposure.include=traces,tracesbuffer")
+				.run(context -> BDDAssertions.then(context).hasSingleBean(TracesBufferEndpoint.class));
+	}
+
+	@Test
+	void should_not_register_buffer_endpoint_when_not_exposed() {
+		this.contextRunner.run(context -> BDDAssertions.then(context).doesNotHaveBean(TracesBufferEndpoint.class));
+	}
+
 	@Test
 	void should_not_register_actuator_when_endpoint_disabled() {
 		this.contextRunner.withPropertyValues("management.endpoint.traces.enabled=false")
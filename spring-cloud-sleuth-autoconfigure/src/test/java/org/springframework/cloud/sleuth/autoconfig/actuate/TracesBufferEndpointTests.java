@@ -0,0 +1,38 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.actuate;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Mockito.mock;
+
+class TracesBufferEndpointTests {
+
+	@Test
+	void should_return_buffer_stats() {
+		BufferingSpanReporter reporter = new BufferingSpanReporter(1);
+		reporter.report(mock(FinishedSpan.class));
+		reporter.report(mock(FinishedSpan.class));
+
+		then(new TracesBufferEndpoint(reporter).stats()).containsEntry("capacity", 1).containsEntry("reportedSpans", 2L)
+				.containsEntry("overwrittenSpans", 1L);
+	}
+
+}
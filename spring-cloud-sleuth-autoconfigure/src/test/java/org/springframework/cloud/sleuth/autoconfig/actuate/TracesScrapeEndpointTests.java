@@ -16,15 +16,24 @@
 
 package org.springframework.cloud.sleuth.autoconfig.actuate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import brave.handler.MutableSpan;
+import brave.propagation.TraceContext;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.cloud.sleuth.brave.bridge.BraveFinishedSpan;
 import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
+import org.springframework.util.StreamUtils;
 
 import static org.assertj.core.api.BDDAssertions.then;
 
@@ -41,14 +50,135 @@ class TracesScrapeEndpointTests {
 		then(response.getStatus()).isEqualTo(HttpStatus.NOT_ACCEPTABLE.value());
 	}
 
+	@Test
+	void should_use_overridden_methods_of_the_reporter_when_not_paging() {
+		TracesScrapeEndpoint tracesScrapeEndpoint = new TracesScrapeEndpoint(bufferingSpanReporter(),
+				(format, spans) -> spans.get(0).getName());
+
+		WebEndpointResponse<Object> snapshot = tracesScrapeEndpoint
+				.spansSnapshot(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2);
+		WebEndpointResponse<Object> drained = tracesScrapeEndpoint
+				.spans(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2);
+
+		then(snapshot.getBody()).isEqualTo("snapshot");
+		then(drained.getBody()).isEqualTo("drained");
+	}
+
+	@Test
+	void should_stream_the_same_spans_as_written_at_once() throws IOException {
+		BufferingSpanReporter reporter = reporterWithSpans(3);
+		BraveFinishedSpanWriter writer = new BraveFinishedSpanWriter();
+		TracesScrapeEndpoint tracesScrapeEndpoint = new TracesScrapeEndpoint(reporter, writer);
+
+		WebEndpointResponse<Object> response = tracesScrapeEndpoint
+				.spansSnapshot(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2);
+
+		then(response.getBody()).isInstanceOf(Resource.class);
+		then(read((Resource) response.getBody(), false))
+				.isEqualTo(writer.write(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, reporter.getFinishedSpans()));
+	}
+
+	@Test
+	void should_stream_gzipped_spans() throws IOException {
+		BufferingSpanReporter reporter = reporterWithSpans(2000);
+		BraveFinishedSpanWriter writer = new BraveFinishedSpanWriter();
+		TracesScrapeEndpoint tracesScrapeEndpoint = new TracesScrapeEndpoint(reporter, writer);
+
+		WebEndpointResponse<Object> response = tracesScrapeEndpoint
+				.spansSnapshot(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, null, null, true);
+
+		then(response.getContentType()).isEqualTo(TracesScrapeEndpoint.GZIP);
+		then(read((Resource) response.getBody(), true))
+				.isEqualTo(writer.write(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, reporter.getFinishedSpans()));
+	}
+
+	@Test
+	void should_gzip_spans_of_a_writer_that_does_not_stream() throws IOException {
+		TracesScrapeEndpoint tracesScrapeEndpoint = new TracesScrapeEndpoint(reporterWithSpans(1),
+				(format, spans) -> "[" + spans.get(0).getName() + "]");
+
+		WebEndpointResponse<Object> response = tracesScrapeEndpoint
+				.spansSnapshot(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, null, null, true);
+
+		then(response.getContentType()).isEqualTo(TracesScrapeEndpoint.GZIP);
+		then(read((Resource) response.getBody(), true)).isEqualTo("[span1]");
+	}
+
+	@Test
+	void should_not_accept_gzip_for_a_writer_of_other_types() {
+		TracesScrapeEndpoint tracesScrapeEndpoint = new TracesScrapeEndpoint(reporterWithSpans(1),
+				(format, spans) -> spans);
+
+		WebEndpointResponse<Object> response = tracesScrapeEndpoint
+				.spansSnapshot(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, null, null, true);
+
+		then(response.getStatus()).isEqualTo(HttpStatus.NOT_ACCEPTABLE.value());
+	}
+
+	@Test
+	void should_page_through_spans_with_limit_and_since() throws IOException {
+		BufferingSpanReporter reporter = reporterWithSpans(5);
+		TracesScrapeEndpoint tracesScrapeEndpoint = new TracesScrapeEndpoint(reporter, new BraveFinishedSpanWriter());
+
+		String firstPage = read(
+				(Resource) tracesScrapeEndpoint
+						.spansSnapshot(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, 2, null, null).getBody(),
+				false);
+		String secondPage = read((Resource) tracesScrapeEndpoint
+				.spansSnapshot(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, 2, 2L, null).getBody(), false);
+
+		then(firstPage).contains("\"name\":\"span1\"", "\"name\":\"span2\"").doesNotContain("span3");
+		then(secondPage).contains("\"name\":\"span3\"", "\"name\":\"span4\"").doesNotContain("span2", "span5");
+	}
+
+	@Test
+	void should_drain_at_most_limit_spans() {
+		BufferingSpanReporter reporter = reporterWithSpans(5);
+		TracesScrapeEndpoint tracesScrapeEndpoint = new TracesScrapeEndpoint(reporter, new BraveFinishedSpanWriter());
+
+		tracesScrapeEndpoint.spans(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, 3, null);
+
+		then(reporter.getFinishedSpans()).extracting(FinishedSpan::getName).containsExactly("span4", "span5");
+	}
+
+	private BufferingSpanReporter reporterWithSpans(int count) {
+		BufferingSpanReporter reporter = new BufferingSpanReporter(count);
+		for (int i = 1; i <= count; i++) {
+			MutableSpan span = new MutableSpan(TraceContext.newBuilder().traceId(i).spanId(i).build(), null);
+			span.name("span" + i);
+			span.startTimestamp(i - 1);
+			span.finishTimestamp(i);
+			span.tag("foo", "bar" + i);
+			reporter.report(BraveFinishedSpan.fromBrave(span));
+		}
+		return reporter;
+	}
+
+	private String read(Resource resource, boolean gzip) throws IOException {
+		try (InputStream stream = gzip ? new GZIPInputStream(resource.getInputStream()) : resource.getInputStream()) {
+			return StreamUtils.copyToString(stream, StandardCharsets.UTF_8);
+		}
+	}
+
 	@NonNull
 	private BufferingSpanReporter bufferingSpanReporter() {
 		return new BufferingSpanReporter(1) {
 			@Override
 			public List<FinishedSpan> getFinishedSpans() {
-				return Collections.emptyList();
+				return Collections.singletonList(span("snapshot"));
+			}
+
+			@Override
+			public List<FinishedSpan> drainFinishedSpans() {
+				return Collections.singletonList(span("drained"));
 			}
 		};
 	}
 
+	private FinishedSpan span(String name) {
+		MutableSpan span = new MutableSpan(TraceContext.newBuilder().traceId(1L).spanId(1L).build(), null);
+		span.name(name);
+		return BraveFinishedSpan.fromBrave(span);
+	}
+
 }
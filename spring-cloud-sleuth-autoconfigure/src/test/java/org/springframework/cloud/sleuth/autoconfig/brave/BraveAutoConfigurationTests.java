@@ -17,6 +17,8 @@
 package org.springframework.cloud.sleuth.autoconfig.brave;
 
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import brave.Tracing;
 import brave.baggage.BaggageField;
@@ -34,11 +36,16 @@ import brave.sampler.Sampler;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.BDDAssertions;
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.exporter.AsyncSpanReporter;
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.cloud.sleuth.exporter.SpanReporter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -126,6 +133,64 @@ public class BraveAutoConfigurationTests {
 						.isSameAs(B3SinglePropagation.FACTORY)));
 	}
 
+	@Test
+	void should_report_spans_asynchronously_when_async_reporter_enabled() {
+		this.contextRunner.withPropertyValues("spring.sleuth.reporter.async.enabled=true")
+				.withUserConfiguration(WithSampler.class, WithSpanReporter.class, WithLocalKeys.class).run((context -> {
+					BDDAssertions.then(context).hasSingleBean(AsyncSpanReporter.class);
+
+					context.getBean(Tracer.class).nextSpan().name("foo").start().end();
+
+					WithSpanReporter reporter = context.getBean(WithSpanReporter.class);
+					Awaitility.await().untilAsserted(() -> BDDAssertions.then(reporter.spans).hasSize(1));
+					BDDAssertions.then(reporter.threads).allMatch(name -> name.startsWith("sleuth-span-reporter-"));
+					MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+					Awaitility.await()
+							.untilAsserted(() -> BDDAssertions
+									.then(meterRegistry.get("sleuth.reporter.spans.delivered").counter().count())
+									.isEqualTo(1d));
+				}));
+	}
+
+	@Test
+	void should_derive_span_metrics_also_from_unsampled_spans() {
+		this.contextRunner.withPropertyValues("spring.sleuth.span-metrics.enabled=true")
+				.withUserConfiguration(WithNeverSampler.class, WithSpanReporter.class, WithLocalKeys.class)
+				.run((context -> {
+					context.getBean(Tracer.class).nextSpan().name("foo").start().end();
+
+					MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+					BDDAssertions
+							.then(meterRegistry.get("sleuth.span.metrics").tag("name", "foo").functionTimer().count())
+							.isEqualTo(1d);
+					BDDAssertions.then(context.getBean(WithSpanReporter.class).spans).isEmpty();
+				}));
+	}
+
+	@Test
+	void should_report_unsampled_trace_with_error_when_tail_sampling_enabled() {
+		this.contextRunner.withPropertyValues("spring.sleuth.tail-sampling.enabled=true")
+				.withUserConfiguration(WithNeverSampler.class, WithSpanReporter.class, WithLocalKeys.class)
+				.run((context -> {
+					Tracer tracer = context.getBean(Tracer.class);
+					tracer.nextSpan().name("ok").start().end();
+					tracer.nextSpan().name("failed").start().error(new IllegalStateException("boom")).end();
+
+					BDDAssertions.then(context.getBean(WithSpanReporter.class).spans).extracting(FinishedSpan::getName)
+							.containsExactly("failed");
+					MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+					BDDAssertions.then(meterRegistry.get("sleuth.tail-sampling.traces.kept").counter().count())
+							.isEqualTo(1d);
+					BDDAssertions.then(meterRegistry.get("sleuth.tail-sampling.traces.dropped").counter().count())
+							.isEqualTo(1d);
+				}));
+	}
+
+	@Test
+	void should_not_register_async_reporter_by_default() {
+		this.contextRunner.run((context -> BDDAssertions.then(context).doesNotHaveBean(AsyncSpanReporter.class)));
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	static class Baggage {
 
@@ -172,6 +237,21 @@ public class BraveAutoConfigurationTests {
 
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	static class WithSpanReporter implements SpanReporter {
+
+		final Queue<FinishedSpan> spans = new ConcurrentLinkedQueue<>();
+
+		final Queue<String> threads = new ConcurrentLinkedQueue<>();
+
+		@Override
+		public void report(FinishedSpan span) {
+			this.threads.add(Thread.currentThread().getName());
+			this.spans.add(span);
+		}
+
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	static class WithSampler {
 
@@ -182,6 +262,16 @@ public class BraveAutoConfigurationTests {
 
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	static class WithNeverSampler {
+
+		@Bean
+		Sampler neverSampler() {
+			return Sampler.NEVER_SAMPLE;
+		}
+
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	static class WithLocalKeys {
 
@@ -35,22 +35,35 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.gateway.config.GatewayAutoConfiguration;
 import org.springframework.cloud.gateway.config.GatewayClassPathWarningAutoConfiguration;
 import org.springframework.cloud.gateway.config.GatewayMetricsAutoConfiguration;
+import org.springframework.cloud.sleuth.instrument.async.ExecutorTracingMode;
+import org.springframework.cloud.sleuth.instrument.async.ExecutorTracingModeResolver;
 import org.springframework.cloud.sleuth.instrument.async.TraceableScheduledExecutorService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @SpringBootTest(classes = TraceAsyncDefaultAutoConfigurationTests.Config.class,
-		properties = "spring.sleuth.noop.enabled=true")
+		properties = { "spring.sleuth.noop.enabled=true", "spring.sleuth.async.context-only-beans=create.*" })
 public class TraceAsyncDefaultAutoConfigurationTests {
 
 	@Autowired
 	ScheduledExecutorService executor;
 
+	@Autowired
+	ExecutorTracingModeResolver executorTracingModeResolver;
+
 	@Test
 	public void should_work_with_proxies() {
 		BDDAssertions.then(this.executor).isNotNull().isInstanceOf(TraceableScheduledExecutorService.class);
 	}
 
+	@Test
+	public void should_resolve_tracing_mode_from_bean_name_patterns() {
+		BDDAssertions.then(this.executorTracingModeResolver.resolve("createExecutorService"))
+				.isEqualTo(ExecutorTracingMode.CONTEXT);
+		BDDAssertions.then(this.executorTracingModeResolver.resolve("taskExecutor"))
+				.isEqualTo(ExecutorTracingMode.SPAN);
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@EnableAutoConfiguration(exclude = { GatewayClassPathWarningAutoConfiguration.class, GatewayAutoConfiguration.class,
 			GatewayMetricsAutoConfiguration.class, ManagementWebSecurityAutoConfiguration.class,
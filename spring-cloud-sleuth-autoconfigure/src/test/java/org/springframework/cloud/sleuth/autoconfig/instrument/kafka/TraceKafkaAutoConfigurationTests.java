@@ -26,6 +26,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.cloud.sleuth.autoconfig.TraceNoOpAutoConfiguration;
+import org.springframework.cloud.sleuth.instrument.kafka.KafkaConsumerSpanMode;
 import org.springframework.cloud.sleuth.instrument.kafka.TracingKafkaConsumer;
 import org.springframework.cloud.sleuth.instrument.kafka.TracingKafkaProducer;
 import org.springframework.cloud.sleuth.instrument.kafka.TracingKafkaPropagatorGetter;
@@ -58,6 +59,14 @@ class TraceKafkaAutoConfigurationTests {
 				.run(context -> assertThat(context).hasSingleBean(TracingKafkaConsumer.class));
 	}
 
+	@Test
+	void should_pass_the_consumer_span_mode_to_the_decorated_kafka_consumer() {
+		this.contextRunner.withPropertyValues("spring.sleuth.kafka.consumer-span-mode=batch")
+				.withBean(Consumer.class, () -> new MockConsumer<>(OffsetResetStrategy.NONE))
+				.run(context -> assertThat(context.getBean(Consumer.class)).hasFieldOrPropertyWithValue("spanMode",
+						KafkaConsumerSpanMode.BATCH));
+	}
+
 	@Test
 	void should_not_decorate_tracing_kafka_consumer() {
 		TracingKafkaConsumer<String, String> kafkaConsumer = new TracingKafkaConsumer<>(
@@ -24,6 +24,7 @@ import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.FilteredClassLoader;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.cloud.sleuth.autoconfig.TraceNoOpAutoConfiguration;
+import org.springframework.cloud.sleuth.internal.SqlStatementParser;
 
 class TraceR2dbcAutoConfigurationTests {
 
@@ -37,6 +38,16 @@ class TraceR2dbcAutoConfigurationTests {
 				context -> Assertions.assertThat(context).hasSingleBean(TraceConnectionFactoryBeanPostProcessor.class));
 	}
 
+	@Test
+	void should_register_sql_statement_parser_from_properties() {
+		this.contextRunner
+				.withPropertyValues("spring.sleuth.sql.fingerprint-enabled=true", "spring.sleuth.sql.max-tag-length=20")
+				.run(context -> Assertions
+						.assertThat(context.getBean(SqlStatementParser.class)
+								.tagValue("SELECT * FROM users WHERE id = 1 AND name = 'foo'"))
+						.isEqualTo("SELECT * FROM users "));
+	}
+
 	@Test
 	void should_not_create_trace_bean_post_processor_when_no_proxy_on_classpath() {
 		this.contextRunner.withClassLoader(new FilteredClassLoader(ProxyConfig.class)).run(context -> Assertions
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.zipkin2;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import zipkin2.Call;
+import zipkin2.Callback;
+import zipkin2.Span;
+import zipkin2.codec.Encoding;
+import zipkin2.reporter.InMemoryReporterMetrics;
+import zipkin2.reporter.ReporterMetrics;
+import zipkin2.reporter.Sender;
+
+import org.springframework.cloud.sleuth.zipkin2.ZipkinProperties;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class LifecycleAsyncReporterTests {
+
+	@Test
+	void should_flush_all_queued_spans_on_stop() {
+		RecordingSender sender = new RecordingSender(new CountDownLatch(0));
+		LifecycleAsyncReporter reporter = new LifecycleAsyncReporter(new ZipkinProperties(), sender,
+				ReporterMetrics.NOOP_METRICS, false);
+		reporter.start();
+		for (int i = 1; i <= 100; i++) {
+			reporter.report(span(i));
+		}
+
+		reporter.stop();
+
+		then(sender.spans.get()).isEqualTo(100);
+		then(reporter.getAbandonedSpans()).isZero();
+		then(reporter.isRunning()).isFalse();
+	}
+
+	@Test
+	void should_not_wait_on_stop_when_there_is_nothing_to_flush() {
+		RecordingSender sender = new RecordingSender(new CountDownLatch(0));
+		ZipkinProperties zipkin = new ZipkinProperties();
+		zipkin.setMessageTimeout(30);
+		LifecycleAsyncReporter reporter = new LifecycleAsyncReporter(zipkin, sender, ReporterMetrics.NOOP_METRICS,
+				false);
+		reporter.start();
+		long start = System.nanoTime();
+
+		reporter.stop();
+
+		then(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+		then(sender.messages.get()).isZero();
+		then(reporter.getFlushedSpans()).isZero();
+	}
+
+	@Test
+	void should_abandon_spans_that_were_not_sent_before_the_timeout() {
+		CountDownLatch sending = new CountDownLatch(1);
+		RecordingSender sender = new RecordingSender(sending);
+		ZipkinProperties zipkin = new ZipkinProperties();
+		zipkin.getShutdown().setTimeout(200);
+		LifecycleAsyncReporter reporter = new LifecycleAsyncReporter(zipkin, sender, ReporterMetrics.NOOP_METRICS,
+				false);
+		reporter.start();
+		for (int i = 1; i <= 10; i++) {
+			reporter.report(span(i));
+		}
+		long start = System.nanoTime();
+
+		try {
+			reporter.stop();
+
+			then(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+			then(reporter.getAbandonedSpans()).isEqualTo(10);
+			then(reporter.getFlushedSpans()).isZero();
+		}
+		finally {
+			sending.countDown();
+		}
+	}
+
+	@Test
+	void should_count_spans_of_an_asynchronous_sender_once_they_are_sent() throws Exception {
+		AsyncSender sender = new AsyncSender(null);
+		LifecycleAsyncReporter reporter = new LifecycleAsyncReporter(new ZipkinProperties(), sender,
+				ReporterMetrics.NOOP_METRICS, false);
+		reporter.start();
+		for (int i = 1; i <= 10; i++) {
+			reporter.report(span(i));
+		}
+
+		try {
+			reporter.stop();
+
+			then(sender.sentSpans.get()).isEqualTo(10);
+			then(reporter.getFlushedSpans()).isEqualTo(10);
+			then(reporter.getAbandonedSpans()).isZero();
+		}
+		finally {
+			sender.executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void should_not_wait_for_an_asynchronous_sender_when_flushing() {
+		AsyncSender sender = new AsyncSender(null);
+		sender.completing = false;
+		ZipkinProperties zipkin = new ZipkinProperties();
+		zipkin.getShutdown().setTimeout(200);
+		LifecycleAsyncReporter reporter = new LifecycleAsyncReporter(zipkin, sender, ReporterMetrics.NOOP_METRICS,
+				false);
+		reporter.start();
+		for (int i = 1; i <= 10; i++) {
+			reporter.report(span(i));
+		}
+
+		try {
+			long start = System.nanoTime();
+			reporter.flush();
+			then(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(100);
+
+			reporter.stop();
+
+			then(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+			then(reporter.getFlushedSpans()).isZero();
+			then(reporter.getAbandonedSpans()).isEqualTo(10);
+		}
+		finally {
+			sender.executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void should_count_spans_of_a_late_failure_as_dropped() {
+		AsyncSender sender = new AsyncSender(new IllegalStateException("boom"));
+		InMemoryReporterMetrics metrics = new InMemoryReporterMetrics();
+		LifecycleAsyncReporter reporter = new LifecycleAsyncReporter(new ZipkinProperties(), sender, metrics, false);
+		reporter.start();
+		for (int i = 1; i <= 10; i++) {
+			reporter.report(span(i));
+		}
+
+		try {
+			reporter.stop();
+
+			then(metrics.spansDropped()).isEqualTo(10);
+			then(metrics.messagesDropped()).isEqualTo(1);
+			then(reporter.getFlushedSpans()).isZero();
+			then(reporter.getAbandonedSpans()).isEqualTo(10);
+		}
+		finally {
+			sender.executor.shutdownNow();
+		}
+	}
+
+	private static Span span(int id) {
+		return Span.newBuilder().traceId(Long.toHexString(id)).id(Long.toHexString(id)).name("foo").build();
+	}
+
+	/**
+	 * Returns from {@link Call#execute()} straight away and sends the spans later, like a
+	 * fire-and-forget asynchronous sender.
+	 */
+	private static final class AsyncSender extends Sender {
+
+		private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+		private final AtomicInteger sentSpans = new AtomicInteger();
+
+		private final RuntimeException failure;
+
+		private volatile boolean completing = true;
+
+		private AsyncSender(RuntimeException failure) {
+			this.failure = failure;
+		}
+
+		@Override
+		public Encoding encoding() {
+			return Encoding.JSON;
+		}
+
+		@Override
+		public int messageMaxBytes() {
+			return 1024;
+		}
+
+		@Override
+		public int messageSizeInBytes(List<byte[]> list) {
+			return Encoding.JSON.listSizeInBytes(list);
+		}
+
+		@Override
+		public Call<Void> sendSpans(List<byte[]> list) {
+			return new Call.Base<Void>() {
+				@Override
+				protected Void doExecute() {
+					doEnqueue(null);
+					return null;
+				}
+
+				@Override
+				protected void doEnqueue(Callback<Void> callback) {
+					if (!completing) {
+						return;
+					}
+					executor.schedule(() -> {
+						if (failure != null) {
+							if (callback != null) {
+								callback.onError(failure);
+							}
+							return;
+						}
+						sentSpans.addAndGet(list.size());
+						if (callback != null) {
+							callback.onSuccess(null);
+						}
+					}, 100, TimeUnit.MILLISECONDS);
+				}
+
+				@Override
+				public Call<Void> clone() {
+					return this;
+				}
+			};
+		}
+
+	}
+
+	private static final class RecordingSender extends Sender {
+
+		private final CountDownLatch sending;
+
+		private final AtomicInteger messages = new AtomicInteger();
+
+		private final AtomicInteger spans = new AtomicInteger();
+
+		private RecordingSender(CountDownLatch sending) {
+			this.sending = sending;
+		}
+
+		@Override
+		public Encoding encoding() {
+			return Encoding.JSON;
+		}
+
+		@Override
+		public int messageMaxBytes() {
+			return 1024;
+		}
+
+		@Override
+		public int messageSizeInBytes(List<byte[]> list) {
+			return Encoding.JSON.listSizeInBytes(list);
+		}
+
+		@Override
+		public Call<Void> sendSpans(List<byte[]> list) {
+			try {
+				this.sending.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			this.messages.incrementAndGet();
+			this.spans.addAndGet(list.size());
+			return Call.create(null);
+		}
+
+	}
+
+}
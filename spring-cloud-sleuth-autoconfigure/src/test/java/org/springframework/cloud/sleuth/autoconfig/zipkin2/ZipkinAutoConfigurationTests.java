@@ -16,6 +16,9 @@
 
 package org.springframework.cloud.sleuth.autoconfig.zipkin2;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -26,13 +29,19 @@ import java.util.function.Supplier;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import zipkin2.Call;
 import zipkin2.CheckResult;
 import zipkin2.codec.Encoding;
 import zipkin2.reporter.Sender;
 
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
 import org.springframework.boot.test.system.CapturedOutput;
 import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.cloud.sleuth.zipkin2.SpanSpoolMetrics;
+import org.springframework.cloud.sleuth.zipkin2.SpoolingSender;
+import org.springframework.cloud.sleuth.zipkin2.ZipkinProperties;
+import org.springframework.mock.env.MockEnvironment;
 
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.awaitility.Awaitility.await;
@@ -82,6 +91,42 @@ class ZipkinAutoConfigurationTests {
 				"CheckResult{ok=false, error=java.util.concurrent.CompletionException: java.lang.RuntimeException: boom}"));
 	}
 
+	@Test
+	void shouldNotSpoolByDefault() {
+		Sender sender = new CustomSender(() -> CheckResult.OK);
+
+		then(ZipkinAutoConfiguration.spoolingSender(new ZipkinProperties(), new MockEnvironment(), sender,
+				new StaticListableBeanFactory().getBeanProvider(SpanSpoolMetrics.class))).isSameAs(sender);
+	}
+
+	@Test
+	void shouldPutSpoolInFrontOfTheSenderWhenEnabled(@TempDir Path directory) throws IOException {
+		ZipkinProperties zipkin = new ZipkinProperties();
+		zipkin.getSpool().setEnabled(true);
+		zipkin.getSpool().setDirectory(directory.toString());
+
+		Sender sender = ZipkinAutoConfiguration.spoolingSender(zipkin, new MockEnvironment(),
+				new CustomSender(() -> CheckResult.OK),
+				new StaticListableBeanFactory().getBeanProvider(SpanSpoolMetrics.class));
+
+		then(sender).isInstanceOf(SpoolingSender.class);
+		sender.close();
+	}
+
+	@Test
+	void shouldUseSpoolDirectoryPerServiceByDefault() {
+		ZipkinProperties zipkin = new ZipkinProperties();
+		MockEnvironment environment = new MockEnvironment().withProperty("spring.application.name", "my service");
+
+		then(ZipkinAutoConfiguration.defaultSpoolDirectory(zipkin, environment))
+				.isEqualTo(Paths.get(System.getProperty("java.io.tmpdir"), "sleuth-zipkin-spool", "my_service"));
+
+		zipkin.getService().setName("zipkin-name");
+
+		then(ZipkinAutoConfiguration.defaultSpoolDirectory(zipkin, environment).getFileName().toString())
+				.isEqualTo("zipkin-name");
+	}
+
 	private static final class ExceptionThrowingSender extends Sender {
 
 		@Override
@@ -19,7 +19,12 @@ package org.springframework.cloud.sleuth.autoconfig.zipkin2;
 import org.assertj.core.api.BDDAssertions;
 import org.junit.jupiter.api.Test;
 
+import zipkin2.reporter.Sender;
+
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.sleuth.zipkin2.HttpSenderMetrics;
+import org.springframework.cloud.sleuth.zipkin2.RestTemplateSender;
+import org.springframework.cloud.sleuth.zipkin2.WebClientSender;
 import org.springframework.cloud.sleuth.zipkin2.ZipkinProperties;
 import org.springframework.cloud.sleuth.zipkin2.ZipkinRestTemplateCustomizer;
 import org.springframework.cloud.sleuth.zipkin2.ZipkinRestTemplateProvider;
@@ -42,6 +47,39 @@ class ZipkinHttpSenderConfigurationTests {
 		});
 	}
 
+	@Test
+	void should_send_spans_with_web_client_when_async_sender_enabled() {
+		ApplicationContextRunner runner = new ApplicationContextRunner()
+				.withUserConfiguration(Config.class, ZipkinHttpSenderConfiguration.class, ZipkinProperties.class)
+				.withPropertyValues("spring.zipkin.sender.async.enabled=true");
+
+		runner.run(context -> {
+			assertThat(context.getBean(Sender.class)).isInstanceOf(WebClientSender.class);
+			assertThat(context.getBean(HttpSenderMetrics.class)).isInstanceOf(MicrometerHttpSenderMetrics.class);
+			assertThat(context.getBean(Config.class).customizerCalled).isFalse();
+		});
+	}
+
+	@Test
+	void should_send_spans_with_rest_template_by_default() {
+		ApplicationContextRunner runner = new ApplicationContextRunner().withUserConfiguration(Config.class,
+				ZipkinHttpSenderConfiguration.class, ZipkinProperties.class);
+
+		runner.run(context -> {
+			assertThat(context.getBean(Sender.class)).isInstanceOf(RestTemplateSender.class);
+		});
+	}
+
+	@Test
+	void should_pass_message_size_settings_to_the_sender() {
+		ApplicationContextRunner runner = new ApplicationContextRunner()
+				.withUserConfiguration(Config.class, ZipkinHttpSenderConfiguration.class, ZipkinProperties.class)
+				.withPropertyValues("spring.zipkin.message-max-bytes=524288",
+						"spring.zipkin.adaptive-message-size.enabled=true");
+
+		runner.run(context -> assertThat(context.getBean(Sender.class).messageMaxBytes()).isEqualTo(524288));
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	static class Config {
 
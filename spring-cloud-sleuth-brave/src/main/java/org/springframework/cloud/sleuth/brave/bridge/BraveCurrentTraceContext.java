@@ -41,6 +41,11 @@ public class BraveCurrentTraceContext implements CurrentTraceContext {
 		return context == null ? null : new BraveTraceContext(context);
 	}
 
+	@Override
+	public boolean isCurrent(TraceContext context) {
+		return BraveTraceContext.toBrave(context).equals(this.delegate.get());
+	}
+
 	@Override
 	public CurrentTraceContext.Scope newScope(TraceContext context) {
 		if (context == null) {
@@ -16,8 +16,14 @@
 
 package org.springframework.cloud.sleuth.brave.bridge;
 
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 import brave.handler.MutableSpan;
 
@@ -34,6 +40,10 @@ public class BraveFinishedSpan implements FinishedSpan {
 
 	private final MutableSpan mutableSpan;
 
+	private Map<String, String> tags;
+
+	private Collection<Map.Entry<Long, String>> events;
+
 	public BraveFinishedSpan(MutableSpan mutableSpan) {
 		this.mutableSpan = mutableSpan;
 	}
@@ -55,12 +65,22 @@ public class BraveFinishedSpan implements FinishedSpan {
 
 	@Override
 	public Map<String, String> getTags() {
-		return this.mutableSpan.tags();
+		Map<String, String> tags = this.tags;
+		if (tags == null) {
+			tags = new TagsView(this.mutableSpan);
+			this.tags = tags;
+		}
+		return tags;
 	}
 
 	@Override
 	public Collection<Map.Entry<Long, String>> getEvents() {
-		return this.mutableSpan.annotations();
+		Collection<Map.Entry<Long, String>> events = this.events;
+		if (events == null) {
+			events = new EventsView(this.mutableSpan);
+			this.events = events;
+		}
+		return events;
 	}
 
 	@Override
@@ -124,4 +144,116 @@ public class BraveFinishedSpan implements FinishedSpan {
 		return "BraveFinishedSpan{" + "mutableSpan=" + mutableSpan + '}';
 	}
 
+	/**
+	 * Read-only view of the tags of a {@link MutableSpan}. Unlike
+	 * {@link MutableSpan#tags()} it doesn't copy the tags into a new map on each call.
+	 */
+	private static final class TagsView extends AbstractMap<String, String> {
+
+		private final MutableSpan span;
+
+		private final Set<Map.Entry<String, String>> entrySet = new AbstractSet<Map.Entry<String, String>>() {
+
+			@Override
+			public Iterator<Map.Entry<String, String>> iterator() {
+				return new IndexIterator<Map.Entry<String, String>>(TagsView.this.span.tagCount()) {
+					@Override
+					Map.Entry<String, String> get(int index) {
+						return new SimpleImmutableEntry<>(TagsView.this.span.tagKeyAt(index),
+								TagsView.this.span.tagValueAt(index));
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return TagsView.this.span.tagCount();
+			}
+
+		};
+
+		private TagsView(MutableSpan span) {
+			this.span = span;
+		}
+
+		@Override
+		public Set<Map.Entry<String, String>> entrySet() {
+			return this.entrySet;
+		}
+
+		@Override
+		public int size() {
+			return this.span.tagCount();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof String && this.span.tag((String) key) != null;
+		}
+
+		@Override
+		public String get(Object key) {
+			return key instanceof String ? this.span.tag((String) key) : null;
+		}
+
+	}
+
+	/**
+	 * Read-only view of the annotations of a {@link MutableSpan}. Unlike
+	 * {@link MutableSpan#annotations()} it doesn't copy the annotations into a new list
+	 * on each call.
+	 */
+	private static final class EventsView extends AbstractCollection<Map.Entry<Long, String>> {
+
+		private final MutableSpan span;
+
+		private EventsView(MutableSpan span) {
+			this.span = span;
+		}
+
+		@Override
+		public Iterator<Map.Entry<Long, String>> iterator() {
+			return new IndexIterator<Map.Entry<Long, String>>(this.span.annotationCount()) {
+				@Override
+				Map.Entry<Long, String> get(int index) {
+					return new AbstractMap.SimpleImmutableEntry<>(EventsView.this.span.annotationTimestampAt(index),
+							EventsView.this.span.annotationValueAt(index));
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return this.span.annotationCount();
+		}
+
+	}
+
+	private abstract static class IndexIterator<T> implements Iterator<T> {
+
+		private final int size;
+
+		private int index;
+
+		IndexIterator(int size) {
+			this.size = size;
+		}
+
+		abstract T get(int index);
+
+		@Override
+		public boolean hasNext() {
+			return this.index < this.size;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return get(this.index++);
+		}
+
+	}
+
 }
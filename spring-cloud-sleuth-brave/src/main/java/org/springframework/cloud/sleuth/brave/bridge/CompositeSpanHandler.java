@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.sleuth.brave.bridge;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -23,11 +24,22 @@ import brave.handler.MutableSpan;
 import brave.handler.SpanHandler;
 import brave.propagation.TraceContext;
 
+import org.springframework.cloud.sleuth.exporter.AsyncSpanReporter;
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
 import org.springframework.cloud.sleuth.exporter.SpanFilter;
 import org.springframework.cloud.sleuth.exporter.SpanReporter;
 
 /**
  * Merges {@link SpanFilter}s and {@link SpanReporter}s into a {@link SpanHandler}.
+ * Reporters that {@link SpanReporter#reportsUnsampledSpans() report unsampled spans} get
+ * all the finished spans before they're filtered. When there are any, spans that weren't
+ * sampled are recorded only for them, so the other reporters get only the sampled spans.
+ * Spans kept by the {@link TailSamplingSpanHandler} are passed only to the other
+ * reporters.
+ *
+ * Filters and synchronous reporters share a {@link FinishedSpan} that reads the
+ * {@link MutableSpan} directly. An {@link AsyncSpanReporter} reads the span later on its
+ * own threads, so it gets a copy of the span instead.
  *
  * @author Marcin Grzejszczak
  * @since 3.0.0
@@ -38,9 +50,27 @@ public class CompositeSpanHandler extends SpanHandler {
 
 	private final List<SpanReporter> reporters;
 
+	private final List<SpanReporter> unsampledSpanReporters;
+
 	public CompositeSpanHandler(List<SpanFilter> filters, List<SpanReporter> reporters) {
 		this.filters = filters == null ? Collections.emptyList() : filters;
-		this.reporters = reporters == null ? Collections.emptyList() : reporters;
+		this.reporters = new ArrayList<>();
+		this.unsampledSpanReporters = new ArrayList<>();
+		if (reporters != null) {
+			for (SpanReporter reporter : reporters) {
+				(reporter.reportsUnsampledSpans() ? this.unsampledSpanReporters : this.reporters).add(reporter);
+			}
+		}
+	}
+
+	/**
+	 * @return {@code true} when any of the reporters wants the spans that weren't
+	 * sampled, in which case all the spans have to be recorded
+	 * @see brave.Tracing.Builder#alwaysSampleLocal()
+	 * @since 3.1.11
+	 */
+	public boolean reportsUnsampledSpans() {
+		return !this.unsampledSpanReporters.isEmpty();
 	}
 
 	@Override
@@ -48,7 +78,18 @@ public class CompositeSpanHandler extends SpanHandler {
 		if (cause != Cause.FINISHED) {
 			return true;
 		}
-		boolean shouldProcess = shouldProcess(span);
+		// one finished span is shared by all the filters and synchronous reporters
+		FinishedSpan finishedSpan = BraveFinishedSpan.fromBrave(span);
+		FinishedSpan copy = null;
+		// spans kept by the tail sampling were already reported to them
+		if (!this.unsampledSpanReporters.isEmpty() && !TailSamplingSpanHandler.isKept(context)) {
+			copy = report(this.unsampledSpanReporters, finishedSpan, copy, span);
+			if (!Boolean.TRUE.equals(context.sampled())) {
+				// recorded only for the reporters above
+				return true;
+			}
+		}
+		boolean shouldProcess = shouldProcess(finishedSpan);
 		if (!shouldProcess) {
 			return false;
 		}
@@ -56,13 +97,32 @@ public class CompositeSpanHandler extends SpanHandler {
 		if (!shouldProcess) {
 			return false;
 		}
-		this.reporters.forEach(r -> r.report(BraveFinishedSpan.fromBrave(span)));
+		report(this.reporters, finishedSpan, copy, span);
 		return true;
 	}
 
-	private boolean shouldProcess(MutableSpan span) {
+	/**
+	 * @return the copy of the span passed to asynchronous reporters, if one was needed
+	 */
+	private static FinishedSpan report(List<SpanReporter> reporters, FinishedSpan finishedSpan, FinishedSpan copy,
+			MutableSpan span) {
+		for (SpanReporter reporter : reporters) {
+			if (reporter instanceof AsyncSpanReporter) {
+				if (copy == null) {
+					copy = BraveFinishedSpan.fromBrave(new MutableSpan(span));
+				}
+				reporter.report(copy);
+			}
+			else {
+				reporter.report(finishedSpan);
+			}
+		}
+		return copy;
+	}
+
+	private boolean shouldProcess(FinishedSpan span) {
 		for (SpanFilter exporter : this.filters) {
-			if (!exporter.isExportable(BraveFinishedSpan.fromBrave(span))) {
+			if (!exporter.isExportable(span)) {
 				return false;
 			}
 		}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.brave.bridge;
+
+/**
+ * Instrumentation of the {@link TailSamplingSpanHandler}.
+ *
+ * @since 3.1.11
+ */
+public interface TailSamplingMetrics {
+
+	/**
+	 * Metrics that record nothing.
+	 */
+	TailSamplingMetrics NOOP = new TailSamplingMetrics() {
+	};
+
+	/**
+	 * Increments the number of traces whose buffered spans were reported.
+	 */
+	default void incrementTracesKept() {
+
+	}
+
+	/**
+	 * Increments the number of traces the policy decided not to report.
+	 */
+	default void incrementTracesDropped() {
+
+	}
+
+	/**
+	 * Increments the number of traces dropped before their local root span ended, because
+	 * the buffer was full or the time window passed.
+	 */
+	default void incrementTracesEvicted() {
+
+	}
+
+}
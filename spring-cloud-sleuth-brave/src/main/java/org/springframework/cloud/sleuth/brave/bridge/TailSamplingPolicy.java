@@ -0,0 +1,114 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.brave.bridge;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+
+/**
+ * Decides, once the local root span ended, whether the spans of a trace that weren't
+ * sampled up front should be reported after all.
+ *
+ * @since 3.1.11
+ * @see TailSamplingSpanHandler
+ */
+@FunctionalInterface
+public interface TailSamplingPolicy {
+
+	/**
+	 * Policy that never keeps a trace.
+	 */
+	TailSamplingPolicy NEVER_KEEP = (localRoot, spans) -> false;
+
+	/**
+	 * @param localRoot the local root span
+	 * @param spans all the buffered spans of the trace, including the local root span
+	 * @return {@code true} to report the spans
+	 */
+	boolean shouldKeep(FinishedSpan localRoot, Collection<FinishedSpan> spans);
+
+	/**
+	 * @return policy that keeps traces with any span that failed or was tagged with
+	 * {@code error}
+	 */
+	static TailSamplingPolicy errors() {
+		return (localRoot, spans) -> {
+			for (FinishedSpan span : spans) {
+				if (span.getError() != null || span.getTags().containsKey("error")) {
+					return true;
+				}
+			}
+			return false;
+		};
+	}
+
+	/**
+	 * @param threshold min duration of the local root span
+	 * @param unit time unit of the threshold
+	 * @return policy that keeps traces whose local root span took at least the threshold
+	 */
+	static TailSamplingPolicy latency(long threshold, TimeUnit unit) {
+		long thresholdMicros = unit.toMicros(threshold);
+		return (localRoot, spans) -> localRoot.getStartTimestamp() != 0L
+				&& localRoot.getEndTimestamp() - localRoot.getStartTimestamp() >= thresholdMicros;
+	}
+
+	/**
+	 * @param key tag key
+	 * @param valuePattern pattern the whole tag value has to match
+	 * @return policy that keeps traces with any span tagged with a matching value
+	 */
+	static TailSamplingPolicy tag(String key, Pattern valuePattern) {
+		return (localRoot, spans) -> {
+			for (FinishedSpan span : spans) {
+				String value = span.getTags().get(key);
+				if (value != null && valuePattern.matcher(value).matches()) {
+					return true;
+				}
+			}
+			return false;
+		};
+	}
+
+	/**
+	 * @param policies policies to combine
+	 * @return policy that keeps traces kept by any of the given policies
+	 */
+	static TailSamplingPolicy anyOf(List<TailSamplingPolicy> policies) {
+		List<TailSamplingPolicy> copy = new ArrayList<>(policies);
+		if (copy.isEmpty()) {
+			return NEVER_KEEP;
+		}
+		if (copy.size() == 1) {
+			return copy.get(0);
+		}
+		return (localRoot, spans) -> {
+			for (TailSamplingPolicy policy : copy) {
+				if (policy.shouldKeep(localRoot, spans)) {
+					return true;
+				}
+			}
+			return false;
+		};
+	}
+
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.brave.bridge;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+
+/**
+ * {@link SpanHandler} that samples traces after the fact. Spans that were sampled up
+ * front are passed to the delegates right away. The other spans, recorded because of
+ * {@link brave.Tracing.Builder#alwaysSampleLocal()}, are buffered per local root. When
+ * the local root span ends, the {@link TailSamplingPolicy} decides whether the buffered
+ * spans are passed to the delegates as sampled, e.g. because one of them failed or the
+ * request took too long. Spans of a kept trace that end after the local root span are
+ * passed on right away.
+ *
+ * The buffer is bounded by the max number of traces and spans. When it's full, the oldest
+ * traces are evicted. Traces whose local root span didn't end within the time window are
+ * evicted too. Decided traces don't count towards the buffer, their decisions are kept
+ * separately for the time window, up to the max number of traces, oldest decision
+ * forgotten first.
+ *
+ * Delegates that {@link CompositeSpanHandler#reportsUnsampledSpans() report unsampled
+ * spans} get every span as soon as it ends and don't get the kept spans again.
+ *
+ * @since 3.1.11
+ */
+public class TailSamplingSpanHandler extends SpanHandler {
+
+	/**
+	 * Default max number of buffered traces.
+	 */
+	public static final int DEFAULT_MAX_TRACES = 10_000;
+
+	/**
+	 * Default max number of buffered spans.
+	 */
+	public static final int DEFAULT_MAX_SPANS = 100_000;
+
+	/**
+	 * Default time in milliseconds a trace is buffered for.
+	 */
+	public static final long DEFAULT_WINDOW = 30_000L;
+
+	private final SpanHandler[] delegates;
+
+	private final SpanHandler[] unsampledSpanDelegates;
+
+	private final boolean handlesAbandoned;
+
+	private final TailSamplingPolicy policy;
+
+	private final long windowNanos;
+
+	private final int maxTraces;
+
+	private final int maxSpans;
+
+	private final TailSamplingMetrics metrics;
+
+	// traces whose local root span didn't end yet
+	private final ConcurrentMap<Long, Trace> traces = new ConcurrentHashMap<>();
+
+	// the oldest trace first, decided traces are skipped
+	private final Queue<Trace> arrivals = new ConcurrentLinkedQueue<>();
+
+	// decided traces, so that spans ending after the local root span follow the decision
+	private final ConcurrentMap<Long, Trace> decided = new ConcurrentHashMap<>();
+
+	// the oldest decision first
+	private final Queue<Trace> decisions = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger bufferedSpans = new AtomicInteger();
+
+	/**
+	 * @param delegates span handlers to pass the sampled spans to
+	 * @param policy decides which traces to keep
+	 * @param window time in milliseconds a trace is buffered for
+	 * @param maxTraces max number of buffered traces
+	 * @param maxSpans max number of buffered spans
+	 * @param metrics instrumentation of the buffer
+	 */
+	public TailSamplingSpanHandler(List<SpanHandler> delegates, TailSamplingPolicy policy, long window, int maxTraces,
+			int maxSpans, TailSamplingMetrics metrics) {
+		this.delegates = delegates.toArray(new SpanHandler[0]);
+		this.unsampledSpanDelegates = delegates.stream().filter(TailSamplingSpanHandler::reportsUnsampledSpans)
+				.toArray(SpanHandler[]::new);
+		this.handlesAbandoned = delegates.stream().anyMatch(SpanHandler::handlesAbandoned);
+		this.policy = policy;
+		this.windowNanos = TimeUnit.MILLISECONDS.toNanos(window);
+		this.maxTraces = maxTraces;
+		this.maxSpans = maxSpans;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * @param context context of a finished span
+	 * @return {@code true} when the span was kept by the tail sampling and is passed to
+	 * the delegates again
+	 */
+	static boolean isKept(TraceContext context) {
+		return context.findExtra(Kept.class) != null;
+	}
+
+	private static boolean reportsUnsampledSpans(SpanHandler handler) {
+		return handler instanceof CompositeSpanHandler && ((CompositeSpanHandler) handler).reportsUnsampledSpans();
+	}
+
+	@Override
+	public boolean begin(TraceContext context, MutableSpan span, TraceContext parent) {
+		for (SpanHandler delegate : this.delegates) {
+			if (!delegate.begin(context, span, parent)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+		if (cause != Cause.FINISHED || Boolean.TRUE.equals(context.sampled())) {
+			return end(this.delegates, context, span, cause);
+		}
+		if (!end(this.unsampledSpanDelegates, context, span, cause)) {
+			return false;
+		}
+		long now = System.nanoTime();
+		evictExpired(now);
+		Trace trace = this.decided.get(context.localRootId());
+		if (trace == null) {
+			trace = trace(context.localRootId(), now);
+		}
+		List<Entry> kept = trace.add(new Entry(context, span), context.isLocalRoot(), this);
+		if (trace.isDecided() && this.traces.remove(trace.localRootId, trace)) {
+			decided(trace, now);
+		}
+		if (this.bufferedSpans.get() > this.maxSpans) {
+			evictOverLimit();
+		}
+		for (Entry entry : kept) {
+			end(this.delegates, entry.context.toBuilder().sampled(true).addExtra(Kept.INSTANCE).build(), entry.span,
+					Cause.FINISHED);
+		}
+		return true;
+	}
+
+	@Override
+	public boolean handlesAbandoned() {
+		return this.handlesAbandoned;
+	}
+
+	/**
+	 * @return number of buffered spans
+	 */
+	int getBufferedSpans() {
+		return this.bufferedSpans.get();
+	}
+
+	private static boolean end(SpanHandler[] handlers, TraceContext context, MutableSpan span, Cause cause) {
+		for (SpanHandler handler : handlers) {
+			if (!handler.end(context, span, cause)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Trace trace(long localRootId, long now) {
+		Trace trace = this.traces.get(localRootId);
+		if (trace != null) {
+			return trace;
+		}
+		Trace created = new Trace(localRootId, now);
+		Trace existing = this.traces.putIfAbsent(localRootId, created);
+		if (existing != null) {
+			return existing;
+		}
+		this.arrivals.add(created);
+		if (this.traces.size() > this.maxTraces) {
+			evictOverLimit();
+		}
+		return created;
+	}
+
+	private void decided(Trace trace, long now) {
+		trace.decidedNanos = now;
+		this.decided.put(trace.localRootId, trace);
+		this.decisions.add(trace);
+		Trace oldest;
+		while (this.decided.size() > this.maxTraces && (oldest = this.decisions.poll()) != null) {
+			this.decided.remove(oldest.localRootId, oldest);
+		}
+	}
+
+	private boolean decide(MutableSpan localRoot, List<Entry> entries) {
+		List<FinishedSpan> spans = new ArrayList<>(entries.size());
+		FinishedSpan finishedLocalRoot = null;
+		for (Entry entry : entries) {
+			FinishedSpan span = BraveFinishedSpan.fromBrave(entry.span);
+			if (entry.span == localRoot) {
+				finishedLocalRoot = span;
+			}
+			spans.add(span);
+		}
+		boolean keep = this.policy.shouldKeep(finishedLocalRoot, spans);
+		if (keep) {
+			this.metrics.incrementTracesKept();
+		}
+		else {
+			this.metrics.incrementTracesDropped();
+		}
+		return keep;
+	}
+
+	private void evictExpired(long now) {
+		Trace oldest;
+		while ((oldest = this.arrivals.peek()) != null
+				&& (oldest.isDecided() || now - oldest.createdNanos > this.windowNanos)) {
+			if (this.arrivals.remove(oldest)) {
+				evict(oldest);
+			}
+		}
+		while ((oldest = this.decisions.peek()) != null && now - oldest.decidedNanos > this.windowNanos) {
+			if (this.decisions.remove(oldest)) {
+				this.decided.remove(oldest.localRootId, oldest);
+			}
+		}
+	}
+
+	private void evictOverLimit() {
+		Trace oldest;
+		while ((this.traces.size() > this.maxTraces || this.bufferedSpans.get() > this.maxSpans)
+				&& (oldest = this.arrivals.poll()) != null) {
+			evict(oldest);
+		}
+	}
+
+	/**
+	 * Evicts a trace that wasn't decided yet. Decided traces are moved to the decisions
+	 * by the thread that decided them.
+	 */
+	private void evict(Trace trace) {
+		if (trace.evict(this)) {
+			this.traces.remove(trace.localRootId, trace);
+			this.metrics.incrementTracesEvicted();
+		}
+	}
+
+	private enum State {
+
+		BUFFERING, KEPT, DROPPED, EVICTED
+
+	}
+
+	/**
+	 * Marks the context of spans kept by the tail sampling.
+	 */
+	private enum Kept {
+
+		INSTANCE
+
+	}
+
+	private static final class Entry {
+
+		private final TraceContext context;
+
+		private final MutableSpan span;
+
+		private Entry(TraceContext context, MutableSpan span) {
+			this.context = context;
+			this.span = span;
+		}
+
+	}
+
+	/**
+	 * Spans of a local root and the decision about them. Decided traces stay around
+	 * without their spans for the time window, so that spans that end after the local
+	 * root span follow the decision.
+	 */
+	private static final class Trace {
+
+		private final long localRootId;
+
+		private final long createdNanos;
+
+		private volatile long decidedNanos;
+
+		private List<Entry> entries = new ArrayList<>();
+
+		private volatile State state = State.BUFFERING;
+
+		private Trace(long localRootId, long createdNanos) {
+			this.localRootId = localRootId;
+			this.createdNanos = createdNanos;
+		}
+
+		/**
+		 * @return the spans to pass on as sampled
+		 */
+		private synchronized List<Entry> add(Entry entry, boolean localRoot, TailSamplingSpanHandler handler) {
+			if (this.state == State.KEPT) {
+				return Collections.singletonList(entry);
+			}
+			if (this.state != State.BUFFERING) {
+				return Collections.emptyList();
+			}
+			this.entries.add(entry);
+			handler.bufferedSpans.incrementAndGet();
+			if (!localRoot) {
+				return Collections.emptyList();
+			}
+			List<Entry> entries = this.entries;
+			this.entries = null;
+			handler.bufferedSpans.addAndGet(-entries.size());
+			this.state = handler.decide(entry.span, entries) ? State.KEPT : State.DROPPED;
+			return this.state == State.KEPT ? entries : Collections.emptyList();
+		}
+
+		private boolean isDecided() {
+			State state = this.state;
+			return state == State.KEPT || state == State.DROPPED;
+		}
+
+		/**
+		 * @return {@code true} when the trace was evicted before its local root span
+		 * ended
+		 */
+		private synchronized boolean evict(TailSamplingSpanHandler handler) {
+			if (this.state != State.BUFFERING) {
+				return false;
+			}
+			handler.bufferedSpans.addAndGet(-this.entries.size());
+			this.entries = null;
+			this.state = State.EVICTED;
+			return true;
+		}
+
+	}
+
+}
@@ -39,6 +39,7 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.cloud.sleuth.BaggageInScope;
 import org.springframework.cloud.sleuth.internal.EncodingUtils;
+import org.springframework.cloud.sleuth.internal.VirtualThreads;
 import org.springframework.util.StringUtils;
 
 import static java.util.Collections.singletonList;
@@ -432,13 +433,17 @@ final class TemporaryBuffers {
 	private static final ThreadLocal<char[]> CHAR_ARRAY = new ThreadLocal<>();
 
 	/**
-	 * A {@link ThreadLocal} {@code char[]} of size {@code len}. Take care when using a
-	 * large value of {@code len} as this buffer will remain for the lifetime of the
-	 * thread. The returned buffer will not be zeroed and may be larger than the requested
-	 * size, you must make sure to fill the entire content to the desired value and set
-	 * the length explicitly when converting to a {@link String}.
+	 * A {@link ThreadLocal} {@code char[]} of size {@code len} (a new one on virtual
+	 * threads). Take care when using a large value of {@code len} as this buffer will
+	 * remain for the lifetime of the thread. The returned buffer will not be zeroed and
+	 * may be larger than the requested size, you must make sure to fill the entire
+	 * content to the desired value and set the length explicitly when converting to a
+	 * {@link String}.
 	 */
 	public static char[] chars(int len) {
+		if (VirtualThreads.isCurrentThreadVirtual()) {
+			return new char[len];
+		}
 		char[] buffer = CHAR_ARRAY.get();
 		if (buffer == null) {
 			buffer = new char[len];
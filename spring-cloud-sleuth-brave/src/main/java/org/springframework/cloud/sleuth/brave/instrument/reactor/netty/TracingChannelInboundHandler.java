@@ -21,14 +21,19 @@ import brave.propagation.CurrentTraceContext;
 import brave.propagation.TraceContext;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.Attribute;
 import io.netty.util.AttributeKey;
 import reactor.netty.Connection;
 import reactor.netty.ConnectionObserver;
 import reactor.netty.channel.ChannelOperations;
 import reactor.netty.http.client.HttpClientResponse;
 
+import org.springframework.lang.Nullable;
+
 /**
- * {@link ChannelInboundHandlerAdapter} that wraps all events in scope.
+ * {@link ChannelInboundHandlerAdapter} that wraps all events in scope. All reads of a
+ * read batch, from the first {@code channelRead} to {@code channelReadComplete}, share a
+ * single scope.
  * <p>
  * WARNING: Using this feature can lead to serious performance issues. This should be only
  * used for debugging purposes.
@@ -41,6 +46,13 @@ public class TracingChannelInboundHandler extends ChannelInboundHandlerAdapter {
 
 	final CurrentTraceContext currentTraceContext;
 
+	// the handler is not sharable so the attribute of its channel can be kept
+	private Attribute<Span> spanAttribute;
+
+	private CurrentTraceContext.Scope readScope;
+
+	private TraceContext readContext;
+
 	/**
 	 * Creates a new instance of {@link TracingChannelInboundHandler}.
 	 * @param currentTraceContext current trace context
@@ -51,83 +63,105 @@ public class TracingChannelInboundHandler extends ChannelInboundHandlerAdapter {
 
 	@Override
 	public void channelRegistered(ChannelHandlerContext ctx) {
-		if (instrumentOperation(ctx, () -> ctx.fireChannelRegistered())) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.fireChannelRegistered();
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.fireChannelRegistered();
 	}
 
 	@Override
 	public void channelUnregistered(ChannelHandlerContext ctx) {
-		if (instrumentOperation(ctx, () -> ctx.fireChannelUnregistered())) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.fireChannelUnregistered();
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.fireChannelUnregistered();
 	}
 
 	@Override
 	public void channelActive(ChannelHandlerContext ctx) {
-		if (instrumentOperation(ctx, () -> ctx.fireChannelActive())) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.fireChannelActive();
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.fireChannelActive();
 	}
 
 	@Override
 	public void channelInactive(ChannelHandlerContext ctx) {
-		if (instrumentOperation(ctx, () -> ctx.fireChannelInactive())) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.fireChannelInactive();
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.fireChannelInactive();
 	}
 
 	@Override
 	public void channelRead(ChannelHandlerContext ctx, Object msg) {
-		if (instrumentOperation(ctx, () -> ctx.fireChannelRead(msg))) {
-			return;
+		// the scope stays open until the read batch completes
+		updateReadScope(ctx);
+		try {
+			ctx.fireChannelRead(msg);
+		}
+		finally {
+			// no channelReadComplete will reach a handler removed during the read
+			if (ctx.isRemoved()) {
+				closeReadScope();
+			}
 		}
-
-		ctx.fireChannelRead(msg);
 	}
 
 	@Override
 	public void channelReadComplete(ChannelHandlerContext ctx) {
-		if (instrumentOperation(ctx, () -> ctx.fireChannelReadComplete())) {
-			return;
+		try {
+			updateReadScope(ctx);
+			ctx.fireChannelReadComplete();
+		}
+		finally {
+			closeReadScope();
 		}
-
-		ctx.fireChannelReadComplete();
 	}
 
 	@Override
 	public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
-		if (instrumentOperation(ctx, () -> ctx.fireUserEventTriggered(evt))) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.fireUserEventTriggered(evt);
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.fireUserEventTriggered(evt);
 	}
 
 	@Override
 	public void channelWritabilityChanged(ChannelHandlerContext ctx) {
-		if (instrumentOperation(ctx, () -> ctx.fireChannelWritabilityChanged())) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.fireChannelWritabilityChanged();
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.fireChannelWritabilityChanged();
 	}
 
 	@Override
 	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
-		if (instrumentOperation(ctx, () -> ctx.fireExceptionCaught(cause))) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.fireExceptionCaught(cause);
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.fireExceptionCaught(cause);
 	}
 
 	@Override
@@ -137,71 +171,74 @@ public class TracingChannelInboundHandler extends ChannelInboundHandlerAdapter {
 
 	@Override
 	public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
-		if (instrumentOperation(ctx, () -> {
-			try {
-				super.handlerAdded(ctx);
-			}
-			catch (Exception e) {
-				throw new RuntimeException(e);
-			}
-		})) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			super.handlerAdded(ctx);
+		}
+		finally {
+			scope.close();
 		}
-
-		super.handlerAdded(ctx);
 	}
 
 	@Override
 	public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
-		if (instrumentOperation(ctx, () -> {
-			try {
-				super.handlerRemoved(ctx);
-			}
-			catch (Exception e) {
-				throw new RuntimeException(e);
-			}
-		})) {
+		// when removed by a downstream handler during a read, scopes opened downstream
+		// are still open, so the read scope is closed once channelRead returns
+		if (this.readContext != null && this.readContext.equals(this.currentTraceContext.get())) {
+			closeReadScope();
+		}
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			super.handlerRemoved(ctx);
+		}
+		finally {
+			scope.close();
+		}
+	}
+
+	private void updateReadScope(ChannelHandlerContext ctx) {
+		TraceContext context = traceContext(ctx);
+		if (context == null ? this.readContext == null : context.equals(this.readContext)) {
 			return;
 		}
+		closeReadScope();
+		if (context != null) {
+			this.readScope = this.currentTraceContext.maybeScope(context);
+			this.readContext = context;
+		}
+	}
+
+	private void closeReadScope() {
+		if (this.readScope != null) {
+			this.readScope.close();
+			this.readScope = null;
+			this.readContext = null;
+		}
+	}
 
-		super.handlerRemoved(ctx);
+	private CurrentTraceContext.Scope maybeScope(ChannelHandlerContext ctx) {
+		TraceContext context = traceContext(ctx);
+		return context != null ? this.currentTraceContext.maybeScope(context) : CurrentTraceContext.Scope.NOOP;
 	}
 
-	boolean instrumentOperation(ChannelHandlerContext ctx, Runnable operation) {
-		Span span = ctx.channel().attr(SPAN_ATTRIBUTE_KEY).get();
+	@Nullable
+	TraceContext traceContext(ChannelHandlerContext ctx) {
+		if (this.spanAttribute == null) {
+			this.spanAttribute = ctx.channel().attr(SPAN_ATTRIBUTE_KEY);
+		}
+		Span span = this.spanAttribute.get();
 		if (span != null) {
-			try (CurrentTraceContext.Scope scope = currentTraceContext.maybeScope(span.context())) {
-				operation.run();
-			}
-			return true;
-		}
-		else {
-			Connection conn = Connection.from(ctx.channel());
-			if (conn instanceof ConnectionObserver) {
-				TraceContext parent = ((ConnectionObserver) conn).currentContext().getOrDefault(TraceContext.class,
-						null);
-				if (parent != null) {
-					try (CurrentTraceContext.Scope scope = currentTraceContext.maybeScope(parent)) {
-						operation.run();
-					}
-					return true;
-				}
-			}
-			else {
-				ChannelOperations<?, ?> ops = conn.as(ChannelOperations.class);
-				if (ops instanceof HttpClientResponse) {
-					TraceContext parent = TracingHandlerUtil
-							.traceContext(((HttpClientResponse) ops).currentContextView());
-					if (parent != null) {
-						try (CurrentTraceContext.Scope scope = currentTraceContext.maybeScope(parent)) {
-							operation.run();
-						}
-						return true;
-					}
-				}
-			}
+			return span.context();
 		}
-		return false;
+		Connection conn = Connection.from(ctx.channel());
+		if (conn instanceof ConnectionObserver) {
+			return ((ConnectionObserver) conn).currentContext().getOrDefault(TraceContext.class, null);
+		}
+		ChannelOperations<?, ?> ops = conn.as(ChannelOperations.class);
+		if (ops instanceof HttpClientResponse) {
+			return TracingHandlerUtil.traceContext(((HttpClientResponse) ops).currentContextView());
+		}
+		return null;
 	}
 
 }
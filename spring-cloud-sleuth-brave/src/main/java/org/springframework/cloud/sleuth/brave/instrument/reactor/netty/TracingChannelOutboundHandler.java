@@ -24,12 +24,15 @@ import brave.propagation.TraceContext;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
+import io.netty.util.Attribute;
 import io.netty.util.AttributeKey;
 import reactor.netty.Connection;
 import reactor.netty.ConnectionObserver;
 import reactor.netty.channel.ChannelOperations;
 import reactor.netty.http.client.HttpClientRequest;
 
+import org.springframework.lang.Nullable;
+
 /**
  * {@link ChannelOutboundHandlerAdapter} that wraps all events in scope.
  * <p>
@@ -44,6 +47,9 @@ public class TracingChannelOutboundHandler extends ChannelOutboundHandlerAdapter
 
 	final CurrentTraceContext currentTraceContext;
 
+	// the handler is not sharable so the attribute of its channel can be kept
+	private Attribute<Span> spanAttribute;
+
 	/**
 	 * Creates a new instance of {@link TracingChannelOutboundHandler}.
 	 * @param currentTraceContext current trace context
@@ -54,75 +60,91 @@ public class TracingChannelOutboundHandler extends ChannelOutboundHandlerAdapter
 
 	@Override
 	public void bind(ChannelHandlerContext ctx, SocketAddress localAddress, ChannelPromise promise) {
-		if (instrumentOperation(ctx, () -> ctx.bind(localAddress, promise))) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.bind(localAddress, promise);
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.bind(localAddress, promise);
 	}
 
 	@Override
 	public void connect(ChannelHandlerContext ctx, SocketAddress remoteAddress, SocketAddress localAddress,
 			ChannelPromise promise) {
-		if (instrumentOperation(ctx, () -> ctx.connect(remoteAddress, localAddress, promise))) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.connect(remoteAddress, localAddress, promise);
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.connect(remoteAddress, localAddress, promise);
 	}
 
 	@Override
 	public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) {
-		if (instrumentOperation(ctx, () -> ctx.disconnect(promise))) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.disconnect(promise);
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.disconnect(promise);
 	}
 
 	@Override
 	public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
-		if (instrumentOperation(ctx, () -> ctx.close(promise))) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.close(promise);
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.close(promise);
 	}
 
 	@Override
 	public void deregister(ChannelHandlerContext ctx, ChannelPromise promise) {
-		if (instrumentOperation(ctx, () -> ctx.deregister(promise))) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.deregister(promise);
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.deregister(promise);
 	}
 
 	@Override
 	public void read(ChannelHandlerContext ctx) {
-		if (instrumentOperation(ctx, () -> ctx.read())) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.read();
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.read();
 	}
 
 	@Override
 	public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
-		if (instrumentOperation(ctx, () -> ctx.write(msg, promise))) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.write(msg, promise);
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.write(msg, promise);
 	}
 
 	@Override
 	public void flush(ChannelHandlerContext ctx) {
-		if (instrumentOperation(ctx, () -> ctx.flush())) {
-			return;
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			ctx.flush();
+		}
+		finally {
+			scope.close();
 		}
-
-		ctx.flush();
 	}
 
 	@Override
@@ -132,71 +154,49 @@ public class TracingChannelOutboundHandler extends ChannelOutboundHandlerAdapter
 
 	@Override
 	public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
-		if (instrumentOperation(ctx, () -> {
-			try {
-				super.handlerAdded(ctx);
-			}
-			catch (Exception e) {
-				throw new RuntimeException(e);
-			}
-		})) {
-			return;
-		}
-
-		super.handlerAdded(ctx);
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			super.handlerAdded(ctx);
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	@Override
 	public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
-		if (instrumentOperation(ctx, () -> {
-			try {
-				super.handlerRemoved(ctx);
-			}
-			catch (Exception e) {
-				throw new RuntimeException(e);
-			}
-		})) {
-			return;
-		}
-
-		super.handlerRemoved(ctx);
+		CurrentTraceContext.Scope scope = maybeScope(ctx);
+		try {
+			super.handlerRemoved(ctx);
+		}
+		finally {
+			scope.close();
+		}
+	}
+
+	private CurrentTraceContext.Scope maybeScope(ChannelHandlerContext ctx) {
+		TraceContext context = traceContext(ctx);
+		return context != null ? this.currentTraceContext.maybeScope(context) : CurrentTraceContext.Scope.NOOP;
 	}
 
-	boolean instrumentOperation(ChannelHandlerContext ctx, Runnable operation) {
-		Span span = ctx.channel().attr(SPAN_ATTRIBUTE_KEY).get();
+	@Nullable
+	TraceContext traceContext(ChannelHandlerContext ctx) {
+		if (this.spanAttribute == null) {
+			this.spanAttribute = ctx.channel().attr(SPAN_ATTRIBUTE_KEY);
+		}
+		Span span = this.spanAttribute.get();
 		if (span != null) {
-			try (CurrentTraceContext.Scope scope = currentTraceContext.maybeScope(span.context())) {
-				operation.run();
-			}
-			return true;
-		}
-		else {
-			Connection conn = Connection.from(ctx.channel());
-			if (conn instanceof ConnectionObserver) {
-				TraceContext parent = ((ConnectionObserver) conn).currentContext().getOrDefault(TraceContext.class,
-						null);
-				if (parent != null) {
-					try (CurrentTraceContext.Scope scope = currentTraceContext.maybeScope(parent)) {
-						operation.run();
-					}
-					return true;
-				}
-			}
-			else {
-				ChannelOperations<?, ?> ops = conn.as(ChannelOperations.class);
-				if (ops instanceof HttpClientRequest) {
-					TraceContext traceContext = TracingHandlerUtil
-							.traceContext(((HttpClientRequest) ops).currentContextView());
-					if (traceContext != null) {
-						try (CurrentTraceContext.Scope scope = currentTraceContext.maybeScope(traceContext)) {
-							operation.run();
-						}
-						return true;
-					}
-				}
-			}
+			return span.context();
 		}
-		return false;
+		Connection conn = Connection.from(ctx.channel());
+		if (conn instanceof ConnectionObserver) {
+			return ((ConnectionObserver) conn).currentContext().getOrDefault(TraceContext.class, null);
+		}
+		ChannelOperations<?, ?> ops = conn.as(ChannelOperations.class);
+		if (ops instanceof HttpClientRequest) {
+			return TracingHandlerUtil.traceContext(((HttpClientRequest) ops).currentContextView());
+		}
+		return null;
 	}
 
 }
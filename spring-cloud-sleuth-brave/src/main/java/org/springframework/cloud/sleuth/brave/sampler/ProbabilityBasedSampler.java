@@ -18,7 +18,7 @@ package org.springframework.cloud.sleuth.brave.sampler;
 
 import java.util.BitSet;
 import java.util.Random;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.function.Supplier;
 
 import brave.sampler.Sampler;
@@ -40,23 +40,37 @@ import org.springframework.util.Assert;
  * This counts to see how many out of 100 traces should be retained. This means that it is
  * accurate in units of 100 traces.
  *
+ * <p>
+ * To avoid contending on a single counter, each thread walks the set of 100 decisions
+ * with one of several striped counters, picked by its thread id. Every 100 decisions
+ * taken on a stripe retain exactly the configured percentage of traces, so overall the
+ * sampler is off by less than 100 decisions per stripe. The decisions are rebuilt when
+ * the supplied probability changes.
+ * </p>
+ *
  * @author Marcin Grzejszczak
  * @author Adrian Cole
  * @since 1.0.0
  */
 public class ProbabilityBasedSampler extends Sampler {
 
-	private final AtomicInteger counter = new AtomicInteger(0);
+	private static final int WINDOW_SIZE = 100;
+
+	private static final int MAX_STRIPES = 64;
 
-	private final BitSet sampleDecisions;
+	// ints per stripe, so that each counter sits on its own cache line
+	private static final int PADDING = 16;
+
+	private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
 
 	private final Supplier<Float> probability;
 
+	private volatile Decisions sampleDecisions;
+
 	public ProbabilityBasedSampler(Supplier<Float> probability) {
 		Assert.notNull(probability, "probability property is required for ProbabilityBasedSampler");
 		this.probability = probability;
-		int outOf100 = (int) (probability.get() * 100.0f);
-		this.sampleDecisions = randomBitSet(100, outOf100, new Random());
+		this.sampleDecisions = new Decisions(probability.get());
 	}
 
 	/**
@@ -87,22 +101,62 @@ public class ProbabilityBasedSampler extends Sampler {
 		return result;
 	}
 
+	static int stripes(int processors) {
+		int stripes = Integer.highestOneBit(Math.max(1, processors * 2 - 1)) << 1;
+		return Math.min(stripes, MAX_STRIPES);
+	}
+
 	@Override
 	public boolean isSampled(long traceId) {
-		if (this.probability.get() == 0) {
+		float probability = this.probability.get();
+		if (probability == 0) {
 			return false;
 		}
-		else if (this.probability.get() == 1.0f) {
+		else if (probability == 1.0f) {
 			return true;
 		}
-		synchronized (this) {
-			final int i = this.counter.getAndIncrement();
-			boolean result = this.sampleDecisions.get(i);
-			if (i == 99) {
-				this.counter.set(0);
-			}
-			return result;
+		return sampleDecisions(probability).next();
+	}
+
+	private Decisions sampleDecisions(float probability) {
+		Decisions decisions = this.sampleDecisions;
+		if (decisions.probability != probability) {
+			// concurrent rebuilds are harmless, the last one wins
+			decisions = new Decisions(probability);
+			this.sampleDecisions = decisions;
 		}
+		return decisions;
+	}
+
+	/**
+	 * Sampling decisions for a given probability and the position of the next decision on
+	 * each stripe.
+	 */
+	private static final class Decisions {
+
+		private final float probability;
+
+		private final BitSet bits;
+
+		private final AtomicIntegerArray counters = new AtomicIntegerArray(STRIPES * PADDING);
+
+		private Decisions(float probability) {
+			this.probability = probability;
+			int outOf100 = (int) (probability * 100.0f);
+			this.bits = randomBitSet(WINDOW_SIZE, outOf100, new Random());
+		}
+
+		private boolean next() {
+			int counter = this.counters.getAndIncrement(stripe() * PADDING);
+			return this.bits.get(Math.floorMod(counter, WINDOW_SIZE));
+		}
+
+		private static int stripe() {
+			long id = Thread.currentThread().getId();
+			int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+			return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+		}
+
 	}
 
 }
@@ -31,6 +31,20 @@ class BraveCurrentTraceContextTests {
 	ThreadLocalCurrentTraceContext currentTraceContext = ThreadLocalCurrentTraceContext.newBuilder()
 			.addScopeDecorator(MDCScopeDecorator.newBuilder().build()).build();
 
+	@Test
+	void should_check_whether_context_is_current_without_wrapping_it() {
+		BraveCurrentTraceContext braveCurrentTraceContext = new BraveCurrentTraceContext(currentTraceContext);
+		org.springframework.cloud.sleuth.TraceContext context = BraveTraceContext
+				.fromBrave(TraceContext.newBuilder().traceId(12345678).spanId(12345678).build());
+
+		then(braveCurrentTraceContext.isCurrent(context)).isFalse();
+		try (brave.propagation.CurrentTraceContext.Scope scope = currentTraceContext
+				.newScope(BraveTraceContext.toBrave(context))) {
+			then(braveCurrentTraceContext.isCurrent(context)).isTrue();
+		}
+		then(braveCurrentTraceContext.isCurrent(context)).isFalse();
+	}
+
 	@Test
 	void should_clear_any_thread_locals_and_scopes_when_null_context_passed_to_new_scope() {
 		BraveCurrentTraceContext braveCurrentTraceContext = new BraveCurrentTraceContext(currentTraceContext);
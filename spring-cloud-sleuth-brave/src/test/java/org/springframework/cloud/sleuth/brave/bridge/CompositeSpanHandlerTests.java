@@ -0,0 +1,159 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.brave.bridge;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.sleuth.exporter.AsyncSpanReporter;
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.cloud.sleuth.exporter.SpanFilter;
+import org.springframework.cloud.sleuth.exporter.SpanReporter;
+import org.springframework.cloud.sleuth.exporter.SpanReporterMetrics;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class CompositeSpanHandlerTests {
+
+	TraceContext context = TraceContext.newBuilder().traceId(1L).spanId(2L).build();
+
+	@Test
+	void should_share_a_single_finished_span_between_filters_and_reporters() {
+		List<FinishedSpan> seen = new ArrayList<>();
+		SpanFilter filter = span -> seen.add(span);
+		SpanReporter reporter = seen::add;
+		CompositeSpanHandler handler = new CompositeSpanHandler(Arrays.asList(filter, filter),
+				Arrays.asList(reporter, reporter));
+
+		boolean result = handler.end(this.context, span(), SpanHandler.Cause.FINISHED);
+
+		then(result).isTrue();
+		then(seen).hasSize(4);
+		then(seen).allSatisfy(span -> then(span).isSameAs(seen.get(0)));
+	}
+
+	@Test
+	void should_report_unsampled_spans_only_to_reporters_of_unsampled_spans() {
+		List<FinishedSpan> all = new ArrayList<>();
+		List<FinishedSpan> sampled = new ArrayList<>();
+		CompositeSpanHandler handler = new CompositeSpanHandler(Collections.singletonList(span -> false),
+				Arrays.asList(sampled::add, new UnsampledSpanReporter(all)));
+
+		handler.end(this.context.toBuilder().sampled(false).sampledLocal(true).build(), span(),
+				SpanHandler.Cause.FINISHED);
+		handler.end(this.context.toBuilder().sampled(true).build(), span(), SpanHandler.Cause.FINISHED);
+
+		then(handler.reportsUnsampledSpans()).isTrue();
+		then(all).hasSize(2);
+		then(sampled).isEmpty();
+	}
+
+	@Test
+	void should_report_sampled_spans_to_all_reporters() {
+		List<FinishedSpan> all = new ArrayList<>();
+		List<FinishedSpan> sampled = new ArrayList<>();
+		CompositeSpanHandler handler = new CompositeSpanHandler(Collections.emptyList(),
+				Arrays.asList(sampled::add, new UnsampledSpanReporter(all)));
+
+		handler.end(this.context.toBuilder().sampled(false).sampledLocal(true).build(), span(),
+				SpanHandler.Cause.FINISHED);
+		handler.end(this.context.toBuilder().sampled(true).build(), span(), SpanHandler.Cause.FINISHED);
+
+		then(all).hasSize(2);
+		then(sampled).hasSize(1);
+	}
+
+	@Test
+	void should_not_report_span_rejected_by_a_filter() {
+		List<FinishedSpan> reported = new ArrayList<>();
+		CompositeSpanHandler handler = new CompositeSpanHandler(Collections.singletonList(span -> false),
+				Collections.singletonList(reported::add));
+
+		boolean result = handler.end(this.context, span(), SpanHandler.Cause.FINISHED);
+
+		then(result).isFalse();
+		then(reported).isEmpty();
+	}
+
+	@Test
+	void should_expose_tags_and_events_without_copying() {
+		MutableSpan mutableSpan = span();
+		FinishedSpan finishedSpan = BraveFinishedSpan.fromBrave(mutableSpan);
+
+		then(finishedSpan.getTags()).isSameAs(finishedSpan.getTags()).containsExactly(
+				new AbstractMap.SimpleEntry<>("foo", "bar"), new AbstractMap.SimpleEntry<>("baz", "qux"));
+		then(finishedSpan.getTags()).isEqualTo(mutableSpan.tags());
+		then(finishedSpan.getTags().get("baz")).isEqualTo("qux");
+		then(finishedSpan.getTags()).doesNotContainKey("missing");
+		then(finishedSpan.getEvents()).isSameAs(finishedSpan.getEvents())
+				.containsExactlyElementsOf(mutableSpan.annotations());
+	}
+
+	@Test
+	void should_pass_a_copy_of_the_span_to_asynchronous_reporters() {
+		List<FinishedSpan> reported = new ArrayList<>();
+		AsyncSpanReporter asyncReporter = new AsyncSpanReporter(() -> Collections.singletonList(reported::add), 16, 1,
+				16, AsyncSpanReporter.OverflowPolicy.DROP_NEWEST, 0L, SpanReporterMetrics.NOOP);
+		CompositeSpanHandler handler = new CompositeSpanHandler(Collections.emptyList(),
+				Collections.singletonList(asyncReporter));
+		MutableSpan mutableSpan = span();
+
+		handler.end(this.context, mutableSpan, SpanHandler.Cause.FINISHED);
+		asyncReporter.close();
+		mutableSpan.tag("foo", "changed");
+
+		then(reported).singleElement().satisfies(span -> then(span.getTags()).containsEntry("foo", "bar"));
+	}
+
+	private MutableSpan span() {
+		MutableSpan span = new MutableSpan(this.context, null);
+		span.tag("foo", "bar");
+		span.tag("baz", "qux");
+		span.annotate(1L, "ws");
+		span.annotate(2L, "wr");
+		return span;
+	}
+
+	static class UnsampledSpanReporter implements SpanReporter {
+
+		private final List<FinishedSpan> spans;
+
+		UnsampledSpanReporter(List<FinishedSpan> spans) {
+			this.spans = spans;
+		}
+
+		@Override
+		public void report(FinishedSpan span) {
+			this.spans.add(span);
+		}
+
+		@Override
+		public boolean reportsUnsampledSpans() {
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.brave.bridge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import brave.sampler.Sampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class TailSamplingSpanHandlerTests {
+
+	RecordingSpanHandler delegate = new RecordingSpanHandler();
+
+	CountingMetrics metrics = new CountingMetrics();
+
+	Tracing tracing;
+
+	@AfterEach
+	void close() {
+		if (this.tracing != null) {
+			this.tracing.close();
+		}
+	}
+
+	@Test
+	void should_report_buffered_spans_of_failed_trace_as_sampled() {
+		Tracer tracer = tracer(TailSamplingPolicy.errors(), Sampler.NEVER_SAMPLE, 100);
+
+		Span root = tracer.newTrace().name("root").start();
+		tracer.newChild(root.context()).name("child").start().finish();
+		then(this.delegate.spans).isEmpty();
+		root.error(new IllegalStateException("boom")).finish();
+
+		then(this.delegate.spans).extracting(MutableSpan::name).containsExactly("child", "root");
+		then(this.delegate.contexts).allMatch(context -> Boolean.TRUE.equals(context.sampled()));
+		then(this.metrics.kept).hasValue(1);
+		then(this.metrics.dropped).hasValue(0);
+	}
+
+	@Test
+	void should_drop_buffered_spans_of_trace_not_kept_by_policy() {
+		TailSamplingSpanHandler handler = handler(TailSamplingPolicy.errors(), 100, 100);
+		Tracer tracer = tracer(handler, Sampler.NEVER_SAMPLE);
+
+		Span root = tracer.newTrace().name("root").start();
+		tracer.newChild(root.context()).name("child").start().finish();
+		root.finish();
+
+		then(this.delegate.spans).isEmpty();
+		then(this.metrics.dropped).hasValue(1);
+		then(handler.getBufferedSpans()).isZero();
+	}
+
+	@Test
+	void should_pass_sampled_spans_right_away() {
+		Tracer tracer = tracer(TailSamplingPolicy.NEVER_KEEP, Sampler.ALWAYS_SAMPLE, 100);
+
+		Span root = tracer.newTrace().name("root").start();
+		tracer.newChild(root.context()).name("child").start().finish();
+
+		then(this.delegate.spans).extracting(MutableSpan::name).containsExactly("child");
+		then(this.metrics.kept).hasValue(0);
+		then(this.metrics.dropped).hasValue(0);
+	}
+
+	@Test
+	void should_pass_spans_ending_after_local_root_of_kept_trace_right_away() {
+		Tracer tracer = tracer(TailSamplingPolicy.latency(0, TimeUnit.MILLISECONDS), Sampler.NEVER_SAMPLE, 100);
+
+		Span root = tracer.newTrace().name("root").start();
+		Span child = tracer.newChild(root.context()).name("child").start();
+		root.finish();
+		then(this.delegate.spans).extracting(MutableSpan::name).containsExactly("root");
+		child.finish();
+
+		then(this.delegate.spans).extracting(MutableSpan::name).containsExactly("root", "child");
+	}
+
+	@Test
+	void should_keep_traces_with_matching_tags() {
+		Tracer tracer = tracer(
+				TailSamplingPolicy.anyOf(Arrays.asList(TailSamplingPolicy.errors(),
+						TailSamplingPolicy.tag("http.status_code", Pattern.compile("5..")))),
+				Sampler.NEVER_SAMPLE, 100);
+
+		tracer.newTrace().name("ok").tag("http.status_code", "200").start().finish();
+		tracer.newTrace().name("failed").tag("http.status_code", "503").start().finish();
+
+		then(this.delegate.spans).extracting(MutableSpan::name).containsExactly("failed");
+	}
+
+	@Test
+	void should_evict_oldest_trace_when_buffer_is_full() {
+		TailSamplingSpanHandler handler = handler(TailSamplingPolicy.latency(0, TimeUnit.MILLISECONDS), 100, 2);
+		Tracer tracer = tracer(handler, Sampler.NEVER_SAMPLE);
+
+		Span first = tracer.newTrace().name("first").start();
+		tracer.newChild(first.context()).name("first-child").start().finish();
+		tracer.newChild(first.context()).name("first-child").start().finish();
+		Span second = tracer.newTrace().name("second").start();
+		tracer.newChild(second.context()).name("second-child").start().finish();
+		second.finish();
+
+		then(this.metrics.evicted).hasValue(1);
+		then(this.delegate.spans).extracting(MutableSpan::name).containsExactly("second-child", "second");
+		then(handler.getBufferedSpans()).isZero();
+		first.abandon();
+	}
+
+	@Test
+	void should_not_count_decided_traces_towards_the_buffer() {
+		TailSamplingSpanHandler handler = handler(TailSamplingPolicy.latency(0, TimeUnit.MILLISECONDS), 2, 100);
+		Tracer tracer = tracer(handler, Sampler.NEVER_SAMPLE);
+
+		Span first = tracer.newTrace().name("first").start();
+		Span firstChild = tracer.newChild(first.context()).name("first-child").start();
+		first.finish();
+		Span second = tracer.newTrace().name("second").start();
+		tracer.newChild(second.context()).name("second-child").start().finish();
+		Span third = tracer.newTrace().name("third").start();
+		tracer.newChild(third.context()).name("third-child").start().finish();
+		firstChild.finish();
+		second.finish();
+		third.finish();
+
+		then(this.metrics.evicted).hasValue(0);
+		then(this.delegate.spans).extracting(MutableSpan::name).containsExactly("first", "first-child", "second-child",
+				"second", "third-child", "third");
+	}
+
+	@Test
+	void should_evict_traces_older_than_the_window() {
+		TailSamplingSpanHandler handler = new TailSamplingSpanHandler(Collections.singletonList(this.delegate),
+				TailSamplingPolicy.latency(0, TimeUnit.MILLISECONDS), -1L, 100, 100, this.metrics);
+		Tracer tracer = tracer(handler, Sampler.NEVER_SAMPLE);
+
+		Span root = tracer.newTrace().name("root").start();
+		tracer.newChild(root.context()).name("child").start().finish();
+		tracer.newTrace().name("other").start().finish();
+
+		then(this.metrics.evicted).hasValue(1);
+		then(this.delegate.spans).extracting(MutableSpan::name).containsExactly("other");
+	}
+
+	@Test
+	void should_report_unsampled_spans_once_to_reporters_of_unsampled_spans() {
+		List<FinishedSpan> allSpans = new ArrayList<>();
+		List<FinishedSpan> sampledSpans = new ArrayList<>();
+		CompositeSpanHandler composite = new CompositeSpanHandler(Collections.emptyList(),
+				Arrays.asList(sampledSpans::add, new CompositeSpanHandlerTests.UnsampledSpanReporter(allSpans)));
+		TailSamplingSpanHandler handler = new TailSamplingSpanHandler(Collections.singletonList(composite),
+				TailSamplingPolicy.errors(), TailSamplingSpanHandler.DEFAULT_WINDOW, 100, 100, this.metrics);
+		Tracer tracer = tracer(handler, Sampler.NEVER_SAMPLE);
+
+		tracer.newTrace().name("ok").start().finish();
+		tracer.newTrace().name("failed").start().error(new IllegalStateException("boom")).finish();
+
+		then(allSpans).extracting(FinishedSpan::getName).containsExactly("ok", "failed");
+		then(sampledSpans).extracting(FinishedSpan::getName).containsExactly("failed");
+	}
+
+	private Tracer tracer(TailSamplingPolicy policy, Sampler sampler, int maxSpans) {
+		return tracer(handler(policy, 100, maxSpans), sampler);
+	}
+
+	private TailSamplingSpanHandler handler(TailSamplingPolicy policy, int maxTraces, int maxSpans) {
+		return new TailSamplingSpanHandler(Collections.singletonList(this.delegate), policy,
+				TailSamplingSpanHandler.DEFAULT_WINDOW, maxTraces, maxSpans, this.metrics);
+	}
+
+	private Tracer tracer(TailSamplingSpanHandler handler, Sampler sampler) {
+		this.tracing = Tracing.newBuilder().sampler(sampler).alwaysSampleLocal().addSpanHandler(handler).build();
+		return this.tracing.tracer();
+	}
+
+	static class RecordingSpanHandler extends SpanHandler {
+
+		final List<TraceContext> contexts = new ArrayList<>();
+
+		final List<MutableSpan> spans = new ArrayList<>();
+
+		@Override
+		public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+			// like Zipkin, reports only the sampled spans
+			if (Boolean.TRUE.equals(context.sampled())) {
+				this.contexts.add(context);
+				this.spans.add(span);
+			}
+			return true;
+		}
+
+	}
+
+	static class CountingMetrics implements TailSamplingMetrics {
+
+		final AtomicInteger kept = new AtomicInteger();
+
+		final AtomicInteger dropped = new AtomicInteger();
+
+		final AtomicInteger evicted = new AtomicInteger();
+
+		@Override
+		public void incrementTracesKept() {
+			this.kept.incrementAndGet();
+		}
+
+		@Override
+		public void incrementTracesDropped() {
+			this.dropped.incrementAndGet();
+		}
+
+		@Override
+		public void incrementTracesEvicted() {
+			this.evicted.incrementAndGet();
+		}
+
+	}
+
+}
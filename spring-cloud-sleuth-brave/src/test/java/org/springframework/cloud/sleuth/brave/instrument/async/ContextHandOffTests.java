@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.brave.instrument.async;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import brave.Tracing;
+import brave.context.slf4j.MDCScopeDecorator;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.brave.bridge.BraveBaggageManager;
+import org.springframework.cloud.sleuth.brave.bridge.BraveCurrentTraceContext;
+import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
+import org.springframework.cloud.sleuth.instrument.async.ExecutorTracingMode;
+import org.springframework.cloud.sleuth.instrument.async.TraceRunnable;
+import org.springframework.cloud.sleuth.internal.DefaultSpanNamer;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * A virtual thread that blocks while holding a monitor pins its carrier thread. The
+ * hand-off of the tracing context to a task mustn't run the task inside a monitor.
+ */
+class ContextHandOffTests {
+
+	ThreadLocalCurrentTraceContext currentTraceContext = ThreadLocalCurrentTraceContext.newBuilder()
+			.addScopeDecorator(MDCScopeDecorator.newBuilder().build()).build();
+
+	Tracing tracing = Tracing.newBuilder().currentTraceContext(this.currentTraceContext).build();
+
+	Tracer tracer = new BraveTracer(this.tracing.tracer(), new BraveCurrentTraceContext(this.currentTraceContext),
+			new BraveBaggageManager());
+
+	@AfterEach
+	void close() {
+		this.tracing.close();
+	}
+
+	@ParameterizedTest
+	@EnumSource(ExecutorTracingMode.class)
+	void should_run_the_task_in_the_handed_off_context_without_holding_a_monitor(ExecutorTracingMode mode)
+			throws Exception {
+		Span parent = this.tracer.nextSpan().start();
+		AtomicReference<Span> current = new AtomicReference<>();
+		List<Object> lockedInTask = new ArrayList<>();
+		Runnable runnable;
+		try (Tracer.SpanInScope ws = this.tracer.withSpan(parent)) {
+			runnable = new TraceRunnable(this.tracer, new DefaultSpanNamer(), () -> {
+				current.set(this.tracer.currentSpan());
+				ThreadInfo info = ManagementFactory.getThreadMXBean()
+						.getThreadInfo(new long[] { Thread.currentThread().getId() }, true, true)[0];
+				lockedInTask.addAll(Arrays.asList(info.getLockedMonitors()));
+				lockedInTask.addAll(Arrays.asList(info.getLockedSynchronizers()));
+			}, "task", mode);
+		}
+
+		Thread thread = new Thread(runnable);
+		thread.start();
+		thread.join();
+
+		then(current.get()).isNotNull();
+		then(current.get().context().traceId()).isEqualTo(parent.context().traceId());
+		then(lockedInTask).isEmpty();
+		parent.end();
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.brave.instrument.reactor.netty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import brave.Span;
+import brave.Tracing;
+import brave.propagation.CurrentTraceContext;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import brave.propagation.TraceContext;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class TracingChannelHandlerTests {
+
+	AtomicInteger scopes = new AtomicInteger();
+
+	CurrentTraceContext currentTraceContext = ThreadLocalCurrentTraceContext.newBuilder()
+			.addScopeDecorator((context, scope) -> {
+				this.scopes.incrementAndGet();
+				return scope;
+			}).build();
+
+	Tracing tracing = Tracing.newBuilder().currentTraceContext(this.currentTraceContext).build();
+
+	Span span = this.tracing.tracer().nextSpan().start();
+
+	RecordingHandler recorder = new RecordingHandler(this.currentTraceContext);
+
+	@AfterEach
+	void close() {
+		this.tracing.close();
+	}
+
+	@Test
+	void should_use_a_single_scope_for_a_read_batch() {
+		EmbeddedChannel channel = new EmbeddedChannel(new TracingChannelInboundHandler(this.currentTraceContext),
+				this.recorder);
+		channel.attr(TracingChannelInboundHandler.SPAN_ATTRIBUTE_KEY).set(this.span);
+		this.scopes.set(0);
+
+		channel.writeInbound("a", "b", "c");
+
+		then(this.recorder.contexts).containsExactly(this.span.context(), this.span.context(), this.span.context(),
+				this.span.context());
+		then(this.scopes.get()).isEqualTo(1);
+		then(this.currentTraceContext.get()).isNull();
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	void should_switch_scope_when_the_span_changes_within_a_read_batch() {
+		EmbeddedChannel channel = new EmbeddedChannel(new TracingChannelInboundHandler(this.currentTraceContext),
+				this.recorder);
+		Span next = this.tracing.tracer().nextSpan().start();
+		this.recorder.onRead = () -> channel.attr(TracingChannelInboundHandler.SPAN_ATTRIBUTE_KEY).set(next);
+		channel.attr(TracingChannelInboundHandler.SPAN_ATTRIBUTE_KEY).set(this.span);
+
+		channel.writeInbound("a", "b");
+
+		then(this.recorder.contexts).containsExactly(this.span.context(), next.context(), next.context());
+		then(this.currentTraceContext.get()).isNull();
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	void should_close_scopes_in_order_when_removed_within_a_read_batch() {
+		EmbeddedChannel channel = new EmbeddedChannel(new TracingChannelInboundHandler(this.currentTraceContext),
+				this.recorder);
+		Span nested = this.tracing.tracer().nextSpan().start();
+		List<TraceContext> duringRemoval = new ArrayList<>();
+		this.recorder.onRead = () -> {
+			if (channel.pipeline().get(TracingChannelInboundHandler.class) == null) {
+				return;
+			}
+			try (CurrentTraceContext.Scope scope = this.currentTraceContext.newScope(nested.context())) {
+				channel.pipeline().remove(TracingChannelInboundHandler.class);
+				duringRemoval.add(this.currentTraceContext.get());
+			}
+			duringRemoval.add(this.currentTraceContext.get());
+		};
+		channel.attr(TracingChannelInboundHandler.SPAN_ATTRIBUTE_KEY).set(this.span);
+
+		channel.writeInbound("a", "b");
+
+		then(duringRemoval).containsExactly(nested.context(), this.span.context());
+		then(this.recorder.contexts).containsExactly(this.span.context(), null, null);
+		then(this.currentTraceContext.get()).isNull();
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	void should_not_change_the_scope_without_a_span() {
+		EmbeddedChannel channel = new EmbeddedChannel(new TracingChannelInboundHandler(this.currentTraceContext),
+				this.recorder, new TracingChannelOutboundHandler(this.currentTraceContext));
+
+		try (CurrentTraceContext.Scope scope = this.currentTraceContext.newScope(this.span.context())) {
+			channel.writeInbound("a");
+			channel.writeOutbound("b");
+		}
+
+		then(this.recorder.contexts).containsExactly(this.span.context(), this.span.context(), this.span.context());
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	void should_wrap_writes_in_scope() {
+		EmbeddedChannel channel = new EmbeddedChannel(this.recorder,
+				new TracingChannelOutboundHandler(this.currentTraceContext));
+		channel.attr(TracingChannelOutboundHandler.SPAN_ATTRIBUTE_KEY).set(this.span);
+
+		channel.writeOutbound("a");
+
+		then(this.recorder.contexts).containsExactly(this.span.context());
+		then(this.currentTraceContext.get()).isNull();
+		channel.finishAndReleaseAll();
+	}
+
+	static class RecordingHandler extends ChannelDuplexHandler {
+
+		final CurrentTraceContext currentTraceContext;
+
+		final List<TraceContext> contexts = new ArrayList<>();
+
+		Runnable onRead = () -> {
+		};
+
+		RecordingHandler(CurrentTraceContext currentTraceContext) {
+			this.currentTraceContext = currentTraceContext;
+		}
+
+		@Override
+		public void channelRead(ChannelHandlerContext ctx, Object msg) {
+			this.contexts.add(this.currentTraceContext.get());
+			this.onRead.run();
+		}
+
+		@Override
+		public void channelReadComplete(ChannelHandlerContext ctx) {
+			this.contexts.add(this.currentTraceContext.get());
+		}
+
+		@Override
+		public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+			this.contexts.add(this.currentTraceContext.get());
+			ctx.write(msg, promise);
+		}
+
+	}
+
+}
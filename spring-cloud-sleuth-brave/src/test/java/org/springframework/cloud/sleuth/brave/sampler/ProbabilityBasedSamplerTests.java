@@ -16,7 +16,13 @@
 
 package org.springframework.cloud.sleuth.brave.sampler;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import brave.sampler.Sampler;
@@ -68,6 +74,49 @@ public class ProbabilityBasedSamplerTests {
 		then(numberOfSampledElements).isEqualTo(threshold);
 	}
 
+	@Test
+	public void should_rebuild_decisions_when_probability_changes() throws Exception {
+		AtomicReference<Float> probability = new AtomicReference<>(0.2f);
+		Sampler sampler = new ProbabilityBasedSampler(probability::get);
+
+		then(countNumberOfSampledElements(sampler, 100)).isEqualTo(20);
+
+		probability.set(0.7f);
+
+		then(countNumberOfSampledElements(sampler, 100)).isEqualTo(70);
+	}
+
+	@Test
+	public void should_pass_given_percent_of_samples_across_threads() throws Exception {
+		int numberOfThreads = 8;
+		Sampler sampler = new ProbabilityBasedSampler(() -> 0.35f);
+		ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (int i = 0; i < numberOfThreads; i++) {
+				// each stripe is exact in units of 100 decisions, whichever threads share it
+				futures.add(executorService.submit(() -> countNumberOfSampledElements(sampler, 1000)));
+			}
+
+			int numberOfSampledElements = 0;
+			for (Future<Integer> future : futures) {
+				numberOfSampledElements += future.get();
+			}
+			then(numberOfSampledElements).isEqualTo(2800);
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	public void should_use_a_power_of_two_stripes() {
+		then(ProbabilityBasedSampler.stripes(1)).isEqualTo(2);
+		then(ProbabilityBasedSampler.stripes(3)).isEqualTo(8);
+		then(ProbabilityBasedSampler.stripes(4)).isEqualTo(8);
+		then(ProbabilityBasedSampler.stripes(256)).isEqualTo(64);
+	}
+
 	@Test
 	public void should_fail_given_no_probability() {
 		assertThatThrownBy(() -> new ProbabilityBasedSampler(null)).isInstanceOf(IllegalArgumentException.class)
@@ -75,7 +124,10 @@ public class ProbabilityBasedSamplerTests {
 	}
 
 	private int countNumberOfSampledElements(int numberOfIterations, Supplier<Float> probability) {
-		Sampler sampler = new ProbabilityBasedSampler(probability);
+		return countNumberOfSampledElements(new ProbabilityBasedSampler(probability), numberOfIterations);
+	}
+
+	private int countNumberOfSampledElements(Sampler sampler, int numberOfIterations) {
 		int passedCounter = 0;
 		for (int i = 0; i < numberOfIterations; i++) {
 			boolean passed = sampler.isSampled(RANDOM.nextLong());
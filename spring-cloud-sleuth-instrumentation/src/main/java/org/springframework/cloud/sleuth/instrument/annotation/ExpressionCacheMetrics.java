@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.annotation;
+
+/**
+ * Instrumentation of the parsed expressions cache of the
+ * {@link SpelTagValueExpressionResolver}.
+ *
+ * @since 3.1.11
+ */
+public interface ExpressionCacheMetrics {
+
+	/**
+	 * Metrics that record nothing.
+	 */
+	ExpressionCacheMetrics NOOP = new ExpressionCacheMetrics() {
+	};
+
+	/**
+	 * Called when a parsed expression was found in the cache.
+	 */
+	default void cacheHit() {
+
+	}
+
+	/**
+	 * Called when an expression had to be parsed.
+	 */
+	default void cacheMiss() {
+
+	}
+
+	/**
+	 * Called when a parsed expression was evicted from the full cache to make room for
+	 * another one.
+	 */
+	default void cacheEviction() {
+
+	}
+
+}
@@ -20,29 +20,74 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.cloud.sleuth.annotation.TagValueExpressionResolver;
+import org.springframework.cloud.sleuth.internal.BoundedCache;
 import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
+import org.springframework.util.Assert;
 
 /**
  * Uses SPEL to evaluate the expression. If an exception is thrown will return the
  * {@code toString()} of the parameter.
  *
+ * Parsed expressions are kept in a bounded cache and evaluated against a shared, read
+ * only evaluation context. Once the cache is full, the expressions that weren't used
+ * recently get evicted to make room for new ones. Depending on the
+ * {@link SpelCompilerMode} the expressions get compiled to bytecode.
+ *
  * @author Marcin Grzejszczak
  * @since 1.2.0
  */
 public class SpelTagValueExpressionResolver implements TagValueExpressionResolver {
 
+	/**
+	 * Default max number of cached expressions.
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 256;
+
 	private static final Log log = LogFactory.getLog(SpelTagValueExpressionResolver.class);
 
+	private final SpelExpressionParser expressionParser;
+
+	private final SimpleEvaluationContext context = SimpleEvaluationContext.forReadOnlyDataBinding().build();
+
+	private final BoundedCache<String, Expression> expressions;
+
+	private final ExpressionCacheMetrics metrics;
+
+	public SpelTagValueExpressionResolver() {
+		this(DEFAULT_CACHE_SIZE, SpelCompilerMode.OFF, ExpressionCacheMetrics.NOOP);
+	}
+
+	/**
+	 * @param cacheSize max number of cached expressions
+	 * @param compilerMode whether and when the expressions get compiled
+	 * @param metrics metrics of the expressions cache
+	 * @since 3.1.11
+	 */
+	public SpelTagValueExpressionResolver(int cacheSize, SpelCompilerMode compilerMode,
+			ExpressionCacheMetrics metrics) {
+		Assert.isTrue(cacheSize > 0, "Cache size must be positive but was [" + cacheSize + "]");
+		this.expressionParser = new SpelExpressionParser(
+				new SpelParserConfiguration(compilerMode, SpelTagValueExpressionResolver.class.getClassLoader()));
+		this.metrics = metrics;
+		this.expressions = new BoundedCache<>(cacheSize, this::parse, expression -> metrics.cacheEviction());
+	}
+
 	@Override
 	public String resolve(String expression, Object parameter) {
 		try {
-			SimpleEvaluationContext context = SimpleEvaluationContext.forReadOnlyDataBinding().build();
-			ExpressionParser expressionParser = new SpelExpressionParser();
-			Expression expressionToEvaluate = expressionParser.parseExpression(expression);
-			return expressionToEvaluate.getValue(context, parameter, String.class);
+			Expression expressionToEvaluate = this.expressions.getIfPresent(expression);
+			if (expressionToEvaluate != null) {
+				this.metrics.cacheHit();
+			}
+			else {
+				// a miss gets recorded by the parser
+				expressionToEvaluate = this.expressions.get(expression);
+			}
+			return expressionToEvaluate.getValue(this.context, parameter, String.class);
 		}
 		catch (Exception ex) {
 			log.error("Exception occurred while tying to evaluate the SPEL expression [" + expression + "]", ex);
@@ -50,4 +95,9 @@ public class SpelTagValueExpressionResolver implements TagValueExpressionResolve
 		return parameter.toString();
 	}
 
+	private Expression parse(String expression) {
+		this.metrics.cacheMiss();
+		return this.expressionParser.parseExpression(expression);
+	}
+
 }
@@ -38,6 +38,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.aop.framework.AopConfigException;
 import org.springframework.aop.framework.ProxyFactoryBean;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.cloud.sleuth.internal.VirtualThreads;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
@@ -83,7 +84,16 @@ public class ExecutorInstrumentor {
 			log.info("Bean is already instrumented or is not applicable for instrumentation " + beanName);
 			return bean;
 		}
-		if (bean instanceof ThreadPoolTaskExecutor) {
+		if (VirtualThreads.isThreadPerTaskExecutor(bean)) {
+			if (isProxyNeeded(beanName)) {
+				// JDK internal final class, can't be proxied
+				return TraceableExecutorService.wrap(this.beanFactory, (ExecutorService) bean, beanName);
+			}
+			else {
+				log.info("Not instrumenting bean " + beanName);
+			}
+		}
+		else if (bean instanceof ThreadPoolTaskExecutor) {
 			if (isProxyNeeded(beanName)) {
 				return wrapThreadPoolTaskExecutor(bean, beanName);
 			}
@@ -321,6 +331,11 @@ class ExecutorMethodInterceptor<T extends Executor> implements MethodInterceptor
 
 	private static final Map<Executor, Executor> CACHE = new ConcurrentHashMap<>();
 
+	private static final Method NO_METHOD = ReflectionUtils.findMethod(Object.class, "toString");
+
+	// methods of the traced executor by the invoked methods
+	private final Map<Method, Method> methods = new ConcurrentHashMap<>();
+
 	ExecutorMethodInterceptor(T delegate, BeanFactory beanFactory, String beanName) {
 		this.delegate = delegate;
 		this.beanFactory = beanFactory;
@@ -346,7 +361,13 @@ class ExecutorMethodInterceptor<T extends Executor> implements MethodInterceptor
 
 	private Method getMethod(MethodInvocation invocation, Object object) {
 		Method method = invocation.getMethod();
-		return ReflectionUtils.findMethod(object.getClass(), method.getName(), method.getParameterTypes());
+		Method methodOnTracedBean = this.methods.get(method);
+		if (methodOnTracedBean == null) {
+			methodOnTracedBean = ReflectionUtils.findMethod(object.getClass(), method.getName(),
+					method.getParameterTypes());
+			this.methods.put(method, methodOnTracedBean != null ? methodOnTracedBean : NO_METHOD);
+		}
+		return methodOnTracedBean != NO_METHOD ? methodOnTracedBean : null;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -357,7 +378,9 @@ class ExecutorMethodInterceptor<T extends Executor> implements MethodInterceptor
 
 	@SuppressWarnings("unchecked")
 	T executorFromCache(BeanFactory beanFactory, T executor, String beanName, Function<Executor, Executor> function) {
-		return (T) CACHE.computeIfAbsent(executor, function);
+		// computeIfAbsent may lock even when the executor is already cached
+		Executor traced = CACHE.get(executor);
+		return (T) (traced != null ? traced : CACHE.computeIfAbsent(executor, function));
 	}
 
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.sleuth.instrument.async;
+
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.lang.Nullable;
+
+/**
+ * Defines what a traced executor does with the tasks it runs.
+ *
+ * @since 3.1.11
+ */
+public enum ExecutorTracingMode {
+
+	/**
+	 * Each task runs in a new child span of the span current when it was submitted.
+	 */
+	SPAN,
+
+	/**
+	 * Tasks submitted with a sampled span current run in a new child span. The other
+	 * tasks behave as with {@link #CONTEXT}.
+	 */
+	SAMPLED_SPAN,
+
+	/**
+	 * Tasks run with the span current when they were submitted in scope (together with
+	 * its baggage and MDC entries). No spans are created.
+	 */
+	CONTEXT;
+
+	/**
+	 * @param parent span current when the task was submitted
+	 * @return {@code true} when a child span should be created for the task
+	 */
+	public boolean createsSpan(@Nullable Span parent) {
+		switch (this) {
+		case SPAN:
+			return true;
+		case SAMPLED_SPAN:
+			return parent != null && Boolean.TRUE.equals(parent.context().sampled());
+		default:
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.sleuth.instrument.async;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.lang.Nullable;
+
+/**
+ * Resolves the {@link ExecutorTracingMode} of an executor from its bean name. The bean
+ * name patterns are checked in order and the first matching one wins. Executors whose
+ * names don't match any pattern use {@link ExecutorTracingMode#SPAN}.
+ *
+ * @since 3.1.11
+ */
+public class ExecutorTracingModeResolver {
+
+	private final Map<Pattern, ExecutorTracingMode> modes = new LinkedHashMap<>();
+
+	private final Map<String, ExecutorTracingMode> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * @param modes tracing modes by bean name patterns
+	 */
+	public ExecutorTracingModeResolver(Map<String, ExecutorTracingMode> modes) {
+		modes.forEach((pattern, mode) -> this.modes.put(Pattern.compile(pattern), mode));
+	}
+
+	/**
+	 * @param beanName name of the executor bean
+	 * @return tracing mode of the executor
+	 */
+	public ExecutorTracingMode resolve(@Nullable String beanName) {
+		if (beanName == null || this.modes.isEmpty()) {
+			return ExecutorTracingMode.SPAN;
+		}
+		return this.cache.computeIfAbsent(beanName, this::resolveUncached);
+	}
+
+	private ExecutorTracingMode resolveUncached(String beanName) {
+		for (Map.Entry<Pattern, ExecutorTracingMode> entry : this.modes.entrySet()) {
+			if (entry.getKey().matcher(beanName).matches()) {
+				return entry.getValue();
+			}
+		}
+		return ExecutorTracingMode.SPAN;
+	}
+
+	static ExecutorTracingMode resolve(@Nullable BeanFactory beanFactory, @Nullable String beanName) {
+		ObjectProvider<ExecutorTracingModeResolver> provider = beanFactory != null
+				? beanFactory.getBeanProvider(ExecutorTracingModeResolver.class) : null;
+		ExecutorTracingModeResolver resolver = provider != null ? provider.getIfAvailable() : null;
+		return resolver != null ? resolver.resolve(beanName) : ExecutorTracingMode.SPAN;
+	}
+
+}
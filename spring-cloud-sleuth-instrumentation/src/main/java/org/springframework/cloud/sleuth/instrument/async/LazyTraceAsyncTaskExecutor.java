@@ -57,6 +57,8 @@ public class LazyTraceAsyncTaskExecutor implements AsyncTaskExecutor {
 
 	private SpanNamer spanNamer;
 
+	private ExecutorTracingMode tracingMode;
+
 	public LazyTraceAsyncTaskExecutor(BeanFactory beanFactory, AsyncTaskExecutor delegate) {
 		this.beanFactory = beanFactory;
 		this.delegate = delegate;
@@ -95,7 +97,7 @@ public class LazyTraceAsyncTaskExecutor implements AsyncTaskExecutor {
 	public void execute(Runnable task) {
 		Runnable taskToRun = task;
 		if (!ContextUtil.isContextUnusable(this.beanFactory)) {
-			taskToRun = new TraceRunnable(tracing(), spanNamer(), task, this.beanName);
+			taskToRun = new TraceRunnable(tracing(), spanNamer(), task, this.beanName, tracingMode());
 		}
 		this.delegate.execute(taskToRun);
 	}
@@ -104,7 +106,7 @@ public class LazyTraceAsyncTaskExecutor implements AsyncTaskExecutor {
 	public void execute(Runnable task, long startTimeout) {
 		Runnable taskToRun = task;
 		if (!ContextUtil.isContextUnusable(this.beanFactory)) {
-			taskToRun = new TraceRunnable(tracing(), spanNamer(), task, this.beanName);
+			taskToRun = new TraceRunnable(tracing(), spanNamer(), task, this.beanName, tracingMode());
 		}
 		this.delegate.execute(taskToRun, startTimeout);
 	}
@@ -113,7 +115,7 @@ public class LazyTraceAsyncTaskExecutor implements AsyncTaskExecutor {
 	public Future<?> submit(Runnable task) {
 		Runnable taskToRun = task;
 		if (!ContextUtil.isContextUnusable(this.beanFactory)) {
-			taskToRun = new TraceRunnable(tracing(), spanNamer(), task, this.beanName);
+			taskToRun = new TraceRunnable(tracing(), spanNamer(), task, this.beanName, tracingMode());
 		}
 		return this.delegate.submit(taskToRun);
 	}
@@ -122,7 +124,7 @@ public class LazyTraceAsyncTaskExecutor implements AsyncTaskExecutor {
 	public <T> Future<T> submit(Callable<T> task) {
 		Callable<T> taskToRun = task;
 		if (!ContextUtil.isContextUnusable(this.beanFactory)) {
-			taskToRun = new TraceCallable<>(tracing(), spanNamer(), task, this.beanName);
+			taskToRun = new TraceCallable<>(tracing(), spanNamer(), task, this.beanName, tracingMode());
 		}
 		return this.delegate.submit(taskToRun);
 	}
@@ -153,4 +155,11 @@ public class LazyTraceAsyncTaskExecutor implements AsyncTaskExecutor {
 		return this.tracing;
 	}
 
+	private ExecutorTracingMode tracingMode() {
+		if (this.tracingMode == null) {
+			this.tracingMode = ExecutorTracingModeResolver.resolve(this.beanFactory, this.beanName);
+		}
+		return this.tracingMode;
+	}
+
 }
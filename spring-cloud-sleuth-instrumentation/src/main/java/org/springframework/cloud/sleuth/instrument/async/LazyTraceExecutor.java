@@ -54,6 +54,8 @@ public class LazyTraceExecutor implements Executor {
 
 	private SpanNamer spanNamer;
 
+	private ExecutorTracingMode tracingMode;
+
 	public LazyTraceExecutor(BeanFactory beanFactory, Executor delegate) {
 		this.beanFactory = beanFactory;
 		this.delegate = delegate;
@@ -102,7 +104,7 @@ public class LazyTraceExecutor implements Executor {
 				return;
 			}
 		}
-		this.delegate.execute(new TraceRunnable(this.tracer, spanNamer(), command, this.beanName));
+		this.delegate.execute(new TraceRunnable(this.tracer, spanNamer(), command, this.beanName, tracingMode()));
 	}
 
 	// due to some race conditions trace keys might not be ready yet
@@ -119,4 +121,11 @@ public class LazyTraceExecutor implements Executor {
 		return this.spanNamer;
 	}
 
+	private ExecutorTracingMode tracingMode() {
+		if (this.tracingMode == null) {
+			this.tracingMode = ExecutorTracingModeResolver.resolve(this.beanFactory, this.beanName);
+		}
+		return this.tracingMode;
+	}
+
 }
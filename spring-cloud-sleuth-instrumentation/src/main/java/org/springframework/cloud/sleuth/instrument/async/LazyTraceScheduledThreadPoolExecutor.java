@@ -85,6 +85,8 @@ class LazyTraceScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor {
 
 	private SpanNamer spanNamer;
 
+	private ExecutorTracingMode tracingMode;
+
 	LazyTraceScheduledThreadPoolExecutor(int corePoolSize, BeanFactory beanFactory,
 			ScheduledThreadPoolExecutor delegate, String beanName) {
 		super(corePoolSize);
@@ -197,7 +199,7 @@ class LazyTraceScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor {
 		if (isContextUnusable()) {
 			return delegate;
 		}
-		return new TraceRunnable(tracing(), spanNamer(), delegate, this.beanName);
+		return new TraceRunnable(tracing(), spanNamer(), delegate, this.beanName, tracingMode());
 	}
 
 	boolean isContextUnusable() {
@@ -208,7 +210,7 @@ class LazyTraceScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor {
 		if (isContextUnusable()) {
 			return delegate;
 		}
-		return new TraceCallable<>(tracing(), spanNamer(), delegate, this.beanName);
+		return new TraceCallable<>(tracing(), spanNamer(), delegate, this.beanName, tracingMode());
 	}
 
 	@Override
@@ -549,4 +551,11 @@ class LazyTraceScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor {
 		return this.spanNamer;
 	}
 
+	private ExecutorTracingMode tracingMode() {
+		if (this.tracingMode == null) {
+			this.tracingMode = ExecutorTracingModeResolver.resolve(this.beanFactory, this.beanName);
+		}
+		return this.tracingMode;
+	}
+
 }
@@ -61,6 +61,8 @@ public class LazyTraceThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
 
 	private SpanNamer spanNamer;
 
+	private ExecutorTracingMode tracingMode;
+
 	public LazyTraceThreadPoolTaskExecutor(BeanFactory beanFactory, ThreadPoolTaskExecutor delegate) {
 		this.beanFactory = beanFactory;
 		this.delegate = delegate;
@@ -215,7 +217,7 @@ public class LazyTraceThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
 			return runnable;
 		}
 		return ContextUtil.isContextUnusable(this.beanFactory) ? runnable
-				: new TraceRunnable(tracer(), spanNamer(), runnable, this.beanName);
+				: new TraceRunnable(tracer(), spanNamer(), runnable, this.beanName, tracingMode());
 	}
 
 	private <V> Callable<V> wrap(Callable<V> callable) {
@@ -223,7 +225,7 @@ public class LazyTraceThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
 			return callable;
 		}
 		return ContextUtil.isContextUnusable(this.beanFactory) ? callable
-				: new TraceCallable<>(tracer(), spanNamer(), callable, this.beanName);
+				: new TraceCallable<>(tracer(), spanNamer(), callable, this.beanName, tracingMode());
 	}
 
 	@Override
@@ -341,4 +343,11 @@ public class LazyTraceThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
 		return this.spanNamer;
 	}
 
+	private ExecutorTracingMode tracingMode() {
+		if (this.tracingMode == null) {
+			this.tracingMode = ExecutorTracingModeResolver.resolve(this.beanFactory, this.beanName);
+		}
+		return this.tracingMode;
+	}
+
 }
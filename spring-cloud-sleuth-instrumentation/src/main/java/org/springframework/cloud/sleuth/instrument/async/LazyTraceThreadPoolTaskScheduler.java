@@ -84,6 +84,8 @@ class LazyTraceThreadPoolTaskScheduler extends ThreadPoolTaskScheduler {
 
 	private SpanNamer spanNamer;
 
+	private ExecutorTracingMode tracingMode;
+
 	LazyTraceThreadPoolTaskScheduler(BeanFactory beanFactory, ThreadPoolTaskScheduler delegate, String beanName) {
 		this.beanFactory = beanFactory;
 		this.delegate = delegate;
@@ -128,7 +130,7 @@ class LazyTraceThreadPoolTaskScheduler extends ThreadPoolTaskScheduler {
 		if (delegate instanceof TraceRunnable) {
 			return delegate;
 		}
-		return new TraceRunnable(tracing(), spanNamer(), delegate, this.beanName);
+		return new TraceRunnable(tracing(), spanNamer(), delegate, this.beanName, tracingMode());
 	}
 
 	private <V> Callable<V> traceCallableWhenContextReady(Callable<V> delegate) {
@@ -138,7 +140,7 @@ class LazyTraceThreadPoolTaskScheduler extends ThreadPoolTaskScheduler {
 		if (delegate instanceof TraceCallable) {
 			return delegate;
 		}
-		return new TraceCallable<>(tracing(), spanNamer(), delegate, this.beanName);
+		return new TraceCallable<>(tracing(), spanNamer(), delegate, this.beanName, tracingMode());
 	}
 
 	@Override
@@ -455,4 +457,11 @@ class LazyTraceThreadPoolTaskScheduler extends ThreadPoolTaskScheduler {
 		return this.spanNamer;
 	}
 
+	private ExecutorTracingMode tracingMode() {
+		if (this.tracingMode == null) {
+			this.tracingMode = ExecutorTracingModeResolver.resolve(this.beanFactory, this.beanName);
+		}
+		return this.tracingMode;
+	}
+
 }
@@ -46,6 +46,7 @@ public class TraceCallable<V> implements Callable<V> {
 
 	private final Span parent;
 
+	// null when no child span should be created
 	private final String spanName;
 
 	public TraceCallable(Tracer tracer, SpanNamer spanNamer, Callable<V> delegate) {
@@ -53,14 +54,34 @@ public class TraceCallable<V> implements Callable<V> {
 	}
 
 	public TraceCallable(Tracer tracer, SpanNamer spanNamer, Callable<V> delegate, String name) {
+		this(tracer, spanNamer, delegate, name, ExecutorTracingMode.SPAN);
+	}
+
+	/**
+	 * @param tracer tracer
+	 * @param spanNamer span namer
+	 * @param delegate callable to call
+	 * @param name name of the child span, taken from the {@link SpanNamer} when
+	 * {@code null}
+	 * @param tracingMode decides whether a child span is created
+	 * @since 3.1.11
+	 */
+	public TraceCallable(Tracer tracer, SpanNamer spanNamer, Callable<V> delegate, String name,
+			ExecutorTracingMode tracingMode) {
 		this.tracer = tracer;
 		this.delegate = delegate;
 		this.parent = tracer.currentSpan();
-		this.spanName = name != null ? name : spanNamer.name(delegate, DEFAULT_SPAN_NAME);
+		this.spanName = !tracingMode.createsSpan(this.parent) ? null
+				: name != null ? name : spanNamer.name(delegate, DEFAULT_SPAN_NAME);
 	}
 
 	@Override
 	public V call() throws Exception {
+		if (this.spanName == null) {
+			try (Tracer.SpanInScope ws = this.tracer.withSpan(this.parent)) {
+				return this.delegate.call();
+			}
+		}
 		Span childSpan = SleuthAsyncSpan.ASYNC_CALLABLE_SPAN.wrap(this.tracer.nextSpan(this.parent))
 				.name(this.spanName);
 		try (Tracer.SpanInScope ws = this.tracer.withSpan(childSpan.start())) {
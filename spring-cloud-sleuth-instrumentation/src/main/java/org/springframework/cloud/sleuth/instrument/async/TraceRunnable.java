@@ -43,6 +43,7 @@ public class TraceRunnable implements Runnable {
 
 	private final Span parent;
 
+	// null when no child span should be created
 	private final String spanName;
 
 	public TraceRunnable(Tracer tracer, SpanNamer spanNamer, Runnable delegate) {
@@ -50,14 +51,35 @@ public class TraceRunnable implements Runnable {
 	}
 
 	public TraceRunnable(Tracer tracer, SpanNamer spanNamer, Runnable delegate, String name) {
+		this(tracer, spanNamer, delegate, name, ExecutorTracingMode.SPAN);
+	}
+
+	/**
+	 * @param tracer tracer
+	 * @param spanNamer span namer
+	 * @param delegate runnable to run
+	 * @param name name of the child span, taken from the {@link SpanNamer} when
+	 * {@code null}
+	 * @param tracingMode decides whether a child span is created
+	 * @since 3.1.11
+	 */
+	public TraceRunnable(Tracer tracer, SpanNamer spanNamer, Runnable delegate, String name,
+			ExecutorTracingMode tracingMode) {
 		this.tracer = tracer;
 		this.delegate = delegate;
 		this.parent = tracer.currentSpan();
-		this.spanName = name != null ? name : spanNamer.name(delegate, DEFAULT_SPAN_NAME);
+		this.spanName = !tracingMode.createsSpan(this.parent) ? null
+				: name != null ? name : spanNamer.name(delegate, DEFAULT_SPAN_NAME);
 	}
 
 	@Override
 	public void run() {
+		if (this.spanName == null) {
+			try (Tracer.SpanInScope ws = this.tracer.withSpan(this.parent)) {
+				this.delegate.run();
+			}
+			return;
+		}
 		Span childSpan = SleuthAsyncSpan.ASYNC_RUNNABLE_SPAN.wrap(this.tracer.nextSpan(this.parent))
 				.name(this.spanName);
 		try (Tracer.SpanInScope ws = this.tracer.withSpan(childSpan.start())) {
@@ -52,6 +52,8 @@ public class TraceableExecutorService implements ExecutorService {
 
 	SpanNamer spanNamer;
 
+	ExecutorTracingMode tracingMode;
+
 	BeanFactory beanFactory;
 
 	public TraceableExecutorService(BeanFactory beanFactory, final ExecutorService delegate) {
@@ -88,7 +90,7 @@ public class TraceableExecutorService implements ExecutorService {
 	@Override
 	public void execute(Runnable command) {
 		this.delegate.execute(ContextUtil.isContextUnusable(this.beanFactory) ? command
-				: new TraceRunnable(tracer(), spanNamer(), command, this.spanName));
+				: new TraceRunnable(tracer(), spanNamer(), command, this.spanName, tracingMode()));
 	}
 
 	@Override
@@ -129,19 +131,19 @@ public class TraceableExecutorService implements ExecutorService {
 	@Override
 	public <T> Future<T> submit(Callable<T> task) {
 		return this.delegate.submit(ContextUtil.isContextUnusable(this.beanFactory) ? task
-				: new TraceCallable<>(tracer(), spanNamer(), task, this.spanName));
+				: new TraceCallable<>(tracer(), spanNamer(), task, this.spanName, tracingMode()));
 	}
 
 	@Override
 	public <T> Future<T> submit(Runnable task, T result) {
 		return this.delegate.submit(ContextUtil.isContextUnusable(this.beanFactory) ? task
-				: new TraceRunnable(tracer(), spanNamer(), task, this.spanName), result);
+				: new TraceRunnable(tracer(), spanNamer(), task, this.spanName, tracingMode()), result);
 	}
 
 	@Override
 	public Future<?> submit(Runnable task) {
 		return this.delegate.submit(ContextUtil.isContextUnusable(this.beanFactory) ? task
-				: new TraceRunnable(tracer(), spanNamer(), task, this.spanName));
+				: new TraceRunnable(tracer(), spanNamer(), task, this.spanName, tracingMode()));
 	}
 
 	@Override
@@ -174,7 +176,7 @@ public class TraceableExecutorService implements ExecutorService {
 		List<Callable<T>> ts = new ArrayList<>();
 		for (Callable<T> task : tasks) {
 			if (!(task instanceof TraceCallable)) {
-				ts.add(new TraceCallable<>(tracer(), spanNamer(), task, this.spanName));
+				ts.add(new TraceCallable<>(tracer(), spanNamer(), task, this.spanName, tracingMode()));
 			}
 		}
 		return ts;
@@ -194,4 +196,11 @@ public class TraceableExecutorService implements ExecutorService {
 		return this.spanNamer;
 	}
 
+	ExecutorTracingMode tracingMode() {
+		if (this.tracingMode == null) {
+			this.tracingMode = ExecutorTracingModeResolver.resolve(this.beanFactory, this.spanName);
+		}
+		return this.tracingMode;
+	}
+
 }
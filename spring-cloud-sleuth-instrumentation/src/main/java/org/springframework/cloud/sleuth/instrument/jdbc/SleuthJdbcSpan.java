@@ -128,6 +128,16 @@ enum SleuthJdbcSpan implements DocumentedSpan {
 			}
 		},
 
+		/**
+		 * Main table of the SQL query.
+		 */
+		TABLE {
+			@Override
+			public String getKey() {
+				return "jdbc.table";
+			}
+		},
+
 		/**
 		 * Number of SQL rows.
 		 */
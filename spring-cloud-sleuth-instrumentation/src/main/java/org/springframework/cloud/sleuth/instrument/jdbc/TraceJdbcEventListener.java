@@ -78,8 +78,8 @@ public class TraceJdbcEventListener extends SimpleJdbcEventListener implements O
 	public void onAfterGetConnection(ConnectionInformation connectionInformation, SQLException e) {
 		CommonDataSource dataSource = connectionInformation.getDataSource();
 		String dataSourceName = this.dataSourceNameResolver.resolveDataSourceName(dataSource);
-		this.strategy.afterGetConnection(connectionInformation, connectionInformation.getConnection(), dataSourceName,
-				e);
+		this.strategy.afterGetConnection(connectionInformation, dataSource, connectionInformation.getConnection(),
+				dataSourceName, e);
 	}
 
 	@Override
@@ -150,6 +150,14 @@ public class TraceJdbcEventListener extends SimpleJdbcEventListener implements O
 				? statementInformation.getSqlWithValues() : statementInformation.getSql();
 	}
 
+	/**
+	 * Clears the remote service names, hosts and ports parsed from the JDBC URLs of the
+	 * data sources. Call it when the data sources got reconfigured.
+	 */
+	public void clearRemoteEndpointCache() {
+		this.strategy.clearRemoteEndpoints();
+	}
+
 	@Override
 	public int getOrder() {
 		return ORDER;
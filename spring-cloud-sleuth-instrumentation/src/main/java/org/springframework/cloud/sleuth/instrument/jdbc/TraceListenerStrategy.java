@@ -37,7 +37,9 @@ import org.springframework.cloud.sleuth.SpanAndScope;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.docs.AssertingSpan;
 import org.springframework.cloud.sleuth.docs.AssertingSpanBuilder;
+import org.springframework.cloud.sleuth.internal.SqlStatementParser;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.StringUtils;
 
 /**
@@ -73,12 +75,15 @@ class TraceListenerStrategy<CON, STMT, RS> {
 	// string.
 	private static final Pattern URL_SERVICE_NAME_FINDER = Pattern.compile("sleuthServiceName=(.*?)(?:&|$)");
 
-	private static final SpanNameProvider SPAN_NAME_PROVIDER = new SpanNameProvider();
-
 	private final Map<CON, ConnectionInfo> openConnections = new ConcurrentHashMap<>();
 
 	private final ThreadLocal<ConnectionInfo> currentConnection = new ThreadLocal<>();
 
+	// Parsed JDBC URLs, per data source (or data source name when there's no data source).
+	// Soft references survive young collections but don't keep discarded data sources
+	// around when memory runs low.
+	private final Map<Object, RemoteEndpoint> remoteEndpoints = new ConcurrentReferenceHashMap<>();
+
 	private final List<TraceType> traceTypes;
 
 	private final List<TraceListenerStrategySpanCustomizer<? super CommonDataSource>> customizers;
@@ -87,11 +92,14 @@ class TraceListenerStrategy<CON, STMT, RS> {
 
 	private Tracer tracer;
 
+	private SqlStatementParser sqlStatementParser;
+
 	TraceListenerStrategy(Tracer tracer, List<TraceType> traceTypes,
 			List<TraceListenerStrategySpanCustomizer<? super CommonDataSource>> customizers) {
 		this.traceTypes = traceTypes;
 		this.customizers = customizers;
 		this.tracer = tracer;
+		this.sqlStatementParser = SqlStatementParser.DEFAULT;
 	}
 
 	TraceListenerStrategy(BeanFactory beanFactory, List<TraceType> traceTypes,
@@ -131,8 +139,8 @@ class TraceListenerStrategy<CON, STMT, RS> {
 		}
 	}
 
-	void afterGetConnection(CON connectionKey, @Nullable Connection connection, String dataSourceName,
-			@Nullable Throwable t) {
+	void afterGetConnection(CON connectionKey, @Nullable CommonDataSource dataSource, @Nullable Connection connection,
+			String dataSourceName, @Nullable Throwable t) {
 		if (log.isTraceEnabled()) {
 			log.trace("After get connection [" + connectionKey + "]. Current span is [" + getTracer().currentSpan()
 					+ "]");
@@ -140,7 +148,7 @@ class TraceListenerStrategy<CON, STMT, RS> {
 		ConnectionInfo connectionInfo = this.openConnections.get(connectionKey);
 		SpanAndScope connectionSpan = connectionInfo.span;
 		if (connection != null) {
-			parseAndSetServerIpAndPort(connectionInfo, connection, dataSourceName);
+			setServerIpAndPort(connectionInfo, dataSource, connection, dataSourceName);
 			if (connectionSpan != null) {
 				connectionSpan.getSpan().remoteServiceName(connectionInfo.remoteServiceName);
 				if (connectionInfo.url != null) {
@@ -244,8 +252,13 @@ class TraceListenerStrategy<CON, STMT, RS> {
 		StatementInfo statementInfo = connectionInfo.nestedStatements.get(statementKey);
 		SpanAndScope statementSpan = statementInfo.span;
 		if (statementSpan != null) {
-			AssertingSpan.of(SleuthJdbcSpan.JDBC_QUERY_SPAN, statementSpan.getSpan())
-					.tag(SleuthJdbcSpan.QueryTags.QUERY, sql).name(SPAN_NAME_PROVIDER.getSpanNameFor(sql));
+			SqlStatementParser parser = getSqlStatementParser();
+			AssertingSpan querySpan = AssertingSpan.of(SleuthJdbcSpan.JDBC_QUERY_SPAN, statementSpan.getSpan())
+					.tag(SleuthJdbcSpan.QueryTags.QUERY, parser.tagValue(sql)).name(parser.spanName(sql));
+			String table = parser.table(sql);
+			if (table != null) {
+				querySpan.tag(SleuthJdbcSpan.QueryTags.TABLE, table);
+			}
 			if (t != null) {
 				statementSpan.getSpan().error(t);
 			}
@@ -443,6 +456,32 @@ class TraceListenerStrategy<CON, STMT, RS> {
 		}
 	}
 
+	/**
+	 * Clears the parsed JDBC URLs, e.g. after the data sources got reconfigured.
+	 */
+	void clearRemoteEndpoints() {
+		this.remoteEndpoints.clear();
+	}
+
+	private void setServerIpAndPort(ConnectionInfo connectionInfo, @Nullable CommonDataSource dataSource,
+			Connection connection, String dataSourceName) {
+		Object cacheKey = dataSource != null ? dataSource : dataSourceName;
+		RemoteEndpoint remoteEndpoint = cacheKey != null ? this.remoteEndpoints.get(cacheKey) : null;
+		if (remoteEndpoint == null) {
+			remoteEndpoint = parseServerIpAndPort(connection);
+			if (cacheKey != null && remoteEndpoint.complete) {
+				this.remoteEndpoints.put(cacheKey, remoteEndpoint);
+			}
+		}
+		connectionInfo.url = remoteEndpoint.url;
+		if (StringUtils.hasText(remoteEndpoint.remoteServiceName)) {
+			connectionInfo.remoteServiceName = remoteEndpoint.remoteServiceName;
+		}
+		else {
+			connectionInfo.remoteServiceName = dataSourceName;
+		}
+	}
+
 	/**
 	 * This attempts to get the ip and port from the JDBC URL. Ex. localhost and 5555 from
 	 * {@code
@@ -450,8 +489,7 @@ class TraceListenerStrategy<CON, STMT, RS> {
 	 *
 	 * Taken from Brave.
 	 */
-	private void parseAndSetServerIpAndPort(ConnectionInfo connectionInfo, Connection connection,
-			String dataSourceName) {
+	private RemoteEndpoint parseServerIpAndPort(Connection connection) {
 		URI url = null;
 		String remoteServiceName = "";
 		try {
@@ -474,15 +512,10 @@ class TraceListenerStrategy<CON, STMT, RS> {
 			}
 		}
 		catch (Exception e) {
-			// remote address is optional
-		}
-		connectionInfo.url = url;
-		if (StringUtils.hasText(remoteServiceName)) {
-			connectionInfo.remoteServiceName = remoteServiceName;
-		}
-		else {
-			connectionInfo.remoteServiceName = dataSourceName;
+			// remote address is optional, don't cache the result of a failed lookup
+			return new RemoteEndpoint(url, remoteServiceName, false);
 		}
+		return new RemoteEndpoint(url, remoteServiceName, true);
 	}
 
 	private Tracer getTracer() {
@@ -493,6 +526,14 @@ class TraceListenerStrategy<CON, STMT, RS> {
 		return this.tracer;
 	}
 
+	private SqlStatementParser getSqlStatementParser() {
+		if (this.sqlStatementParser == null) {
+			this.sqlStatementParser = this.beanFactory.getBeanProvider(SqlStatementParser.class)
+					.getIfAvailable(() -> SqlStatementParser.DEFAULT);
+		}
+		return this.sqlStatementParser;
+	}
+
 	private final class ConnectionInfo {
 
 		final SpanAndScope span;
@@ -513,6 +554,23 @@ class TraceListenerStrategy<CON, STMT, RS> {
 
 	}
 
+	private static final class RemoteEndpoint {
+
+		@Nullable
+		final URI url;
+
+		final String remoteServiceName;
+
+		final boolean complete;
+
+		RemoteEndpoint(@Nullable URI url, String remoteServiceName, boolean complete) {
+			this.url = url;
+			this.remoteServiceName = remoteServiceName;
+			this.complete = complete;
+		}
+
+	}
+
 	private final class StatementInfo {
 
 		final SpanAndScope span;
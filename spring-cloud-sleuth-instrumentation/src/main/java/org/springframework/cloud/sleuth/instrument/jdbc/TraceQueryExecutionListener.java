@@ -100,7 +100,7 @@ public class TraceQueryExecutionListener implements QueryExecutionListener, Meth
 		Throwable t = executionContext.getThrown();
 		if (target instanceof DataSource && methodName.equals("getConnection")) {
 			Connection connection = (Connection) executionContext.getResult();
-			this.strategy.afterGetConnection(connectionId, connection, dataSourceName, t);
+			this.strategy.afterGetConnection(connectionId, (DataSource) target, connection, dataSourceName, t);
 		}
 		else if (target instanceof Connection) {
 			switch (methodName) {
@@ -124,6 +124,14 @@ public class TraceQueryExecutionListener implements QueryExecutionListener, Meth
 		}
 	}
 
+	/**
+	 * Clears the remote service names, hosts and ports parsed from the JDBC URLs of the
+	 * data sources. Call it when the data sources got reconfigured.
+	 */
+	public void clearRemoteEndpointCache() {
+		this.strategy.clearRemoteEndpoints();
+	}
+
 	@Override
 	public int getOrder() {
 		return Ordered.HIGHEST_PRECEDENCE + 10;
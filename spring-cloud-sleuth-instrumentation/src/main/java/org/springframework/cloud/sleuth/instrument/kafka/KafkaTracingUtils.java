@@ -16,18 +16,45 @@
 
 package org.springframework.cloud.sleuth.instrument.kafka;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
 
 import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.docs.AssertingSpan;
 import org.springframework.cloud.sleuth.docs.AssertingSpanBuilder;
+import org.springframework.cloud.sleuth.internal.HeaderIndex;
 import org.springframework.cloud.sleuth.propagation.Propagator;
+import org.springframework.lang.Nullable;
 
 final class KafkaTracingUtils {
 
 	private static final Log log = LogFactory.getLog(KafkaTracingUtils.class);
 
+	// max number of upstream trace events on a poll span
+	private static final int MAX_UPSTREAM_TRACE_EVENTS = 64;
+
+	private static final String B3 = "b3";
+
+	private static final String B3_TRACE_ID = "X-B3-TraceId";
+
+	private static final String B3_SAMPLED = "X-B3-Sampled";
+
+	private static final String B3_FLAGS = "X-B3-Flags";
+
+	private static final String TRACEPARENT = "traceparent";
+
+	// key of the records that carry a sampling decision without a trace id
+	private static final String UNSAMPLED_WITHOUT_TRACE = ":0";
+
 	private KafkaTracingUtils() {
 	}
 
@@ -43,7 +70,8 @@ final class KafkaTracingUtils {
 	static <K, V> Span buildSpan(SleuthKafkaSpan sleuthKafkaSpan, ConsumerRecord<K, V> consumerRecord,
 			Propagator propagator, Propagator.Getter<ConsumerRecord<?, ?>> extractor) {
 		// @formatter:off
-		Span.Builder spanBuilder = AssertingSpanBuilder.of(sleuthKafkaSpan, propagator.extract(consumerRecord, extractor).kind(Span.Kind.CONSUMER))
+		Span.Builder spanBuilder = AssertingSpanBuilder.of(sleuthKafkaSpan,
+				propagator.extract(consumerRecord, HeaderIndex.of(consumerRecord, extractor)).kind(Span.Kind.CONSUMER))
 				.name(sleuthKafkaSpan.getName())
 				.tag(SleuthKafkaSpan.ConsumerTags.TOPIC, consumerRecord.topic())
 				.tag(SleuthKafkaSpan.ConsumerTags.OFFSET, Long.toString(consumerRecord.offset()))
@@ -52,4 +80,157 @@ final class KafkaTracingUtils {
 		return spanBuilder.start();
 	}
 
+	/**
+	 * Starts the single span of a poll, to be started before the records are polled.
+	 */
+	static AssertingSpan startPollSpan(Tracer tracer) {
+		// @formatter:off
+		return AssertingSpanBuilder.of(SleuthKafkaSpan.KAFKA_POLL_SPAN, tracer.spanBuilder())
+				.name(SleuthKafkaSpan.KAFKA_POLL_SPAN.getName())
+				.kind(Span.Kind.CONSUMER)
+				.start();
+		// @formatter:on
+	}
+
+	/**
+	 * Finishes the span of a poll that returned the given records. Only records that
+	 * continue a sampled trace get a span of their own, the others are only counted on
+	 * the poll span. The trace id and the sampled flag are read from the B3 or W3C
+	 * headers first, so the records of a trace that isn't sampled upstream are skipped
+	 * without extracting their context. When the upstream deferred the decision, it's
+	 * made once per trace. Records with headers in another format are extracted one by
+	 * one.
+	 */
+	static <K, V> void finishPollSpan(AssertingSpan pollSpan, ConsumerRecords<K, V> consumerRecords,
+			Propagator propagator, Propagator.Getter<ConsumerRecord<?, ?>> extractor) {
+		List<String> fields = propagator.fields();
+		// whether the records of a trace id and sampled flag continue a sampled trace
+		Map<String, Boolean> sampledByTrace = new HashMap<>();
+		Set<String> upstreamTraceIds = new LinkedHashSet<>();
+		for (ConsumerRecord<K, V> consumerRecord : consumerRecords) {
+			// the headers of the record are read once for the key and the extraction
+			Propagator.Getter<ConsumerRecord<?, ?>> getter = HeaderIndex.of(consumerRecord, extractor);
+			String trace = upstreamTrace(consumerRecord, fields, getter);
+			Boolean sampled = null;
+			if (trace != null) {
+				sampled = sampledByTrace.get(trace);
+				if (sampled == null && trace.endsWith(UNSAMPLED_WITHOUT_TRACE)) {
+					sampled = Boolean.FALSE;
+					sampledByTrace.put(trace, sampled);
+					if (!trace.equals(UNSAMPLED_WITHOUT_TRACE)) {
+						upstreamTraceIds.add(trace.substring(0, trace.length() - UNSAMPLED_WITHOUT_TRACE.length()));
+					}
+				}
+				if (Boolean.FALSE.equals(sampled)) {
+					continue;
+				}
+			}
+			else if (!hasPropagationHeaders(consumerRecord, fields, getter)) {
+				continue;
+			}
+			AssertingSpan span = AssertingSpanBuilder
+					.of(SleuthKafkaSpan.KAFKA_CONSUMER_SPAN,
+							propagator.extract(consumerRecord, getter).kind(Span.Kind.CONSUMER))
+					.name(SleuthKafkaSpan.KAFKA_CONSUMER_SPAN.getName()).start();
+			if (sampled == null) {
+				sampled = Boolean.TRUE.equals(span.context().sampled());
+				if (trace != null) {
+					sampledByTrace.put(trace, sampled);
+				}
+				upstreamTraceIds.add(span.context().traceId());
+			}
+			if (sampled) {
+				span.tag(SleuthKafkaSpan.ConsumerTags.TOPIC, consumerRecord.topic())
+						.tag(SleuthKafkaSpan.ConsumerTags.OFFSET, Long.toString(consumerRecord.offset()))
+						.tag(SleuthKafkaSpan.ConsumerTags.PARTITION, Integer.toString(consumerRecord.partition()))
+						.end();
+			}
+			else {
+				span.abandon();
+			}
+		}
+		pollSpan.tag(SleuthKafkaSpan.PollTags.RECORDS, Integer.toString(consumerRecords.count()))
+				.tag(SleuthKafkaSpan.PollTags.UPSTREAM_TRACES, Integer.toString(upstreamTraceIds.size()));
+		int events = 0;
+		for (String traceId : upstreamTraceIds) {
+			if (events++ == MAX_UPSTREAM_TRACE_EVENTS) {
+				break;
+			}
+			pollSpan.event(String.format(SleuthKafkaSpan.PollEvents.UPSTREAM_TRACE.getValue(), traceId));
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Created a poll span " + pollSpan + " for " + consumerRecords.count() + " records");
+		}
+		pollSpan.end();
+	}
+
+	/**
+	 * Reads the trace id and the sampled flag of the record from the B3 or W3C headers
+	 * without extracting its context.
+	 * @return the trace id followed by {@code :1} when the trace is sampled, {@code :0}
+	 * when it isn't and {@code :} when the decision was deferred, or {@code null} when the
+	 * record has no trace id in these formats
+	 */
+	@Nullable
+	private static String upstreamTrace(ConsumerRecord<?, ?> consumerRecord, List<String> fields,
+			Propagator.Getter<ConsumerRecord<?, ?>> getter) {
+		if (fields.contains(B3)) {
+			String b3 = getter.get(consumerRecord, B3);
+			if (b3 != null) {
+				return b3Trace(b3);
+			}
+		}
+		if (fields.contains(B3_TRACE_ID)) {
+			String traceId = getter.get(consumerRecord, B3_TRACE_ID);
+			if (traceId != null) {
+				if ("1".equals(getter.get(consumerRecord, B3_FLAGS))) {
+					return traceId + ":1";
+				}
+				String sampled = getter.get(consumerRecord, B3_SAMPLED);
+				if (sampled == null) {
+					return traceId + ":";
+				}
+				return traceId + ("1".equals(sampled) || "true".equalsIgnoreCase(sampled) ? ":1" : ":0");
+			}
+		}
+		if (fields.contains(TRACEPARENT)) {
+			// version-traceid-parentid-flags
+			String traceparent = getter.get(consumerRecord, TRACEPARENT);
+			if (traceparent != null && traceparent.length() >= 55 && traceparent.charAt(2) == '-'
+					&& traceparent.charAt(35) == '-' && traceparent.charAt(52) == '-') {
+				int flags = Character.digit(traceparent.charAt(54), 16);
+				return traceparent.substring(3, 35) + ((flags & 1) == 1 ? ":1" : ":0");
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param b3 {@code traceid-spanid[-sampled[-parentid]]} or only the sampling decision
+	 */
+	@Nullable
+	private static String b3Trace(String b3) {
+		int traceIdEnd = b3.indexOf('-');
+		if (traceIdEnd == -1) {
+			// a sampled record without a trace id starts a new trace of its own
+			return "0".equals(b3) ? UNSAMPLED_WITHOUT_TRACE : null;
+		}
+		int spanIdEnd = b3.indexOf('-', traceIdEnd + 1);
+		if (spanIdEnd == -1 || spanIdEnd + 1 == b3.length()) {
+			return b3.substring(0, traceIdEnd) + ":";
+		}
+		char sampled = b3.charAt(spanIdEnd + 1);
+		return b3.substring(0, traceIdEnd) + (sampled == '0' ? ":0" : ":1");
+	}
+
+	private static boolean hasPropagationHeaders(ConsumerRecord<?, ?> consumerRecord, List<String> fields,
+			Propagator.Getter<ConsumerRecord<?, ?>> getter) {
+		for (int i = 0; i < fields.size(); i++) {
+			if (getter.get(consumerRecord, fields.get(i)) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 }
@@ -23,6 +23,7 @@ import reactor.core.publisher.Mono;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.instrument.reactor.ReactorSleuth;
+import org.springframework.cloud.sleuth.internal.HeaderIndex;
 import org.springframework.cloud.sleuth.propagation.Propagator;
 
 /**
@@ -50,8 +51,8 @@ public class ReactiveKafkaTracingPropagator {
 
 	public <K, V, T extends ConsumerRecord<K, V>> Flux<T> propagateSpanContextToReactiveContext(Flux<T> publisher) {
 		return publisher.flatMap(consumerRecord -> Mono.deferContextual((contextView) -> {
-			Span newSpanWithParent = propagator.extract(consumerRecord, extractor).kind(Span.Kind.CONSUMER)
-					.name("kafka.consumer").tag("kafka.topic", consumerRecord.topic())
+			Span newSpanWithParent = propagator.extract(consumerRecord, HeaderIndex.of(consumerRecord, extractor))
+					.kind(Span.Kind.CONSUMER).name("kafka.consumer").tag("kafka.topic", consumerRecord.topic())
 					.tag("kafka.offset", Long.toString(consumerRecord.offset()))
 					.tag("kafka.partition", Integer.toString(consumerRecord.partition())).start();
 
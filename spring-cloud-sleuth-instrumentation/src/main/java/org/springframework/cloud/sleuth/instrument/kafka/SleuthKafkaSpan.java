@@ -17,6 +17,7 @@
 package org.springframework.cloud.sleuth.instrument.kafka;
 
 import org.springframework.cloud.sleuth.docs.DocumentedSpan;
+import org.springframework.cloud.sleuth.docs.EventValue;
 import org.springframework.cloud.sleuth.docs.TagKey;
 
 enum SleuthKafkaSpan implements DocumentedSpan {
@@ -41,6 +42,31 @@ enum SleuthKafkaSpan implements DocumentedSpan {
 		}
 	},
 
+	/**
+	 * Span created on the Kafka consumer side for all records of a poll.
+	 */
+	KAFKA_POLL_SPAN {
+		@Override
+		public String getName() {
+			return "kafka.poll";
+		}
+
+		@Override
+		public TagKey[] getTagKeys() {
+			return PollTags.values();
+		}
+
+		@Override
+		public EventValue[] getEvents() {
+			return PollEvents.values();
+		}
+
+		@Override
+		public String prefix() {
+			return "kafka.";
+		}
+	},
+
 	/**
 	 * Span created on the Kafka consumer side when using a MessageListener.
 	 */
@@ -115,6 +141,45 @@ enum SleuthKafkaSpan implements DocumentedSpan {
 
 	}
 
+	enum PollTags implements TagKey {
+
+		/**
+		 * Number of polled records.
+		 */
+		RECORDS {
+			@Override
+			public String getKey() {
+				return "kafka.records";
+			}
+		},
+
+		/**
+		 * Number of distinct traces the polled records continue.
+		 */
+		UPSTREAM_TRACES {
+			@Override
+			public String getKey() {
+				return "kafka.upstream-traces";
+			}
+		}
+
+	}
+
+	enum PollEvents implements EventValue {
+
+		/**
+		 * Set for each distinct trace the polled records continue, with the id of that
+		 * trace.
+		 */
+		UPSTREAM_TRACE {
+			@Override
+			public String getValue() {
+				return "kafka.upstream.%s";
+			}
+		}
+
+	}
+
 	enum ProducerTags implements TagKey {
 
 		/**
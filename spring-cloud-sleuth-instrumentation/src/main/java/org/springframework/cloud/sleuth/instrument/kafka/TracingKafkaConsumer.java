@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.OptionalLong;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 import org.apache.kafka.clients.consumer.Consumer;
@@ -39,6 +40,8 @@ import org.apache.kafka.common.TopicPartition;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.docs.AssertingSpan;
 import org.springframework.cloud.sleuth.propagation.Propagator;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.ResolvableType;
@@ -46,7 +49,9 @@ import org.springframework.core.ResolvableType;
 /**
  * This decorates a Kafka {@link Consumer}. It creates and completes a
  * {@link Span.Kind#CONSUMER} span for each record received. This span will be a child
- * span of the one extracted from the record headers.
+ * span of the one extracted from the record headers. With
+ * {@link KafkaConsumerSpanMode#BATCH} a single span is created for each poll instead and
+ * only records that continue a sampled trace get a span of their own.
  *
  * @author Anders Clausen
  * @author Flaviu Muresan
@@ -62,9 +67,24 @@ public class TracingKafkaConsumer<K, V> implements Consumer<K, V> {
 
 	private Propagator.Getter<ConsumerRecord<?, ?>> extractor;
 
+	private Tracer tracer;
+
+	private final KafkaConsumerSpanMode spanMode;
+
 	public TracingKafkaConsumer(Consumer<K, V> consumer, BeanFactory beanFactory) {
+		this(consumer, beanFactory, KafkaConsumerSpanMode.RECORD);
+	}
+
+	/**
+	 * @param consumer consumer to decorate
+	 * @param beanFactory bean factory
+	 * @param spanMode spans created for the polled records
+	 * @since 3.1.11
+	 */
+	public TracingKafkaConsumer(Consumer<K, V> consumer, BeanFactory beanFactory, KafkaConsumerSpanMode spanMode) {
 		this.delegate = consumer;
 		this.beanFactory = beanFactory;
+		this.spanMode = spanMode;
 	}
 
 	private Propagator propagator() {
@@ -85,6 +105,45 @@ public class TracingKafkaConsumer<K, V> implements Consumer<K, V> {
 		return this.extractor;
 	}
 
+	private Tracer tracer() {
+		if (this.tracer == null) {
+			this.tracer = this.beanFactory.getBean(Tracer.class);
+		}
+		return this.tracer;
+	}
+
+	private ConsumerRecords<K, V> traced(Supplier<ConsumerRecords<K, V>> poll) {
+		if (this.spanMode != KafkaConsumerSpanMode.BATCH) {
+			return traced(poll.get());
+		}
+		// the poll span covers the time spent in the poll
+		AssertingSpan pollSpan = KafkaTracingUtils.startPollSpan(tracer());
+		ConsumerRecords<K, V> consumerRecords;
+		try {
+			consumerRecords = poll.get();
+		}
+		catch (RuntimeException | Error ex) {
+			pollSpan.abandon();
+			throw ex;
+		}
+		if (consumerRecords.isEmpty()) {
+			// polls without records don't leave a span
+			pollSpan.abandon();
+		}
+		else {
+			KafkaTracingUtils.finishPollSpan(pollSpan, consumerRecords, propagator(), extractor());
+		}
+		return consumerRecords;
+	}
+
+	private ConsumerRecords<K, V> traced(ConsumerRecords<K, V> consumerRecords) {
+		for (ConsumerRecord<K, V> consumerRecord : consumerRecords) {
+			KafkaTracingUtils.buildAndFinishSpan(SleuthKafkaSpan.KAFKA_CONSUMER_SPAN, consumerRecord, propagator(),
+					extractor());
+		}
+		return consumerRecords;
+	}
+
 	@Override
 	public Set<TopicPartition> assignment() {
 		return this.delegate.assignment();
@@ -128,22 +187,12 @@ public class TracingKafkaConsumer<K, V> implements Consumer<K, V> {
 	@Deprecated
 	@Override
 	public ConsumerRecords<K, V> poll(long l) {
-		ConsumerRecords<K, V> consumerRecords = this.delegate.poll(l);
-		for (ConsumerRecord<K, V> consumerRecord : consumerRecords) {
-			KafkaTracingUtils.buildAndFinishSpan(SleuthKafkaSpan.KAFKA_CONSUMER_SPAN, consumerRecord, propagator(),
-					extractor());
-		}
-		return consumerRecords;
+		return traced(() -> this.delegate.poll(l));
 	}
 
 	@Override
 	public ConsumerRecords<K, V> poll(Duration duration) {
-		ConsumerRecords<K, V> consumerRecords = this.delegate.poll(duration);
-		for (ConsumerRecord<K, V> consumerRecord : consumerRecords) {
-			KafkaTracingUtils.buildAndFinishSpan(SleuthKafkaSpan.KAFKA_CONSUMER_SPAN, consumerRecord, propagator(),
-					extractor());
-		}
-		return consumerRecords;
+		return traced(() -> this.delegate.poll(duration));
 	}
 
 	@Override
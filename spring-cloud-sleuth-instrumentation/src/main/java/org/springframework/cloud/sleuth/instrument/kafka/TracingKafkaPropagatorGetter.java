@@ -16,29 +16,46 @@
 
 package org.springframework.cloud.sleuth.instrument.kafka;
 
-import java.util.Iterator;
-import java.util.Optional;
-
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Header;
 
+import org.springframework.cloud.sleuth.internal.HeaderIndex;
 import org.springframework.cloud.sleuth.propagation.Propagator;
 
 /**
  * Getter extracting the values from the {@link ConsumerRecord} headers for Kafka based
- * communication.
+ * communication. When wrapped in a {@link HeaderIndex} the headers of a record are read
+ * once per extraction.
  *
  * @author Anders Clausen
  * @author Flaviu Muresan
  * @since 3.1.0
  */
-public class TracingKafkaPropagatorGetter implements Propagator.Getter<ConsumerRecord<?, ?>> {
+public class TracingKafkaPropagatorGetter
+		implements Propagator.Getter<ConsumerRecord<?, ?>>, HeaderIndex.Indexer<ConsumerRecord<?, ?>> {
 
 	@Override
 	public String get(ConsumerRecord<?, ?> carrier, String key) {
-		return Optional.ofNullable(carrier).map(ConsumerRecord::headers).map(headers -> headers.headers(key))
-				.map(Iterable::iterator).filter(Iterator::hasNext).map(Iterator::next).map(Header::value)
-				.map(String::new).orElse(null);
+		if (carrier == null || carrier.headers() == null) {
+			return null;
+		}
+		for (Header header : carrier.headers()) {
+			if (header.key().equals(key)) {
+				byte[] value = header.value();
+				return value != null ? HeaderIndex.decode(value) : null;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void index(ConsumerRecord<?, ?> carrier, HeaderIndex<ConsumerRecord<?, ?>> index) {
+		if (carrier.headers() == null) {
+			return;
+		}
+		for (Header header : carrier.headers()) {
+			index.put(header.key(), header.value());
+		}
 	}
 
 }
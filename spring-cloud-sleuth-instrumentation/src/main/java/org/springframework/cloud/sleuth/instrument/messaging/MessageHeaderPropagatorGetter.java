@@ -16,7 +16,6 @@
 
 package org.springframework.cloud.sleuth.instrument.messaging;
 
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -24,6 +23,7 @@ import java.util.Set;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.cloud.sleuth.internal.HeaderIndex;
 import org.springframework.cloud.sleuth.propagation.Propagator;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.messaging.support.NativeMessageHeaderAccessor;
@@ -34,11 +34,14 @@ import org.springframework.util.StringUtils;
  *
  * This always sets native headers in defence of STOMP issues discussed <a href=
  * "https://github.com/spring-cloud/spring-cloud-sleuth/issues/716#issuecomment-337523705">here</a>.
+ * When wrapped in a {@link HeaderIndex} the headers of a message are read once per
+ * extraction.
  *
  * @author Marcin Grzejszczak
  * @since 3.0.0
  */
-public class MessageHeaderPropagatorGetter implements Propagator.Getter<MessageHeaderAccessor> {
+public class MessageHeaderPropagatorGetter
+		implements Propagator.Getter<MessageHeaderAccessor>, HeaderIndex.Indexer<MessageHeaderAccessor> {
 
 	private static final Log log = LogFactory.getLog(MessageHeaderPropagatorGetter.class);
 
@@ -59,33 +62,34 @@ public class MessageHeaderPropagatorGetter implements Propagator.Getter<MessageH
 	}
 
 	private String doGet(MessageHeaderAccessor accessor, String key) {
-		if (accessor instanceof NativeMessageHeaderAccessor) {
-			NativeMessageHeaderAccessor nativeAccessor = (NativeMessageHeaderAccessor) accessor;
-			Map<String, List<String>> nativeHeadersMap = nativeAccessor.toNativeHeaderMap();
-			if (!nativeHeadersMap.isEmpty()) {
-				return getFromNativeHeaders(nativeHeadersMap, key);
-			}
-		}
-		else {
-			Object nativeHeaders = accessor.getHeader(NativeMessageHeaderAccessor.NATIVE_HEADERS);
-			if (nativeHeaders instanceof Map) {
-				Map nativeHeadersMap = (Map) nativeHeaders;
-				if (!nativeHeadersMap.isEmpty()) {
-					return getFromNativeHeaders(nativeHeadersMap, key);
-				}
-			}
+		Map nativeHeadersMap = nativeHeaders(accessor);
+		if (nativeHeadersMap != null) {
+			return getFromNativeHeaders(nativeHeadersMap, key);
 		}
 		Set<Map.Entry<String, Object>> headerEntries = accessor.getMessageHeaders().entrySet();
 		return getFromHeaders(headerEntries, key);
 	}
 
+	/**
+	 * Reads the native headers without copying them, as opposed to
+	 * {@link NativeMessageHeaderAccessor#toNativeHeaderMap()}.
+	 * @return native headers or {@code null} when there are none
+	 */
+	private Map nativeHeaders(MessageHeaderAccessor accessor) {
+		Object nativeHeaders = accessor.getHeader(NativeMessageHeaderAccessor.NATIVE_HEADERS);
+		if (nativeHeaders instanceof Map && !((Map) nativeHeaders).isEmpty()) {
+			return (Map) nativeHeaders;
+		}
+		return null;
+	}
+
 	private String getFromHeaders(Set<Map.Entry<String, Object>> headerEntries, String key) {
 		for (Map.Entry<String, Object> entry : headerEntries) {
 			if (entry.getKey().equalsIgnoreCase(key)) {
 				Object result = entry.getValue();
 				if (result != null) {
 					if (result instanceof byte[]) {
-						return new String((byte[]) result, StandardCharsets.UTF_8);
+						return HeaderIndex.decode((byte[]) result);
 					}
 					return result.toString();
 				}
@@ -110,6 +114,46 @@ public class MessageHeaderPropagatorGetter implements Propagator.Getter<MessageH
 		return null;
 	}
 
+	/**
+	 * Puts the raw values in the index, they're converted to text only when looked up.
+	 */
+	@Override
+	public void index(MessageHeaderAccessor accessor, HeaderIndex<MessageHeaderAccessor> index) {
+		try {
+			Map<?, ?> nativeHeadersMap = nativeHeaders(accessor);
+			if (nativeHeadersMap != null) {
+				for (Map.Entry<?, ?> entry : nativeHeadersMap.entrySet()) {
+					if (entry.getKey() instanceof String) {
+						Object result = entry.getValue();
+						index.put((String) entry.getKey(),
+								result instanceof List && !((List) result).isEmpty() ? ((List) result).get(0) : null);
+					}
+				}
+				return;
+			}
+			for (Map.Entry<String, Object> entry : accessor.getMessageHeaders().entrySet()) {
+				if (entry.getValue() != null) {
+					index.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+		catch (Exception ex) {
+			if (log.isDebugEnabled()) {
+				log.debug("An exception happened when we tried to index the message headers", ex);
+			}
+		}
+	}
+
+	@Override
+	public boolean ignoreCase() {
+		return true;
+	}
+
+	@Override
+	public boolean ignoreBlankValues() {
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		return "MessageHeaderPropagatorGetter{}";
@@ -29,6 +29,7 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.internal.HeaderIndex;
 import org.springframework.cloud.sleuth.internal.SpanNameUtil;
 import org.springframework.cloud.sleuth.propagation.Propagator;
 import org.springframework.core.ResolvableType;
@@ -150,7 +151,7 @@ class TraceMessageHandler {
 	MessageAndSpans wrapInputMessage(Message<?> message, String destinationName) {
 		MessageHeaderAccessor headers = mutableHeaderAccessor(message);
 		Span.Builder consumerSpanBuilder = SleuthMessagingSpan.MESSAGING_SPAN
-				.wrap(this.propagator.extract(headers, this.extractor));
+				.wrap(this.propagator.extract(headers, HeaderIndex.of(headers, this.extractor)));
 		Span consumerSpan = consumerSpan(destinationName, consumerSpanBuilder, message);
 		if (log.isDebugEnabled()) {
 			log.debug("Built a consumer span " + consumerSpan);
@@ -190,7 +191,7 @@ class TraceMessageHandler {
 		if (span != null) {
 			return span;
 		}
-		return this.propagator.extract(headers, this.extractor).start();
+		return this.propagator.extract(headers, HeaderIndex.of(headers, this.extractor)).start();
 	}
 
 	private void addTags(Span.Builder result, String destinationName) {
@@ -25,6 +25,7 @@ import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.SpanAndScope;
 import org.springframework.cloud.sleuth.ThreadLocalSpan;
 import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.internal.HeaderIndex;
 import org.springframework.cloud.sleuth.propagation.Propagator;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -131,7 +132,7 @@ public final class TracingChannelInterceptor implements ExecutorChannelIntercept
 		Message<?> retrievedMessage = getMessage(message);
 		log.debug(() -> "Received a message in pre-send " + retrievedMessage);
 		MessageHeaderAccessor headers = mutableHeaderAccessor(retrievedMessage);
-		Span.Builder spanBuilder = this.propagator.extract(headers, this.extractor);
+		Span.Builder spanBuilder = this.propagator.extract(headers, HeaderIndex.of(headers, this.extractor));
 		MessageHeaderPropagatorSetter.removeAnyTraceHeaders(headers, this.propagator.fields());
 		spanBuilder = spanBuilder.kind(Span.Kind.PRODUCER);
 		spanBuilder = this.messageSpanCustomizer.customizeSend(spanBuilder, message, channel)
@@ -221,7 +222,7 @@ public final class TracingChannelInterceptor implements ExecutorChannelIntercept
 	public Message<?> postReceive(Message<?> message, MessageChannel channel) {
 		MessageHeaderAccessor headers = mutableHeaderAccessor(message);
 		log.debug(() -> "Received a message in post-receive " + message);
-		Span result = this.propagator.extract(headers, this.extractor).start();
+		Span result = this.propagator.extract(headers, HeaderIndex.of(headers, this.extractor)).start();
 		log.debug(() -> "Extracted result from headers " + result);
 		Span span = consumerSpanReceive(message, channel, headers, result);
 		setSpanInScope(span);
@@ -284,7 +285,7 @@ public final class TracingChannelInterceptor implements ExecutorChannelIntercept
 	}
 
 	private Span consumerSpan(Message<?> message, MessageChannel channel, MessageHeaderAccessor headers) {
-		Span.Builder consumerSpanBuilder = this.propagator.extract(headers, this.extractor);
+		Span.Builder consumerSpanBuilder = this.propagator.extract(headers, HeaderIndex.of(headers, this.extractor));
 		if (log.isDebugEnabled()) {
 			log.debug("Extracted result from headers - will finish it immediately " + consumerSpanBuilder);
 		}
@@ -16,7 +16,11 @@
 
 package org.springframework.cloud.sleuth.instrument.mongodb;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.mongodb.MongoClientSettings;
 
@@ -35,14 +39,30 @@ public class TraceMongoClientSettingsBuilderCustomizer implements MongoClientSet
 
 	private final List<TraceMongoSpanCustomizer> customizers;
 
+	private final Set<String> foldedCommands;
+
 	public TraceMongoClientSettingsBuilderCustomizer(Tracer tracer, List<TraceMongoSpanCustomizer> customizers) {
+		this(tracer, customizers, Collections.emptySet());
+	}
+
+	/**
+	 * @param tracer tracer
+	 * @param customizers customizers of the command spans
+	 * @param foldedCommands names of the commands that don't get a span of their own but
+	 * are part of the parent span, e.g. {@code getMore}
+	 * @since 3.1.11
+	 */
+	public TraceMongoClientSettingsBuilderCustomizer(Tracer tracer, List<TraceMongoSpanCustomizer> customizers,
+			Collection<String> foldedCommands) {
 		this.tracer = tracer;
 		this.customizers = customizers;
+		this.foldedCommands = new LinkedHashSet<>(foldedCommands);
 	}
 
 	@Override
 	public void customize(MongoClientSettings.Builder clientSettingsBuilder) {
-		clientSettingsBuilder.addCommandListener(new TraceMongoCommandListener(this.tracer, this.customizers));
+		clientSettingsBuilder
+				.addCommandListener(new TraceMongoCommandListener(this.tracer, this.customizers, this.foldedCommands));
 	}
 
 }
@@ -17,6 +17,7 @@
 package org.springframework.cloud.sleuth.instrument.mongodb;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -31,10 +32,10 @@ import org.apache.commons.logging.LogFactory;
 import org.bson.BsonDocument;
 import org.bson.BsonValue;
 
-import org.springframework.cloud.sleuth.CurrentTraceContext;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.TraceContext;
 import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.internal.BoundedCache;
 import org.springframework.lang.Nullable;
 
 /**
@@ -53,16 +54,25 @@ final class TraceMongoCommandListener implements CommandListener {
 					"insert", "update", "collMod", "compact", "convertToCapped", "create", "createIndexes", "drop",
 					"dropIndexes", "killCursors", "listIndexes", "reIndex"));
 
+	private static final int NAMES_CACHE_SIZE = 256;
+
 	private final Tracer tracer;
 
-	private final CurrentTraceContext currentTraceContext;
+	private final TraceMongoSpanCustomizer[] customizers;
+
+	private final Set<String> foldedCommands;
 
-	private final List<TraceMongoSpanCustomizer> customizers;
+	private final BoundedCache<String, String> remoteServiceNames = new BoundedCache<>(NAMES_CACHE_SIZE,
+			databaseName -> "mongodb-" + databaseName);
 
 	TraceMongoCommandListener(Tracer tracer, List<TraceMongoSpanCustomizer> customizers) {
+		this(tracer, customizers, Collections.emptySet());
+	}
+
+	TraceMongoCommandListener(Tracer tracer, List<TraceMongoSpanCustomizer> customizers, Set<String> foldedCommands) {
 		this.tracer = tracer;
-		this.currentTraceContext = tracer.currentTraceContext();
-		this.customizers = customizers;
+		this.customizers = customizers.toArray(new TraceMongoSpanCustomizer[0]);
+		this.foldedCommands = foldedCommands;
 	}
 
 	@Override
@@ -75,32 +85,38 @@ final class TraceMongoCommandListener implements CommandListener {
 			return; // don't trace commands like "endSessions"
 		}
 
+		String commandName = event.getCommandName();
+		if (this.foldedCommands.contains(commandName)) {
+			return; // part of the parent span, e.g. "getMore" of a cursor
+		}
+
 		RequestContext requestContext = event.getRequestContext();
 		if (requestContext == null) {
 			return;
 		}
-		Span parent = spanFromContext(this.tracer, this.currentTraceContext, requestContext);
+		TraceContext parent = parentFromContext(requestContext);
 		if (log.isDebugEnabled()) {
-			log.debug("Found the following span passed from the mongo context [" + parent + "]");
+			log.debug("Found the following trace context passed from the mongo context [" + parent + "]");
 		}
 		if (parent == null) {
 			return;
 		}
 		Span.Builder childSpanBuilder = this.tracer.spanBuilder();
-		childSpanBuilder.setParent(parent.context());
+		childSpanBuilder.setParent(parent);
 
-		String commandName = event.getCommandName();
 		BsonDocument command = event.getCommand();
 		String collectionName = getCollectionName(command, commandName);
 
 		childSpanBuilder.name(getSpanName(commandName, collectionName)).kind(Span.Kind.CLIENT)
-				.remoteServiceName("mongodb-" + databaseName).tag("mongodb.command", commandName);
+				.remoteServiceName(this.remoteServiceNames.get(databaseName)).tag("mongodb.command", commandName);
 
 		if (collectionName != null) {
 			childSpanBuilder.tag("mongodb.collection", collectionName);
 		}
 
-		this.customizers.forEach(customizer -> customizer.customizeCommandStartSpan(event, childSpanBuilder));
+		for (TraceMongoSpanCustomizer customizer : this.customizers) {
+			customizer.customizeCommandStartSpan(event, childSpanBuilder);
+		}
 
 		Span childSpan = childSpanBuilder.start();
 		// TODO: What about retries? We might override the parent span
@@ -112,23 +128,21 @@ final class TraceMongoCommandListener implements CommandListener {
 		}
 	}
 
-	private static Span spanFromContext(Tracer tracer, CurrentTraceContext currentTraceContext,
-			RequestContext context) {
+	@Nullable
+	private static TraceContext parentFromContext(RequestContext context) {
 		Span span = context.getOrDefault(Span.class, null);
 		if (span != null) {
 			if (log.isDebugEnabled()) {
 				log.debug("Found a span in mongo context [" + span + "]");
 			}
-			return span;
+			return span.context();
 		}
 		TraceContext traceContext = context.getOrDefault(TraceContext.class, null);
 		if (traceContext != null) {
-			try (CurrentTraceContext.Scope scope = currentTraceContext.maybeScope(traceContext)) {
-				if (log.isDebugEnabled()) {
-					log.debug("Found a trace context in mongo context [" + traceContext + "]");
-				}
-				return tracer.currentSpan();
+			if (log.isDebugEnabled()) {
+				log.debug("Found a trace context in mongo context [" + traceContext + "]");
 			}
+			return traceContext;
 		}
 		if (log.isDebugEnabled()) {
 			log.debug("No span was found - will not create any child spans");
@@ -138,6 +152,9 @@ final class TraceMongoCommandListener implements CommandListener {
 
 	@Override
 	public void commandSucceeded(CommandSucceededEvent event) {
+		if (this.foldedCommands.contains(event.getCommandName())) {
+			return;
+		}
 		RequestContext requestContext = event.getRequestContext();
 		if (requestContext == null) {
 			return;
@@ -156,6 +173,9 @@ final class TraceMongoCommandListener implements CommandListener {
 
 	@Override
 	public void commandFailed(CommandFailedEvent event) {
+		if (this.foldedCommands.contains(event.getCommandName())) {
+			return;
+		}
 		RequestContext requestContext = event.getRequestContext();
 		if (requestContext == null) {
 			return;
@@ -32,6 +32,7 @@ import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.docs.AssertingSpan;
 import org.springframework.cloud.sleuth.docs.AssertingSpanBuilder;
 import org.springframework.cloud.sleuth.internal.ContextUtil;
+import org.springframework.cloud.sleuth.internal.SqlStatementParser;
 import org.springframework.util.StringUtils;
 
 /**
@@ -50,6 +51,8 @@ public class TraceProxyExecutionListener implements ProxyExecutionListener {
 
 	private Tracer tracer;
 
+	private SqlStatementParser sqlStatementParser;
+
 	public TraceProxyExecutionListener(BeanFactory beanFactory, ConnectionFactory connectionFactory) {
 		this.beanFactory = beanFactory;
 		this.connectionFactory = connectionFactory;
@@ -100,9 +103,10 @@ public class TraceProxyExecutionListener implements ProxyExecutionListener {
 	}
 
 	private void tagQueries(QueryExecutionInfo executionInfo, AssertingSpan span) {
+		SqlStatementParser parser = sqlStatementParser();
 		int i = 0;
 		for (QueryInfo queryInfo : executionInfo.getQueries()) {
-			span.tag(String.format(SleuthR2dbcSpan.Tags.QUERY.getKey(), i), queryInfo.getQuery());
+			span.tag(String.format(SleuthR2dbcSpan.Tags.QUERY.getKey(), i), parser.tagValue(queryInfo.getQuery()));
 			i = i + 1;
 		}
 	}
@@ -156,4 +160,12 @@ public class TraceProxyExecutionListener implements ProxyExecutionListener {
 		return this.tracer;
 	}
 
+	private SqlStatementParser sqlStatementParser() {
+		if (this.sqlStatementParser == null) {
+			this.sqlStatementParser = this.beanFactory.getBeanProvider(SqlStatementParser.class)
+					.getIfAvailable(() -> SqlStatementParser.DEFAULT);
+		}
+		return this.sqlStatementParser;
+	}
+
 }
@@ -23,6 +23,7 @@ import org.reactivestreams.Processor;
 import org.reactivestreams.Publisher;
 import reactor.core.Fuseable;
 import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
 import reactor.util.annotation.Nullable;
 
 import org.springframework.util.Assert;
@@ -108,6 +109,25 @@ final class ReactorHooksHelper {
 	 * publisher and not SYNC publisher.
 	 */
 	public static boolean shouldDecorate(Publisher<?> p) {
+		return shouldDecorate(p, false);
+	}
+
+	/**
+	 * Determines whether to decorate input publisher with
+	 * {@code ScopePassingSpanOperator} when only asynchronous boundaries are
+	 * instrumented. Publishers that run on a Reactor {@code Scheduler} (e.g.
+	 * {@code publishOn}, {@code subscribeOn} or {@code delay}) are skipped, since their
+	 * thread hops are covered by the decorated queues and scheduled tasks.
+	 * @param p publisher to check
+	 * @return returns true if input publisher or one of its source publishers is
+	 * asynchronous but not driven by a scheduler and there is no
+	 * {@link TraceContextPropagator} or scheduler driven publisher in between.
+	 */
+	public static boolean shouldDecorateBoundary(Publisher<?> p) {
+		return shouldDecorate(p, true);
+	}
+
+	private static boolean shouldDecorate(Publisher<?> p, boolean skipSchedulerBoundaries) {
 		Assert.notNull(p, "source Publisher is null");
 		Publisher<?> current = p;
 		while (true) {
@@ -121,6 +141,9 @@ final class ReactorHooksHelper {
 			if (isTraceContextPropagator(current)) {
 				return false;
 			}
+			if (skipSchedulerBoundaries && runsOnScheduler(current)) {
+				return false;
+			}
 
 			if (!isSync(current)) {
 				boolean isLifter = getLifterName(current) != null;
@@ -138,6 +161,19 @@ final class ReactorHooksHelper {
 		}
 	}
 
+	/**
+	 * Determines whether to decorate the last publisher of a chain with a scope passing
+	 * operator. A chain that already ends with a {@link TraceContextPropagator} or a
+	 * scope passing lifter is left as is, so that adjacent Sleuth lifters are merged into
+	 * one.
+	 * @param p publisher to check
+	 * @return {@code true} if the publisher should be decorated
+	 */
+	public static boolean shouldDecorateLast(Publisher<?> p) {
+		Assert.notNull(p, "source Publisher is null");
+		return !(p instanceof Fuseable.ScalarCallable) && !isTraceContextPropagator(p);
+	}
+
 	/**
 	 * xxxLift Publishers get their RunStyle from source Publisher. So need to check
 	 * whether current chain was decorated with scope passing operator.
@@ -175,6 +211,10 @@ final class ReactorHooksHelper {
 		return current instanceof TraceContextPropagator || isScopePassingLifter(getLifterName(current));
 	}
 
+	private static boolean runsOnScheduler(Publisher<?> p) {
+		return Scannable.from(p).scanUnsafe(Scannable.Attr.RUN_ON) instanceof Scheduler;
+	}
+
 	private static boolean isSourceProducer(Publisher<?> p) {
 		return sourceProducerClass.isInstance(p);
 	}
@@ -94,6 +94,21 @@ public abstract class ReactorSleuth {
 	// signature as it is simpler than explaining instanceof checks.
 	public static <T> Function<? super Publisher<T>, ? extends Publisher<T>> scopePassingSpanOperator(
 			ConfigurableApplicationContext springContext) {
+		return scopePassingSpanOperator(springContext, false);
+	}
+
+	/**
+	 * Return a span operator pointcut given a Tracing.
+	 * @param springContext the Spring context.
+	 * @param elideScopes when {@code true} no scope is opened for signals that arrive on
+	 * a thread where the parent context is already current
+	 * @param <T> an arbitrary type that is left unchanged by the span operator
+	 * @return a new lazy span operator pointcut
+	 * @see #scopePassingSpanOperator(ConfigurableApplicationContext)
+	 * @since 3.1.11
+	 */
+	public static <T> Function<? super Publisher<T>, ? extends Publisher<T>> scopePassingSpanOperator(
+			ConfigurableApplicationContext springContext, boolean elideScopes) {
 		if (log.isTraceEnabled()) {
 			log.trace("Scope passing operator [" + springContext + "]");
 		}
@@ -105,8 +120,14 @@ public abstract class ReactorSleuth {
 
 		LazyBean<Tracer> lazyTracer = LazyBean.create(springContext, Tracer.class);
 
-		return Operators.liftPublisher(p -> !(p instanceof Fuseable.ScalarCallable),
-				(BiFunction) liftFunction(springContext, lazyCurrentTraceContext, lazyTracer));
+		BiFunction<Publisher, ? super CoreSubscriber<? super T>, ? extends CoreSubscriber<? super T>> lifter = liftFunction(
+				springContext, lazyCurrentTraceContext, lazyTracer, elideScopes);
+		if (elideScopes) {
+			@SuppressWarnings("rawtypes")
+			Predicate<Publisher> shouldDecorate = ReactorHooksHelper::shouldDecorateLast;
+			return Operators.liftPublisher(shouldDecorate, named(ReactorHooksHelper.LIFTER_NAME, lifter));
+		}
+		return Operators.liftPublisher(p -> !(p instanceof Fuseable.ScalarCallable), lifter);
 	}
 
 	/**
@@ -119,6 +140,47 @@ public abstract class ReactorSleuth {
 	 */
 	public static <T> Function<? super Publisher<T>, ? extends Publisher<T>> onEachOperatorForOnEachInstrumentation(
 			ConfigurableApplicationContext springContext) {
+		return onEachOperatorForOnEachInstrumentation(springContext, false);
+	}
+
+	/**
+	 * Creates scope passing span operator which applies only to not
+	 * {@code Scannable.Attr.RunStyle.SYNC} {@code Publisher}s. Used by
+	 * {@code InstrumentationType#DECORATE_ON_EACH}
+	 * @param springContext the Spring context.
+	 * @param elideScopes when {@code true} no scope is opened for signals that arrive on
+	 * a thread where the parent context is already current
+	 * @param <T> an arbitrary type that is left unchanged by the span operator.
+	 * @return operator to apply to {@link Hooks#onEachOperator(Function)}.
+	 * @since 3.1.11
+	 */
+	public static <T> Function<? super Publisher<T>, ? extends Publisher<T>> onEachOperatorForOnEachInstrumentation(
+			ConfigurableApplicationContext springContext, boolean elideScopes) {
+		return onEachOperator(springContext, elideScopes, ReactorHooksHelper::shouldDecorate);
+	}
+
+	/**
+	 * Creates scope passing span operator which applies only to asynchronous
+	 * {@code Publisher}s that do not run on a Reactor {@code Scheduler}. Used by
+	 * {@code InstrumentationType#DECORATE_BOUNDARIES}, together with
+	 * {@link #scopePassingOnScheduleHook(ConfigurableApplicationContext)} and
+	 * {@link #traceQueue(ConfigurableApplicationContext, Queue)} that cover the scheduler
+	 * hops.
+	 * @param springContext the Spring context.
+	 * @param elideScopes when {@code true} no scope is opened for signals that arrive on
+	 * a thread where the parent context is already current
+	 * @param <T> an arbitrary type that is left unchanged by the span operator.
+	 * @return operator to apply to {@link Hooks#onEachOperator(Function)}.
+	 * @since 3.1.11
+	 */
+	public static <T> Function<? super Publisher<T>, ? extends Publisher<T>> onEachOperatorForBoundaryInstrumentation(
+			ConfigurableApplicationContext springContext, boolean elideScopes) {
+		return onEachOperator(springContext, elideScopes, ReactorHooksHelper::shouldDecorateBoundary);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static <T> Function<? super Publisher<T>, ? extends Publisher<T>> onEachOperator(
+			ConfigurableApplicationContext springContext, boolean elideScopes, Predicate<Publisher> shouldDecorate) {
 		if (log.isTraceEnabled()) {
 			log.trace("Scope passing operator [" + springContext + "]");
 		}
@@ -130,18 +192,15 @@ public abstract class ReactorSleuth {
 
 		LazyBean<Tracer> lazyTracer = LazyBean.create(springContext, Tracer.class);
 
-		@SuppressWarnings("rawtypes")
-		Predicate<Publisher> shouldDecorate = ReactorHooksHelper::shouldDecorate;
-		@SuppressWarnings("rawtypes")
 		BiFunction<Publisher, ? super CoreSubscriber<? super T>, ? extends CoreSubscriber<? super T>> lifter = liftFunction(
-				springContext, lazyCurrentTraceContext, lazyTracer);
+				springContext, lazyCurrentTraceContext, lazyTracer, elideScopes);
 
 		return Operators.liftPublisher(shouldDecorate, named(ReactorHooksHelper.LIFTER_NAME, lifter));
 	}
 
 	static <O> BiFunction<Publisher, ? super CoreSubscriber<? super O>, ? extends CoreSubscriber<? super O>> liftFunction(
 			ConfigurableApplicationContext springContext, LazyBean<CurrentTraceContext> lazyCurrentTraceContext,
-			LazyBean<Tracer> lazyTracer) {
+			LazyBean<Tracer> lazyTracer, boolean elideScopes) {
 		return (p, sub) -> {
 			if (!springContext.isActive() || !springContext.isRunning()) {
 				if (log.isTraceEnabled()) {
@@ -196,7 +255,7 @@ public abstract class ReactorSleuth {
 						+ "] and name [" + name(sub) + "]");
 			}
 
-			return new ScopePassingSpanSubscriber<>(sub, context, currentTraceContext, parent);
+			return new ScopePassingSpanSubscriber<>(sub, context, currentTraceContext, parent, elideScopes);
 		};
 	}
 
@@ -251,12 +310,28 @@ public abstract class ReactorSleuth {
 	 */
 	public static <T> Function<? super Publisher<T>, ? extends Publisher<T>> onLastOperatorForOnEachInstrumentation(
 			ConfigurableApplicationContext springContext) {
+		return onLastOperatorForOnEachInstrumentation(springContext, false);
+	}
+
+	/**
+	 * Creates tracing context capturing reactor operator. Used by
+	 * {@code InstrumentationType#DECORATE_ON_EACH}.
+	 * @param springContext the Spring context.
+	 * @param elideScopes when {@code true} no scope is opened for signals that arrive on
+	 * a thread where the parent context is already current
+	 * @param <T> an arbitrary type that is left unchanged by the span operator.
+	 * @return operator to apply to {@link Hooks#onLastOperator(Function)} for
+	 * {@code InstrumentationType#DECORATE_ON_EACH}
+	 * @since 3.1.11
+	 */
+	public static <T> Function<? super Publisher<T>, ? extends Publisher<T>> onLastOperatorForOnEachInstrumentation(
+			ConfigurableApplicationContext springContext, boolean elideScopes) {
 		LazyBean<CurrentTraceContext> lazyCurrentTraceContext = LazyBean.create(springContext,
 				CurrentTraceContext.class);
 		LazyBean<Tracer> lazyTracer = LazyBean.create(springContext, Tracer.class);
 
 		BiFunction<Publisher, ? super CoreSubscriber<? super T>, ? extends CoreSubscriber<? super T>> scopePassingSpanSubscriber = liftFunction(
-				springContext, lazyCurrentTraceContext, lazyTracer);
+				springContext, lazyCurrentTraceContext, lazyTracer, elideScopes);
 
 		BiFunction<Publisher, ? super CoreSubscriber<? super T>, ? extends CoreSubscriber<? super T>> skipIfNoTraceCtx = (
 				pub, sub) -> {
@@ -28,7 +28,9 @@ import org.springframework.cloud.sleuth.TraceContext;
 import org.springframework.lang.Nullable;
 
 /**
- * A trace representation of the {@link Subscriber} that always continues a span.
+ * A trace representation of the {@link Subscriber} that always continues a span. When
+ * scope elision is enabled, signals that arrive on a thread where the parent context is
+ * already current are passed on without opening a new scope.
  *
  * @param <T> subscription type
  * @author Marcin Grzejszczak
@@ -46,11 +48,19 @@ final class ScopePassingSpanSubscriber<T> implements SpanSubscription<T>, Scanna
 
 	final TraceContext parent;
 
+	private final boolean elideScopes;
+
 	private Subscription s;
 
 	ScopePassingSpanSubscriber(Subscriber<? super T> subscriber, Context ctx, CurrentTraceContext currentTraceContext,
 			@Nullable TraceContext parent) {
+		this(subscriber, ctx, currentTraceContext, parent, false);
+	}
+
+	ScopePassingSpanSubscriber(Subscriber<? super T> subscriber, Context ctx, CurrentTraceContext currentTraceContext,
+			@Nullable TraceContext parent, boolean elideScopes) {
 		this.subscriber = subscriber;
+		this.elideScopes = elideScopes;
 		this.currentTraceContext = currentTraceContext;
 		this.parent = ReactorSleuth.getParentTraceContext(ctx, parent);
 		Context context = this.parent != null && !this.parent.equals(ctx.getOrDefault(TraceContext.class, null))
@@ -71,6 +81,10 @@ final class ScopePassingSpanSubscriber<T> implements SpanSubscription<T>, Scanna
 
 	@Override
 	public void request(long n) {
+		if (isParentCurrent()) {
+			this.s.request(n);
+			return;
+		}
 		try (CurrentTraceContext.Scope scope = this.currentTraceContext.maybeScope(this.parent)) {
 			this.s.request(n);
 		}
@@ -78,6 +92,10 @@ final class ScopePassingSpanSubscriber<T> implements SpanSubscription<T>, Scanna
 
 	@Override
 	public void cancel() {
+		if (isParentCurrent()) {
+			this.s.cancel();
+			return;
+		}
 		try (CurrentTraceContext.Scope scope = this.currentTraceContext.maybeScope(this.parent)) {
 			this.s.cancel();
 		}
@@ -85,6 +103,10 @@ final class ScopePassingSpanSubscriber<T> implements SpanSubscription<T>, Scanna
 
 	@Override
 	public void onNext(T o) {
+		if (isParentCurrent()) {
+			this.subscriber.onNext(o);
+			return;
+		}
 		try (CurrentTraceContext.Scope scope = this.currentTraceContext.maybeScope(this.parent)) {
 			this.subscriber.onNext(o);
 		}
@@ -92,6 +114,10 @@ final class ScopePassingSpanSubscriber<T> implements SpanSubscription<T>, Scanna
 
 	@Override
 	public void onError(Throwable throwable) {
+		if (isParentCurrent()) {
+			this.subscriber.onError(throwable);
+			return;
+		}
 		try (CurrentTraceContext.Scope scope = this.currentTraceContext.maybeScope(this.parent)) {
 			this.subscriber.onError(throwable);
 		}
@@ -99,11 +125,19 @@ final class ScopePassingSpanSubscriber<T> implements SpanSubscription<T>, Scanna
 
 	@Override
 	public void onComplete() {
+		if (isParentCurrent()) {
+			this.subscriber.onComplete();
+			return;
+		}
 		try (CurrentTraceContext.Scope scope = this.currentTraceContext.maybeScope(this.parent)) {
 			this.subscriber.onComplete();
 		}
 	}
 
+	private boolean isParentCurrent() {
+		return this.elideScopes && this.parent != null && this.currentTraceContext.isCurrent(this.parent);
+	}
+
 	@Override
 	public Context currentContext() {
 		return this.context;
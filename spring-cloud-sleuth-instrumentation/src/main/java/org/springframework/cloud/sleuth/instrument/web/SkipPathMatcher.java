@@ -0,0 +1,372 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.web;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * Matches request paths against a skip {@link Pattern} without running the whole regular
+ * expression for each path. Top level alternatives that are built only of literals,
+ * groups of alternatives, optional groups and {@code .} or {@code .*} wildcards (e.g.
+ * {@code /swagger.*}, {@code .*\.png} or the actuator endpoints pattern) are expanded
+ * into tries of literal prefixes and suffixes. The remaining alternatives fall back to a
+ * regular expression. Nothing is cached per path, so the matcher holds no lock and
+ * doesn't grow with the number of distinct paths.
+ *
+ * @since 3.1.11
+ */
+public final class SkipPathMatcher {
+
+	private static final int MAX_EXPANSIONS = 256;
+
+	private static final char ANY = '\u0000';
+
+	private static final char ANY_STAR = '\u0001';
+
+	private final Pattern pattern;
+
+	private final Node prefixes = new Node();
+
+	private final Node suffixes = new Node();
+
+	private final Pattern fallback;
+
+	public SkipPathMatcher(Pattern pattern) {
+		this.pattern = pattern;
+		this.fallback = compile(pattern);
+	}
+
+	public Pattern getPattern() {
+		return this.pattern;
+	}
+
+	/**
+	 * @param path request path
+	 * @return {@code true} when the whole path matches the skip pattern
+	 */
+	public boolean matches(String path) {
+		if (this.prefixes.matches(path, 0, false) || this.suffixes.matches(path, 0, true)) {
+			return true;
+		}
+		return this.fallback != null && this.fallback.matcher(path).matches();
+	}
+
+	private Pattern compile(Pattern pattern) {
+		String regex = pattern.pattern();
+		if (pattern.flags() != 0 || regex.contains("(?") || regex.contains("\\Q")) {
+			// flags can change the meaning of any alternative
+			return pattern;
+		}
+		List<String> unsupported = new ArrayList<>();
+		for (String alternative : topLevelAlternatives(regex)) {
+			List<String> expanded = expand(alternative);
+			if (expanded == null) {
+				unsupported.add(alternative);
+				continue;
+			}
+			for (String tokens : expanded) {
+				if (!add(tokens)) {
+					unsupported.add(toRegex(tokens));
+				}
+			}
+		}
+		if (unsupported.isEmpty()) {
+			return null;
+		}
+		StringJoiner joiner = new StringJoiner("|");
+		unsupported.forEach(joiner::add);
+		return Pattern.compile(joiner.toString());
+	}
+
+	private boolean add(String tokens) {
+		int firstStar = tokens.indexOf(ANY_STAR);
+		if (firstStar == -1) {
+			this.prefixes.add(tokens, false);
+			return true;
+		}
+		int lastStar = tokens.lastIndexOf(ANY_STAR);
+		if (firstStar != lastStar) {
+			return false;
+		}
+		if (firstStar == tokens.length() - 1) {
+			this.prefixes.add(tokens.substring(0, firstStar), true);
+			return true;
+		}
+		if (firstStar == 0) {
+			this.suffixes.add(new StringBuilder(tokens.substring(1)).reverse().toString(), true);
+			return true;
+		}
+		return false;
+	}
+
+	private static String toRegex(String tokens) {
+		StringBuilder regex = new StringBuilder();
+		StringBuilder literal = new StringBuilder();
+		for (int i = 0; i < tokens.length(); i++) {
+			char c = tokens.charAt(i);
+			if (c == ANY || c == ANY_STAR) {
+				if (literal.length() > 0) {
+					regex.append(Pattern.quote(literal.toString()));
+					literal.setLength(0);
+				}
+				regex.append(c == ANY ? "." : ".*");
+			}
+			else {
+				literal.append(c);
+			}
+		}
+		if (literal.length() > 0) {
+			regex.append(Pattern.quote(literal.toString()));
+		}
+		return regex.toString();
+	}
+
+	private static List<String> topLevelAlternatives(String regex) {
+		List<String> alternatives = new ArrayList<>();
+		int depth = 0;
+		boolean inClass = false;
+		int start = 0;
+		for (int i = 0; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			if (c == '\\') {
+				i++;
+			}
+			else if (inClass) {
+				inClass = c != ']';
+			}
+			else if (c == '[') {
+				inClass = true;
+			}
+			else if (c == '(') {
+				depth++;
+			}
+			else if (c == ')') {
+				depth--;
+			}
+			else if (c == '|' && depth == 0) {
+				alternatives.add(regex.substring(start, i));
+				start = i + 1;
+			}
+		}
+		alternatives.add(regex.substring(start));
+		return alternatives;
+	}
+
+	/**
+	 * @param regex a single alternative
+	 * @return all the literal forms of the alternative, with {@link #ANY} and
+	 * {@link #ANY_STAR} standing for the wildcards, or {@code null} when the alternative
+	 * can't be expanded
+	 */
+	private static List<String> expand(String regex) {
+		Parser parser = new Parser(regex);
+		List<String> result = parser.alternation();
+		return parser.failed || parser.position != regex.length() ? null : result;
+	}
+
+	private static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+
+	/**
+	 * Recursive descent parser of the supported subset of regular expressions.
+	 */
+	private static final class Parser {
+
+		private final String regex;
+
+		private int position;
+
+		private boolean failed;
+
+		private Parser(String regex) {
+			this.regex = regex;
+		}
+
+		private List<String> alternation() {
+			List<String> result = new ArrayList<>(sequence());
+			while (!this.failed && this.position < this.regex.length() && this.regex.charAt(this.position) == '|') {
+				this.position++;
+				result.addAll(sequence());
+			}
+			return limit(result);
+		}
+
+		private List<String> sequence() {
+			List<String> result = Collections.singletonList("");
+			while (!this.failed && this.position < this.regex.length()) {
+				char c = this.regex.charAt(this.position);
+				if (c == '|' || c == ')') {
+					return result;
+				}
+				List<String> next;
+				if (c == '(') {
+					this.position++;
+					next = alternation();
+					if (this.failed || this.position >= this.regex.length()
+							|| this.regex.charAt(this.position) != ')') {
+						return fail();
+					}
+					this.position++;
+					if (peek() == '?') {
+						this.position++;
+						next = new ArrayList<>(next);
+						next.add("");
+					}
+				}
+				else if (c == '.') {
+					this.position++;
+					if (peek() == '*') {
+						this.position++;
+						next = Collections.singletonList(String.valueOf(ANY_STAR));
+					}
+					else {
+						next = Collections.singletonList(String.valueOf(ANY));
+					}
+				}
+				else if (c == '\\') {
+					if (this.position + 1 >= this.regex.length()
+							|| Character.isLetterOrDigit(this.regex.charAt(this.position + 1))) {
+						return fail();
+					}
+					next = Collections.singletonList(String.valueOf(this.regex.charAt(this.position + 1)));
+					this.position += 2;
+				}
+				else if ("[]{}*+?^$".indexOf(c) >= 0 || c == ANY || c == ANY_STAR) {
+					return fail();
+				}
+				else {
+					this.position++;
+					next = Collections.singletonList(String.valueOf(c));
+				}
+				if (isQuantifier(peek())) {
+					return fail();
+				}
+				result = product(result, next);
+			}
+			return result;
+		}
+
+		private List<String> product(List<String> left, List<String> right) {
+			List<String> result = new ArrayList<>(left.size() * right.size());
+			for (String l : left) {
+				for (String r : right) {
+					result.add(l + r);
+				}
+			}
+			return limit(result);
+		}
+
+		private List<String> limit(List<String> result) {
+			return result.size() > MAX_EXPANSIONS ? fail() : result;
+		}
+
+		private char peek() {
+			return this.position < this.regex.length() ? this.regex.charAt(this.position) : ANY;
+		}
+
+		private boolean isQuantifier(char c) {
+			return c == '*' || c == '+' || c == '?' || c == '{';
+		}
+
+		private List<String> fail() {
+			this.failed = true;
+			return Collections.emptyList();
+		}
+
+	}
+
+	/**
+	 * Trie node. The {@link #any} child stands for a single character wildcard.
+	 */
+	private static final class Node {
+
+		private final Map<Character, Node> children = new HashMap<>();
+
+		private Node any;
+
+		private boolean terminal;
+
+		private boolean matchesRest;
+
+		private void add(String tokens, boolean matchesRest) {
+			Node node = this;
+			for (int i = 0; i < tokens.length(); i++) {
+				char c = tokens.charAt(i);
+				if (c == ANY) {
+					if (node.any == null) {
+						node.any = new Node();
+					}
+					node = node.any;
+				}
+				else {
+					node = node.children.computeIfAbsent(c, character -> new Node());
+				}
+			}
+			if (matchesRest) {
+				node.matchesRest = true;
+			}
+			else {
+				node.terminal = true;
+			}
+		}
+
+		private boolean matches(String path, int index, boolean reversed) {
+			Node node = this;
+			for (int i = index; i < path.length(); i++) {
+				if (node.matchesRest && matchesRest(path, i, reversed)) {
+					return true;
+				}
+				char c = path.charAt(reversed ? path.length() - 1 - i : i);
+				Node child = node.children.get(c);
+				Node any = isLineTerminator(c) ? null : node.any;
+				if (child == null) {
+					if (any == null) {
+						return false;
+					}
+					node = any;
+				}
+				else if (any == null) {
+					node = child;
+				}
+				else {
+					return child.matches(path, i + 1, reversed) || any.matches(path, i + 1, reversed);
+				}
+			}
+			return node.terminal || node.matchesRest;
+		}
+
+		private static boolean matchesRest(String path, int index, boolean reversed) {
+			int from = reversed ? 0 : index;
+			int to = reversed ? path.length() - index : path.length();
+			for (int i = from; i < to; i++) {
+				if (isLineTerminator(path.charAt(i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
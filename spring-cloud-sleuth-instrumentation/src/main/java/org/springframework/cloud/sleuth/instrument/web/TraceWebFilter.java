@@ -95,11 +95,11 @@ public class TraceWebFilter implements WebFilter, Ordered, ApplicationContextAwa
 
 	@Override
 	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-		String uri = exchange.getRequest().getPath().pathWithinApplication().value();
 		Mono<Void> source = chain.filter(exchange);
 		boolean tracePresent = isTracePresent();
 		if (log.isDebugEnabled()) {
-			log.debug("Received a request to uri [" + uri + "]");
+			log.debug("Received a request to uri [" + exchange.getRequest().getPath().pathWithinApplication().value()
+					+ "]");
 		}
 		return new MonoWebFilterTrace(source, exchange, tracePresent, this, spanFromContextRetriever());
 	}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.internal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Cache of values computed from their keys, backed by a {@link ConcurrentHashMap} so that
+ * reads don't take a lock. Once it holds the max number of entries, adding a value
+ * evicts an entry that wasn't read recently. The eviction is an approximate LRU (the
+ * CLOCK algorithm): a read only marks its entry as referenced, and the eviction walks the
+ * entries in insertion order, giving referenced ones a second chance. Meant for the
+ * internal caches of Sleuth, e.g. SQL statements or span names. Do not use.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @since 3.1.11
+ */
+public final class BoundedCache<K, V> {
+
+	private final ConcurrentMap<K, Entry<V>> values = new ConcurrentHashMap<>();
+
+	// keys in the order the eviction visits them
+	private final Queue<K> clock = new ConcurrentLinkedQueue<>();
+
+	private final int maxSize;
+
+	private final Function<K, V> generator;
+
+	private final Consumer<K> evictionListener;
+
+	/**
+	 * @param maxSize max number of cached values, nothing is cached when {@code 0} or
+	 * less
+	 * @param generator computes the value of a key, must not return {@code null}
+	 */
+	public BoundedCache(int maxSize, Function<K, V> generator) {
+		this(maxSize, generator, key -> {
+		});
+	}
+
+	/**
+	 * @param maxSize max number of cached values, nothing is cached when {@code 0} or
+	 * less
+	 * @param generator computes the value of a key, must not return {@code null}
+	 * @param evictionListener called with the key of each evicted value
+	 */
+	public BoundedCache(int maxSize, Function<K, V> generator, Consumer<K> evictionListener) {
+		this.maxSize = maxSize;
+		this.generator = generator;
+		this.evictionListener = evictionListener;
+	}
+
+	/**
+	 * @param key key of the value
+	 * @return the cached value or {@code null} when it's not cached
+	 */
+	@Nullable
+	public V getIfPresent(K key) {
+		Entry<V> entry = this.values.get(key);
+		if (entry == null) {
+			return null;
+		}
+		entry.touch();
+		return entry.value;
+	}
+
+	/**
+	 * @param key key of the value
+	 * @return the cached value or a newly computed one
+	 */
+	public V get(K key) {
+		V value = getIfPresent(key);
+		if (value != null) {
+			return value;
+		}
+		value = this.generator.apply(key);
+		if (this.maxSize <= 0) {
+			return value;
+		}
+		Entry<V> existing = this.values.putIfAbsent(key, new Entry<>(value));
+		if (existing != null) {
+			existing.touch();
+			return existing.value;
+		}
+		// the new key joins the queue only after making room, so it isn't evicted straight
+		// away
+		evict();
+		this.clock.offer(key);
+		return value;
+	}
+
+	/**
+	 * Removes entries until the cache is back to its max size. An entry that was read
+	 * since the last visit gets its mark cleared and goes to the back of the queue.
+	 * Concurrent misses evict concurrently, each of them stops once the size fits.
+	 */
+	private void evict() {
+		while (this.values.size() > this.maxSize) {
+			K candidate = this.clock.poll();
+			if (candidate == null) {
+				return;
+			}
+			Entry<V> entry = this.values.get(candidate);
+			if (entry == null) {
+				continue;
+			}
+			if (entry.referenced) {
+				entry.referenced = false;
+				this.clock.offer(candidate);
+			}
+			else if (this.values.remove(candidate, entry)) {
+				this.evictionListener.accept(candidate);
+			}
+		}
+	}
+
+	/**
+	 * @return number of cached values
+	 */
+	public int size() {
+		return this.values.size();
+	}
+
+	private static final class Entry<V> {
+
+		private final V value;
+
+		private volatile boolean referenced;
+
+		private Entry(V value) {
+			this.value = value;
+		}
+
+		private void touch() {
+			// reads of a hot entry don't write to its cache line
+			if (!this.referenced) {
+				this.referenced = true;
+			}
+		}
+
+	}
+
+}
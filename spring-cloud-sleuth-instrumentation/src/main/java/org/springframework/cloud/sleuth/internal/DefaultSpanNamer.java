@@ -17,10 +17,14 @@
 package org.springframework.cloud.sleuth.internal;
 
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.cloud.sleuth.SpanName;
 import org.springframework.cloud.sleuth.SpanNamer;
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Default implementation of SpanNamer that tries to get the span name as follows:
@@ -34,6 +38,11 @@ import org.springframework.core.annotation.AnnotationUtils;
  * {@link Object#toString()}.
  * <p>
  * * the default provided value.
+ * <p>
+ * The annotation lookup and whether {@code toString()} is overridden are resolved once
+ * per class and kept in a {@link ClassValue}, so they live as long as the class. The
+ * annotation lookup of a method is resolved once per method and kept in a cache with soft
+ * references.
  *
  * @author Marcin Grzejszczak
  * @since 1.0.0
@@ -41,29 +50,72 @@ import org.springframework.core.annotation.AnnotationUtils;
  */
 public class DefaultSpanNamer implements SpanNamer {
 
-	private static boolean isDefaultToString(Object delegate, String spanName) {
-		if (delegate instanceof Method) {
-			return delegate.toString().equals(spanName);
+	private final ClassValue<ClassName> classNames = new ClassValue<ClassName>() {
+		@Override
+		protected ClassName computeValue(Class<?> type) {
+			return new ClassName(type);
 		}
-		return (delegate.getClass().getName() + "@" + Integer.toHexString(delegate.hashCode())).equals(spanName);
+	};
+
+	private final Map<Method, Optional<String>> methodNames = new ConcurrentReferenceHashMap<>(64);
+
+	private static boolean isDefaultToString(Object delegate, String spanName) {
+		String className = delegate.getClass().getName();
+		int length = className.length();
+		// avoids building the default toString() unless the span name may be one
+		return spanName.length() > length + 1 && spanName.charAt(length) == '@' && spanName.startsWith(className)
+				&& spanName.regionMatches(length + 1, Integer.toHexString(delegate.hashCode()), 0,
+						spanName.length() - length - 1);
 	}
 
 	@Override
 	public String name(Object object, String defaultValue) {
-		SpanName annotation = annotation(object);
-		String spanName = annotation != null ? annotation.value() : object.toString();
-		// If there is no overridden toString method we'll put a constant value
-		if (isDefaultToString(object, spanName)) {
+		if (object instanceof Method) {
+			return this.methodNames.computeIfAbsent((Method) object, DefaultSpanNamer::methodName).orElse(defaultValue);
+		}
+		ClassName className = this.classNames.get(object.getClass());
+		String spanName;
+		if (className.annotationValue != null) {
+			spanName = className.annotationValue;
+		}
+		else if (className.toStringOverridden) {
+			spanName = object.toString();
+		}
+		else {
+			// If there is no overridden toString method we'll put a constant value
+			return defaultValue;
+		}
+		if (spanName == null || isDefaultToString(object, spanName)) {
 			return defaultValue;
 		}
 		return spanName;
 	}
 
-	private SpanName annotation(Object o) {
-		if (o instanceof Method) {
-			return AnnotationUtils.findAnnotation((Method) o, SpanName.class);
+	private static Optional<String> methodName(Method method) {
+		SpanName annotation = AnnotationUtils.findAnnotation(method, SpanName.class);
+		if (annotation == null || annotation.value().equals(method.toString())) {
+			// the default toString() of a method is not a span name
+			return Optional.empty();
+		}
+		return Optional.of(annotation.value());
+	}
+
+	/**
+	 * Span naming information of a class.
+	 */
+	private static final class ClassName {
+
+		private final String annotationValue;
+
+		private final boolean toStringOverridden;
+
+		private ClassName(Class<?> clazz) {
+			SpanName annotation = AnnotationUtils.findAnnotation(clazz, SpanName.class);
+			this.annotationValue = annotation != null ? annotation.value() : null;
+			Method toString = ReflectionUtils.findMethod(clazz, "toString");
+			this.toStringOverridden = toString != null && toString.getDeclaringClass() != Object.class;
 		}
-		return AnnotationUtils.findAnnotation(o.getClass(), SpanName.class);
+
 	}
 
 }
@@ -191,6 +191,10 @@ public final class EncodingUtils {
 	}
 
 	private static char[] getTemporaryBuffer() {
+		if (VirtualThreads.isCurrentThreadVirtual()) {
+			// virtual threads are short lived, a thread local buffer would not be reused
+			return new char[32];
+		}
 		char[] chars = charBuffer.get();
 		if (chars == null) {
 			chars = new char[32];
@@ -311,6 +315,9 @@ final class RecyclableBuffers {
 	 * {@link String} after decoding within the same method.
 	 */
 	static char[] parseBuffer() {
+		if (VirtualThreads.isCurrentThreadVirtual()) {
+			return new char[32 + 1 + 16 + 3 + 16];
+		}
 		char[] idBuffer = PARSE_BUFFER.get();
 		if (idBuffer == null) {
 			idBuffer = new char[32 + 1 + 16 + 3 + 16]; // traceid128-spanid-1-parentid
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.cloud.sleuth.propagation.Propagator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link Propagator.Getter} that reads all the headers of a single carrier in one pass on
+ * the first lookup and answers the following lookups from that index. Raw values are
+ * decoded only when asked for, so headers that are not propagation fields or baggage keys
+ * are never turned into {@link String Strings}. Meant to be created per
+ * {@link Propagator#extract(Object, Propagator.Getter) extraction}, it is not thread
+ * safe.
+ *
+ * @param <C> carrier type
+ * @since 3.1.11
+ */
+public final class HeaderIndex<C> implements Propagator.Getter<C> {
+
+	private final C carrier;
+
+	private final Indexer<C> indexer;
+
+	private final Propagator.Getter<C> delegate;
+
+	private final boolean ignoreCase;
+
+	private final boolean ignoreBlankValues;
+
+	private Map<String, Object> headers;
+
+	private HeaderIndex(C carrier, Indexer<C> indexer, Propagator.Getter<C> delegate) {
+		this.carrier = carrier;
+		this.indexer = indexer;
+		this.delegate = delegate;
+		this.ignoreCase = indexer.ignoreCase();
+		this.ignoreBlankValues = indexer.ignoreBlankValues();
+	}
+
+	/**
+	 * @param carrier carrier to extract from
+	 * @param getter getter configured for the carrier
+	 * @param <C> carrier type
+	 * @return an indexing getter for the carrier when the getter supports it, or the
+	 * getter itself otherwise
+	 */
+	@SuppressWarnings("unchecked")
+	public static <C> Propagator.Getter<C> of(C carrier, Propagator.Getter<C> getter) {
+		if (carrier == null || !(getter instanceof Indexer)) {
+			return getter;
+		}
+		return new HeaderIndex<>(carrier, (Indexer<C>) getter, getter);
+	}
+
+	@Override
+	public String get(C carrier, String key) {
+		if (carrier != this.carrier) {
+			return this.delegate.get(carrier, key);
+		}
+		if (this.headers == null) {
+			this.headers = new HashMap<>();
+			this.indexer.index(carrier, this);
+		}
+		String name = name(key);
+		Object value = this.headers.get(name);
+		if (value == null) {
+			return null;
+		}
+		String text;
+		if (value instanceof String) {
+			text = (String) value;
+		}
+		else {
+			text = value instanceof byte[] ? decode((byte[]) value) : value.toString();
+			this.headers.put(name, text);
+		}
+		return this.ignoreBlankValues && !StringUtils.hasText(text) ? null : text;
+	}
+
+	/**
+	 * Adds a header to the index. Only the first value of a header is kept.
+	 * @param key header name
+	 * @param value raw value, {@code byte[]} values are decoded as UTF-8 and other values
+	 * are converted with {@code toString()} on lookup
+	 */
+	public void put(String key, @Nullable Object value) {
+		String name = name(key);
+		if (!this.headers.containsKey(name)) {
+			this.headers.put(name, value);
+		}
+	}
+
+	private String name(String key) {
+		return this.ignoreCase ? key.toLowerCase(Locale.ROOT) : key;
+	}
+
+	/**
+	 * Decodes a UTF-8 header value. ASCII values, such as trace and span ids, skip the
+	 * UTF-8 decoder.
+	 * @param bytes raw value
+	 * @return decoded value
+	 */
+	public static String decode(byte[] bytes) {
+		for (byte b : bytes) {
+			if (b < 0) {
+				return new String(bytes, StandardCharsets.UTF_8);
+			}
+		}
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+
+	@Override
+	public String toString() {
+		return "HeaderIndex{delegate=" + this.delegate + "}";
+	}
+
+	/**
+	 * Implemented by getters whose carriers can be indexed by {@link HeaderIndex}.
+	 *
+	 * @param <C> carrier type
+	 */
+	public interface Indexer<C> {
+
+		/**
+		 * Adds all the headers of the carrier to the index in a single pass.
+		 * @param carrier carrier
+		 * @param index index to fill
+		 */
+		void index(C carrier, HeaderIndex<C> index);
+
+		/**
+		 * @return {@code true} when header names are case insensitive
+		 */
+		default boolean ignoreCase() {
+			return false;
+		}
+
+		/**
+		 * @return {@code true} when headers with a blank value are treated as missing
+		 */
+		default boolean ignoreBlankValues() {
+			return false;
+		}
+
+	}
+
+}
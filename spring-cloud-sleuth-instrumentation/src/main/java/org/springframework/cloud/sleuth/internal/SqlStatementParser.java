@@ -0,0 +1,426 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.internal;
+
+import java.util.Locale;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Reads SQL statements for span names and tags. A single pass over the statement finds
+ * the operation (the first keyword), the main table and, when enabled, a fingerprint of
+ * the statement with comments removed, whitespace collapsed and literals replaced with
+ * {@code ?}. Fingerprinted statements are kept in a bounded, approximate LRU cache keyed
+ * by the statement. Without fingerprinting statements are read only up to the main table
+ * and not cached.
+ *
+ * @since 3.1.11
+ */
+public class SqlStatementParser {
+
+	/**
+	 * Default max number of cached statements.
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 256;
+
+	/**
+	 * Parser with the default cache size that tags the raw statements.
+	 */
+	public static final SqlStatementParser DEFAULT = new SqlStatementParser(DEFAULT_CACHE_SIZE, false, 0);
+
+	private static final String DEFAULT_OPERATION = "query";
+
+	private static final String PLACEHOLDER = "?";
+
+	private final boolean fingerprintEnabled;
+
+	private final int maxTagLength;
+
+	@Nullable
+	private final BoundedCache<String, SqlStatement> cache;
+
+	/**
+	 * @param cacheSize max number of cached statements, used only when fingerprinting is
+	 * enabled
+	 * @param fingerprintEnabled when {@code true} statements are tagged with their
+	 * fingerprint instead of the raw SQL
+	 * @param maxTagLength max length of the tagged statement, not limited when {@code 0}
+	 * or less
+	 */
+	public SqlStatementParser(int cacheSize, boolean fingerprintEnabled, int maxTagLength) {
+		this.fingerprintEnabled = fingerprintEnabled;
+		this.maxTagLength = maxTagLength;
+		this.cache = fingerprintEnabled ? new BoundedCache<>(cacheSize, sql -> parse(sql, true)) : null;
+	}
+
+	/**
+	 * @param sql SQL statement
+	 * @return the lower case first keyword of the statement, e.g. {@code select}, or
+	 * {@code query} when there's none
+	 */
+	public String spanName(@Nullable String sql) {
+		return sql == null ? DEFAULT_OPERATION : statement(sql).operation;
+	}
+
+	/**
+	 * @param sql SQL statement
+	 * @return the table the statement selects from, inserts into, updates or deletes
+	 * from, or {@code null} when there's none
+	 */
+	@Nullable
+	public String table(@Nullable String sql) {
+		return sql == null ? null : statement(sql).table;
+	}
+
+	/**
+	 * @param sql SQL statement
+	 * @return the statement, or its fingerprint when enabled, limited to the max tag
+	 * length
+	 */
+	public String tagValue(String sql) {
+		String value = this.fingerprintEnabled ? statement(sql).fingerprint : sql;
+		return truncate(value);
+	}
+
+	private SqlStatement statement(String sql) {
+		return this.cache != null ? this.cache.get(sql) : parse(sql, false);
+	}
+
+	private String truncate(String value) {
+		if (this.maxTagLength <= 0 || value.length() <= this.maxTagLength) {
+			return value;
+		}
+		int end = this.maxTagLength;
+		if (Character.isHighSurrogate(value.charAt(end - 1))) {
+			end--;
+		}
+		return value.substring(0, end);
+	}
+
+	static SqlStatement parse(String sql, boolean fingerprint) {
+		Tokenizer tokenizer = new Tokenizer(sql, fingerprint);
+		tokenizer.run();
+		return new SqlStatement(tokenizer.operation != null ? tokenizer.operation : DEFAULT_OPERATION, tokenizer.table,
+				fingerprint ? tokenizer.fingerprint.toString() : null);
+	}
+
+	static final class SqlStatement {
+
+		final String operation;
+
+		@Nullable
+		final String table;
+
+		@Nullable
+		final String fingerprint;
+
+		SqlStatement(String operation, @Nullable String table, @Nullable String fingerprint) {
+			this.operation = operation;
+			this.table = table;
+			this.fingerprint = fingerprint;
+		}
+
+	}
+
+	/**
+	 * Splits the statement into words, quoted identifiers, literals and symbols. Each
+	 * character is looked at once.
+	 */
+	private static final class Tokenizer {
+
+		private final String sql;
+
+		private final boolean fingerprintEnabled;
+
+		private final StringBuilder fingerprint;
+
+		private int position;
+
+		private int depth;
+
+		@Nullable
+		private String operation;
+
+		@Nullable
+		private String table;
+
+		// the keyword after which the main table is expected
+		@Nullable
+		private String tableKeyword;
+
+		private boolean expectTable;
+
+		private Tokenizer(String sql, boolean fingerprintEnabled) {
+			this.sql = sql;
+			this.fingerprintEnabled = fingerprintEnabled;
+			this.fingerprint = fingerprintEnabled ? new StringBuilder(Math.min(sql.length(), 1024)) : null;
+		}
+
+		private void run() {
+			int length = this.sql.length();
+			boolean pendingSpace = false;
+			while (this.position < length) {
+				char c = this.sql.charAt(this.position);
+				if (Character.isWhitespace(c)) {
+					this.position++;
+					pendingSpace = true;
+					continue;
+				}
+				if (c == '-' && peek(1) == '-') {
+					skipUntilLineEnd();
+					pendingSpace = true;
+					continue;
+				}
+				if (c == '/' && peek(1) == '*') {
+					skipBlockComment();
+					pendingSpace = true;
+					continue;
+				}
+				if (!this.fingerprintEnabled && this.operation != null && this.tableKeyword == null
+						&& !this.expectTable) {
+					// nothing more to find
+					return;
+				}
+				int start = this.position;
+				if (isWordStart(c)) {
+					readWord();
+					word(start, pendingSpace);
+				}
+				else if (c == '"' || c == '`' || c == '[') {
+					readQuoted(c == '[' ? ']' : c);
+					identifier(start, pendingSpace);
+				}
+				else if (c == '\'') {
+					readQuoted('\'');
+					literal(pendingSpace);
+				}
+				else if (isLiteralStart(c, peek(1))) {
+					// numbers and bind markers, e.g. ? or $1
+					this.position++;
+					readNumber();
+					literal(pendingSpace);
+				}
+				else {
+					this.position++;
+					symbol(c, pendingSpace);
+				}
+				pendingSpace = false;
+			}
+		}
+
+		private void word(int start, boolean pendingSpace) {
+			if (this.operation == null) {
+				this.operation = this.sql.substring(start, this.position).toLowerCase(Locale.ROOT);
+				this.tableKeyword = tableKeyword(this.operation);
+				this.expectTable = "update".equals(this.operation);
+			}
+			else if (this.expectTable) {
+				identifier(start, pendingSpace);
+				return;
+			}
+			else if (this.tableKeyword != null && this.depth == 0 && this.position - start == this.tableKeyword.length()
+					&& this.sql.regionMatches(true, start, this.tableKeyword, 0, this.tableKeyword.length())) {
+				this.expectTable = true;
+			}
+			append(start, pendingSpace);
+		}
+
+		private void identifier(int start, boolean pendingSpace) {
+			if (this.expectTable) {
+				readQualifiedName();
+				this.expectTable = false;
+				this.tableKeyword = null;
+				this.table = this.sql.substring(start, this.position);
+			}
+			append(start, pendingSpace);
+		}
+
+		private void readQualifiedName() {
+			while (peek(0) == '.') {
+				char next = peek(1);
+				if (isWordStart(next)) {
+					this.position++;
+					readWord();
+				}
+				else if (next == '"' || next == '`' || next == '[') {
+					this.position++;
+					readQuoted(next == '[' ? ']' : next);
+				}
+				else {
+					return;
+				}
+			}
+		}
+
+		private void literal(boolean pendingSpace) {
+			this.expectTable = false;
+			if (!this.fingerprintEnabled) {
+				return;
+			}
+			int length = this.fingerprint.length();
+			// collapses lists of literals, e.g. IN (1, 2, 3)
+			if (endsWith(PLACEHOLDER + ", ")) {
+				return;
+			}
+			if (pendingSpace && length > 0) {
+				this.fingerprint.append(' ');
+			}
+			this.fingerprint.append(PLACEHOLDER);
+		}
+
+		private void symbol(char c, boolean pendingSpace) {
+			if (this.expectTable) {
+				// e.g. a sub query, there's no main table
+				this.expectTable = false;
+				this.tableKeyword = null;
+			}
+			if (c == '(') {
+				this.depth++;
+			}
+			else if (c == ')') {
+				this.depth--;
+			}
+			if (!this.fingerprintEnabled) {
+				return;
+			}
+			if (c == ',' && (endsWith(PLACEHOLDER) || endsWith(PLACEHOLDER + ", ")) && nextIsLiteral()) {
+				if (endsWith(PLACEHOLDER)) {
+					this.fingerprint.append(", ");
+				}
+				return;
+			}
+			if (endsWith(PLACEHOLDER + ", ")) {
+				this.fingerprint.setLength(this.fingerprint.length() - 2);
+			}
+			if (pendingSpace && this.fingerprint.length() > 0) {
+				this.fingerprint.append(' ');
+			}
+			this.fingerprint.append(c);
+			// collapses lists of rows, e.g. VALUES (1, 'a'), (2, 'b')
+			if (c == ')' && (endsWith("(?), (?)") || endsWith("(?),(?)"))) {
+				this.fingerprint.setLength(this.fingerprint.lastIndexOf(","));
+			}
+		}
+
+		private boolean nextIsLiteral() {
+			int i = this.position;
+			while (i < this.sql.length() && Character.isWhitespace(this.sql.charAt(i))) {
+				i++;
+			}
+			if (i >= this.sql.length()) {
+				return false;
+			}
+			char c = this.sql.charAt(i);
+			return c == '\'' || isLiteralStart(c, i + 1 < this.sql.length() ? this.sql.charAt(i + 1) : '\u0000');
+		}
+
+		private boolean endsWith(String suffix) {
+			int length = this.fingerprint.length();
+			return length >= suffix.length()
+					&& this.fingerprint.indexOf(suffix, length - suffix.length()) == length - suffix.length();
+		}
+
+		private void append(int start, boolean pendingSpace) {
+			if (!this.fingerprintEnabled) {
+				return;
+			}
+			if (endsWith(PLACEHOLDER + ", ")) {
+				this.fingerprint.setLength(this.fingerprint.length() - 2);
+			}
+			if (pendingSpace && this.fingerprint.length() > 0) {
+				this.fingerprint.append(' ');
+			}
+			this.fingerprint.append(this.sql, start, this.position);
+		}
+
+		private char peek(int offset) {
+			int index = this.position + offset;
+			return index < this.sql.length() ? this.sql.charAt(index) : '\u0000';
+		}
+
+		private void readWord() {
+			while (this.position < this.sql.length()) {
+				char c = this.sql.charAt(this.position);
+				if (!Character.isLetterOrDigit(c) && c != '_' && c != '$') {
+					return;
+				}
+				this.position++;
+			}
+		}
+
+		private void readNumber() {
+			while (this.position < this.sql.length()) {
+				char c = this.sql.charAt(this.position);
+				// digits, decimal point, exponent and hex literals
+				if (!Character.isLetterOrDigit(c) && c != '.') {
+					return;
+				}
+				this.position++;
+			}
+		}
+
+		private void readQuoted(char end) {
+			this.position++;
+			while (this.position < this.sql.length()) {
+				char c = this.sql.charAt(this.position++);
+				if (c == end) {
+					if (peek(0) != end) {
+						return;
+					}
+					// escaped by doubling
+					this.position++;
+				}
+			}
+		}
+
+		private void skipUntilLineEnd() {
+			while (this.position < this.sql.length() && this.sql.charAt(this.position) != '\n') {
+				this.position++;
+			}
+		}
+
+		private void skipBlockComment() {
+			int end = this.sql.indexOf("*/", this.position + 2);
+			this.position = end == -1 ? this.sql.length() : end + 2;
+		}
+
+		private static boolean isWordStart(char c) {
+			return Character.isLetter(c) || c == '_';
+		}
+
+		private static boolean isLiteralStart(char c, char next) {
+			return Character.isDigit(c) || c == '?' || ((c == '.' || c == '$') && Character.isDigit(next));
+		}
+
+		@Nullable
+		private static String tableKeyword(String operation) {
+			switch (operation) {
+			case "select":
+			case "delete":
+				return "from";
+			case "insert":
+			case "replace":
+			case "merge":
+				return "into";
+			default:
+				return null;
+			}
+		}
+
+	}
+
+}
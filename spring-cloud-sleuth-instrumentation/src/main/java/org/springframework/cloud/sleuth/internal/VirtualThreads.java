@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Utility class that recognizes virtual threads and thread per task executors on JDKs
+ * that support them. Do not use.
+ *
+ * @since 3.1.11
+ */
+public final class VirtualThreads {
+
+	private static final String THREAD_PER_TASK_EXECUTOR = "java.util.concurrent.ThreadPerTaskExecutor";
+
+	// Thread#isVirtual() or null before JDK 21
+	private static final MethodHandle IS_VIRTUAL = isVirtualMethod();
+
+	private VirtualThreads() {
+		throw new IllegalStateException("Can't instantiate a utility class");
+	}
+
+	/**
+	 * @return {@code true} when the current thread is a virtual thread
+	 */
+	public static boolean isCurrentThreadVirtual() {
+		return isVirtual(Thread.currentThread());
+	}
+
+	/**
+	 * @param thread thread to check
+	 * @return {@code true} when the thread is a virtual thread
+	 */
+	public static boolean isVirtual(Thread thread) {
+		if (IS_VIRTUAL == null) {
+			return false;
+		}
+		try {
+			return (boolean) IS_VIRTUAL.invokeExact(thread);
+		}
+		catch (Throwable ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * @param executor executor to check
+	 * @return {@code true} when the executor starts a new thread for each task, e.g. the
+	 * one returned by {@code Executors.newVirtualThreadPerTaskExecutor()}
+	 */
+	public static boolean isThreadPerTaskExecutor(Object executor) {
+		return THREAD_PER_TASK_EXECUTOR.equals(executor.getClass().getName());
+	}
+
+	private static MethodHandle isVirtualMethod() {
+		try {
+			return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual",
+					MethodType.methodType(boolean.class));
+		}
+		catch (NoSuchMethodException | IllegalAccessException ex) {
+			return null;
+		}
+	}
+
+}
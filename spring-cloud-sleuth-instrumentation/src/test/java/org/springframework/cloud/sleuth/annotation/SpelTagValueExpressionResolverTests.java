@@ -16,9 +16,13 @@
 
 package org.springframework.cloud.sleuth.annotation;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Test;
 
+import org.springframework.cloud.sleuth.instrument.annotation.ExpressionCacheMetrics;
 import org.springframework.cloud.sleuth.instrument.annotation.SpelTagValueExpressionResolver;
+import org.springframework.expression.spel.SpelCompilerMode;
 
 import static org.assertj.core.api.BDDAssertions.then;
 
@@ -47,6 +51,93 @@ public class SpelTagValueExpressionResolverTests {
 		then(resolved).isEqualTo("BAR");
 	}
 
+	@Test
+	public void should_parse_an_expression_only_once() {
+		CountingMetrics metrics = new CountingMetrics();
+		SpelTagValueExpressionResolver resolver = new SpelTagValueExpressionResolver(10, SpelCompilerMode.OFF, metrics);
+		MyObject myObject = new MyObject();
+
+		for (int i = 0; i < 3; i++) {
+			myObject.name = "hello" + i;
+
+			then(resolver.resolve("name + ' world'", myObject)).isEqualTo("hello" + i + " world");
+		}
+
+		then(metrics.misses).hasValue(1);
+		then(metrics.hits).hasValue(2);
+		then(metrics.evictions).hasValue(0);
+	}
+
+	@Test
+	public void should_evict_the_least_recently_used_expression_when_cache_is_full() {
+		CountingMetrics metrics = new CountingMetrics();
+		SpelTagValueExpressionResolver resolver = new SpelTagValueExpressionResolver(2, SpelCompilerMode.OFF, metrics);
+		MyObject myObject = new MyObject();
+		myObject.name = "hello";
+
+		then(resolver.resolve("name + '1'", myObject)).isEqualTo("hello1");
+		then(resolver.resolve("name + '2'", myObject)).isEqualTo("hello2");
+		then(resolver.resolve("name + '2'", myObject)).isEqualTo("hello2");
+		then(resolver.resolve("name + '3'", myObject)).isEqualTo("hello3");
+		then(resolver.resolve("name + '2'", myObject)).isEqualTo("hello2");
+		then(resolver.resolve("name + '3'", myObject)).isEqualTo("hello3");
+		then(resolver.resolve("name + '1'", myObject)).isEqualTo("hello1");
+
+		then(metrics.hits).hasValue(3);
+		then(metrics.misses).hasValue(4);
+		then(metrics.evictions).hasValue(2);
+	}
+
+	@Test
+	public void should_resolve_values_with_compiled_expressions() {
+		SpelTagValueExpressionResolver resolver = new SpelTagValueExpressionResolver(10, SpelCompilerMode.IMMEDIATE,
+				ExpressionCacheMetrics.NOOP);
+		MyObject myObject = new MyObject();
+
+		for (int i = 0; i < 5; i++) {
+			myObject.name = "hello" + i;
+
+			then(resolver.resolve("name", myObject)).isEqualTo("hello" + i);
+		}
+	}
+
+	@Test
+	public void should_not_cache_expressions_that_can_not_be_parsed() {
+		CountingMetrics metrics = new CountingMetrics();
+		SpelTagValueExpressionResolver resolver = new SpelTagValueExpressionResolver(10, SpelCompilerMode.OFF, metrics);
+
+		then(resolver.resolve("invalid() structure + 1", new Foo())).isEqualTo("BAR");
+		then(resolver.resolve("invalid() structure + 1", new Foo())).isEqualTo("BAR");
+
+		then(metrics.misses).hasValue(2);
+		then(metrics.hits).hasValue(0);
+	}
+
+	static class CountingMetrics implements ExpressionCacheMetrics {
+
+		final AtomicInteger hits = new AtomicInteger();
+
+		final AtomicInteger misses = new AtomicInteger();
+
+		final AtomicInteger evictions = new AtomicInteger();
+
+		@Override
+		public void cacheHit() {
+			this.hits.incrementAndGet();
+		}
+
+		@Override
+		public void cacheMiss() {
+			this.misses.incrementAndGet();
+		}
+
+		@Override
+		public void cacheEviction() {
+			this.evictions.incrementAndGet();
+		}
+
+	}
+
 	public static class MyObject {
 
 		public String name;
@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.sleuth.instrument.async;
 
+import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -28,6 +29,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -35,6 +37,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.aopalliance.aop.Advice;
 import org.assertj.core.api.BDDAssertions;
 import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledForJreRange;
 import org.junit.jupiter.api.condition.JRE;
@@ -51,6 +54,7 @@ import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * @author Marcin Grzejszczak
@@ -92,6 +96,18 @@ public class ExecutorInstrumentorTests {
 		service.shutdown();
 	}
 
+	@Test
+	public void should_wrap_thread_per_task_executor_without_a_proxy() throws Exception {
+		Method factory = ReflectionUtils.findMethod(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+		Assumptions.assumeTrue(factory != null, "Thread per task executors are available since JDK 21");
+		ExecutorService service = (ExecutorService) factory.invoke(null, Executors.defaultThreadFactory());
+
+		Object o = new ExecutorInstrumentor(Collections::emptyList, beanFactory).instrument(service, "foo");
+
+		BDDAssertions.then(o).isInstanceOf(TraceableExecutorService.class);
+		service.shutdown();
+	}
+
 	@Test
 	public void should_do_nothing_when_bean_is_already_lazy_trace_async_task_executor() throws Exception {
 		LazyTraceAsyncTaskExecutor service = BDDMockito.mock(LazyTraceAsyncTaskExecutor.class);
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2013-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.async;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class ExecutorTracingModeResolverTests {
+
+	@Test
+	void should_resolve_mode_of_the_first_matching_bean_name_pattern() {
+		Map<String, ExecutorTracingMode> modes = new LinkedHashMap<>();
+		modes.put("forkJoin.*", ExecutorTracingMode.CONTEXT);
+		modes.put(".*Executor", ExecutorTracingMode.SAMPLED_SPAN);
+		ExecutorTracingModeResolver resolver = new ExecutorTracingModeResolver(modes);
+
+		then(resolver.resolve("forkJoinExecutor")).isEqualTo(ExecutorTracingMode.CONTEXT);
+		then(resolver.resolve("taskExecutor")).isEqualTo(ExecutorTracingMode.SAMPLED_SPAN);
+		then(resolver.resolve("taskScheduler")).isEqualTo(ExecutorTracingMode.SPAN);
+		then(resolver.resolve(null)).isEqualTo(ExecutorTracingMode.SPAN);
+	}
+
+	@Test
+	void should_create_spans_when_there_is_no_resolver_bean() {
+		then(ExecutorTracingModeResolver.resolve(new StaticListableBeanFactory(), "taskExecutor"))
+				.isEqualTo(ExecutorTracingMode.SPAN);
+		then(ExecutorTracingModeResolver.resolve(null, "taskExecutor")).isEqualTo(ExecutorTracingMode.SPAN);
+	}
+
+}
@@ -18,6 +18,7 @@ package org.springframework.cloud.sleuth.instrument.kafka;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -27,6 +28,7 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeader;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Answers;
@@ -37,8 +39,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.propagation.Propagator;
+import org.springframework.cloud.sleuth.tracer.SimpleSpan;
+import org.springframework.cloud.sleuth.tracer.SimpleTracer;
 
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 
 @ExtendWith(MockitoExtension.class)
@@ -69,6 +76,104 @@ public class TracingKafkaConsumerTest {
 		Mockito.verify(kafkaConsumer).poll(eq(pollTimeout));
 	}
 
+	@Test
+	void should_create_a_single_poll_span_and_spans_only_for_sampled_records_in_batch_mode() {
+		Duration pollTimeout = Duration.of(5, ChronoUnit.SECONDS);
+		// the upstream deferred the sampling decision, each record has a span id of its own
+		List<ConsumerRecord<String, String>> records = Arrays.asList(
+				record(0, "000000000000000a-0000000000000001"), record(1, "000000000000000a-0000000000000002"),
+				record(2, "000000000000000b-0000000000000003"), record(3, "000000000000000b-0000000000000004"),
+				record(4, null));
+		Map<TopicPartition, List<ConsumerRecord<String, String>>> map = new HashMap<>();
+		map.put(new TopicPartition("topic", 0), records);
+		SimpleTracer tracer = new SimpleTracer();
+		BDDMockito.given(kafkaConsumer.poll(pollTimeout)).willAnswer(invocation -> {
+			then(tracer.getLastSpan().ended).as("the poll span is started before the poll").isFalse();
+			return new ConsumerRecords<>(map);
+		});
+		Span sampled = span("sampled", true);
+		Span unsampled = span("unsampled", false);
+		Span.Builder builder = Mockito.mock(Span.Builder.class, Answers.RETURNS_SELF);
+		BDDMockito.given(builder.start()).willReturn(sampled, sampled, unsampled);
+		Propagator propagator = Mockito.mock(Propagator.class);
+		BDDMockito.given(propagator.fields()).willReturn(Collections.singletonList("b3"));
+		BDDMockito.given(propagator.extract(any(), any())).willReturn(builder);
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("tracer", tracer);
+		beanFactory.addBean("propagator", propagator);
+		beanFactory.addBean("extractor", new TracingKafkaPropagatorGetter());
+
+		new TracingKafkaConsumer<>(kafkaConsumer, beanFactory, KafkaConsumerSpanMode.BATCH).poll(pollTimeout);
+
+		Mockito.verify(sampled, Mockito.times(2)).end();
+		Mockito.verify(unsampled).abandon();
+		Mockito.verify(unsampled, Mockito.never()).end();
+		SimpleSpan pollSpan = tracer.getLastSpan();
+		then(pollSpan.name).isEqualTo("kafka.poll");
+		then(pollSpan.ended).isTrue();
+		then(pollSpan.tags).containsEntry("kafka.records", "5").containsEntry("kafka.upstream-traces", "2");
+		then(pollSpan.events).containsExactly("kafka.upstream.sampled", "kafka.upstream.unsampled");
+	}
+
+	@Test
+	void should_skip_records_of_a_trace_not_sampled_upstream_without_extracting_them_in_batch_mode() {
+		Duration pollTimeout = Duration.of(5, ChronoUnit.SECONDS);
+		List<ConsumerRecord<String, String>> records = Arrays.asList(
+				record(0, "000000000000000a-0000000000000001-0"), record(1, "000000000000000a-0000000000000002-0"),
+				record(2, "000000000000000a-0000000000000003-0"), record(3, "000000000000000b-0000000000000004-1"));
+		Map<TopicPartition, List<ConsumerRecord<String, String>>> map = new HashMap<>();
+		map.put(new TopicPartition("topic", 0), records);
+		BDDMockito.given(kafkaConsumer.poll(pollTimeout)).willReturn(new ConsumerRecords<>(map));
+		SimpleTracer tracer = new SimpleTracer();
+		Span sampled = span("000000000000000b", true);
+		Span.Builder builder = Mockito.mock(Span.Builder.class, Answers.RETURNS_SELF);
+		BDDMockito.given(builder.start()).willReturn(sampled);
+		Propagator propagator = Mockito.mock(Propagator.class);
+		BDDMockito.given(propagator.fields()).willReturn(Collections.singletonList("b3"));
+		BDDMockito.given(propagator.extract(any(), any())).willReturn(builder);
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("tracer", tracer);
+		beanFactory.addBean("propagator", propagator);
+		beanFactory.addBean("extractor", new TracingKafkaPropagatorGetter());
+
+		new TracingKafkaConsumer<>(kafkaConsumer, beanFactory, KafkaConsumerSpanMode.BATCH).poll(pollTimeout);
+
+		Mockito.verify(propagator, Mockito.times(1)).extract(any(), any());
+		Mockito.verify(sampled).end();
+		SimpleSpan pollSpan = tracer.getLastSpan();
+		then(pollSpan.tags).containsEntry("kafka.records", "4").containsEntry("kafka.upstream-traces", "2");
+		then(pollSpan.events).containsExactly("kafka.upstream.000000000000000a", "kafka.upstream.000000000000000b");
+	}
+
+	@Test
+	void should_not_leave_a_poll_span_for_an_empty_poll_in_batch_mode() {
+		Duration pollTimeout = Duration.of(5, ChronoUnit.SECONDS);
+		BDDMockito.given(kafkaConsumer.poll(pollTimeout)).willReturn(ConsumerRecords.empty());
+		SimpleTracer tracer = new SimpleTracer();
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("tracer", tracer);
+
+		new TracingKafkaConsumer<>(kafkaConsumer, beanFactory, KafkaConsumerSpanMode.BATCH).poll(pollTimeout);
+
+		then(tracer.getLastSpan().abandoned).isTrue();
+		then(tracer.getLastSpan().ended).isFalse();
+	}
+
+	private ConsumerRecord<String, String> record(long offset, String b3) {
+		ConsumerRecord<String, String> record = new ConsumerRecord<>("topic", 0, offset, "test-key", "test-value");
+		if (b3 != null) {
+			record.headers().add(new RecordHeader("b3", b3.getBytes()));
+		}
+		return record;
+	}
+
+	private Span span(String traceId, boolean sampled) {
+		Span span = Mockito.mock(Span.class, Answers.RETURNS_DEEP_STUBS);
+		BDDMockito.given(span.context().traceId()).willReturn(traceId);
+		BDDMockito.given(span.context().sampled()).willReturn(sampled);
+		return span;
+	}
+
 	private BeanFactory beanFactory() {
 		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
 		beanFactory.addBean("propagator", this.propagator);
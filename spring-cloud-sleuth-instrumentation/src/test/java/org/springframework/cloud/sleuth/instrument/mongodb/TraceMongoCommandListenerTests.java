@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.mongodb;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.mongodb.RequestContext;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.TraceContext;
+import org.springframework.cloud.sleuth.tracer.SimpleSpan;
+import org.springframework.cloud.sleuth.tracer.SimpleTracer;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class TraceMongoCommandListenerTests {
+
+	SimpleTracer tracer = new SimpleTracer();
+
+	SimpleSpan parent = new SimpleSpan();
+
+	ConnectionDescription connectionDescription = new ConnectionDescription(
+			new ServerId(new ClusterId(), new ServerAddress()));
+
+	TraceMongoCommandListener listener = new TraceMongoCommandListener(this.tracer, Collections.emptyList());
+
+	@Test
+	void should_create_child_span_of_the_trace_context_with_cached_service_name() {
+		RequestContext requestContext = requestContext(TraceContext.class, this.parent.context());
+
+		this.listener.commandStarted(started(requestContext, "find", new BsonString("user")));
+		this.listener.commandSucceeded(succeeded(requestContext, "find"));
+		this.listener.commandStarted(
+				started(requestContext(TraceContext.class, this.parent.context()), "find", new BsonString("user")));
+
+		then(this.tracer.spans).hasSize(2);
+		SimpleSpan first = this.tracer.spans.get(0);
+		then(first.name).isEqualTo("find user");
+		then(first.remoteServiceName).isEqualTo("mongodb-test");
+		then(first.spanKind).isEqualTo(Span.Kind.CLIENT);
+		then(first.tags).containsEntry("mongodb.command", "find").containsEntry("mongodb.collection", "user");
+		then(first.ended).isTrue();
+		SimpleSpan second = this.tracer.spans.get(1);
+		then(second.name).isEqualTo(first.name);
+		then(second.remoteServiceName).isSameAs(first.remoteServiceName);
+	}
+
+	@Test
+	void should_fold_cursor_commands_into_the_parent_span() {
+		TraceMongoCommandListener listener = new TraceMongoCommandListener(this.tracer, Collections.emptyList(),
+				Collections.singleton("getMore"));
+		RequestContext requestContext = requestContext(Span.class, this.parent);
+
+		listener.commandStarted(started(requestContext, "getMore", new BsonInt64(1L)));
+		listener.commandSucceeded(succeeded(requestContext, "getMore"));
+
+		then(this.tracer.spans).isEmpty();
+		then(this.parent.ended).isFalse();
+		then(requestContext.<Span>get(Span.class)).isSameAs(this.parent);
+	}
+
+	@Test
+	void should_create_spans_for_all_commands_by_default() {
+		RequestContext requestContext = requestContext(Span.class, this.parent);
+
+		this.listener.commandStarted(started(requestContext, "getMore", new BsonInt64(1L)));
+		this.listener.commandSucceeded(succeeded(requestContext, "getMore"));
+
+		then(this.tracer.getOnlySpan().name).isEqualTo("getMore");
+		then(this.parent.ended).isFalse();
+	}
+
+	private RequestContext requestContext(Class<?> key, Object value) {
+		Map<Object, Object> map = new ConcurrentHashMap<>();
+		map.put(key, value);
+		return new TraceRequestContext(map);
+	}
+
+	private CommandStartedEvent started(RequestContext requestContext, String commandName, BsonValue value) {
+		return new CommandStartedEvent(requestContext, 1, this.connectionDescription, "test", commandName,
+				new BsonDocument(commandName, value));
+	}
+
+	private CommandSucceededEvent succeeded(RequestContext requestContext, String commandName) {
+		return new CommandSucceededEvent(requestContext, 1, this.connectionDescription, commandName, new BsonDocument(),
+				1L);
+	}
+
+}
@@ -19,6 +19,7 @@ package org.springframework.cloud.sleuth.instrument.r2dbc;
 import java.util.concurrent.atomic.AtomicReference;
 
 import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
 import io.r2dbc.proxy.core.ValueStore;
 import io.r2dbc.proxy.test.MockQueryExecutionInfo;
 import io.r2dbc.spi.Connection;
@@ -27,11 +28,11 @@ import io.r2dbc.spi.ConnectionFactoryMetadata;
 import org.junit.jupiter.api.Test;
 import org.reactivestreams.Publisher;
 
-import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.support.StaticListableBeanFactory;
 import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.docs.AssertingSpan;
+import org.springframework.cloud.sleuth.internal.SqlStatementParser;
 import org.springframework.cloud.sleuth.tracer.SimpleSpan;
 import org.springframework.cloud.sleuth.tracer.SimpleTracer;
 
@@ -99,6 +100,27 @@ class TraceProxyExecutionListenerTests {
 		then(queryExecutionInfo.getValueStore().get(Span.class)).isSameAs(clientSpan.get());
 	}
 
+	@Test
+	void should_tag_queries_with_fingerprints_limited_to_max_tag_length() {
+		MockQueryExecutionInfo queryExecutionInfo = MockQueryExecutionInfo.builder()
+				.queryInfo(new QueryInfo("SELECT * FROM users WHERE id IN (1, 2, 3)"))
+				.queryInfo(new QueryInfo("UPDATE users SET name = 'foo' WHERE id = 1")).build();
+		this.simpleTracer.currentSpan = this.simpleTracer.nextSpan().start();
+		StaticListableBeanFactory beanFactory = beanFactory();
+		beanFactory.addBean("sqlStatementParser", new SqlStatementParser(16, true, 34));
+		listener = new TraceProxyExecutionListener(beanFactory, connectionFactory) {
+			@Override
+			boolean isContextUnusable() {
+				return false;
+			}
+		};
+
+		listener.beforeQuery(queryExecutionInfo);
+
+		then(this.simpleTracer.getLastSpan().tags).containsEntry("r2dbc.query[0]", "SELECT * FROM users WHERE id IN (?")
+				.containsEntry("r2dbc.query[1]", "UPDATE users SET name = ? WHERE id");
+	}
+
 	@Test
 	void should_annotate_a_span_on_query_result() {
 		SimpleSpan span = new SimpleSpan();
@@ -139,7 +161,7 @@ class TraceProxyExecutionListenerTests {
 		};
 	}
 
-	private BeanFactory beanFactory() {
+	private StaticListableBeanFactory beanFactory() {
 		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
 		beanFactory.addBean("tracer", this.simpleTracer);
 		beanFactory.addBean("r2dbcProperties", new R2dbcProperties());
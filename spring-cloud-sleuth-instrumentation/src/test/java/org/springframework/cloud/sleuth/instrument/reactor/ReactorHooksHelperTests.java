@@ -117,6 +117,45 @@ class ReactorHooksHelperTests {
 		assertThat(actual).isFalse();
 	}
 
+	@Test
+	public void shouldDecorateLastWhenScopePassingLifterThanShouldNotDecorate() {
+		Function<? super Publisher<Long>, ? extends Publisher<Long>> traceContextPropagator = Operators.liftPublisher(
+				publisher -> true,
+				named(ReactorHooksHelper.LIFTER_NAME, (publisher, coreSubscriber) -> coreSubscriber));
+		Mono<Long> asyncSource = Mono.delay(Duration.ofMillis(10));
+
+		assertThat(ReactorHooksHelper.shouldDecorateLast(asyncSource)).isTrue();
+		assertThat(ReactorHooksHelper.shouldDecorateLast(asyncSource.transform(traceContextPropagator))).isFalse();
+		assertThat(ReactorHooksHelper.shouldDecorateLast(asyncSource.as(TraceContextPropagatorOperator::new)))
+				.isFalse();
+		assertThat(ReactorHooksHelper.shouldDecorateLast(Mono.just(1))).isFalse();
+	}
+
+	@Test
+	public void shouldDecorateBoundaryWhenSchedulerHopThanShouldNotDecorate() {
+		assertThat(ReactorHooksHelper.shouldDecorateBoundary(Mono.just(1).publishOn(Schedulers.parallel()))).isFalse();
+		assertThat(ReactorHooksHelper.shouldDecorateBoundary(Mono.just(1).subscribeOn(Schedulers.parallel())))
+				.isFalse();
+		assertThat(ReactorHooksHelper.shouldDecorateBoundary(Mono.delay(Duration.ofMillis(10)))).isFalse();
+	}
+
+	@Test
+	public void shouldDecorateBoundaryWhenSyncOperatorAfterSchedulerHopThanShouldNotDecorate() {
+		Mono<Long> afterHop = Mono.delay(Duration.ofMillis(10)).map(Function.identity());
+
+		assertThat(ReactorHooksHelper.shouldDecorate(afterHop)).isTrue();
+		assertThat(ReactorHooksHelper.shouldDecorateBoundary(afterHop)).isFalse();
+	}
+
+	@Test
+	public void shouldDecorateBoundaryWhenAsyncSourceNotDrivenBySchedulerThanShouldDecorate() {
+		Mono<Object> asyncSource = Mono.create(sink -> sink.success(1));
+
+		assertThat(ReactorHooksHelper.shouldDecorateBoundary(asyncSource)).isTrue();
+		assertThat(ReactorHooksHelper.shouldDecorateBoundary(asyncSource.as(TraceContextPropagatorOperator::new)))
+				.isFalse();
+	}
+
 	@Test
 	public void shouldDecorateWhenNullSourceProducerThanError() {
 		assertThatCode(() -> ReactorHooksHelper.shouldDecorate(null)).isInstanceOf(IllegalArgumentException.class)
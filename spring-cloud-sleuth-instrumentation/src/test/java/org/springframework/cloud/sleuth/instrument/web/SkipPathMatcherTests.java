@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.web;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class SkipPathMatcherTests {
+
+	static final List<String> PATHS = Arrays.asList("", "/", "/foo", "/foo/bar", "/api-docs", "/api-docs/v1",
+			"/swagger-ui.html", "/swagger", "/static/app.js", "/static/app.json", "/style.css", "/favicon.ico",
+			"/faviconXico", "/favicon.icon", "/hystrix.stream", "/actuator", "/actuator/", "/actuator/health",
+			"/actuator/health/", "/actuator/health/liveness", "/actuator/healthz", "/actuator/info", "/actuator/infos",
+			"/ctx/actuator/health", "/ctx/actuator", "/ctx", "/health", "/health/db", ".png", "/a.png\n", "/a\n.png",
+			"/api-docs\n", "/foo.png/bar", "/id/123/details", "/id/abc/details");
+
+	@ParameterizedTest
+	@ValueSource(strings = { "/api-docs.*|/swagger.*|.*\\.png|.*\\.css|.*\\.js|.*\\.html|/favicon.ico|/hystrix.stream",
+			"/actuator(/|/(health|health/.*|info|info/.*))?", "/ctx/actuator(/|/(health|health/.*|info|info/.*))?",
+			"/(health|health/.*|info|info/.*)", "/foo", ".*", "/id/[0-9]+/details|/foo.*",
+			"/foo.*bar|.*\\.png.*|/api-docs", "(?i)/FOO|/health", "/a(b|c)*|/foo", "/x{2}|.*\\.js",
+			"/foo\\/bar|\\Q/foo\\E" })
+	void should_match_the_same_paths_as_the_pattern(String regex) {
+		Pattern pattern = Pattern.compile(regex);
+		SkipPathMatcher matcher = new SkipPathMatcher(pattern);
+
+		for (String path : PATHS) {
+			then(matcher.matches(path)).as("Path [%s] for pattern [%s]", path, regex)
+					.isEqualTo(pattern.matcher(path).matches());
+		}
+	}
+
+}
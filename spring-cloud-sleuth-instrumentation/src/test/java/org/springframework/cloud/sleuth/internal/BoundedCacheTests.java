@@ -0,0 +1,109 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class BoundedCacheTests {
+
+	AtomicInteger computed = new AtomicInteger();
+
+	@Test
+	void should_compute_each_value_once_while_there_is_room() {
+		BoundedCache<String, Integer> cache = new BoundedCache<>(2, this::length);
+
+		then(cache.get("a")).isEqualTo(1);
+		then(cache.get("a")).isEqualTo(1);
+		then(cache.get("bb")).isEqualTo(2);
+
+		then(this.computed).hasValue(2);
+		then(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	void should_evict_the_oldest_value_once_full() {
+		BoundedCache<String, Integer> cache = new BoundedCache<>(1, this::length);
+		cache.get("a");
+
+		then(cache.get("bb")).isEqualTo(2);
+		then(cache.get("bb")).isEqualTo(2);
+
+		then(this.computed).hasValue(2);
+		then(cache.size()).isEqualTo(1);
+		then(cache.getIfPresent("a")).isNull();
+	}
+
+	@Test
+	void should_keep_recently_read_values_when_evicting() {
+		BoundedCache<String, Integer> cache = new BoundedCache<>(2, this::length);
+		cache.get("a");
+		cache.get("bb");
+		cache.get("a");
+
+		cache.get("ccc");
+
+		then(cache.getIfPresent("a")).isEqualTo(1);
+		then(cache.getIfPresent("bb")).isNull();
+		then(cache.getIfPresent("ccc")).isEqualTo(3);
+		then(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	void should_admit_new_values_after_the_first_ones_filled_it() {
+		BoundedCache<String, Integer> cache = new BoundedCache<>(2, this::length);
+		for (int i = 0; i < 10; i++) {
+			cache.get("statement " + i);
+		}
+
+		cache.get("statement 9");
+
+		then(this.computed).hasValue(10);
+		then(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	void should_return_only_cached_values_without_computing_them() {
+		BoundedCache<String, Integer> cache = new BoundedCache<>(1, this::length);
+
+		then(cache.getIfPresent("a")).isNull();
+		cache.get("a");
+
+		then(cache.getIfPresent("a")).isEqualTo(1);
+		then(this.computed).hasValue(1);
+	}
+
+	@Test
+	void should_not_cache_anything_when_max_size_is_zero() {
+		BoundedCache<String, Integer> cache = new BoundedCache<>(0, this::length);
+
+		cache.get("a");
+		cache.get("a");
+
+		then(this.computed).hasValue(2);
+		then(cache.size()).isZero();
+	}
+
+	private Integer length(String value) {
+		this.computed.incrementAndGet();
+		return value.length();
+	}
+
+}
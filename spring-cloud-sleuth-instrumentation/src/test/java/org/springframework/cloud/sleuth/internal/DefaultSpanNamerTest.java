@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.sleuth.internal;
 
+import java.lang.reflect.Method;
+
 import org.assertj.core.api.BDDAssertions;
 import org.junit.jupiter.api.Test;
 
@@ -47,6 +49,40 @@ class DefaultSpanNamerTest {
 		BDDAssertions.then(defaultValue).isEqualTo("new-name");
 	}
 
+	@Test
+	void nameWithToStringOverrideReturningDefaultToString() {
+		String defaultValue = new DefaultSpanNamer().name(new DefaultToStringOverride(), "default value");
+		BDDAssertions.then(defaultValue).isEqualTo("default value");
+	}
+
+	@Test
+	void nameFromCacheForSubsequentInstances() {
+		DefaultSpanNamer spanNamer = new DefaultSpanNamer();
+
+		BDDAssertions.then(spanNamer.name(new NoToStringOverride(), "first")).isEqualTo("first");
+		BDDAssertions.then(spanNamer.name(new NoToStringOverride(), "second")).isEqualTo("second");
+		BDDAssertions.then(spanNamer.name(new CountingToString(), "default value")).isEqualTo("count-1");
+		BDDAssertions.then(spanNamer.name(new CountingToString(), "default value")).isEqualTo("count-2");
+		BDDAssertions.then(spanNamer.name(new NoToStringOverrideAndAnnotation(), "default value"))
+				.isEqualTo("new-name");
+	}
+
+	@Test
+	void nameOfMethodWithAnnotation() throws Exception {
+		Method method = AnnotatedMethod.class.getMethod("annotated");
+		DefaultSpanNamer spanNamer = new DefaultSpanNamer();
+
+		BDDAssertions.then(spanNamer.name(method, "default value")).isEqualTo("method-name");
+		BDDAssertions.then(spanNamer.name(method, "default value")).isEqualTo("method-name");
+	}
+
+	@Test
+	void nameOfMethodWithoutAnnotation() throws Exception {
+		Method method = AnnotatedMethod.class.getMethod("notAnnotated");
+
+		BDDAssertions.then(new DefaultSpanNamer().name(method, "default value")).isEqualTo("default value");
+	}
+
 	static class NoToStringOverride {
 
 	}
@@ -69,4 +105,37 @@ class DefaultSpanNamerTest {
 
 	}
 
+	static class DefaultToStringOverride {
+
+		@Override
+		public String toString() {
+			return super.toString();
+		}
+
+	}
+
+	static class CountingToString {
+
+		private static int counter;
+
+		@Override
+		public String toString() {
+			return "count-" + (++counter);
+		}
+
+	}
+
+	static class AnnotatedMethod {
+
+		@SpanName("method-name")
+		public void annotated() {
+
+		}
+
+		public void notAnnotated() {
+
+		}
+
+	}
+
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.sleuth.instrument.kafka.TracingKafkaPropagatorGetter;
+import org.springframework.cloud.sleuth.instrument.messaging.MessageHeaderPropagatorGetter;
+import org.springframework.cloud.sleuth.propagation.Propagator;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class HeaderIndexTests {
+
+	@Test
+	void should_index_kafka_headers_once_and_keep_the_first_value() {
+		AtomicInteger indexed = new AtomicInteger();
+		TracingKafkaPropagatorGetter getter = new TracingKafkaPropagatorGetter() {
+			@Override
+			public void index(ConsumerRecord<?, ?> carrier, HeaderIndex<ConsumerRecord<?, ?>> index) {
+				indexed.incrementAndGet();
+				super.index(carrier, index);
+			}
+		};
+		ConsumerRecord<String, String> record = new ConsumerRecord<>("topic", 0, 1, "key", "value");
+		record.headers().add(new RecordHeader("b3", "first".getBytes(StandardCharsets.UTF_8)));
+		record.headers().add(new RecordHeader("b3", "second".getBytes(StandardCharsets.UTF_8)));
+		record.headers().add(new RecordHeader("baggage", "zażółć".getBytes(StandardCharsets.UTF_8)));
+
+		Propagator.Getter<ConsumerRecord<?, ?>> index = HeaderIndex.of(record, getter);
+
+		then(index.get(record, "b3")).isEqualTo("first").isEqualTo(getter.get(record, "b3"));
+		then(index.get(record, "B3")).isNull();
+		then(index.get(record, "baggage")).isEqualTo("zażółć");
+		then(index.get(record, "missing")).isNull();
+		then(indexed).hasValue(1);
+	}
+
+	@Test
+	void should_index_native_message_headers_ignoring_case() {
+		NativeMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+		accessor.setNativeHeader("B3", "native");
+		accessor.setNativeHeader("empty", "");
+		accessor.setLeaveMutable(true);
+		MessageHeaderPropagatorGetter getter = new MessageHeaderPropagatorGetter();
+
+		Propagator.Getter<MessageHeaderAccessor> index = HeaderIndex.of(accessor, getter);
+
+		then(index.get(accessor, "b3")).isEqualTo("native").isEqualTo(getter.get(accessor, "b3"));
+		then(index.get(accessor, "empty")).isNull();
+	}
+
+	@Test
+	void should_index_message_headers_decoding_bytes_on_lookup() {
+		MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(MessageBuilder.withPayload("hello")
+				.setHeader("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01".getBytes())
+				.setHeader("count", 5).build());
+		MessageHeaderPropagatorGetter getter = new MessageHeaderPropagatorGetter();
+
+		Propagator.Getter<MessageHeaderAccessor> index = HeaderIndex.of(accessor, getter);
+
+		then(index.get(accessor, "TraceParent")).isEqualTo("00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+		then(index.get(accessor, "count")).isEqualTo("5");
+	}
+
+	@Test
+	void should_convert_only_the_message_headers_that_are_looked_up() {
+		AtomicInteger converted = new AtomicInteger();
+		Object header = new Object() {
+			@Override
+			public String toString() {
+				converted.incrementAndGet();
+				return "converted";
+			}
+		};
+		MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(MessageBuilder.withPayload("hello")
+				.setHeader("b3", "0af7651916cd43dd-b7ad6b7169203331").setHeader("other", header)
+				.setHeader("blank", " ").build());
+		MessageHeaderPropagatorGetter getter = new MessageHeaderPropagatorGetter();
+
+		Propagator.Getter<MessageHeaderAccessor> index = HeaderIndex.of(accessor, getter);
+
+		then(index.get(accessor, "b3")).isEqualTo("0af7651916cd43dd-b7ad6b7169203331");
+		then(index.get(accessor, "blank")).isNull();
+		then(converted).hasValue(0);
+		then(index.get(accessor, "other")).isEqualTo("converted");
+		then(index.get(accessor, "other")).isEqualTo("converted");
+		then(converted).hasValue(1);
+	}
+
+	@Test
+	void should_not_wrap_getters_that_cannot_be_indexed() {
+		Propagator.Getter<String> getter = (carrier, key) -> carrier;
+
+		then(HeaderIndex.of("carrier", getter)).isSameAs(getter);
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.internal;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class SqlStatementParserTests {
+
+	SqlStatementParser parser = new SqlStatementParser(16, true, 0);
+
+	@Test
+	void should_read_operation_of_multiline_statement_with_leading_comments() {
+		String sql = "-- generated\n /* hint */\n  SELECT *\nFROM users\nWHERE id = 1";
+
+		then(this.parser.spanName(sql)).isEqualTo("select");
+		then(SqlStatementParser.DEFAULT.spanName(sql)).isEqualTo("select");
+	}
+
+	@Test
+	void should_read_operation_regardless_of_case_and_spacing() {
+		then(SqlStatementParser.DEFAULT.spanName("SELECT * FROM test_table;")).isEqualTo("select");
+		then(SqlStatementParser.DEFAULT.spanName("SelECT * FRom TeSt_TaBLE;")).isEqualTo("select");
+		then(SqlStatementParser.DEFAULT.spanName("select*from test_table;")).isEqualTo("select");
+		then(SqlStatementParser.DEFAULT.spanName("UPDATE test_table SET foo = 'bar';")).isEqualTo("update");
+		then(SqlStatementParser.DEFAULT.spanName("INSERT INTO test_table (foo) VALUES ('bar');")).isEqualTo("insert");
+		then(SqlStatementParser.DEFAULT.spanName("DELETE FROM test_table;")).isEqualTo("delete");
+		then(SqlStatementParser.DEFAULT.spanName("BEGIN")).isEqualTo("begin");
+	}
+
+	@Test
+	void should_fall_back_to_query_when_there_is_no_keyword() {
+		then(this.parser.spanName(null)).isEqualTo("query");
+		then(this.parser.spanName("")).isEqualTo("query");
+		then(this.parser.spanName("  -- nothing here")).isEqualTo("query");
+	}
+
+	@Test
+	void should_read_main_table() {
+		then(this.parser.table("select a, b from users u join roles r on u.id = r.id")).isEqualTo("users");
+		then(this.parser.table("SELECT EXTRACT(YEAR FROM d) FROM app.\"Orders\" WHERE 1 = 1"))
+				.isEqualTo("app.\"Orders\"");
+		then(this.parser.table("INSERT INTO `users` (id) VALUES (1)")).isEqualTo("`users`");
+		then(this.parser.table("UPDATE users SET name = 'x'")).isEqualTo("users");
+		then(this.parser.table("DELETE FROM [dbo].[users] WHERE id = 1")).isEqualTo("[dbo].[users]");
+		then(this.parser.table("SELECT * FROM (SELECT * FROM users) u")).isNull();
+		then(this.parser.table("SELECT NOW()")).isNull();
+		then(this.parser.table("CREATE TABLE users (id INT)")).isNull();
+	}
+
+	@Test
+	void should_read_main_table_without_fingerprints() {
+		SqlStatementParser parser = new SqlStatementParser(16, false, 0);
+
+		then(parser.table("UPDATE app.users SET name = 'x'")).isEqualTo("app.users");
+		then(parser.table("select * from users where id = 1")).isEqualTo("users");
+		then(parser.tagValue("select * from users where id = 1")).isEqualTo("select * from users where id = 1");
+	}
+
+	@Test
+	void should_replace_literals_in_fingerprint() {
+		then(this.parser.tagValue(
+				"SELECT *  FROM users\n WHERE name = 'O''Brien' AND age > 18.5 AND id IN (1, 2, 3) /* c */ AND x = ?"))
+						.isEqualTo("SELECT * FROM users WHERE name = ? AND age > ? AND id IN (?) AND x = ?");
+		then(this.parser.tagValue("INSERT INTO users (id, name) VALUES (1, 'a'), (2, 'b')"))
+				.isEqualTo("INSERT INTO users (id, name) VALUES (?)");
+		then(this.parser.tagValue("UPDATE users SET a = 1, b = 'x' WHERE c = $1"))
+				.isEqualTo("UPDATE users SET a = ?, b = ? WHERE c = ?");
+		then(this.parser.tagValue("SELECT col1, col2 FROM t2")).isEqualTo("SELECT col1, col2 FROM t2");
+	}
+
+	@Test
+	void should_produce_same_fingerprint_for_statements_differing_only_in_literals() {
+		String batch = IntStream.range(0, 1000).mapToObj(i -> "(" + i + ", 'name" + i + "')")
+				.collect(Collectors.joining(", ", "INSERT INTO users (id, name) VALUES ", ""));
+
+		then(this.parser.tagValue(batch))
+				.isEqualTo(this.parser.tagValue("INSERT INTO users (id, name) VALUES (1, 'a')"));
+	}
+
+	@Test
+	void should_limit_tag_length() {
+		SqlStatementParser parser = new SqlStatementParser(16, false, 10);
+
+		then(parser.tagValue("SELECT * FROM users")).isEqualTo("SELECT * F");
+		then(parser.tagValue("SELECT 1")).isEqualTo("SELECT 1");
+	}
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.assertj.core.api.BDDAssertions;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadsTests {
+
+	@Test
+	void should_not_treat_platform_threads_as_virtual() {
+		BDDAssertions.then(VirtualThreads.isCurrentThreadVirtual()).isFalse();
+		BDDAssertions.then(VirtualThreads.isVirtual(new Thread(() -> {
+		}))).isFalse();
+	}
+
+	@Test
+	void should_not_treat_pooled_executors_as_thread_per_task() {
+		ExecutorService service = Executors.newFixedThreadPool(1);
+
+		BDDAssertions.then(VirtualThreads.isThreadPerTaskExecutor(service)).isFalse();
+
+		service.shutdown();
+	}
+
+}
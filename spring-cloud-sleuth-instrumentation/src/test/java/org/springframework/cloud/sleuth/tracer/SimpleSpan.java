@@ -38,6 +38,8 @@ public class SimpleSpan implements Span {
 
 	public boolean ended;
 
+	public boolean abandoned;
+
 	public Throwable throwable;
 
 	public String remoteServiceName;
@@ -110,7 +112,7 @@ public class SimpleSpan implements Span {
 
 	@Override
 	public void abandon() {
-
+		this.abandoned = true;
 	}
 
 	@Override
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.util.Assert;
+
+/**
+ * Adapts the max size of a message sent to Zipkin to the observed latency of the
+ * requests. The size is halved whenever a request fails or takes longer than the target
+ * latency, and grows by a quarter when a request that used most of the current size
+ * completes in less than half of the target latency. Since the latency reflects the bytes
+ * on the wire, well compressing spans end up in bigger messages.
+ *
+ * @since 3.1.11
+ */
+public class AdaptiveMessageSizer {
+
+	private final int minMessageBytes;
+
+	private final int maxMessageBytes;
+
+	private final long targetLatencyNanos;
+
+	private final AtomicInteger messageMaxBytes;
+
+	/**
+	 * @param minMessageBytes lower bound of the message size
+	 * @param maxMessageBytes upper and initial bound of the message size
+	 * @param targetLatencyMillis latency above which messages get smaller
+	 */
+	public AdaptiveMessageSizer(int minMessageBytes, int maxMessageBytes, long targetLatencyMillis) {
+		Assert.isTrue(minMessageBytes > 0, "Min message bytes must be positive but was [" + minMessageBytes + "]");
+		Assert.isTrue(maxMessageBytes >= minMessageBytes, "Max message bytes [" + maxMessageBytes
+				+ "] must not be lower than min message bytes [" + minMessageBytes + "]");
+		this.minMessageBytes = minMessageBytes;
+		this.maxMessageBytes = maxMessageBytes;
+		this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+		this.messageMaxBytes = new AtomicInteger(maxMessageBytes);
+	}
+
+	/**
+	 * @return current max size of a message in bytes
+	 */
+	public int messageMaxBytes() {
+		return this.messageMaxBytes.get();
+	}
+
+	/**
+	 * Adapts the message size to the outcome of a request.
+	 * @param messageBytes size of the sent message
+	 * @param latencyNanos time it took to send the message
+	 * @param failed whether sending the message failed
+	 */
+	public void record(int messageBytes, long latencyNanos, boolean failed) {
+		if (failed || latencyNanos > this.targetLatencyNanos) {
+			this.messageMaxBytes.updateAndGet(current -> Math.max(this.minMessageBytes, current / 2));
+		}
+		else if (latencyNanos < this.targetLatencyNanos / 2) {
+			this.messageMaxBytes.updateAndGet(current -> messageBytes * 2 < current ? current
+					: (int) Math.min(this.maxMessageBytes, current + (long) current / 4));
+		}
+	}
+
+}
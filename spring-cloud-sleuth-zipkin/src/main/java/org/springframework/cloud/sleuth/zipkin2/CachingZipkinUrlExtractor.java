@@ -36,6 +36,8 @@ public class CachingZipkinUrlExtractor implements ZipkinUrlExtractor {
 
 	private final ZipkinLoadBalancer zipkinLoadBalancer;
 
+	private volatile StaticInstanceZipkinLoadBalancer staticInstanceZipkinLoadBalancer;
+
 	public CachingZipkinUrlExtractor(ZipkinLoadBalancer zipkinLoadBalancer) {
 		this.zipkinLoadBalancer = zipkinLoadBalancer;
 	}
@@ -54,7 +56,23 @@ public class CachingZipkinUrlExtractor implements ZipkinUrlExtractor {
 			log.debug("The port in Zipkin's URL [" + zipkinProperties.getBaseUrl()
 					+ "] is provided - that means that load balancing will not take place");
 		}
-		return noOpZipkinLoadBalancer(zipkinProperties).instance();
+		return staticInstanceZipkinLoadBalancer(zipkinProperties).instance();
+	}
+
+	@Override
+	public void failed(URI zipkinUrl) {
+		if (this.zipkinPort.get() == -1) {
+			this.zipkinLoadBalancer.failed(zipkinUrl);
+		}
+	}
+
+	private StaticInstanceZipkinLoadBalancer staticInstanceZipkinLoadBalancer(ZipkinProperties zipkinProperties) {
+		StaticInstanceZipkinLoadBalancer loadBalancer = this.staticInstanceZipkinLoadBalancer;
+		if (loadBalancer == null) {
+			loadBalancer = noOpZipkinLoadBalancer(zipkinProperties);
+			this.staticInstanceZipkinLoadBalancer = loadBalancer;
+		}
+		return loadBalancer;
 	}
 
 	StaticInstanceZipkinLoadBalancer noOpZipkinLoadBalancer(ZipkinProperties zipkinProperties) {
@@ -18,6 +18,8 @@ package org.springframework.cloud.sleuth.zipkin2;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPOutputStream;
 
 import org.springframework.http.HttpRequest;
@@ -27,8 +29,8 @@ import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.web.client.RestTemplate;
 
 /**
- * Default {@link ZipkinRestTemplateCustomizer} that provides the GZip compression if
- * {@link ZipkinProperties#getCompression()} is enabled.
+ * Default {@link ZipkinRestTemplateCustomizer} that provides the GZip or Deflate
+ * compression if {@link ZipkinProperties#getCompression()} is enabled.
  *
  * @author Marcin Grzejszczak
  * @since 1.1.0
@@ -37,28 +39,72 @@ public class DefaultZipkinRestTemplateCustomizer implements ZipkinRestTemplateCu
 
 	private final ZipkinProperties zipkinProperties;
 
+	private final HttpSenderMetrics metrics;
+
 	public DefaultZipkinRestTemplateCustomizer(ZipkinProperties zipkinProperties) {
+		this(zipkinProperties, HttpSenderMetrics.NOOP);
+	}
+
+	public DefaultZipkinRestTemplateCustomizer(ZipkinProperties zipkinProperties, HttpSenderMetrics metrics) {
 		this.zipkinProperties = zipkinProperties;
+		this.metrics = metrics;
 	}
 
 	@Override
 	public RestTemplate customizeTemplate(RestTemplate restTemplate) {
-		if (this.zipkinProperties.getCompression().isEnabled()) {
-			restTemplate.getInterceptors().add(0, new GZipInterceptor());
+		ZipkinProperties.Compression compression = this.zipkinProperties.getCompression();
+		if (compression.isEnabled()) {
+			restTemplate.getInterceptors().add(0,
+					new CompressingInterceptor(compression.getType(), compression.getLevel(), this.metrics));
 		}
 		return restTemplate;
 	}
 
-	private class GZipInterceptor implements ClientHttpRequestInterceptor {
+	private static class CompressingInterceptor implements ClientHttpRequestInterceptor {
+
+		private final ZipkinProperties.Compression.Type type;
+
+		private final int level;
+
+		private final HttpSenderMetrics metrics;
+
+		CompressingInterceptor(ZipkinProperties.Compression.Type type, int level, HttpSenderMetrics metrics) {
+			this.type = type;
+			this.level = level;
+			this.metrics = metrics;
+		}
 
 		public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
 				throws IOException {
-			request.getHeaders().add("Content-Encoding", "gzip");
+			byte[] compressed = this.type == ZipkinProperties.Compression.Type.DEFLATE ? deflate(body) : gzip(body);
+			this.metrics.messageCompressed(body.length, compressed.length);
+			request.getHeaders().add("Content-Encoding",
+					this.type == ZipkinProperties.Compression.Type.DEFLATE ? "deflate" : "gzip");
+			return execution.execute(request, compressed);
+		}
+
+		private byte[] gzip(byte[] body) throws IOException {
 			ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
-			try (GZIPOutputStream compressor = new GZIPOutputStream(gzipped)) {
+			try (GZIPOutputStream compressor = new GZIPOutputStream(gzipped) {
+				{
+					this.def.setLevel(CompressingInterceptor.this.level);
+				}
+			}) {
 				compressor.write(body);
 			}
-			return execution.execute(request, gzipped.toByteArray());
+			return gzipped.toByteArray();
+		}
+
+		private byte[] deflate(byte[] body) throws IOException {
+			ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+			Deflater deflater = new Deflater(this.level);
+			try (DeflaterOutputStream compressor = new DeflaterOutputStream(deflated, deflater)) {
+				compressor.write(body);
+			}
+			finally {
+				deflater.end();
+			}
+			return deflated.toByteArray();
 		}
 
 	}
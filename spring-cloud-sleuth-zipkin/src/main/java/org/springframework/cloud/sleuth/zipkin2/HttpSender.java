@@ -17,6 +17,8 @@
 package org.springframework.cloud.sleuth.zipkin2;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -30,6 +32,7 @@ import zipkin2.reporter.BytesMessageEncoder;
 import zipkin2.reporter.Sender;
 
 import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
 
 import static zipkin2.codec.SpanBytesEncoder.JSON_V2;
 
@@ -40,6 +43,9 @@ import static zipkin2.codec.SpanBytesEncoder.JSON_V2;
  */
 abstract class HttpSender extends Sender {
 
+	// This will drop a span larger than 5MiB. Note: values like 512KiB benchmark better.
+	static final int DEFAULT_MESSAGE_MAX_BYTES = 5 * 1024 * 1024;
+
 	final ZipkinHttpClientSender sender;
 
 	final String url;
@@ -50,13 +56,25 @@ abstract class HttpSender extends Sender {
 
 	final BytesMessageEncoder messageEncoder;
 
+	final int messageMaxBytes;
+
+	@Nullable
+	final AdaptiveMessageSizer messageSizer;
+
 	/**
 	 * close is typically called from a different thread.
 	 */
 	transient boolean closeCalled;
 
 	HttpSender(ZipkinHttpClientSender sender, String baseUrl, String apiPath, BytesEncoder<Span> encoder) {
+		this(sender, baseUrl, apiPath, encoder, DEFAULT_MESSAGE_MAX_BYTES, null);
+	}
+
+	HttpSender(ZipkinHttpClientSender sender, String baseUrl, String apiPath, BytesEncoder<Span> encoder,
+			int messageMaxBytes, @Nullable AdaptiveMessageSizer messageSizer) {
 		this.sender = sender;
+		this.messageMaxBytes = messageMaxBytes;
+		this.messageSizer = messageSizer;
 		this.encoding = encoder.encoding();
 		if (encoder.equals(JSON_V2)) {
 			this.mediaType = MediaType.APPLICATION_JSON;
@@ -96,9 +114,7 @@ abstract class HttpSender extends Sender {
 
 	@Override
 	public int messageMaxBytes() {
-		// This will drop a span larger than 5MiB. Note: values like 512KiB benchmark
-		// better.
-		return 5 * 1024 * 1024;
+		return this.messageMaxBytes;
 	}
 
 	@Override
@@ -111,7 +127,51 @@ abstract class HttpSender extends Sender {
 		if (this.closeCalled) {
 			throw new IllegalStateException("close");
 		}
-		return new HttpPostCall(this.messageEncoder.encode(encodedSpans));
+		return new HttpPostCall(batches(encodedSpans));
+	}
+
+	/**
+	 * Splits the spans into one batch or, when the message size is adapted, as many
+	 * batches as needed for their messages to fit the current max message size.
+	 * @param encodedSpans encoded spans
+	 * @return spans of each message
+	 */
+	List<List<byte[]>> batches(List<byte[]> encodedSpans) {
+		if (this.messageSizer == null) {
+			return Collections.singletonList(encodedSpans);
+		}
+		int limit = this.messageSizer.messageMaxBytes();
+		if (messageSizeInBytes(encodedSpans) <= limit) {
+			return Collections.singletonList(encodedSpans);
+		}
+		List<List<byte[]>> batches = new ArrayList<>();
+		int from = 0;
+		int size = 0;
+		for (int i = 0; i < encodedSpans.size(); i++) {
+			// an upper bound of the size the span adds to the message
+			int spanSize = this.encoding.listSizeInBytes(encodedSpans.get(i).length);
+			if (i > from && size + spanSize > limit) {
+				batches.add(encodedSpans.subList(from, i));
+				from = i;
+				size = 0;
+			}
+			size += spanSize;
+		}
+		batches.add(encodedSpans.subList(from, encodedSpans.size()));
+		return batches;
+	}
+
+	/**
+	 * @param batches spans of each message
+	 * @param from index of the first batch that wasn't sent
+	 * @return spans of the batches that weren't sent
+	 */
+	static List<byte[]> spans(List<List<byte[]>> batches, int from) {
+		List<byte[]> spans = new ArrayList<>();
+		for (int i = from; i < batches.size(); i++) {
+			spans.addAll(batches.get(i));
+		}
+		return spans;
 	}
 
 	/**
@@ -120,7 +180,7 @@ abstract class HttpSender extends Sender {
 	@Override
 	public CheckResult check() {
 		try {
-			post(new byte[] { '[', ']' });
+			this.sender.call(this.url, this.mediaType, new byte[] { '[', ']' });
 			return CheckResult.OK;
 		}
 		catch (Exception e) {
@@ -134,37 +194,63 @@ abstract class HttpSender extends Sender {
 	}
 
 	void post(byte[] json) {
-		this.sender.call(this.url, this.mediaType, json);
+		if (this.messageSizer == null) {
+			this.sender.call(this.url, this.mediaType, json);
+			return;
+		}
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			this.sender.call(this.url, this.mediaType, json);
+			failed = false;
+		}
+		finally {
+			this.messageSizer.record(json.length, System.nanoTime() - start, failed);
+		}
 	}
 
+	/**
+	 * Sends the messages one after another. When a message fails, it and the following
+	 * ones aren't sent.
+	 */
 	class HttpPostCall extends Call.Base<Void> {
 
-		private final byte[] message;
+		private final List<List<byte[]>> batches;
 
-		HttpPostCall(byte[] message) {
-			this.message = message;
+		HttpPostCall(List<List<byte[]>> batches) {
+			this.batches = batches;
 		}
 
 		@Override
 		protected Void doExecute() throws IOException {
-			post(this.message);
+			for (int i = 0; i < this.batches.size(); i++) {
+				try {
+					post(messageEncoder.encode(this.batches.get(i)));
+				}
+				catch (RuntimeException | Error e) {
+					if (i == 0) {
+						throw e;
+					}
+					throw new SpansNotSentException(e, spans(this.batches, i));
+				}
+			}
 			return null;
 		}
 
 		@Override
 		protected void doEnqueue(Callback<Void> callback) {
 			try {
-				post(this.message);
+				doExecute();
 				callback.onSuccess(null);
 			}
-			catch (RuntimeException | Error e) {
+			catch (IOException | RuntimeException | Error e) {
 				callback.onError(e);
 			}
 		}
 
 		@Override
 		public Call<Void> clone() {
-			return new HttpPostCall(this.message);
+			return new HttpPostCall(this.batches);
 		}
 
 	}
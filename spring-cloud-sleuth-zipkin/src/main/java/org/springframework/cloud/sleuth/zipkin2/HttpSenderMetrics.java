@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Instrumentation of the messages sent to Zipkin over HTTP.
+ *
+ * @since 3.1.11
+ */
+public interface HttpSenderMetrics {
+
+	/**
+	 * Metrics that record nothing.
+	 */
+	HttpSenderMetrics NOOP = new HttpSenderMetrics() {
+	};
+
+	/**
+	 * Called when a request to Zipkin is sent.
+	 */
+	default void requestStarted() {
+
+	}
+
+	/**
+	 * Called when a request to Zipkin has completed.
+	 * @param durationNanos time from sending the request to its completion
+	 * @param error the failure or {@code null} when the request succeeded
+	 */
+	default void requestFinished(long durationNanos, @Nullable Throwable error) {
+
+	}
+
+	/**
+	 * Called when a request wasn't sent because the max number of requests in flight was
+	 * reached.
+	 */
+	default void requestRejected() {
+
+	}
+
+	/**
+	 * Called when the spans of a message weren't sent and no caller is waiting for the
+	 * outcome, e.g. when the request of an executed asynchronous call failed after the
+	 * call returned.
+	 * @param spans number of spans of the message
+	 * @param error cause of the failure
+	 */
+	default void spansDropped(int spans, Throwable error) {
+
+	}
+
+	/**
+	 * Called when a message was compressed before being sent to Zipkin.
+	 * @param uncompressedBytes size of the message before compression
+	 * @param compressedBytes size of the message after compression
+	 */
+	default void messageCompressed(int uncompressedBytes, int compressedBytes) {
+
+	}
+
+}
@@ -17,40 +17,127 @@
 package org.springframework.cloud.sleuth.zipkin2;
 
 import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
 
 /**
  * {@link ZipkinLoadBalancer} that uses {@link LoadBalancerClient} to find Zipkin in
- * service discovery.
+ * service discovery. The base URL is parsed once and the {@link URI} of each chosen
+ * instance is cached by its host, port and whether it's secure, so a cached URI never
+ * outlives the address it was built from. The cache is cleared once it holds more than
+ * {@value #MAX_CACHED_URIS} URIs, e.g. after many instances were replaced. Instances that
+ * failed are skipped for a while, unless all the chosen instances failed.
  *
  * @author Marcin Grzejszczak
  * @since 3.0.0
  */
 public class LoadBalancerClientZipkinLoadBalancer implements ZipkinLoadBalancer {
 
+	private static final Log log = LogFactory.getLog(LoadBalancerClientZipkinLoadBalancer.class);
+
+	/**
+	 * Default time in milliseconds an instance is skipped for after it failed.
+	 */
+	public static final long DEFAULT_FAILURE_COOLDOWN = TimeUnit.SECONDS.toMillis(30);
+
+	// max number of instances chosen to find one that didn't fail
+	private static final int MAX_CHOICES = 3;
+
+	private static final int MAX_CACHED_URIS = 256;
+
 	private final LoadBalancerClient loadBalancerClient;
 
-	private final ZipkinProperties zipkinProperties;
+	private final StaticInstanceZipkinLoadBalancer baseUrl;
+
+	private final long failureCooldownNanos;
+
+	private final Map<String, URI> instanceUris = new ConcurrentHashMap<>();
+
+	private final Map<URI, Long> failedUntil = new ConcurrentHashMap<>();
 
 	public LoadBalancerClientZipkinLoadBalancer(LoadBalancerClient loadBalancerClient,
 			ZipkinProperties zipkinProperties) {
+		this(loadBalancerClient, zipkinProperties, DEFAULT_FAILURE_COOLDOWN);
+	}
+
+	/**
+	 * @param loadBalancerClient load balancer client
+	 * @param zipkinProperties zipkin properties
+	 * @param failureCooldownMillis time an instance is skipped for after it failed
+	 * @since 3.1.11
+	 */
+	public LoadBalancerClientZipkinLoadBalancer(LoadBalancerClient loadBalancerClient,
+			ZipkinProperties zipkinProperties, long failureCooldownMillis) {
 		this.loadBalancerClient = loadBalancerClient;
-		this.zipkinProperties = zipkinProperties;
+		this.baseUrl = new StaticInstanceZipkinLoadBalancer(zipkinProperties);
+		this.failureCooldownNanos = TimeUnit.MILLISECONDS.toNanos(failureCooldownMillis);
 	}
 
 	@Override
 	public URI instance() {
-		if (this.loadBalancerClient != null) {
-			URI uri = URI.create(this.zipkinProperties.getBaseUrl());
-			String host = uri.getHost();
-			ServiceInstance instance = this.loadBalancerClient.choose(host);
-			if (instance != null) {
-				return instance.getUri();
+		URI baseUri = this.baseUrl.instance();
+		if (this.loadBalancerClient == null) {
+			return baseUri;
+		}
+		URI failed = null;
+		for (int i = 0; i < MAX_CHOICES; i++) {
+			ServiceInstance instance = this.loadBalancerClient.choose(baseUri.getHost());
+			if (instance == null) {
+				break;
+			}
+			URI uri = uri(instance);
+			if (!hasFailedRecently(uri)) {
+				return uri;
 			}
+			failed = uri;
+		}
+		// better to try a failed instance than not to send at all
+		return failed != null ? failed : baseUri;
+	}
+
+	private URI uri(ServiceInstance instance) {
+		String key = instance.getHost() + ':' + instance.getPort() + ':' + instance.isSecure();
+		URI uri = this.instanceUris.get(key);
+		if (uri != null) {
+			return uri;
+		}
+		if (this.instanceUris.size() >= MAX_CACHED_URIS) {
+			this.instanceUris.clear();
+		}
+		uri = instance.getUri();
+		this.instanceUris.put(key, uri);
+		return uri;
+	}
+
+	private boolean hasFailedRecently(URI uri) {
+		if (this.failedUntil.isEmpty()) {
+			return false;
+		}
+		Long until = this.failedUntil.get(uri);
+		if (until == null) {
+			return false;
+		}
+		if (System.nanoTime() - until >= 0) {
+			this.failedUntil.remove(uri, until);
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void failed(URI instance) {
+		if (log.isDebugEnabled()) {
+			log.debug("Zipkin instance [" + instance + "] failed, will skip it for ["
+					+ TimeUnit.NANOSECONDS.toMillis(this.failureCooldownNanos) + "] ms");
 		}
-		return URI.create(this.zipkinProperties.getBaseUrl());
+		this.failedUntil.put(instance, System.nanoTime() + this.failureCooldownNanos);
 	}
 
 }
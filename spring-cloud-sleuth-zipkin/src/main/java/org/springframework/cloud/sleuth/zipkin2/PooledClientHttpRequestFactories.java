@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
+
+/**
+ * Creates the {@link ClientHttpRequestFactory} of the pooled transport. Kept apart from
+ * {@link ZipkinRestTemplateWrapper} so that OkHttp classes are loaded only when it's on
+ * the classpath.
+ *
+ * @since 3.1.11
+ */
+final class PooledClientHttpRequestFactories {
+
+	private PooledClientHttpRequestFactories() {
+	}
+
+	static ClientHttpRequestFactory okHttp(ZipkinProperties zipkinProperties) {
+		ZipkinProperties.Transport transport = zipkinProperties.getTransport();
+		// @formatter:off
+		OkHttpClient client = new OkHttpClient.Builder()
+				.connectTimeout(zipkinProperties.getCheckTimeout(), TimeUnit.MILLISECONDS)
+				.readTimeout(zipkinProperties.getCheckTimeout(), TimeUnit.MILLISECONDS)
+				.writeTimeout(zipkinProperties.getCheckTimeout(), TimeUnit.MILLISECONDS)
+				.connectionPool(new ConnectionPool(transport.getMaxIdleConnections(), transport.getIdleTimeout(),
+						TimeUnit.MILLISECONDS))
+				// HTTP/2 is negotiated with ALPN, plain text connections stay on HTTP/1.1
+				.protocols(transport.isHttp2() ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+						: Collections.singletonList(Protocol.HTTP_1_1))
+				.build();
+		// @formatter:on
+		return new OkHttp3ClientHttpRequestFactory(client);
+	}
+
+}
@@ -26,6 +26,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -44,6 +45,22 @@ public class RestTemplateSender extends HttpSender {
 		super((url, mediaType, bytes) -> post(url, mediaType, bytes, restTemplate), baseUrl, apiPath, encoder);
 	}
 
+	/**
+	 * Creates a new instance of {@link RestTemplateSender}.
+	 * @param restTemplate rest template
+	 * @param baseUrl base url
+	 * @param apiPath api path
+	 * @param encoder encoder
+	 * @param messageMaxBytes max size of a message in bytes
+	 * @param messageSizer adapts the size of the messages to the latency of the requests,
+	 * {@code null} to send all spans flushed at once as one message
+	 */
+	public RestTemplateSender(RestTemplate restTemplate, String baseUrl, String apiPath, BytesEncoder<Span> encoder,
+			int messageMaxBytes, @Nullable AdaptiveMessageSizer messageSizer) {
+		super((url, mediaType, bytes) -> post(url, mediaType, bytes, restTemplate), baseUrl, apiPath, encoder,
+				messageMaxBytes, messageSizer);
+	}
+
 	private static void post(String url, MediaType mediaType, byte[] json, RestTemplate restTemplate) {
 		HttpHeaders httpHeaders = new HttpHeaders();
 		httpHeaders.setContentType(mediaType);
@@ -0,0 +1,519 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Stores messages of encoded spans in memory-mapped segment files while Zipkin is not
+ * reachable. Segments have a fixed size and are written in order. Once a segment is full
+ * the next one is created. When the max number of segments is reached the oldest one is
+ * dropped. Messages older than the max age are dropped when read. Read positions are
+ * stored in the segments, so the messages that were not replayed survive a restart.
+ *
+ * <p>
+ * A segment starts with a header made of a magic number and the read position. Each
+ * message is written as its length, the time it was spooled at, the number of spans and
+ * then the length and the bytes of each span. The length is written last, so a message
+ * that was not fully written is ignored.
+ *
+ * <p>
+ * The spool holds an exclusive lock on its directory until it's closed, so a directory
+ * can't be shared by two processes.
+ *
+ * @since 3.1.11
+ */
+public class SpanSpool implements Closeable {
+
+	private static final Log log = LogFactory.getLog(SpanSpool.class);
+
+	static final String SEGMENT_SUFFIX = ".spool";
+
+	static final String LOCK_FILE = "spool.lock";
+
+	private static final int MAGIC = 0x5a53504c;
+
+	private static final int READ_POSITION_OFFSET = 4;
+
+	static final int HEADER_BYTES = 8;
+
+	// length, spooled at and span count
+	static final int MESSAGE_HEADER_BYTES = 4 + 8 + 4;
+
+	private final Path directory;
+
+	private final int segmentBytes;
+
+	private final int maxSegments;
+
+	private final long maxAgeMillis;
+
+	private final SpanSpoolMetrics metrics;
+
+	private final Deque<Segment> segments = new ArrayDeque<>();
+
+	private final FileChannel lockChannel;
+
+	private final FileLock lock;
+
+	private boolean closed;
+
+	private long nextSequence;
+
+	private long messages;
+
+	private long bytes;
+
+	/**
+	 * @param directory directory of the segment files, created when missing
+	 * @param segmentBytes size of a segment file
+	 * @param maxBytes max size of all the segment files
+	 * @param maxAgeMillis messages spooled longer ago are dropped
+	 * @param metrics spool metrics
+	 * @throws IOException when the directory or the existing segments can't be read or
+	 * the directory is used by another spool
+	 */
+	public SpanSpool(Path directory, int segmentBytes, long maxBytes, long maxAgeMillis, SpanSpoolMetrics metrics)
+			throws IOException {
+		Assert.isTrue(segmentBytes > HEADER_BYTES + MESSAGE_HEADER_BYTES,
+				"Segment bytes must be greater than " + (HEADER_BYTES + MESSAGE_HEADER_BYTES));
+		this.directory = Files.createDirectories(directory);
+		this.segmentBytes = segmentBytes;
+		this.maxSegments = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxBytes / segmentBytes));
+		this.maxAgeMillis = maxAgeMillis;
+		this.metrics = metrics;
+		this.lockChannel = FileChannel.open(this.directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE);
+		this.lock = lock(this.lockChannel, this.directory);
+		try {
+			recover();
+		}
+		catch (IOException | RuntimeException ex) {
+			close();
+			throw ex;
+		}
+	}
+
+	private static FileLock lock(FileChannel channel, Path directory) throws IOException {
+		FileLock lock;
+		try {
+			lock = channel.tryLock();
+		}
+		catch (OverlappingFileLockException ex) {
+			lock = null;
+		}
+		if (lock == null) {
+			channel.close();
+			throw new IOException("Spool directory [" + directory + "] is used by another spool");
+		}
+		return lock;
+	}
+
+	private void recover() throws IOException {
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, "*" + SEGMENT_SUFFIX)) {
+			stream.forEach(files::add);
+		}
+		Collections.sort(files);
+		for (Path file : files) {
+			long sequence = sequence(file);
+			if (sequence < 0) {
+				continue;
+			}
+			this.nextSequence = Math.max(this.nextSequence, sequence + 1);
+			Segment segment = Segment.open(file);
+			if (segment == null || segment.isFullyRead()) {
+				if (segment != null) {
+					segment.close();
+				}
+				Files.deleteIfExists(file);
+				continue;
+			}
+			this.segments.addLast(segment);
+			this.messages += segment.messages;
+			this.bytes += segment.writePosition - segment.readPosition;
+		}
+		while (this.segments.size() > this.maxSegments) {
+			dropOldestSegment();
+		}
+		if (!this.segments.isEmpty() && log.isInfoEnabled()) {
+			log.info("Recovered [" + this.messages + "] spooled messages from [" + this.directory + "]");
+		}
+		depthChanged();
+	}
+
+	private static long sequence(Path file) {
+		String name = file.getFileName().toString();
+		try {
+			return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+		}
+		catch (NumberFormatException ex) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Appends a message to the spool.
+	 * @param spans encoded spans of the message
+	 * @return {@code false} when the message doesn't fit in a segment
+	 * @throws IOException when a segment file can't be created or the spool is closed
+	 */
+	public synchronized boolean append(List<byte[]> spans) throws IOException {
+		if (this.closed) {
+			throw new IOException("Spool [" + this.directory + "] is closed");
+		}
+		int length = MESSAGE_HEADER_BYTES - 4;
+		for (byte[] span : spans) {
+			length += 4 + span.length;
+		}
+		if (4 + length > this.segmentBytes - HEADER_BYTES) {
+			return false;
+		}
+		Segment segment = this.segments.peekLast();
+		if (segment == null || !segment.fits(length)) {
+			if (this.segments.size() == this.maxSegments) {
+				dropOldestSegment();
+			}
+			segment = Segment.create(
+					this.directory.resolve(String.format("%020d", this.nextSequence++) + SEGMENT_SUFFIX),
+					this.segmentBytes);
+			this.segments.addLast(segment);
+		}
+		segment.write(length, System.currentTimeMillis(), spans);
+		this.messages++;
+		this.bytes += 4 + length;
+		this.metrics.messageSpooled(4 + length);
+		depthChanged();
+		return true;
+	}
+
+	/**
+	 * Reads the oldest message without removing it. Expired messages are dropped.
+	 * @return the oldest message or {@code null} when the spool is empty
+	 */
+	@Nullable
+	public synchronized SpooledMessage peek() {
+		long now = System.currentTimeMillis();
+		Segment segment;
+		while ((segment = this.segments.peekFirst()) != null) {
+			if (segment.isFullyRead()) {
+				removeSegment(segment);
+				continue;
+			}
+			SpooledMessage message = segment.read();
+			if (this.maxAgeMillis <= 0 || now - message.spooledAt <= this.maxAgeMillis) {
+				return message;
+			}
+			removeHead(segment);
+			this.metrics.messagesDropped(1);
+		}
+		return null;
+	}
+
+	/**
+	 * Removes a message read with {@link #peek()}, e.g. after it was replayed. Nothing is
+	 * removed when the message is no longer the oldest one, e.g. because its segment was
+	 * dropped in the meantime.
+	 * @param message message to remove
+	 * @return {@code true} when the message was removed
+	 */
+	public synchronized boolean remove(SpooledMessage message) {
+		Segment segment = this.segments.peekFirst();
+		if (segment == null || segment != message.segment || segment.readPosition != message.position) {
+			return false;
+		}
+		removeHead(segment);
+		return true;
+	}
+
+	private void removeHead(Segment segment) {
+		int length = segment.skip();
+		this.messages--;
+		this.bytes -= length;
+		if (segment.isFullyRead()) {
+			removeSegment(segment);
+		}
+		depthChanged();
+	}
+
+	private void dropOldestSegment() {
+		Segment segment = this.segments.peekFirst();
+		int dropped = segment.messages;
+		this.messages -= dropped;
+		this.bytes -= segment.writePosition - segment.readPosition;
+		removeSegment(segment);
+		if (dropped > 0) {
+			this.metrics.messagesDropped(dropped);
+			if (log.isDebugEnabled()) {
+				log.debug("Spool is full, dropped [" + dropped + "] messages");
+			}
+		}
+	}
+
+	private void removeSegment(Segment segment) {
+		this.segments.remove(segment);
+		segment.close();
+		try {
+			Files.deleteIfExists(segment.file);
+		}
+		catch (IOException ex) {
+			log.warn("Failed to delete the spool segment [" + segment.file + "]", ex);
+		}
+	}
+
+	private void depthChanged() {
+		this.metrics.depthChanged(this.messages, this.bytes);
+	}
+
+	/**
+	 * @return {@code true} when there are no spooled messages
+	 */
+	public synchronized boolean isEmpty() {
+		return this.messages == 0;
+	}
+
+	/**
+	 * @return number of spooled messages
+	 */
+	public synchronized long messages() {
+		return this.messages;
+	}
+
+	/**
+	 * @return size of the spooled messages in bytes
+	 */
+	public synchronized long bytes() {
+		return this.bytes;
+	}
+
+	/**
+	 * Flushes the segments to disk and releases the directory. The spooled messages are
+	 * kept for the next start. Appending to a closed spool fails.
+	 */
+	@Override
+	public synchronized void close() {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		for (Segment segment : this.segments) {
+			segment.close();
+		}
+		this.segments.clear();
+		this.messages = 0;
+		this.bytes = 0;
+		depthChanged();
+		try {
+			this.lock.release();
+			this.lockChannel.close();
+		}
+		catch (IOException ex) {
+			log.warn("Failed to release the lock of the spool directory [" + this.directory + "]", ex);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "SpanSpool{directory=" + this.directory + ", messages=" + this.messages + "}";
+	}
+
+	/**
+	 * Spooled message.
+	 */
+	public static final class SpooledMessage {
+
+		private final List<byte[]> spans;
+
+		private final long spooledAt;
+
+		private final Segment segment;
+
+		private final int position;
+
+		SpooledMessage(List<byte[]> spans, long spooledAt, Segment segment, int position) {
+			this.spans = spans;
+			this.spooledAt = spooledAt;
+			this.segment = segment;
+			this.position = position;
+		}
+
+		/**
+		 * @return encoded spans of the message
+		 */
+		public List<byte[]> getSpans() {
+			return this.spans;
+		}
+
+		/**
+		 * @return time in epoch millis the message was spooled at
+		 */
+		public long getSpooledAt() {
+			return this.spooledAt;
+		}
+
+	}
+
+	private static final class Segment {
+
+		private final Path file;
+
+		private final FileChannel channel;
+
+		private final MappedByteBuffer buffer;
+
+		private int readPosition = HEADER_BYTES;
+
+		private int writePosition = HEADER_BYTES;
+
+		private int messages;
+
+		private Segment(Path file, FileChannel channel, MappedByteBuffer buffer) {
+			this.file = file;
+			this.channel = channel;
+			this.buffer = buffer;
+		}
+
+		private static Segment create(Path file, int size) throws IOException {
+			FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+			Segment segment = new Segment(file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+			segment.buffer.putInt(0, MAGIC);
+			segment.buffer.putInt(READ_POSITION_OFFSET, HEADER_BYTES);
+			return segment;
+		}
+
+		@Nullable
+		private static Segment open(Path file) throws IOException {
+			FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			long size = channel.size();
+			if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+				channel.close();
+				return null;
+			}
+			Segment segment = new Segment(file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+			MappedByteBuffer buffer = segment.buffer;
+			int readPosition = buffer.getInt(READ_POSITION_OFFSET);
+			if (buffer.getInt(0) != MAGIC || readPosition < HEADER_BYTES || readPosition > size) {
+				segment.close();
+				return null;
+			}
+			segment.readPosition = readPosition;
+			int position = readPosition;
+			while (position + 4 <= size) {
+				int length = buffer.getInt(position);
+				if (length < MESSAGE_HEADER_BYTES - 4 || position + 4L + length > size) {
+					break;
+				}
+				position += 4 + length;
+				segment.messages++;
+			}
+			segment.writePosition = position;
+			return segment;
+		}
+
+		private boolean fits(int length) {
+			return this.writePosition + 4 + length <= this.buffer.capacity();
+		}
+
+		private void write(int length, long spooledAt, List<byte[]> spans) {
+			int position = this.writePosition + 4;
+			this.buffer.putLong(position, spooledAt);
+			this.buffer.putInt(position + 8, spans.size());
+			position += 12;
+			for (byte[] span : spans) {
+				this.buffer.putInt(position, span.length);
+				positioned(position + 4).put(span);
+				position += 4 + span.length;
+			}
+			// written last, marks the message as complete
+			this.buffer.putInt(this.writePosition, length);
+			this.writePosition = position;
+			this.messages++;
+		}
+
+		private SpooledMessage read() {
+			int position = this.readPosition + 4;
+			long spooledAt = this.buffer.getLong(position);
+			int count = this.buffer.getInt(position + 8);
+			position += 12;
+			List<byte[]> spans = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				byte[] span = new byte[this.buffer.getInt(position)];
+				positioned(position + 4).get(span);
+				spans.add(span);
+				position += 4 + span.length;
+			}
+			return new SpooledMessage(spans, spooledAt, this, this.readPosition);
+		}
+
+		/**
+		 * @return size of the skipped message
+		 */
+		private int skip() {
+			int length = 4 + this.buffer.getInt(this.readPosition);
+			this.readPosition += length;
+			this.buffer.putInt(READ_POSITION_OFFSET, this.readPosition);
+			this.messages--;
+			return length;
+		}
+
+		private ByteBuffer positioned(int position) {
+			ByteBuffer duplicate = this.buffer.duplicate();
+			// cast for Java 8 that has no covariant Buffer methods
+			((Buffer) duplicate).position(position);
+			return duplicate;
+		}
+
+		private boolean isFullyRead() {
+			return this.readPosition >= this.writePosition;
+		}
+
+		private void close() {
+			try {
+				this.buffer.force();
+				this.channel.close();
+			}
+			catch (IOException ex) {
+				log.warn("Failed to close the spool segment [" + this.file + "]", ex);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2;
+
+/**
+ * Instrumentation of the {@link SpanSpool}.
+ *
+ * @since 3.1.11
+ */
+public interface SpanSpoolMetrics {
+
+	/**
+	 * Metrics that record nothing.
+	 */
+	SpanSpoolMetrics NOOP = new SpanSpoolMetrics() {
+	};
+
+	/**
+	 * Called when a message was written to the spool.
+	 * @param bytes size of the spooled message
+	 */
+	default void messageSpooled(int bytes) {
+
+	}
+
+	/**
+	 * Called when a spooled message was sent to Zipkin.
+	 * @param lagMillis time between spooling the message and sending it
+	 */
+	default void messageReplayed(long lagMillis) {
+
+	}
+
+	/**
+	 * Called when spooled messages were dropped because the spool was full or they were
+	 * too old.
+	 * @param messages number of dropped messages
+	 */
+	default void messagesDropped(int messages) {
+
+	}
+
+	/**
+	 * Called when the number of spooled messages has changed.
+	 * @param messages number of spooled messages
+	 * @param bytes size of the spooled messages
+	 */
+	default void depthChanged(long messages, long bytes) {
+
+	}
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Thrown when only some of the messages the spans were split into failed to be sent.
+ * Carries the spans of the failed messages, so that only those can be sent again.
+ *
+ * @since 3.1.11
+ */
+class SpansNotSentException extends IOException {
+
+	private final transient List<byte[]> encodedSpans;
+
+	SpansNotSentException(Throwable cause, List<byte[]> encodedSpans) {
+		super("Failed to send [" + encodedSpans.size() + "] spans", cause);
+		this.encodedSpans = encodedSpans;
+	}
+
+	/**
+	 * @return encoded spans that weren't sent
+	 */
+	List<byte[]> getEncodedSpans() {
+		return this.encodedSpans;
+	}
+
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import zipkin2.Call;
+import zipkin2.Callback;
+import zipkin2.CheckResult;
+import zipkin2.codec.Encoding;
+import zipkin2.reporter.Sender;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link Sender} that writes the messages it failed to send to a {@link SpanSpool} and
+ * sends them again once the delegate {@link Sender#check() check} passes. After a failed
+ * send new messages are spooled directly, so the collector isn't hit while it's down. Once
+ * the check passes again, new messages are sent directly and the spooled ones are
+ * replayed in the background, at a limited rate so a recovering collector isn't flooded.
+ * Spooled messages can therefore reach the collector after newer ones. A spooled message
+ * is removed only once the delegate reported that it was sent, so a message may be sent
+ * twice but is never lost to a failed replay.
+ *
+ * <p>
+ * Closing this sender stops the replay and flushes the spool. The delegate is not closed,
+ * its lifecycle is managed by whoever created it.
+ *
+ * @since 3.1.11
+ */
+public class SpoolingSender extends Sender {
+
+	private static final Log log = LogFactory.getLog(SpoolingSender.class);
+
+	/**
+	 * How long the replay waits for the delegate to report the outcome of a message.
+	 */
+	static final long REPLAY_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+	private final Sender delegate;
+
+	private final SpanSpool spool;
+
+	private final SpanSpoolMetrics metrics;
+
+	private final long checkIntervalMillis;
+
+	private final long replayPauseNanos;
+
+	private final ScheduledExecutorService replayExecutor;
+
+	// whether new messages are spooled without trying to send them
+	private volatile boolean collectorDown;
+
+	private volatile boolean closeCalled;
+
+	/**
+	 * @param delegate sender of the messages
+	 * @param spool spool of the messages that failed to be sent
+	 * @param metrics spool metrics
+	 * @param checkIntervalMillis how often the delegate is checked while there are
+	 * spooled messages
+	 * @param replayRate max number of spooled messages sent per second
+	 */
+	public SpoolingSender(Sender delegate, SpanSpool spool, SpanSpoolMetrics metrics, long checkIntervalMillis,
+			int replayRate) {
+		Assert.isTrue(checkIntervalMillis > 0, "Check interval must be positive");
+		Assert.isTrue(replayRate > 0, "Replay rate must be positive");
+		this.delegate = delegate;
+		this.spool = spool;
+		this.metrics = metrics;
+		this.checkIntervalMillis = checkIntervalMillis;
+		this.replayPauseNanos = TimeUnit.SECONDS.toNanos(1) / replayRate;
+		this.replayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "sleuth-zipkin-spool-replay");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.replayExecutor.scheduleWithFixedDelay(this::replay, checkIntervalMillis, checkIntervalMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public Encoding encoding() {
+		return this.delegate.encoding();
+	}
+
+	@Override
+	public int messageMaxBytes() {
+		return this.delegate.messageMaxBytes();
+	}
+
+	@Override
+	public int messageSizeInBytes(List<byte[]> encodedSpans) {
+		return this.delegate.messageSizeInBytes(encodedSpans);
+	}
+
+	@Override
+	public int messageSizeInBytes(int encodedSizeInBytes) {
+		return this.delegate.messageSizeInBytes(encodedSizeInBytes);
+	}
+
+	@Override
+	public Call<Void> sendSpans(List<byte[]> encodedSpans) {
+		return new SpoolingCall(encodedSpans);
+	}
+
+	@Override
+	public CheckResult check() {
+		return this.delegate.check();
+	}
+
+	/**
+	 * Sends the spooled messages when the delegate is healthy. From then on new messages
+	 * are sent directly. Stops at the first failure and tries again after the check
+	 * interval. A message is removed from the spool only after the delegate reported it
+	 * as sent.
+	 */
+	void replay() {
+		if (this.closeCalled || (this.spool.isEmpty() && !this.collectorDown)) {
+			return;
+		}
+		try {
+			CheckResult checkResult = this.delegate.check();
+			if (!checkResult.ok()) {
+				this.collectorDown = true;
+				if (log.isDebugEnabled()) {
+					log.debug("Zipkin is not available [" + checkResult + "], will retry sending ["
+							+ this.spool.messages() + "] spooled messages in [" + this.checkIntervalMillis + "] ms");
+				}
+				return;
+			}
+			this.collectorDown = false;
+			SpanSpool.SpooledMessage message;
+			while (!this.closeCalled && (message = this.spool.peek()) != null) {
+				long start = System.nanoTime();
+				send(message.getSpans());
+				if (this.spool.remove(message)) {
+					this.metrics.messageReplayed(System.currentTimeMillis() - message.getSpooledAt());
+				}
+				long pause = this.replayPauseNanos - (System.nanoTime() - start);
+				if (pause > 0) {
+					TimeUnit.NANOSECONDS.sleep(pause);
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		catch (Exception ex) {
+			this.collectorDown = true;
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to replay spooled messages, will retry in [" + this.checkIntervalMillis + "] ms", ex);
+			}
+		}
+	}
+
+	private void send(List<byte[]> encodedSpans) throws Exception {
+		CompletableFuture<Void> sent = new CompletableFuture<>();
+		this.delegate.sendSpans(encodedSpans).enqueue(new Callback<Void>() {
+			@Override
+			public void onSuccess(Void value) {
+				sent.complete(value);
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+				sent.completeExceptionally(throwable);
+			}
+		});
+		sent.get(REPLAY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	private void spool(List<byte[]> encodedSpans, Throwable cause) throws IOException {
+		if (!this.spool.append(encodedSpans)) {
+			throw new IOException("Message with [" + encodedSpans.size() + "] spans doesn't fit in the spool", cause);
+		}
+	}
+
+	/**
+	 * Stops the replay and flushes the spool. Spooled messages are kept for the next
+	 * start.
+	 */
+	@Override
+	public void close() {
+		if (this.closeCalled) {
+			return;
+		}
+		this.closeCalled = true;
+		this.replayExecutor.shutdownNow();
+		try {
+			this.replayExecutor.awaitTermination(1, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		this.spool.close();
+	}
+
+	@Override
+	public String toString() {
+		return "SpoolingSender{delegate=" + this.delegate + ", spool=" + this.spool + "}";
+	}
+
+	/**
+	 * Spools the message when the collector is down or when sending it fails. When the
+	 * delegate sent part of the message only the spans that weren't sent are spooled.
+	 */
+	class SpoolingCall extends Call.Base<Void> {
+
+		private final List<byte[]> encodedSpans;
+
+		SpoolingCall(List<byte[]> encodedSpans) {
+			this.encodedSpans = encodedSpans;
+		}
+
+		@Override
+		protected Void doExecute() throws IOException {
+			if (collectorDown) {
+				spool(this.encodedSpans, null);
+				return null;
+			}
+			IOException[] failure = new IOException[1];
+			delegate.sendSpans(this.encodedSpans).enqueue(new Callback<Void>() {
+				@Override
+				public void onSuccess(Void value) {
+				}
+
+				@Override
+				public void onError(Throwable throwable) {
+					collectorDown = true;
+					List<byte[]> failed = throwable instanceof SpansNotSentException
+							? ((SpansNotSentException) throwable).getEncodedSpans() : encodedSpans;
+					if (log.isDebugEnabled()) {
+						log.debug("Failed to send [" + failed.size() + "] spans, spooling them", throwable);
+					}
+					try {
+						spool(failed, throwable);
+					}
+					catch (IOException ex) {
+						// only reported when the delegate fails synchronously
+						failure[0] = ex;
+						log.warn("Failed to spool [" + failed.size() + "] spans", ex);
+					}
+				}
+			});
+			if (failure[0] != null) {
+				throw failure[0];
+			}
+			return null;
+		}
+
+		@Override
+		protected void doEnqueue(Callback<Void> callback) {
+			try {
+				callback.onSuccess(doExecute());
+			}
+			catch (IOException | RuntimeException | Error ex) {
+				callback.onError(ex);
+			}
+		}
+
+		@Override
+		public Call<Void> clone() {
+			return new SpoolingCall(this.encodedSpans);
+		}
+
+	}
+
+}
@@ -28,13 +28,37 @@ public class StaticInstanceZipkinLoadBalancer implements ZipkinLoadBalancer {
 
 	private final ZipkinProperties zipkinProperties;
 
+	private volatile ParsedBaseUrl parsedBaseUrl;
+
 	public StaticInstanceZipkinLoadBalancer(ZipkinProperties zipkinProperties) {
 		this.zipkinProperties = zipkinProperties;
 	}
 
+	/**
+	 * @return the base URL, parsed again only when it changed
+	 */
 	@Override
 	public URI instance() {
-		return URI.create(this.zipkinProperties.getBaseUrl());
+		String baseUrl = this.zipkinProperties.getBaseUrl();
+		ParsedBaseUrl parsed = this.parsedBaseUrl;
+		if (parsed == null || !parsed.baseUrl.equals(baseUrl)) {
+			parsed = new ParsedBaseUrl(baseUrl, URI.create(baseUrl));
+			this.parsedBaseUrl = parsed;
+		}
+		return parsed.uri;
+	}
+
+	private static final class ParsedBaseUrl {
+
+		private final String baseUrl;
+
+		private final URI uri;
+
+		private ParsedBaseUrl(String baseUrl, URI uri) {
+			this.baseUrl = baseUrl;
+			this.uri = uri;
+		}
+
 	}
 
 }
@@ -18,26 +18,59 @@ package org.springframework.cloud.sleuth.zipkin2;
 
 import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 
 import reactor.core.publisher.Mono;
+import zipkin2.Call;
+import zipkin2.Callback;
 import zipkin2.Span;
 import zipkin2.codec.BytesEncoder;
 import zipkin2.reporter.Sender;
 
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.web.reactive.function.client.WebClient;
 
 /**
  * {@link Sender} that uses {@link WebClient} to send spans to Zipkin.
  *
+ * When created with a max number of in flight requests, the messages the spans are split
+ * into are sent without waiting for the previous ones to complete, up to the max number
+ * of in flight requests. Neither executing nor enqueuing the call waits for Zipkin to
+ * respond, the calling thread only waits for a free in flight slot. When the call was
+ * executed, the spans of the failed messages are reported as dropped through the
+ * {@link HttpSenderMetrics}. When it was enqueued, the callback gets the outcome once all
+ * the messages completed.
+ *
  * @since 3.1.0
  */
 public class WebClientSender extends HttpSender {
 
 	private static final long DEFAULT_CHECK_TIMEOUT = 1_000L;
 
+	private final Function<Mono<ResponseEntity<Void>>, Mono<ResponseEntity<Void>>> wrapperFunction;
+
+	private final WebClient webClient;
+
+	private final long checkTimeout;
+
+	private final Semaphore inFlightRequests;
+
+	private final int maxInFlightRequests;
+
+	private final long acquireTimeout;
+
+	private final HttpSenderMetrics metrics;
+
 	/**
 	 * Use
 	 * {@link WebClientSender#WebClientSender(WebClient, String, String, BytesEncoder, long)}.
@@ -63,8 +96,7 @@ public class WebClientSender extends HttpSender {
 	 */
 	public WebClientSender(WebClient webClient, String baseUrl, String apiPath, BytesEncoder<Span> encoder,
 			long checkTimeout) {
-		super((url, mediaType, bytes) -> post(null, url, mediaType, bytes, webClient, checkTimeout).block(), baseUrl,
-				apiPath, encoder);
+		this(null, webClient, baseUrl, apiPath, encoder, checkTimeout);
 	}
 
 	/**
@@ -79,8 +111,44 @@ public class WebClientSender extends HttpSender {
 	 */
 	public WebClientSender(Function<Mono<ResponseEntity<Void>>, Mono<ResponseEntity<Void>>> wrapperFunction,
 			WebClient webClient, String baseUrl, String apiPath, BytesEncoder<Span> encoder, long checkTimeout) {
+		this(wrapperFunction, webClient, baseUrl, apiPath, encoder, checkTimeout, DEFAULT_MESSAGE_MAX_BYTES, null, 0,
+				0L, HttpSenderMetrics.NOOP);
+	}
+
+	/**
+	 * Creates a new instance of {@link WebClientSender} that sends the messages of a call
+	 * concurrently.
+	 * @param wrapperFunction function that will be run on onErrorResume. Send in null to
+	 * get default behavior.
+	 * @param webClient web client
+	 * @param baseUrl base url
+	 * @param apiPath api path
+	 * @param encoder encoder
+	 * @param checkTimeout check and request timeout in milliseconds
+	 * @param messageMaxBytes max size of a message in bytes
+	 * @param messageSizer adapts the size of the messages to the latency of the requests,
+	 * {@code null} to send all spans flushed at once as one message
+	 * @param maxInFlightRequests max number of requests waiting for a response, {@code 0}
+	 * to wait for each response
+	 * @param acquireTimeout timeout in milliseconds to wait for a request to complete
+	 * when the max number of requests is in flight. After that the message is dropped.
+	 * @param metrics metrics of the sent requests
+	 */
+	public WebClientSender(@Nullable Function<Mono<ResponseEntity<Void>>, Mono<ResponseEntity<Void>>> wrapperFunction,
+			WebClient webClient, String baseUrl, String apiPath, BytesEncoder<Span> encoder, long checkTimeout,
+			int messageMaxBytes, @Nullable AdaptiveMessageSizer messageSizer, int maxInFlightRequests,
+			long acquireTimeout, HttpSenderMetrics metrics) {
 		super((url, mediaType, bytes) -> post(wrapperFunction, url, mediaType, bytes, webClient, checkTimeout).block(),
-				baseUrl, apiPath, encoder);
+				baseUrl, apiPath, encoder, messageMaxBytes, messageSizer);
+		Assert.isTrue(maxInFlightRequests >= 0,
+				"Max in flight requests must not be negative but was [" + maxInFlightRequests + "]");
+		this.wrapperFunction = wrapperFunction;
+		this.webClient = webClient;
+		this.checkTimeout = checkTimeout;
+		this.inFlightRequests = maxInFlightRequests > 0 ? new Semaphore(maxInFlightRequests) : null;
+		this.maxInFlightRequests = maxInFlightRequests;
+		this.acquireTimeout = acquireTimeout;
+		this.metrics = metrics;
 	}
 
 	private static Mono<ResponseEntity<Void>> post(
@@ -94,9 +162,237 @@ public class WebClientSender extends HttpSender {
 				.bodyValue(json).retrieve().toBodilessEntity().timeout(Duration.ofMillis(checkTimeout)));
 	}
 
+	@Override
+	public Call<Void> sendSpans(List<byte[]> encodedSpans) {
+		if (this.inFlightRequests == null) {
+			return super.sendSpans(encodedSpans);
+		}
+		if (this.closeCalled) {
+			throw new IllegalStateException("close");
+		}
+		return new AsyncPostCall(batches(encodedSpans));
+	}
+
+	/**
+	 * Waits up to the check timeout for the requests in flight to complete.
+	 */
+	@Override
+	public void close() {
+		super.close();
+		if (this.inFlightRequests == null) {
+			return;
+		}
+		try {
+			if (this.inFlightRequests.tryAcquire(this.maxInFlightRequests, this.checkTimeout, TimeUnit.MILLISECONDS)) {
+				this.inFlightRequests.release(this.maxInFlightRequests);
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void acquire() {
+		boolean acquired;
+		try {
+			acquired = this.inFlightRequests.tryAcquire(this.acquireTimeout, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		if (!acquired) {
+			this.metrics.requestRejected();
+			throw new RejectedExecutionException(
+					"Max number of in flight requests [" + this.maxInFlightRequests + "] reached");
+		}
+	}
+
+	private void send(byte[] message, Callback<Void> callback) {
+		Mono<ResponseEntity<Void>> request;
+		try {
+			request = post(this.wrapperFunction, this.url, this.mediaType, message, this.webClient, this.checkTimeout);
+		}
+		catch (RuntimeException e) {
+			this.inFlightRequests.release();
+			throw e;
+		}
+		this.metrics.requestStarted();
+		long start = System.nanoTime();
+		request.doFinally(signal -> this.inFlightRequests.release()).subscribe(response -> {
+		}, error -> {
+			finished(message, start, error);
+			callback.onError(error);
+		}, () -> {
+			finished(message, start, null);
+			callback.onSuccess(null);
+		});
+	}
+
+	private void finished(byte[] message, long start, @Nullable Throwable error) {
+		long duration = System.nanoTime() - start;
+		this.metrics.requestFinished(duration, error);
+		if (this.messageSizer != null) {
+			this.messageSizer.record(message.length, duration, error != null);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "WebClientSender{" + url + "}";
 	}
 
+	/**
+	 * Call that sends its messages without waiting for the previous ones to complete.
+	 * Neither {@link #execute()} nor {@link #enqueue(Callback)} waits for the responses.
+	 */
+	class AsyncPostCall extends Call.Base<Void> {
+
+		private final List<List<byte[]>> batches;
+
+		AsyncPostCall(List<List<byte[]>> batches) {
+			this.batches = batches;
+		}
+
+		/**
+		 * Returns once the messages are sent. Failures of the requests are reported as
+		 * dropped spans, since the caller has already moved on. When the first message is
+		 * rejected, the rejection is thrown so the caller counts all the spans as dropped.
+		 */
+		@Override
+		protected Void doExecute() {
+			for (int i = 0; i < this.batches.size(); i++) {
+				List<byte[]> batch = this.batches.get(i);
+				try {
+					// encoded before acquiring, so that only sent messages hold a permit
+					byte[] message = messageEncoder.encode(batch);
+					acquire();
+					send(message, new Callback<Void>() {
+						@Override
+						public void onSuccess(Void value) {
+						}
+
+						@Override
+						public void onError(Throwable t) {
+							metrics.spansDropped(batch.size(), t);
+						}
+					});
+				}
+				catch (RuntimeException e) {
+					if (i == 0) {
+						throw e;
+					}
+					// the messages already sent are still in flight
+					metrics.spansDropped(spans(this.batches, i).size(), e);
+					return null;
+				}
+			}
+			return null;
+		}
+
+		@Override
+		protected void doEnqueue(Callback<Void> callback) {
+			AllMessagesCallback completion = new AllMessagesCallback(callback, this.batches);
+			for (int i = 0; i < this.batches.size(); i++) {
+				try {
+					byte[] message = messageEncoder.encode(this.batches.get(i));
+					acquire();
+					send(message, completion.message(i));
+				}
+				catch (RuntimeException e) {
+					// the messages already sent are still in flight
+					completion.rejected(i, e);
+					return;
+				}
+			}
+		}
+
+		@Override
+		public Call<Void> clone() {
+			return new AsyncPostCall(this.batches);
+		}
+
+	}
+
+	/**
+	 * Completes the delegate once all the messages completed. When only some of them
+	 * failed, the delegate gets a {@link SpansNotSentException} with their spans.
+	 */
+	static final class AllMessagesCallback {
+
+		private final Callback<Void> delegate;
+
+		private final List<List<byte[]>> batches;
+
+		private final AtomicReferenceArray<Throwable> errors;
+
+		private final AtomicInteger remaining;
+
+		AllMessagesCallback(Callback<Void> delegate, List<List<byte[]>> batches) {
+			this.delegate = delegate;
+			this.batches = batches;
+			this.errors = new AtomicReferenceArray<>(batches.size());
+			this.remaining = new AtomicInteger(batches.size());
+		}
+
+		Callback<Void> message(int index) {
+			return new Callback<Void>() {
+				@Override
+				public void onSuccess(Void value) {
+					completed(1);
+				}
+
+				@Override
+				public void onError(Throwable t) {
+					errors.set(index, t);
+					completed(1);
+				}
+			};
+		}
+
+		/**
+		 * @param from index of the first message that wasn't sent
+		 * @param error cause of the rejection
+		 */
+		void rejected(int from, Throwable error) {
+			for (int i = from; i < this.batches.size(); i++) {
+				this.errors.set(i, error);
+			}
+			completed(this.batches.size() - from);
+		}
+
+		private void completed(int messages) {
+			if (this.remaining.addAndGet(-messages) != 0) {
+				return;
+			}
+			Throwable firstError = null;
+			List<byte[]> failedSpans = new ArrayList<>();
+			for (int i = 0; i < this.batches.size(); i++) {
+				Throwable error = this.errors.get(i);
+				if (error != null) {
+					firstError = firstError == null ? error : firstError;
+					failedSpans.addAll(this.batches.get(i));
+				}
+			}
+			if (firstError == null) {
+				this.delegate.onSuccess(null);
+			}
+			else if (failedSpans.size() == spanCount()) {
+				this.delegate.onError(firstError);
+			}
+			else {
+				this.delegate.onError(new SpansNotSentException(firstError, failedSpans));
+			}
+		}
+
+		private int spanCount() {
+			int count = 0;
+			for (List<byte[]> batch : this.batches) {
+				count += batch.size();
+			}
+			return count;
+		}
+
+	}
+
 }
@@ -32,4 +32,12 @@ public interface ZipkinLoadBalancer {
 	 */
 	URI instance();
 
+	/**
+	 * Called when sending spans to an instance returned by {@link #instance()} failed.
+	 * @param instance {@link URI} of the instance that failed
+	 * @since 3.1.11
+	 */
+	default void failed(URI instance) {
+	}
+
 }
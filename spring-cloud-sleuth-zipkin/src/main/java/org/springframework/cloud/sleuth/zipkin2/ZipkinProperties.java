@@ -85,6 +85,19 @@ public class ZipkinProperties {
 	 */
 	private int queuedMaxSpans = 1000;
 
+	/**
+	 * Maximum size in bytes of a message sent to Zipkin over HTTP, before compression.
+	 */
+	private int messageMaxBytes = 5 * 1024 * 1024;
+
+	private AdaptiveMessageSize adaptiveMessageSize = new AdaptiveMessageSize();
+
+	private Spool spool = new Spool();
+
+	private Transport transport = new Transport();
+
+	private Shutdown shutdown = new Shutdown();
+
 	public Locator getLocator() {
 		return this.locator;
 	}
@@ -173,11 +186,61 @@ public class ZipkinProperties {
 		this.queuedMaxSpans = queuedMaxSpans;
 	}
 
-	/** When enabled, spans are gzipped before sent to the zipkin server. */
+	public int getMessageMaxBytes() {
+		return this.messageMaxBytes;
+	}
+
+	public void setMessageMaxBytes(int messageMaxBytes) {
+		this.messageMaxBytes = messageMaxBytes;
+	}
+
+	public AdaptiveMessageSize getAdaptiveMessageSize() {
+		return this.adaptiveMessageSize;
+	}
+
+	public void setAdaptiveMessageSize(AdaptiveMessageSize adaptiveMessageSize) {
+		this.adaptiveMessageSize = adaptiveMessageSize;
+	}
+
+	public Spool getSpool() {
+		return this.spool;
+	}
+
+	public void setSpool(Spool spool) {
+		this.spool = spool;
+	}
+
+	public Transport getTransport() {
+		return this.transport;
+	}
+
+	public void setTransport(Transport transport) {
+		this.transport = transport;
+	}
+
+	public Shutdown getShutdown() {
+		return this.shutdown;
+	}
+
+	public void setShutdown(Shutdown shutdown) {
+		this.shutdown = shutdown;
+	}
+
+	/** When enabled, spans are compressed before sent to the zipkin server. */
 	public static class Compression {
 
 		private boolean enabled = false;
 
+		/**
+		 * Compression codec. Make sure that the Zipkin server supports it.
+		 */
+		private Type type = Type.GZIP;
+
+		/**
+		 * Compression level from 0 to 9. -1 means the default level of the codec.
+		 */
+		private int level = -1;
+
 		public boolean isEnabled() {
 			return this.enabled;
 		}
@@ -186,6 +249,300 @@ public class ZipkinProperties {
 			this.enabled = enabled;
 		}
 
+		public Type getType() {
+			return this.type;
+		}
+
+		public void setType(Type type) {
+			this.type = type;
+		}
+
+		public int getLevel() {
+			return this.level;
+		}
+
+		public void setLevel(int level) {
+			this.level = level;
+		}
+
+		/**
+		 * Compression codecs.
+		 */
+		public enum Type {
+
+			/**
+			 * GZip compression ({@code Content-Encoding: gzip}).
+			 */
+			GZIP,
+
+			/**
+			 * ZLib compression ({@code Content-Encoding: deflate}).
+			 */
+			DEFLATE
+
+		}
+
+	}
+
+	/**
+	 * When enabled, spans sent over HTTP are split into messages whose size follows the
+	 * observed latency of the requests to Zipkin.
+	 */
+	public static class AdaptiveMessageSize {
+
+		/**
+		 * Enables adapting the message size to the latency of the requests to Zipkin.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Minimum size in bytes of a message sent to Zipkin.
+		 */
+		private int minMessageBytes = 64 * 1024;
+
+		/**
+		 * Latency in milliseconds of a request to Zipkin above which messages get
+		 * smaller.
+		 */
+		private long targetLatency = 500;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMinMessageBytes() {
+			return this.minMessageBytes;
+		}
+
+		public void setMinMessageBytes(int minMessageBytes) {
+			this.minMessageBytes = minMessageBytes;
+		}
+
+		public long getTargetLatency() {
+			return this.targetLatency;
+		}
+
+		public void setTargetLatency(long targetLatency) {
+			this.targetLatency = targetLatency;
+		}
+
+	}
+
+	/**
+	 * When enabled, messages that fail to be sent to Zipkin are written to disk and sent
+	 * again once Zipkin is available.
+	 */
+	public static class Spool {
+
+		/**
+		 * Enables spooling messages that failed to be sent to Zipkin.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Directory of the spool segment files. Defaults to a directory named after the
+		 * service in a {@code sleuth-zipkin-spool} directory in the temporary directory.
+		 * The directory is locked by the application, so it can't be shared by two
+		 * processes.
+		 */
+		private String directory;
+
+		/**
+		 * Size in bytes of a spool segment file.
+		 */
+		private int segmentBytes = 8 * 1024 * 1024;
+
+		/**
+		 * Max size in bytes of all the spool segment files. When reached the oldest
+		 * segment is dropped.
+		 */
+		private long maxBytes = 256L * 1024 * 1024;
+
+		/**
+		 * Time in milliseconds after which spooled messages are dropped.
+		 */
+		private long maxAge = 3_600_000;
+
+		/**
+		 * Interval in milliseconds of checking whether Zipkin is available while there
+		 * are spooled messages.
+		 */
+		private long checkInterval = 5_000;
+
+		/**
+		 * Max number of spooled messages sent to Zipkin per second.
+		 */
+		private int replayRate = 100;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getDirectory() {
+			return this.directory;
+		}
+
+		public void setDirectory(String directory) {
+			this.directory = directory;
+		}
+
+		public int getSegmentBytes() {
+			return this.segmentBytes;
+		}
+
+		public void setSegmentBytes(int segmentBytes) {
+			this.segmentBytes = segmentBytes;
+		}
+
+		public long getMaxBytes() {
+			return this.maxBytes;
+		}
+
+		public void setMaxBytes(long maxBytes) {
+			this.maxBytes = maxBytes;
+		}
+
+		public long getMaxAge() {
+			return this.maxAge;
+		}
+
+		public void setMaxAge(long maxAge) {
+			this.maxAge = maxAge;
+		}
+
+		public long getCheckInterval() {
+			return this.checkInterval;
+		}
+
+		public void setCheckInterval(long checkInterval) {
+			this.checkInterval = checkInterval;
+		}
+
+		public int getReplayRate() {
+			return this.replayRate;
+		}
+
+		public void setReplayRate(int replayRate) {
+			this.replayRate = replayRate;
+		}
+
+	}
+
+	/**
+	 * Flushing of the remaining spans when the application context is closed.
+	 */
+	public static class Shutdown {
+
+		/**
+		 * Max time in milliseconds of flushing the remaining spans. Spans that weren't
+		 * sent by then are dropped.
+		 */
+		private long timeout = 5_000;
+
+		/**
+		 * Number of threads sending the remaining spans in parallel.
+		 */
+		private int flushThreads = 2;
+
+		public long getTimeout() {
+			return this.timeout;
+		}
+
+		public void setTimeout(long timeout) {
+			this.timeout = timeout;
+		}
+
+		public int getFlushThreads() {
+			return this.flushThreads;
+		}
+
+		public void setFlushThreads(int flushThreads) {
+			this.flushThreads = flushThreads;
+		}
+
+	}
+
+	/**
+	 * HTTP transport of the {@link RestTemplateSender}.
+	 */
+	public static class Transport {
+
+		/**
+		 * Type of the HTTP transport.
+		 */
+		private Type type = Type.SIMPLE;
+
+		/**
+		 * Max number of idle connections kept in the pool of the pooled transport.
+		 */
+		private int maxIdleConnections = 5;
+
+		/**
+		 * Time in milliseconds after which idle connections of the pooled transport are
+		 * closed.
+		 */
+		private long idleTimeout = 300_000;
+
+		/**
+		 * Enables HTTP/2 for the pooled transport when Zipkin supports it over TLS.
+		 */
+		private boolean http2 = true;
+
+		public Type getType() {
+			return this.type;
+		}
+
+		public void setType(Type type) {
+			this.type = type;
+		}
+
+		public int getMaxIdleConnections() {
+			return this.maxIdleConnections;
+		}
+
+		public void setMaxIdleConnections(int maxIdleConnections) {
+			this.maxIdleConnections = maxIdleConnections;
+		}
+
+		public long getIdleTimeout() {
+			return this.idleTimeout;
+		}
+
+		public void setIdleTimeout(long idleTimeout) {
+			this.idleTimeout = idleTimeout;
+		}
+
+		public boolean isHttp2() {
+			return this.http2;
+		}
+
+		public void setHttp2(boolean http2) {
+			this.http2 = http2;
+		}
+
+		public enum Type {
+
+			/**
+			 * A new {@link java.net.HttpURLConnection} per request.
+			 */
+			SIMPLE,
+
+			/**
+			 * OkHttp client with a pool of keep-alive connections. Requires OkHttp on the
+			 * classpath.
+			 */
+			POOLED
+
+		}
+
 	}
 
 	/**
@@ -25,7 +25,10 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
@@ -33,7 +36,8 @@ import org.springframework.web.client.RestTemplate;
 /**
  * Resolves at runtime where the Zipkin server is. If there's no discovery client then
  * {@link URI} from the properties is taken. Otherwise service discovery is pinged for
- * current Zipkin address.
+ * current Zipkin address. Instances that fail to respond are reported back to the
+ * {@link ZipkinUrlExtractor}, so that they can be skipped for a while.
  *
  * @author Marcin Grzejszczak
  * @since 3.0.0
@@ -42,6 +46,9 @@ public class ZipkinRestTemplateWrapper extends RestTemplate {
 
 	private static final Log log = LogFactory.getLog(ZipkinRestTemplateWrapper.class);
 
+	private static final boolean OK_HTTP_PRESENT = ClassUtils.isPresent("okhttp3.OkHttpClient",
+			ZipkinRestTemplateWrapper.class.getClassLoader());
+
 	private final ZipkinProperties zipkinProperties;
 
 	private final ZipkinUrlExtractor extractor;
@@ -53,6 +60,12 @@ public class ZipkinRestTemplateWrapper extends RestTemplate {
 	}
 
 	private ClientHttpRequestFactory clientHttpRequestFactory(ZipkinProperties zipkinProperties) {
+		if (zipkinProperties.getTransport().getType() == ZipkinProperties.Transport.Type.POOLED) {
+			if (OK_HTTP_PRESENT) {
+				return PooledClientHttpRequestFactories.okHttp(zipkinProperties);
+			}
+			log.warn("The pooled transport requires OkHttp on the classpath, falling back to the simple one");
+		}
 		SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
 		factory.setReadTimeout(zipkinProperties.getCheckTimeout());
 		factory.setConnectTimeout(zipkinProperties.getCheckTimeout());
@@ -64,7 +77,13 @@ public class ZipkinRestTemplateWrapper extends RestTemplate {
 			ResponseExtractor<T> responseExtractor) throws RestClientException {
 		URI uri = this.extractor.zipkinUrl(this.zipkinProperties);
 		URI newUri = resolvedZipkinUri(originalUrl, uri);
-		return super.doExecute(newUri, method, requestCallback, responseExtractor);
+		try {
+			return super.doExecute(newUri, method, requestCallback, responseExtractor);
+		}
+		catch (ResourceAccessException | HttpServerErrorException ex) {
+			this.extractor.failed(uri);
+			throw ex;
+		}
 	}
 
 	private URI resolvedZipkinUri(URI originalUrl, URI resolvedZipkinUri) {
@@ -29,4 +29,13 @@ public interface ZipkinUrlExtractor {
 
 	URI zipkinUrl(ZipkinProperties zipkinProperties);
 
+	/**
+	 * Called when sending spans to the URL returned by
+	 * {@link #zipkinUrl(ZipkinProperties)} failed.
+	 * @param zipkinUrl URL of the Zipkin instance that failed
+	 * @since 3.1.11
+	 */
+	default void failed(URI zipkinUrl) {
+	}
+
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class AdaptiveMessageSizerTests {
+
+	private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+	AdaptiveMessageSizer sizer = new AdaptiveMessageSizer(1_000, 8_000, 100);
+
+	@Test
+	void should_start_with_max_message_size() {
+		then(this.sizer.messageMaxBytes()).isEqualTo(8_000);
+	}
+
+	@Test
+	void should_halve_message_size_down_to_min_when_requests_are_slow() {
+		this.sizer.record(8_000, SLOW, false);
+		then(this.sizer.messageMaxBytes()).isEqualTo(4_000);
+
+		this.sizer.record(4_000, FAST, true);
+		then(this.sizer.messageMaxBytes()).isEqualTo(2_000);
+
+		this.sizer.record(2_000, SLOW, false);
+		this.sizer.record(1_000, SLOW, false);
+		then(this.sizer.messageMaxBytes()).isEqualTo(1_000);
+	}
+
+	@Test
+	void should_grow_message_size_up_to_max_when_full_messages_are_fast() {
+		this.sizer.record(8_000, SLOW, false);
+		this.sizer.record(4_000, SLOW, false);
+
+		this.sizer.record(2_000, FAST, false);
+		then(this.sizer.messageMaxBytes()).isEqualTo(2_500);
+
+		for (int i = 0; i < 20; i++) {
+			this.sizer.record(this.sizer.messageMaxBytes(), FAST, false);
+		}
+		then(this.sizer.messageMaxBytes()).isEqualTo(8_000);
+	}
+
+	@Test
+	void should_not_grow_message_size_when_messages_are_small() {
+		this.sizer.record(8_000, SLOW, false);
+
+		this.sizer.record(100, FAST, false);
+
+		then(this.sizer.messageMaxBytes()).isEqualTo(4_000);
+	}
+
+	@Test
+	void should_keep_message_size_when_latency_is_close_to_target() {
+		this.sizer.record(8_000, TimeUnit.MILLISECONDS.toNanos(80), false);
+
+		then(this.sizer.messageMaxBytes()).isEqualTo(8_000);
+	}
+
+}
@@ -16,12 +16,23 @@
 
 package org.springframework.cloud.sleuth.zipkin2;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.InflaterInputStream;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
 import zipkin2.reporter.Sender;
 
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestTemplate;
 
+import static org.assertj.core.api.BDDAssertions.then;
 import static zipkin2.codec.SpanBytesEncoder.JSON_V2;
 import static zipkin2.codec.SpanBytesEncoder.PROTO3;
 
@@ -58,6 +69,66 @@ class RestTemplateSenderTest extends AbstractSenderTest {
 		return "RestTemplateSender{" + this.endpoint + mockedApiPath + "}";
 	}
 
+	@Test
+	void should_use_configured_max_message_size() {
+		RestTemplateSender sender = new RestTemplateSender(new RestTemplate(clientHttpRequestFactory()), this.endpoint,
+				null, JSON_V2, 512 * 1024, null);
+
+		then(sender.messageMaxBytes()).isEqualTo(512 * 1024);
+	}
+
+	@Test
+	void should_split_spans_into_messages_of_adapted_size() throws Exception {
+		int twoSpans = 2 * JSON_V2.encoding().listSizeInBytes(JSON_V2.sizeInBytes(SPAN));
+		this.sender = new RestTemplateSender(new RestTemplate(clientHttpRequestFactory()), this.endpoint, null, JSON_V2,
+				5 * 1024 * 1024, new AdaptiveMessageSizer(twoSpans, twoSpans, 1_000));
+		this.server.enqueue(new MockResponse());
+		this.server.enqueue(new MockResponse());
+
+		send(SPAN, SPAN, SPAN).execute();
+
+		then(this.server.getRequestCount()).isEqualTo(2);
+		String span = new String(JSON_V2.encode(SPAN), "UTF-8");
+		then(this.server.takeRequest().getBody().readUtf8()).isEqualTo("[" + span + "," + span + "]");
+		then(this.server.takeRequest().getBody().readUtf8()).isEqualTo("[" + span + "]");
+	}
+
+	@Test
+	void should_compress_messages_with_deflate() throws Exception {
+		ZipkinProperties properties = new ZipkinProperties();
+		properties.getCompression().setEnabled(true);
+		properties.getCompression().setType(ZipkinProperties.Compression.Type.DEFLATE);
+		properties.getCompression().setLevel(9);
+		AtomicInteger uncompressed = new AtomicInteger();
+		AtomicInteger compressed = new AtomicInteger();
+		RestTemplate restTemplate = new DefaultZipkinRestTemplateCustomizer(properties, new HttpSenderMetrics() {
+			@Override
+			public void messageCompressed(int uncompressedBytes, int compressedBytes) {
+				uncompressed.addAndGet(uncompressedBytes);
+				compressed.addAndGet(compressedBytes);
+			}
+		}).customizeTemplate(new RestTemplate(clientHttpRequestFactory()));
+		this.sender = new RestTemplateSender(restTemplate, this.endpoint, null, JSON_V2);
+		this.server.enqueue(new MockResponse());
+
+		send(SPAN, SPAN).execute();
+
+		RecordedRequest request = this.server.takeRequest();
+		then(request.getHeader("Content-Encoding")).isEqualTo("deflate");
+		String span = new String(JSON_V2.encode(SPAN), "UTF-8");
+		then(inflate(request.getBody().readByteArray())).isEqualTo("[" + span + "," + span + "]");
+		then(uncompressed.get()).isEqualTo(2 * span.length() + 3);
+		then(compressed.get()).isEqualTo((int) request.getBodySize()).isLessThan(uncompressed.get());
+	}
+
+	private String inflate(byte[] body) throws IOException {
+		ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+		try (InflaterInputStream stream = new InflaterInputStream(new ByteArrayInputStream(body))) {
+			StreamUtils.copy(stream, inflated);
+		}
+		return inflated.toString("UTF-8");
+	}
+
 	private ClientHttpRequestFactory clientHttpRequestFactory() {
 		SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
 		factory.setReadTimeout(DEFAULT_CHECK_TIMEOUT);
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import zipkin2.Call;
+import zipkin2.Callback;
+import zipkin2.codec.Encoding;
+import zipkin2.reporter.Sender;
+
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+import static zipkin2.codec.SpanBytesEncoder.JSON_V2;
+
+class SpoolingSenderTests {
+
+	MockWebServer server = new MockWebServer();
+
+	@TempDir
+	Path directory;
+
+	@AfterEach
+	void clean() throws Exception {
+		this.server.close();
+	}
+
+	@Test
+	void should_spool_messages_while_zipkin_is_down_and_replay_them_once_it_is_back() throws Exception {
+		SpanSpool spool = spool(1024 * 1024, 8 * 1024 * 1024, 0, SpanSpoolMetrics.NOOP);
+		AtomicInteger replayed = new AtomicInteger();
+		SpoolingSender sender = new SpoolingSender(restTemplateSender(), spool, new SpanSpoolMetrics() {
+			@Override
+			public void messageReplayed(long lagMillis) {
+				replayed.incrementAndGet();
+			}
+		}, TimeUnit.HOURS.toMillis(1), 1000);
+		this.server.enqueue(new MockResponse().setResponseCode(503));
+
+		sender.sendSpans(spans("first")).execute();
+		// zipkin is assumed to be down until the check passes
+		sender.sendSpans(spans("second")).execute();
+
+		then(spool.messages()).isEqualTo(2);
+		then(this.server.getRequestCount()).isEqualTo(1);
+
+		// check fails
+		this.server.enqueue(new MockResponse().setResponseCode(503));
+		sender.replay();
+
+		then(spool.messages()).isEqualTo(2);
+
+		// check and both messages pass
+		this.server.enqueue(new MockResponse());
+		this.server.enqueue(new MockResponse());
+		this.server.enqueue(new MockResponse());
+		sender.replay();
+
+		then(spool.isEmpty()).isTrue();
+		then(replayed).hasValue(2);
+		this.server.takeRequest();
+		this.server.takeRequest();
+		then(this.server.takeRequest().getBody().readUtf8()).isEqualTo("[]");
+		then(this.server.takeRequest().getBody().readUtf8()).isEqualTo("[first]");
+		then(this.server.takeRequest().getBody().readUtf8()).isEqualTo("[second]");
+
+		sender.close();
+	}
+
+	@Test
+	void should_send_new_messages_directly_while_spooled_ones_wait_for_the_replay() throws Exception {
+		SpanSpool spool = spool(1024 * 1024, 8 * 1024 * 1024, 0, SpanSpoolMetrics.NOOP);
+		spool.append(spans("spooled"));
+		SpoolingSender sender = new SpoolingSender(restTemplateSender(), spool, SpanSpoolMetrics.NOOP,
+				TimeUnit.HOURS.toMillis(1), 1000);
+		this.server.enqueue(new MockResponse());
+
+		sender.sendSpans(spans("new")).execute();
+
+		then(spool.messages()).isEqualTo(1);
+		then(this.server.takeRequest().getBody().readUtf8()).isEqualTo("[new]");
+
+		// check and the spooled message pass, the next message is sent directly
+		this.server.enqueue(new MockResponse());
+		this.server.enqueue(new MockResponse());
+		this.server.enqueue(new MockResponse());
+		sender.replay();
+		sender.sendSpans(spans("newer")).execute();
+
+		then(spool.isEmpty()).isTrue();
+		then(this.server.takeRequest().getBody().readUtf8()).isEqualTo("[]");
+		then(this.server.takeRequest().getBody().readUtf8()).isEqualTo("[spooled]");
+		then(this.server.takeRequest().getBody().readUtf8()).isEqualTo("[newer]");
+		sender.close();
+	}
+
+	@Test
+	void should_keep_spooled_messages_across_restarts() throws Exception {
+		SpanSpool spool = spool(1024, 1024 * 1024, 0, SpanSpoolMetrics.NOOP);
+		spool.append(spans("first", "second"));
+		spool.append(spans("third"));
+		spool.remove(spool.peek());
+		spool.append(spans("fourth"));
+		spool.close();
+
+		SpanSpool recovered = spool(1024, 1024 * 1024, 0, SpanSpoolMetrics.NOOP);
+
+		then(recovered.messages()).isEqualTo(2);
+		then(decode(recovered.peek().getSpans())).containsExactly("third");
+		recovered.remove(recovered.peek());
+		then(decode(recovered.peek().getSpans())).containsExactly("fourth");
+		recovered.remove(recovered.peek());
+		then(recovered.peek()).isNull();
+		recovered.close();
+	}
+
+	@Test
+	void should_drop_the_oldest_segment_when_the_spool_is_full() throws Exception {
+		AtomicInteger dropped = new AtomicInteger();
+		SpanSpoolMetrics metrics = new SpanSpoolMetrics() {
+			@Override
+			public void messagesDropped(int messages) {
+				dropped.addAndGet(messages);
+			}
+		};
+		// a single message per segment
+		int segmentBytes = SpanSpool.HEADER_BYTES + SpanSpool.MESSAGE_HEADER_BYTES + 4 + 10;
+		SpanSpool spool = spool(segmentBytes, 2L * segmentBytes, 0, metrics);
+
+		then(spool.append(spans("0123456789"))).isTrue();
+		then(spool.append(spans("abcdefghij"))).isTrue();
+		then(spool.append(spans("klmnopqrst"))).isTrue();
+		then(spool.append(spans("too long for a segment"))).isFalse();
+
+		then(spool.messages()).isEqualTo(2);
+		then(dropped).hasValue(1);
+		then(decode(spool.peek().getSpans())).containsExactly("abcdefghij");
+		spool.close();
+	}
+
+	@Test
+	void should_not_remove_a_message_whose_segment_was_dropped_while_it_was_replayed() throws Exception {
+		int segmentBytes = SpanSpool.HEADER_BYTES + SpanSpool.MESSAGE_HEADER_BYTES + 4 + 10;
+		SpanSpool spool = spool(segmentBytes, 2L * segmentBytes, 0, SpanSpoolMetrics.NOOP);
+		spool.append(spans("0123456789"));
+		spool.append(spans("abcdefghij"));
+		SpanSpool.SpooledMessage replayed = spool.peek();
+
+		spool.append(spans("klmnopqrst"));
+
+		then(spool.remove(replayed)).isFalse();
+		then(spool.messages()).isEqualTo(2);
+		then(decode(spool.peek().getSpans())).containsExactly("abcdefghij");
+		spool.close();
+	}
+
+	@Test
+	void should_keep_a_message_when_its_replay_fails_asynchronously() throws Exception {
+		SpanSpool spool = spool(1024, 1024 * 1024, 0, SpanSpoolMetrics.NOOP);
+		spool.append(spans("first"));
+		SpoolingSender sender = new SpoolingSender(new FailingSender(new IOException("boom")), spool,
+				SpanSpoolMetrics.NOOP, TimeUnit.HOURS.toMillis(1), 1000);
+
+		sender.replay();
+
+		then(spool.messages()).isEqualTo(1);
+		then(decode(spool.peek().getSpans())).containsExactly("first");
+		sender.close();
+	}
+
+	@Test
+	void should_spool_only_the_spans_that_were_not_sent() throws Exception {
+		SpanSpool spool = spool(1024, 1024 * 1024, 0, SpanSpoolMetrics.NOOP);
+		SpoolingSender sender = new SpoolingSender(
+				new FailingSender(new SpansNotSentException(new IOException("boom"), spans("third"))), spool,
+				SpanSpoolMetrics.NOOP, TimeUnit.HOURS.toMillis(1), 1000);
+
+		sender.sendSpans(spans("first", "second", "third")).execute();
+
+		then(spool.messages()).isEqualTo(1);
+		then(decode(spool.peek().getSpans())).containsExactly("third");
+		sender.close();
+	}
+
+	@Test
+	void should_lock_the_spool_directory_until_the_spool_is_closed() throws Exception {
+		SpanSpool spool = spool(1024, 1024 * 1024, 0, SpanSpoolMetrics.NOOP);
+
+		thenThrownBy(() -> spool(1024, 1024 * 1024, 0, SpanSpoolMetrics.NOOP)).isInstanceOf(IOException.class)
+				.hasMessageContaining("is used by another spool");
+
+		spool.close();
+		spool(1024, 1024 * 1024, 0, SpanSpoolMetrics.NOOP).close();
+	}
+
+	@Test
+	void should_reject_appends_after_close() throws Exception {
+		SpanSpool spool = spool(1024, 1024 * 1024, 0, SpanSpoolMetrics.NOOP);
+		spool.append(spans("first"));
+
+		spool.close();
+
+		then(spool.messages()).isZero();
+		then(spool.bytes()).isZero();
+		thenThrownBy(() -> spool.append(spans("second"))).isInstanceOf(IOException.class)
+				.hasMessageContaining("is closed");
+		SpanSpool reopened = spool(1024, 1024 * 1024, 0, SpanSpoolMetrics.NOOP);
+		then(reopened.messages()).isEqualTo(1);
+		reopened.close();
+	}
+
+	@Test
+	void should_drop_expired_messages() throws Exception {
+		AtomicInteger dropped = new AtomicInteger();
+		SpanSpool spool = spool(1024, 1024 * 1024, 1, new SpanSpoolMetrics() {
+			@Override
+			public void messagesDropped(int messages) {
+				dropped.addAndGet(messages);
+			}
+		});
+		spool.append(spans("old"));
+		Thread.sleep(10);
+
+		then(spool.peek()).isNull();
+		then(spool.isEmpty()).isTrue();
+		then(dropped).hasValue(1);
+		spool.close();
+	}
+
+	private SpanSpool spool(int segmentBytes, long maxBytes, long maxAge, SpanSpoolMetrics metrics) throws Exception {
+		return new SpanSpool(this.directory, segmentBytes, maxBytes, maxAge, metrics);
+	}
+
+	private Sender restTemplateSender() {
+		return new RestTemplateSender(new RestTemplate(), this.server.url("/api/v2/spans").toString(), null, JSON_V2);
+	}
+
+	/**
+	 * Sender that reports a failure to the callback of every call, like an asynchronous
+	 * sender does.
+	 */
+	static class FailingSender extends Sender {
+
+		private final IOException failure;
+
+		FailingSender(IOException failure) {
+			this.failure = failure;
+		}
+
+		@Override
+		public Encoding encoding() {
+			return Encoding.JSON;
+		}
+
+		@Override
+		public int messageMaxBytes() {
+			return 1024;
+		}
+
+		@Override
+		public int messageSizeInBytes(List<byte[]> encodedSpans) {
+			return Encoding.JSON.listSizeInBytes(encodedSpans);
+		}
+
+		@Override
+		public Call<Void> sendSpans(List<byte[]> encodedSpans) {
+			return new Call.Base<Void>() {
+				@Override
+				protected Void doExecute() throws IOException {
+					throw FailingSender.this.failure;
+				}
+
+				@Override
+				protected void doEnqueue(Callback<Void> callback) {
+					callback.onError(FailingSender.this.failure);
+				}
+
+				@Override
+				public Call<Void> clone() {
+					return this;
+				}
+			};
+		}
+
+	}
+
+	private static List<byte[]> spans(String... spans) {
+		return Arrays.stream(spans).map(span -> span.getBytes(StandardCharsets.UTF_8)).collect(Collectors.toList());
+	}
+
+	private static List<String> decode(List<byte[]> spans) {
+		return spans.stream().map(span -> new String(span, StandardCharsets.UTF_8)).collect(Collectors.toList());
+	}
+
+}
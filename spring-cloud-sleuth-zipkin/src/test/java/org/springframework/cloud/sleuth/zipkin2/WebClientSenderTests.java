@@ -17,16 +17,27 @@
 package org.springframework.cloud.sleuth.zipkin2;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
+import zipkin2.Callback;
 import zipkin2.CheckResult;
 import zipkin2.reporter.Sender;
 
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static zipkin2.codec.SpanBytesEncoder.JSON_V2;
 import static zipkin2.codec.SpanBytesEncoder.PROTO3;
 
@@ -76,4 +87,128 @@ class WebClientSenderTests extends AbstractSenderTest {
 		assertThat(result.ok()).isTrue();
 	}
 
+	@Test
+	void should_not_wait_for_the_responses_when_executing() throws Exception {
+		RecordingMetrics metrics = new RecordingMetrics();
+		this.sender = asyncSender(2, metrics, new AdaptiveMessageSizer(1, 1, 1_000L));
+		this.server.enqueue(new MockResponse().setHeadersDelay(500, TimeUnit.MILLISECONDS));
+		this.server.enqueue(new MockResponse().setHeadersDelay(500, TimeUnit.MILLISECONDS));
+
+		long start = System.nanoTime();
+		send(SPAN, SPAN).execute();
+
+		assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+		assertThat(metrics.started.get()).isEqualTo(2);
+		Awaitility.await().untilAsserted(() -> assertThat(metrics.errors).containsExactly(null, null));
+		assertThat(metrics.droppedSpans.get()).isZero();
+		RecordedRequest request = this.server.takeRequest(1, TimeUnit.SECONDS);
+		assertThat(request.getBody().readUtf8()).isEqualTo("[" + new String(JSON_V2.encode(SPAN), "UTF-8") + "]");
+	}
+
+	@Test
+	void should_reject_a_message_when_max_in_flight_requests_reached() throws Exception {
+		RecordingMetrics metrics = new RecordingMetrics();
+		this.sender = asyncSender(1, metrics, null);
+		this.server.enqueue(new MockResponse().setHeadersDelay(500, TimeUnit.MILLISECONDS));
+		this.server.enqueue(new MockResponse());
+		RecordingCallback first = new RecordingCallback();
+
+		send(SPAN).enqueue(first);
+
+		assertThatThrownBy(() -> send(SPAN).execute()).isInstanceOf(RejectedExecutionException.class);
+		assertThat(metrics.rejected.get()).isEqualTo(1);
+		Awaitility.await().untilAsserted(() -> assertThat(first.completions).containsExactly((Throwable) null));
+
+		send(SPAN).execute();
+
+		Awaitility.await().untilAsserted(() -> assertThat(metrics.errors).hasSize(2));
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	void should_fail_only_rejected_messages_when_enqueued() throws Exception {
+		RecordingMetrics metrics = new RecordingMetrics();
+		this.sender = asyncSender(1, metrics, new AdaptiveMessageSizer(1, 1, 1_000L));
+		this.server.enqueue(new MockResponse().setHeadersDelay(300, TimeUnit.MILLISECONDS));
+		RecordingCallback callback = new RecordingCallback();
+
+		send(SPAN, SPAN).enqueue(callback);
+
+		assertThat(metrics.rejected.get()).isEqualTo(1);
+		assertThat(callback.completions).as("the first message is still in flight").isEmpty();
+		Awaitility.await().untilAsserted(() -> assertThat(callback.completions).hasSize(1));
+		assertThat(metrics.errors).containsExactly((Throwable) null);
+		assertThat(callback.completions.get(0)).isInstanceOf(SpansNotSentException.class)
+				.hasCauseInstanceOf(RejectedExecutionException.class);
+		assertThat(((SpansNotSentException) callback.completions.get(0)).getEncodedSpans()).hasSize(1);
+	}
+
+	@Test
+	void should_report_spans_of_failed_request_as_dropped_when_executed() throws Exception {
+		RecordingMetrics metrics = new RecordingMetrics();
+		this.sender = asyncSender(2, metrics, null);
+		this.server.enqueue(new MockResponse().setResponseCode(500));
+
+		send(SPAN, SPAN).execute();
+
+		Awaitility.await().untilAsserted(() -> assertThat(metrics.droppedSpans.get()).isEqualTo(2));
+		assertThat(metrics.errors).hasSize(1);
+		assertThat(metrics.errors.get(0)).isInstanceOf(WebClientResponseException.class);
+	}
+
+	private WebClientSender asyncSender(int maxInFlightRequests, HttpSenderMetrics metrics,
+			AdaptiveMessageSizer messageSizer) {
+		return new WebClientSender(null, WebClient.builder().clientConnector(new ReactorClientHttpConnector()).build(),
+				this.endpoint, null, JSON_V2, DEFAULT_CHECK_TIMEOUT, 5 * 1024 * 1024, messageSizer, maxInFlightRequests,
+				10L, metrics);
+	}
+
+	static class RecordingCallback implements Callback<Void> {
+
+		final List<Throwable> completions = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void onSuccess(Void value) {
+			this.completions.add(null);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			this.completions.add(t);
+		}
+
+	}
+
+	static class RecordingMetrics implements HttpSenderMetrics {
+
+		final AtomicInteger started = new AtomicInteger();
+
+		final AtomicInteger rejected = new AtomicInteger();
+
+		final AtomicInteger droppedSpans = new AtomicInteger();
+
+		final List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void requestStarted() {
+			this.started.incrementAndGet();
+		}
+
+		@Override
+		public void requestFinished(long durationNanos, Throwable error) {
+			this.errors.add(error);
+		}
+
+		@Override
+		public void requestRejected() {
+			this.rejected.incrementAndGet();
+		}
+
+		@Override
+		public void spansDropped(int spans, Throwable error) {
+			this.droppedSpans.addAndGet(spans);
+		}
+
+	}
+
 }
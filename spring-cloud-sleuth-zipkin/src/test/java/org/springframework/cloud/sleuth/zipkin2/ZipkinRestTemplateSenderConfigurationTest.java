@@ -19,16 +19,22 @@ package org.springframework.cloud.sleuth.zipkin2;
 import java.net.URI;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -97,6 +103,76 @@ public class ZipkinRestTemplateSenderConfigurationTest {
 		assertThat(uri.toString()).isEqualTo(URI.create(zipkinProperties.getBaseUrl()).toString());
 	}
 
+	@Test
+	public void shouldSkipFailedLoadBalancedInstances() {
+		ServiceInstance first = new DefaultServiceInstance("1", "zipkin", "first", 9411, false);
+		ServiceInstance second = new DefaultServiceInstance("2", "zipkin", "second", 9411, false);
+		LoadBalancerClient client = BDDMockito.mock(LoadBalancerClient.class);
+		BDDMockito.given(client.choose("zipkin")).willReturn(first, second, first, second);
+		ZipkinProperties zipkinProperties = new ZipkinProperties();
+		zipkinProperties.setBaseUrl("http://zipkin/");
+		LoadBalancerClientZipkinLoadBalancer loadBalancer = new LoadBalancerClientZipkinLoadBalancer(client,
+				zipkinProperties);
+
+		URI firstUri = loadBalancer.instance();
+		loadBalancer.failed(firstUri);
+
+		assertThat(firstUri).isEqualTo(URI.create("http://first:9411"));
+		assertThat(loadBalancer.instance()).isEqualTo(URI.create("http://second:9411"));
+		assertThat(loadBalancer.instance()).isEqualTo(URI.create("http://second:9411"));
+	}
+
+	@Test
+	public void shouldPickFailedLoadBalancedInstanceWhenAllFailed() {
+		ServiceInstance instance = new DefaultServiceInstance("1", "zipkin", "first", 9411, false);
+		LoadBalancerClient client = BDDMockito.mock(LoadBalancerClient.class);
+		BDDMockito.given(client.choose("zipkin")).willReturn(instance);
+		ZipkinProperties zipkinProperties = new ZipkinProperties();
+		zipkinProperties.setBaseUrl("http://zipkin/");
+		LoadBalancerClientZipkinLoadBalancer loadBalancer = new LoadBalancerClientZipkinLoadBalancer(client,
+				zipkinProperties);
+
+		loadBalancer.failed(loadBalancer.instance());
+
+		assertThat(loadBalancer.instance()).isEqualTo(URI.create("http://first:9411"));
+	}
+
+	@Test
+	public void shouldNotReuseUriOfInstanceThatMoved() {
+		ServiceInstance instance = new DefaultServiceInstance("1", "zipkin", "first", 9411, false);
+		ServiceInstance moved = new DefaultServiceInstance("1", "zipkin", "second", 9411, false);
+		LoadBalancerClient client = BDDMockito.mock(LoadBalancerClient.class);
+		BDDMockito.given(client.choose("zipkin")).willReturn(instance, moved);
+		ZipkinProperties zipkinProperties = new ZipkinProperties();
+		zipkinProperties.setBaseUrl("http://zipkin/");
+		LoadBalancerClientZipkinLoadBalancer loadBalancer = new LoadBalancerClientZipkinLoadBalancer(client,
+				zipkinProperties);
+
+		assertThat(loadBalancer.instance()).isEqualTo(URI.create("http://first:9411"));
+		assertThat(loadBalancer.instance()).isEqualTo(URI.create("http://second:9411"));
+	}
+
+	@Test
+	public void shouldReuseConnectionsWithPooledTransport() throws Exception {
+		try (MockWebServer server = new MockWebServer()) {
+			server.enqueue(new MockResponse());
+			server.enqueue(new MockResponse());
+			server.start();
+			ZipkinProperties zipkinProperties = new ZipkinProperties();
+			zipkinProperties.setBaseUrl(server.url("/").toString());
+			zipkinProperties.getTransport().setType(ZipkinProperties.Transport.Type.POOLED);
+			ZipkinRestTemplateWrapper wrapper = new ZipkinRestTemplateWrapper(zipkinProperties,
+					new CachingZipkinUrlExtractor(new StaticInstanceZipkinLoadBalancer(zipkinProperties)));
+
+			wrapper.postForEntity(server.url("/api/v2/spans").uri(), "[]", String.class);
+			wrapper.postForEntity(server.url("/api/v2/spans").uri(), "[]", String.class);
+
+			assertThat(wrapper.getRequestFactory()).isInstanceOf(OkHttp3ClientHttpRequestFactory.class);
+			assertThat(server.takeRequest().getSequenceNumber()).isEqualTo(0);
+			assertThat(server.takeRequest().getSequenceNumber()).isEqualTo(1);
+		}
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnClass(LoadBalancerClient.class)
 	static class MyDiscoveryClientZipkinUrlExtractorConfiguration {
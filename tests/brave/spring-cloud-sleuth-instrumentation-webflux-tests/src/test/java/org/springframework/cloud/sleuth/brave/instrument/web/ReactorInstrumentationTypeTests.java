@@ -0,0 +1,166 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.brave.instrument.web;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import brave.Span;
+import brave.Tracer;
+import brave.handler.SpanHandler;
+import brave.sampler.Sampler;
+import brave.test.TestSpanHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.MDC;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.sleuth.autoconfig.instrument.reactor.TraceReactorAutoConfigurationAccessorConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * Checks that the tracing context is available in user lambdas after the usual
+ * asynchronous boundaries, for each Reactor instrumentation type that promises it.
+ */
+public class ReactorInstrumentationTypeTests {
+
+	ConfigurableApplicationContext context;
+
+	@AfterEach
+	void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+		TraceReactorAutoConfigurationAccessorConfiguration.close();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "DECORATE_BOUNDARIES", "DECORATE_ON_EACH" })
+	public void should_keep_the_trace_context_in_lambdas_after_asynchronous_boundaries(String instrumentationType) {
+		this.context = new SpringApplicationBuilder(Config.class).web(WebApplicationType.REACTIVE)
+				.properties("server.port=0", "spring.jmx.enabled=false",
+						"spring.sleuth.reactor.instrumentation-type=" + instrumentationType,
+						"spring.application.name=ReactorInstrumentationTypeTests")
+				.run();
+		int port = this.context.getBean(Environment.class).getProperty("local.server.port", Integer.class);
+		TestSpanHandler spans = this.context.getBean(TestSpanHandler.class);
+		BoundariesController controller = this.context.getBean(BoundariesController.class);
+
+		for (int i = 0; i < 3; i++) {
+			spans.clear();
+			controller.observations.clear();
+
+			String traceId = WebClient.create().get().uri("http://localhost:" + port + "/boundaries").retrieve()
+					.bodyToMono(String.class).block(Duration.ofSeconds(10));
+
+			then(traceId).isNotEmpty();
+			then(controller.observations).extracting(observation -> observation.step).contains("publishOn", "delay",
+					"subscribeOn", "flux", "create", "last");
+			then(controller.observations).allSatisfy(observation -> {
+				then(observation.traceId).as("trace id in " + observation.step).isEqualTo(traceId);
+				then(observation.mdcTraceId).as("MDC trace id in " + observation.step).isEqualTo(traceId);
+			});
+		}
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	static class Config {
+
+		@Bean
+		Sampler sampler() {
+			return Sampler.ALWAYS_SAMPLE;
+		}
+
+		@Bean
+		SpanHandler testSpanHandler() {
+			return new TestSpanHandler();
+		}
+
+		@Bean
+		BoundariesController boundariesController(Tracer tracer) {
+			return new BoundariesController(tracer);
+		}
+
+	}
+
+	@RestController
+	static class BoundariesController {
+
+		final List<Observation> observations = Collections.synchronizedList(new ArrayList<>());
+
+		private final Tracer tracer;
+
+		BoundariesController(Tracer tracer) {
+			this.tracer = tracer;
+		}
+
+		@GetMapping("/boundaries")
+		public Mono<String> boundaries() {
+			String traceId = this.tracer.currentSpan().context().traceIdString();
+			return Mono.just("start").publishOn(Schedulers.boundedElastic()).map(s -> observe("publishOn"))
+					.flatMap(s -> Mono.delay(Duration.ofMillis(5)).map(l -> observe("delay")))
+					.flatMap(s -> Mono.fromCallable(() -> observe("subscribeOn")).subscribeOn(Schedulers.parallel()))
+					.flatMap(s -> Flux.range(0, 5).publishOn(Schedulers.parallel()).map(i -> observe("flux"))
+							.then(Mono.just(s)))
+					.flatMap(s -> Mono.<String>create(sink -> new Thread(() -> sink.success(s)).start())
+							.map(created -> observe("create")))
+					.doOnNext(s -> observe("last")).map(s -> traceId);
+		}
+
+		private String observe(String step) {
+			Span span = this.tracer.currentSpan();
+			this.observations.add(
+					new Observation(step, span != null ? span.context().traceIdString() : null, MDC.get("traceId")));
+			return step;
+		}
+
+	}
+
+	static class Observation {
+
+		final String step;
+
+		final String traceId;
+
+		final String mdcTraceId;
+
+		Observation(String step, String traceId, String mdcTraceId) {
+			this.step = step;
+			this.traceId = traceId;
+			this.mdcTraceId = mdcTraceId;
+		}
+
+	}
+
+}
@@ -16,7 +16,10 @@
 
 package org.springframework.cloud.sleuth.autoconfig.actuate;
 
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,12 +36,14 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.context.WebApplicationContext;
 
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.awaitility.Awaitility.await;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -84,6 +89,30 @@ public abstract class TraceSleuthActuatorAutoConfigurationIntegrationTests {
 		traces(MediaType.APPLICATION_JSON, zipkinJsonBody());
 	}
 
+	@Test
+	void tracesZipkinSnapshotWithLimit() throws Exception {
+		await().untilAsserted(() -> then(bufferedSpans()).isNotEmpty());
+
+		this.mockMvc.perform(get("/actuator/traces").param("limit", "1").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andExpect(content().string(allOf(containsString("\"name\":\"third\""),
+						not(containsString("\"name\":\"second\"")), not(containsString("\"name\":\"first\"")))));
+	}
+
+	@Test
+	void tracesZipkinGzipped() throws Exception {
+		await().untilAsserted(() -> then(bufferedSpans()).isNotEmpty());
+
+		byte[] body = this.mockMvc
+				.perform(get("/actuator/traces").param("gzip", "true").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andExpect(content().contentType("application/gzip")).andReturn()
+				.getResponse().getContentAsByteArray();
+
+		try (GZIPInputStream stream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			then(StreamUtils.copyToString(stream, StandardCharsets.UTF_8)).contains("\"name\":\"first\"",
+					"\"name\":\"second\"", "\"name\":\"third\"");
+		}
+	}
+
 	protected void tracesSnapshot(MediaType contentType, ResultMatcher resultMatcher) throws Exception {
 		await().untilAsserted(() -> then(bufferedSpans()).isNotEmpty());
 
@@ -107,8 +136,8 @@ public abstract class TraceSleuthActuatorAutoConfigurationIntegrationTests {
 				containsString("\"name\":\"third\"")));
 	}
 
-	protected ConcurrentLinkedQueue<FinishedSpan> bufferedSpans() {
-		return this.bufferingSpanReporter.spans;
+	protected List<FinishedSpan> bufferedSpans() {
+		return this.bufferingSpanReporter.getFinishedSpans();
 	}
 
 	@Configuration(proxyBeanMethods = false)
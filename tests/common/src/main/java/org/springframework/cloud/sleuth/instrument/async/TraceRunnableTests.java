@@ -105,6 +105,39 @@ public abstract class TraceRunnableTests implements TestTracingAwareSupplier {
 				.isEqualTo("some-runnable-name-from-to-string");
 	}
 
+	@Test
+	public void should_continue_the_parent_span_without_creating_a_span_in_context_mode() throws Exception {
+		Tracer tracer = tracerTest().tracing().tracer();
+		TraceKeepingRunnable traceKeepingRunnable = runnableThatRetrievesTraceFromThreadLocal();
+		Span parent = tracer.nextSpan().name("parent").start();
+
+		try (Tracer.SpanInScope ws = tracer.withSpan(parent)) {
+			whenRunnableGetsSubmitted(traceKeepingRunnable, ExecutorTracingMode.CONTEXT);
+		}
+
+		BDDAssertions.then(traceKeepingRunnable.span.context().spanId()).isEqualTo(parent.context().spanId());
+		BDDAssertions.then(tracerTest().handler().reportedSpans()).isEmpty();
+	}
+
+	@Test
+	public void should_create_span_only_for_sampled_parents_in_sampled_span_mode() throws Exception {
+		Tracer tracer = tracerTest().tracing().tracer();
+		TraceKeepingRunnable traceKeepingRunnable = runnableThatRetrievesTraceFromThreadLocal();
+
+		whenRunnableGetsSubmitted(traceKeepingRunnable, ExecutorTracingMode.SAMPLED_SPAN);
+
+		BDDAssertions.then(traceKeepingRunnable.span).isNull();
+		BDDAssertions.then(tracerTest().handler().reportedSpans()).isEmpty();
+
+		Span parent = tracer.nextSpan().name("parent").start();
+		try (Tracer.SpanInScope ws = tracer.withSpan(parent)) {
+			whenRunnableGetsSubmitted(traceKeepingRunnable, ExecutorTracingMode.SAMPLED_SPAN);
+		}
+
+		BDDAssertions.then(traceKeepingRunnable.span.context().parentId()).isEqualTo(parent.context().spanId());
+		BDDAssertions.then(tracerTest().handler().reportedSpans()).hasSize(1);
+	}
+
 	private TraceKeepingRunnable runnableThatRetrievesTraceFromThreadLocal() {
 		return new TraceKeepingRunnable(tracerTest().tracing().tracer());
 	}
@@ -118,6 +151,12 @@ public abstract class TraceRunnableTests implements TestTracingAwareSupplier {
 				.get();
 	}
 
+	private void whenRunnableGetsSubmitted(Runnable runnable, ExecutorTracingMode tracingMode) throws Exception {
+		this.executor.submit(
+				new TraceRunnable(tracerTest().tracing().tracer(), new DefaultSpanNamer(), runnable, null, tracingMode))
+				.get();
+	}
+
 	private void whenNonTraceableRunnableGetsSubmitted(Runnable runnable) throws Exception {
 		this.executor.submit(runnable).get();
 	}
@@ -33,6 +33,7 @@ import org.junit.jupiter.api.Test;
 
 import org.springframework.boot.test.context.assertj.AssertableApplicationContext;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.exporter.FinishedSpan;
 import org.springframework.cloud.sleuth.test.TestSpanHandler;
@@ -721,6 +722,33 @@ abstract class TraceListenerStrategyTests {
 		});
 	}
 
+	@Test
+	void testShouldReuseParsedUrlForConnectionsOfTheSameDataSource() {
+		parentContextRunner().withUserConfiguration(MultiDataSourceConfiguration.class).run(context -> {
+			DataSource dataSource1 = context.getBean("test1", DataSource.class);
+			DataSource dataSource2 = context.getBean("test2", DataSource.class);
+			TestSpanHandler spanReporter = context.getBean(TestSpanHandler.class);
+			Object listener = isP6Spy(context) ? context.getBean(TraceJdbcEventListener.class)
+					: context.getBean(TraceQueryExecutionListener.class);
+
+			for (int i = 0; i < 3; i++) {
+				dataSource1.getConnection().close();
+				dataSource2.getConnection().close();
+			}
+
+			assertThat(spanReporter.reportedSpans()).hasSize(6);
+			assertThat(spanReporter.reportedSpans()).extracting("remoteServiceName").containsOnly("TESTDB-1-FOO",
+					"TESTDB-2-BAR");
+			assertThat(listener).extracting("strategy").extracting("remoteEndpoints").isInstanceOfSatisfying(Map.class,
+					map -> assertThat(map).hasSize(2));
+
+			context.publishEvent(new RefreshScopeRefreshedEvent());
+
+			assertThat(listener).extracting("strategy").extracting("remoteEndpoints").isInstanceOfSatisfying(Map.class,
+					map -> assertThat(map).isEmpty());
+		});
+	}
+
 	private static class MultiDataSourceConfiguration {
 
 		@Bean
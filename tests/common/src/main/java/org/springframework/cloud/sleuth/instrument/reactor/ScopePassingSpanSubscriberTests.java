@@ -16,7 +16,13 @@
 
 package org.springframework.cloud.sleuth.instrument.reactor;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import org.assertj.core.presentation.StandardRepresentation;
@@ -234,4 +240,108 @@ public abstract class ScopePassingSpanSubscriberTests {
 		}
 	}
 
+	@Test
+	public void should_not_open_scope_when_parent_is_already_current() {
+		CountingCurrentTraceContext counting = new CountingCurrentTraceContext(currentTraceContext());
+		List<TraceContext> contexts = new ArrayList<>();
+		CoreSubscriber<Object> subscriber = new ScopePassingSpanSubscriber<>(new BaseSubscriber<Object>() {
+			@Override
+			protected void hookOnNext(Object value) {
+				contexts.add(currentTraceContext().context());
+			}
+		}, Context.empty(), counting, context(), true);
+
+		try (CurrentTraceContext.Scope ws = currentTraceContext().newScope(context())) {
+			subscriber.onNext("in scope");
+		}
+		then(counting.scopes).hasValue(0);
+
+		try (CurrentTraceContext.Scope ws = currentTraceContext().newScope(context2())) {
+			subscriber.onNext("out of scope");
+		}
+		then(counting.scopes).hasValue(1);
+		then(contexts).containsExactly(context(), context());
+	}
+
+	@Test
+	public void should_open_scope_for_each_signal_when_scope_elision_is_disabled() {
+		CountingCurrentTraceContext counting = new CountingCurrentTraceContext(currentTraceContext());
+		CoreSubscriber<Object> subscriber = new ScopePassingSpanSubscriber<>(new BaseSubscriber<Object>() {
+		}, Context.empty(), counting, context(), false);
+
+		try (CurrentTraceContext.Scope ws = currentTraceContext().newScope(context())) {
+			subscriber.onNext("in scope");
+		}
+
+		then(counting.scopes).hasValue(1);
+	}
+
+	@Test
+	public void should_merge_adjacent_scope_passing_operators_when_scope_elision_is_enabled() {
+		springContext.registerBean(CurrentTraceContext.class, this::currentTraceContext);
+		springContext.refresh();
+
+		Function<? super Publisher<Integer>, ? extends Publisher<Integer>> transformer = scopePassingSpanOperator(
+				this.springContext, true);
+
+		Publisher<Integer> decorated = transformer.apply(Mono.just(1).hide());
+
+		then(ReactorHooksHelper.isTraceContextPropagator(decorated)).isTrue();
+		then((Object) transformer.apply(decorated)).isSameAs(decorated);
+	}
+
+	static class CountingCurrentTraceContext implements CurrentTraceContext {
+
+		final CurrentTraceContext delegate;
+
+		final AtomicInteger scopes = new AtomicInteger();
+
+		CountingCurrentTraceContext(CurrentTraceContext delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public TraceContext context() {
+			return this.delegate.context();
+		}
+
+		@Override
+		public boolean isCurrent(TraceContext context) {
+			return this.delegate.isCurrent(context);
+		}
+
+		@Override
+		public Scope newScope(TraceContext context) {
+			this.scopes.incrementAndGet();
+			return this.delegate.newScope(context);
+		}
+
+		@Override
+		public Scope maybeScope(TraceContext context) {
+			this.scopes.incrementAndGet();
+			return this.delegate.maybeScope(context);
+		}
+
+		@Override
+		public <C> Callable<C> wrap(Callable<C> task) {
+			return this.delegate.wrap(task);
+		}
+
+		@Override
+		public Runnable wrap(Runnable task) {
+			return this.delegate.wrap(task);
+		}
+
+		@Override
+		public Executor wrap(Executor delegate) {
+			return this.delegate.wrap(delegate);
+		}
+
+		@Override
+		public ExecutorService wrap(ExecutorService delegate) {
+			return this.delegate.wrap(delegate);
+		}
+
+	}
+
 }